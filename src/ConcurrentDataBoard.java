@@ -0,0 +1,320 @@
+import exceptions.UnauthorizedAccessException;
+import exceptions.UserNotFoundException;
+import interfaces.Data;
+import interfaces.DataBoard;
+import interfaces.OwnerSession;
+import interfaces.ReadOnlyData;
+import interfaces.User;
+import models.Cursor;
+import models.LikeEvent;
+import models.Page;
+import storage.SnapshotImage;
+import storage.SnapshotReader;
+import storage.Snapshottable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+public class ConcurrentDataBoard<E extends Data> implements DataBoard<E>, Snapshottable<E> {
+    /*
+     * OVERVIEW: una ConcurrentDataBoard è una bacheca che può essere condivisa
+     * fra più thread, costruita su un'altra bacheca: le letture vengono eseguite
+     * in parallelo mentre le modifiche sono serializzate da uno StampedLock.
+     * La bacheca sottostante non è thread-safe, quindi ogni lettura prende il
+     * lock in lettura: una lettura ottimistica la scorrerebbe durante una
+     * modifica, senza garanzia che termini né che non veda uno stato
+     * incoerente. I dati restituiti sono copie, mentre le viste restano sui
+     * dati della bacheca, come richiesto da getView, e mostrano anche le
+     * modifiche successive: possono essere lette senza lock perché un dato
+     * in bacheca cambia solo nei like, pubblicati in un campo volatile
+     */
+
+    // la bacheca a cui vengono delegate le operazioni,
+    // accessibile solo attraverso this
+    private final DataBoard<E> dataBoard;
+
+    private final StampedLock lock;
+
+    /*
+     * AF: α(c) = α(c.dataBoard)
+     *
+     * IR: I(c) = c.dataBoard != null && c.lock != null
+     *              e c.dataBoard viene letta solo con c.lock in lettura
+     *                  e modificata solo con c.lock in scrittura
+     */
+
+    /*
+     * Un'operazione sulla bacheca che può
+     * sollevare un'eccezione di tipo X
+     */
+    private interface Operation<T, X extends Exception> {
+        T run() throws X;
+    }
+
+    /*
+     * inizializza this
+     */
+    public ConcurrentDataBoard(DataBoard<E> dataBoard) {
+        // validazione
+        if (dataBoard == null) {
+            throw new NullPointerException();
+        }
+
+        this.dataBoard = dataBoard;
+        this.lock = new StampedLock();
+    }
+    /*
+     * REQUIRES: dataBoard != null e dataBoard non viene più usata se non attraverso this
+     * EFFECTS: inizializza this con i dati di dataBoard
+     * THROWS: se dataBoard == null solleva una NullPointerException
+     */
+
+    @Override
+    public OwnerSession openSession(String passw) throws UnauthorizedAccessException {
+        // le sessioni non fanno parte dello stato della bacheca
+        return this.dataBoard.openSession(passw);
+    }
+
+    @Override
+    public void closeSession(OwnerSession session) throws UnauthorizedAccessException {
+        this.dataBoard.closeSession(session);
+    }
+
+    @Override
+    public void createCategory(String category, OwnerSession session) throws UnauthorizedAccessException {
+        this.write(() -> {
+            this.dataBoard.createCategory(category, session);
+
+            return null;
+        });
+    }
+
+    @Override
+    public void removeCategory(String category, OwnerSession session) throws UnauthorizedAccessException {
+        this.write(() -> {
+            this.dataBoard.removeCategory(category, session);
+
+            return null;
+        });
+    }
+
+    @Override
+    public void addFriend(String category, OwnerSession session, String friend) throws UnauthorizedAccessException {
+        this.write(() -> {
+            this.dataBoard.addFriend(category, session, friend);
+
+            return null;
+        });
+    }
+
+    @Override
+    public void addFriends(String category, OwnerSession session, Collection<String> friends)
+            throws UnauthorizedAccessException {
+        this.write(() -> {
+            this.dataBoard.addFriends(category, session, friends);
+
+            return null;
+        });
+    }
+
+    @Override
+    public void removeFriend(String category, OwnerSession session, String friend) throws UnauthorizedAccessException,
+            UserNotFoundException {
+        // removeFriend solleva due eccezioni controllate,
+        // quindi il lock viene preso direttamente
+        long stamp = this.lock.writeLock();
+
+        try {
+            this.dataBoard.removeFriend(category, session, friend);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean put(OwnerSession session, E data, String category) throws UnauthorizedAccessException {
+        return this.write(() -> this.dataBoard.put(session, data, category));
+    }
+
+    @Override
+    public int putAll(OwnerSession session, Map<String, ? extends Collection<E>> data)
+            throws UnauthorizedAccessException {
+        // un solo lock in scrittura per tutto il lotto
+        return this.write(() -> this.dataBoard.putAll(session, data));
+    }
+
+    @Override
+    public E get(OwnerSession session, E data) throws UnauthorizedAccessException {
+        return this.read(() -> this.dataBoard.get(session, data));
+    }
+
+    @Override
+    public E remove(OwnerSession session, E data) throws UnauthorizedAccessException {
+        return this.write(() -> this.dataBoard.remove(session, data));
+    }
+
+    @Override
+    public List<E> getDataCategory(OwnerSession session, String category) throws UnauthorizedAccessException {
+        return this.read(() -> this.dataBoard.getDataCategory(session, category));
+    }
+
+    @Override
+    public Page<E> getDataCategoryPage(OwnerSession session, String category, Cursor<E> cursor, int limit)
+            throws UnauthorizedAccessException {
+        return this.read(() -> this.dataBoard.getDataCategoryPage(session, category, cursor, limit));
+    }
+
+    @Override
+    public ReadOnlyData getView(OwnerSession session, E data) throws UnauthorizedAccessException {
+        // la vista è sul dato della bacheca e viene letta senza lock:
+        // id e corpo sono immutabili, la categoria è assegnata prima che
+        // il dato sia pubblicato e i like sono un insieme persistente in
+        // un campo volatile, quindi ogni lettura vede uno stato coerente
+        return this.read(() -> this.dataBoard.getView(session, data));
+    }
+
+    @Override
+    public List<ReadOnlyData> getDataCategoryView(OwnerSession session, String category)
+            throws UnauthorizedAccessException {
+        // come getView, le viste sono sui dati della bacheca
+        return this.read(() -> this.dataBoard.getDataCategoryView(session, category));
+    }
+
+    @Override
+    public void insertLike(String friend, E data) throws UnauthorizedAccessException {
+        this.write(() -> {
+            this.dataBoard.insertLike(friend, data);
+
+            return null;
+        });
+    }
+
+    @Override
+    public void insertLikes(Collection<LikeEvent<E>> likes) throws UnauthorizedAccessException {
+        this.write(() -> {
+            this.dataBoard.insertLikes(likes);
+
+            return null;
+        });
+    }
+
+    @Override
+    public Iterator<E> getIterator(OwnerSession session) throws UnauthorizedAccessException {
+        // gli iteratori della bacheca leggono lo stato corrente,
+        // quindi vengono consumati prima di rilasciare il lock
+        return this.read(() -> snapshot(this.dataBoard.getIterator(session)));
+    }
+
+    @Override
+    public Iterator<E> getFriendIterator(String friend) throws UserNotFoundException {
+        return this.read(() -> snapshot(this.dataBoard.getFriendIterator(friend)));
+    }
+
+    @Override
+    public Page<E> getFriendPage(String friend, Cursor<E> cursor, int limit) throws UserNotFoundException {
+        // la pagina contiene già delle copie
+        return this.read(() -> this.dataBoard.getFriendPage(friend, cursor, limit));
+    }
+
+    @Override
+    public List<E> getTopLiked(OwnerSession session, int k) throws UnauthorizedAccessException {
+        return this.read(() -> this.dataBoard.getTopLiked(session, k));
+    }
+
+    @Override
+    public List<E> getFriendTopLiked(String friend, int k) throws UserNotFoundException {
+        return this.read(() -> this.dataBoard.getFriendTopLiked(friend, k));
+    }
+
+    @Override
+    public boolean hasCategory(String category) {
+        return this.read(() -> this.dataBoard.hasCategory(category));
+    }
+
+    @Override
+    public boolean isReadableBy(String category, User user) {
+        return this.read(() -> this.dataBoard.isReadableBy(category, user));
+    }
+
+    @Override
+    public boolean hasData(E data) {
+        return this.read(() -> this.dataBoard.hasData(data));
+    }
+
+    @Override
+    public List<User> getLikes(E data) {
+        return this.read(() -> this.dataBoard.getLikes(data));
+    }
+
+    @Override
+    public SnapshotImage<E> captureSnapshot() {
+        // catturare l'immagine è una lettura, la copia dei dati
+        // modificati in seguito avviene con il lock in scrittura
+        return this.read(() -> this.snapshottable().captureSnapshot());
+    }
+
+    @Override
+    public void loadSnapshot(SnapshotReader<E> reader) throws IOException {
+        this.write(() -> {
+            this.snapshottable().loadSnapshot(reader);
+
+            return null;
+        });
+    }
+
+    // restituisce la bacheca a cui viene delegata la snapshot
+    @SuppressWarnings("unchecked")
+    private Snapshottable<E> snapshottable() {
+        if (!(this.dataBoard instanceof Snapshottable)) {
+            throw new UnsupportedOperationException();
+        }
+
+        return (Snapshottable<E>) this.dataBoard;
+    }
+
+    /*
+     * Esegue operation con il lock in scrittura
+     */
+    private <T, X extends Exception> T write(Operation<T, X> operation) throws X {
+        long stamp = this.lock.writeLock();
+
+        try {
+            return operation.run();
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /*
+     * Esegue operation con il lock in lettura
+     */
+    private <T, X extends Exception> T read(Operation<T, X> operation) throws X {
+        long stamp = this.lock.readLock();
+
+        try {
+            return operation.run();
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+    /*
+     * REQUIRES: operation non modifica la bacheca
+     * RETURNS: restituisce il risultato di operation, eseguita
+     *          senza scritture concorrenti
+     */
+
+    // consuma iterator e restituisce un iteratore
+    // non modificabile sugli elementi letti
+    private static <T> Iterator<T> snapshot(Iterator<T> iterator) {
+        List<T> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+
+        return Collections.unmodifiableList(list).iterator();
+    }
+}
@@ -0,0 +1,731 @@
+import codec.DataCodec;
+import codec.Dictionary;
+import codec.UserTable;
+import exceptions.FriendAlreadyAddedException;
+import exceptions.UnauthorizedAccessException;
+import indexes.IntMap;
+import interfaces.Data;
+import interfaces.DataBoard;
+import interfaces.OwnerSession;
+import interfaces.User;
+import models.BodyArena;
+import models.BodyStore;
+import models.Cursor;
+import models.MyData;
+import models.MyUser;
+import models.UserRegistry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+public class DataBoardBenchmark {
+    private static final String PASSWORD = "1234";
+
+    // numero di ripetizioni di ogni misura
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) throws UnauthorizedAccessException, InterruptedException, IOException {
+        String benchmark = args.length > 0 ? args[0] : "category";
+
+        switch (benchmark) {
+            case "category":
+                categoryBenchmark();
+                break;
+            case "memory":
+                memoryBenchmark();
+                break;
+            case "throughput":
+                throughputBenchmark();
+                break;
+            case "contention":
+                contentionBenchmark();
+                break;
+            case "durable":
+                durableBenchmark();
+                break;
+            case "codec":
+                codecBenchmark();
+                break;
+            case "offheap":
+                offHeapBenchmark();
+                break;
+            case "dedup":
+                dedupBenchmark();
+                break;
+            case "pages":
+                pagesBenchmark();
+                break;
+            default:
+                System.out.println("Unknown benchmark \"" + benchmark + "\".");
+        }
+    }
+
+    // misura getDataCategory e removeCategory su una categoria
+    // di dimensione fissa al crescere della dimensione della bacheca
+    private static void categoryBenchmark() throws UnauthorizedAccessException {
+        int categorySize = 100;
+
+        System.out.println("board size | getDataCategory (us) | removeCategory (us)");
+
+        for (int boardSize : new int[] {10_000, 100_000, 400_000}) {
+            User owner = new MyUser("Jon Doe", PASSWORD);
+            DataBoard<Data> dataBoard = new MyDataBoardTreeSet<>(owner);
+
+            // riempi la bacheca con una categoria grande
+            dataBoard.createCategory("large", PASSWORD);
+
+            for (int i = 0; i < boardSize; i++) {
+                dataBoard.put(PASSWORD, new MyData(i, "body " + i), "large");
+            }
+
+            long getTime = 0;
+            long removeTime = 0;
+
+            for (int round = 0; round < ROUNDS; round++) {
+                // crea e riempi la categoria piccola
+                dataBoard.createCategory("small", PASSWORD);
+
+                for (int i = 0; i < categorySize; i++) {
+                    int id = boardSize + i;
+
+                    dataBoard.put(PASSWORD, new MyData(id, "body " + id), "small");
+                }
+
+                long start = System.nanoTime();
+                dataBoard.getDataCategory(PASSWORD, "small");
+                getTime += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                dataBoard.removeCategory("small", PASSWORD);
+                removeTime += System.nanoTime() - start;
+            }
+
+            System.out.printf("%10d | %20d | %19d%n",
+                    boardSize, getTime / ROUNDS / 1000, removeTime / ROUNDS / 1000);
+        }
+    }
+
+    // confronta getDataCategory con la lettura di una pagina di 50 dati
+    // all'inizio ed a metà di una categoria, al crescere della categoria
+    private static void pagesBenchmark() throws UnauthorizedAccessException {
+        int limit = 50;
+        int pageRounds = 2_000;
+
+        System.out.println("board    | category size | getDataCategory (us) | first page (us) | middle page (us)");
+
+        for (int categorySize : new int[] {10_000, 100_000, 1_000_000}) {
+            List<DataBoard<Data>> dataBoards = List.of(
+                    new MyDataBoardTreeSet<>(new MyUser("Jon Doe", PASSWORD)),
+                    new MyDataBoardSkipList<>(new MyUser("Jon Doe", PASSWORD)),
+                    new MyDataBoardStriped<>(new MyUser("Jon Doe", PASSWORD)));
+
+            for (DataBoard<Data> dataBoard : dataBoards) {
+                dataBoard.createCategory("large", PASSWORD);
+
+                try (OwnerSession session = dataBoard.openSession(PASSWORD)) {
+                    for (int i = 0; i < categorySize; i++) {
+                        dataBoard.put(session, new MyData(i, "body " + i), "large");
+                    }
+
+                    // il cursore a metà della categoria
+                    Cursor<Data> middle = dataBoard.getDataCategoryPage(session, "large",
+                            Cursor.start(), categorySize / 2).getNext();
+
+                    long getTime = 0;
+                    long firstTime = 0;
+                    long middleTime = 0;
+
+                    for (int round = 0; round < ROUNDS; round++) {
+                        long start = System.nanoTime();
+                        dataBoard.getDataCategory(session, "large");
+                        getTime += System.nanoTime() - start;
+                    }
+
+                    // le pagine sono molto più veloci, misurale su più ripetizioni
+                    // e separate da getDataCategory, che ne sporcherebbe il tempo
+                    for (int round = 0; round < pageRounds; round++) {
+                        long start = System.nanoTime();
+                        dataBoard.getDataCategoryPage(session, "large", Cursor.start(), limit);
+                        firstTime += System.nanoTime() - start;
+
+                        start = System.nanoTime();
+                        dataBoard.getDataCategoryPage(session, "large", middle, limit);
+                        middleTime += System.nanoTime() - start;
+                    }
+
+                    System.out.printf("%-8s | %13d | %20d | %15.1f | %16.1f%n",
+                            dataBoard.getClass().getSimpleName().replace("MyDataBoard", ""), categorySize,
+                            getTime / ROUNDS / 1000, firstTime / (pageRounds * 1000.0),
+                            middleTime / (pageRounds * 1000.0));
+                }
+            }
+        }
+    }
+
+    // confronta la memoria occupata da un indice per id
+    // con HashMap<Integer, E> e con IntMap<E> a 1M di dati
+    private static void memoryBenchmark() {
+        int size = 1_000_000;
+
+        // i dati sono condivisi, si misura solo l'indice
+        Data[] dataArray = new Data[size];
+
+        for (int i = 0; i < size; i++) {
+            dataArray[i] = new MyData(i, "body");
+        }
+
+        long before = usedMemory();
+        HashMap<Integer, Data> hashMap = new HashMap<>();
+
+        for (Data item : dataArray) {
+            hashMap.put(item.getId(), item);
+        }
+
+        long hashMapBytes = usedMemory() - before;
+
+        before = usedMemory();
+        IntMap<Data> intMap = new IntMap<>();
+
+        for (Data item : dataArray) {
+            intMap.put(item.id(), item);
+        }
+
+        long intMapBytes = usedMemory() - before;
+
+        System.out.println("index                  | total (MB) | bytes per entry");
+        System.out.printf("HashMap<Integer, Data> | %10d | %15d%n",
+                hashMapBytes >> 20, hashMapBytes / size);
+        System.out.printf("IntMap<Data>           | %10d | %15d%n",
+                intMapBytes >> 20, intMapBytes / size);
+
+        // mantieni raggiungibili le strutture fino alla fine delle misure
+        if (hashMap.size() != intMap.size()) {
+            throw new IllegalStateException();
+        }
+    }
+
+    // confronta le operazioni al secondo di una bacheca dietro un mutex
+    // globale e di una ConcurrentDataBoard al crescere dei thread,
+    // con il 90% di letture ed il 10% di like
+    private static void throughputBenchmark() throws UnauthorizedAccessException, InterruptedException {
+        System.out.println("threads | mutex (ops/ms) | ConcurrentDataBoard (ops/ms)");
+
+        for (int threads : new int[] {1, 2, 4, 8}) {
+            DataBoard<Data> mutexBoard = throughputBoard(new MyDataBoardTreeSet<>(new MyUser("Jon Doe", PASSWORD)));
+            DataBoard<Data> concurrentBoard = throughputBoard(
+                    new ConcurrentDataBoard<>(new MyDataBoardTreeSet<>(new MyUser("Jon Doe", PASSWORD))));
+
+            long mutexOps = throughput(mutexBoard, mutexBoard, threads);
+            long concurrentOps = throughput(concurrentBoard, null, threads);
+
+            System.out.printf("%7d | %14d | %28d%n", threads, mutexOps, concurrentOps);
+        }
+    }
+
+    // crea una categoria con 10000 dati e 100 friend
+    private static DataBoard<Data> throughputBoard(DataBoard<Data> dataBoard) throws UnauthorizedAccessException {
+        dataBoard.createCategory("shared", PASSWORD);
+
+        for (int i = 0; i < 100; i++) {
+            dataBoard.addFriend("shared", PASSWORD, "friend " + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            dataBoard.put(PASSWORD, new MyData(i, "body " + i), "shared");
+        }
+
+        return dataBoard;
+    }
+
+    // esegue le operazioni su dataBoard per un secondo con il numero di thread
+    // indicato, tenendo mutex durante ogni operazione se mutex != null
+    private static long throughput(DataBoard<Data> dataBoard, Object mutex, int threads)
+            throws UnauthorizedAccessException, InterruptedException {
+        // la password viene verificata una sola volta,
+        // le operazioni controllano solo la sessione
+        OwnerSession session = dataBoard.openSession(PASSWORD);
+        long millis = 1000;
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        LongAdder operations = new LongAdder();
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                while (System.nanoTime() < deadline) {
+                    int id = random.nextInt(10_000);
+                    Data item = new MyData(id, "body " + id);
+
+                    try {
+                        if (mutex == null) {
+                            operation(dataBoard, session, item, random);
+                        } else {
+                            synchronized (mutex) {
+                                operation(dataBoard, session, item, random);
+                            }
+                        }
+                    } catch (UnauthorizedAccessException e) {
+                        throw new IllegalStateException(e);
+                    }
+
+                    operations.increment();
+                }
+            });
+
+            workers.add(worker);
+            worker.start();
+        }
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        dataBoard.closeSession(session);
+
+        return operations.sum() / millis;
+    }
+
+    // una lettura nel 90% dei casi, un like altrimenti
+    private static void operation(DataBoard<Data> dataBoard, OwnerSession session, Data item,
+            ThreadLocalRandom random) throws UnauthorizedAccessException {
+        int choice = random.nextInt(100);
+
+        if (choice < 30) {
+            dataBoard.get(session, item);
+        } else if (choice < 60) {
+            dataBoard.hasData(item);
+        } else if (choice < 90) {
+            dataBoard.getLikes(item);
+        } else {
+            // il like può essere già presente
+            try {
+                dataBoard.insertLike("friend " + random.nextInt(100), item);
+            } catch (FriendAlreadyAddedException ignored) {
+            }
+        }
+    }
+
+    // misura i like al millisecondo con 64 thread che inseriscono
+    // like allo stesso dato, da friend tutti diversi
+    private static void contentionBenchmark() throws UnauthorizedAccessException, InterruptedException {
+        int threads = 64;
+        int likes = 2000;
+
+        System.out.println("board               | likes/ms");
+
+        List<DataBoard<Data>> dataBoards = new ArrayList<>();
+        dataBoards.add(new ConcurrentDataBoard<>(new MyDataBoardTreeSet<>(new MyUser("Jon Doe", PASSWORD))));
+        dataBoards.add(new MyDataBoardStriped<>(new MyUser("Jon Doe", PASSWORD)));
+
+        for (DataBoard<Data> dataBoard : dataBoards) {
+            Data viral = new MyData(0, "viral");
+
+            dataBoard.createCategory("shared", PASSWORD);
+            dataBoard.put(PASSWORD, viral, "shared");
+
+            for (int t = 0; t < threads; t++) {
+                for (int i = 0; i < likes; i++) {
+                    dataBoard.addFriend("shared", PASSWORD, "friend " + t + " " + i);
+                }
+            }
+
+            List<Thread> workers = new ArrayList<>();
+            long start = System.nanoTime();
+
+            for (int t = 0; t < threads; t++) {
+                int worker = t;
+
+                workers.add(new Thread(() -> {
+                    try {
+                        for (int i = 0; i < likes; i++) {
+                            dataBoard.insertLike("friend " + worker + " " + i, viral);
+                        }
+                    } catch (UnauthorizedAccessException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }));
+            }
+
+            for (Thread worker : workers) {
+                worker.start();
+            }
+
+            for (Thread worker : workers) {
+                worker.join();
+            }
+
+            long millis = Math.max((System.nanoTime() - start) / 1_000_000, 1);
+
+            // verifica che nessun like sia andato perso
+            if (dataBoard.getLikes(viral).size() != threads * likes) {
+                throw new IllegalStateException();
+            }
+
+            System.out.printf("%-19s | %8d%n", dataBoard.getClass().getSimpleName(), (long)threads * likes / millis);
+        }
+    }
+
+    // misura i put al millisecondo di una DurableDataBoard al crescere dei
+    // thread, con il numero medio di put resi persistenti da ogni fsync,
+    // poi il tempo di apertura della bacheca dal log e da una snapshot e
+    // la latenza dei put durante un checkpoint
+    private static void durableBenchmark() throws UnauthorizedAccessException, InterruptedException, IOException {
+        System.out.println("threads | put (ops/ms) | put per fsync");
+
+        for (int threads : new int[] {1, 4, 16, 64}) {
+            Path directory = Files.createTempDirectory("databoard");
+            DurableDataBoard<Data> dataBoard = durableBoard(directory);
+            OwnerSession session = dataBoard.openSession(PASSWORD);
+            AtomicInteger ids = new AtomicInteger();
+            long millis = 1000;
+            long deadline = System.nanoTime() + millis * 1_000_000;
+            List<Thread> workers = new ArrayList<>();
+
+            dataBoard.createCategory("shared", session);
+
+            long syncs = dataBoard.syncs();
+
+            for (int t = 0; t < threads; t++) {
+                Thread worker = new Thread(() -> {
+                    while (System.nanoTime() < deadline) {
+                        int id = ids.getAndIncrement();
+
+                        try {
+                            dataBoard.put(session, new MyData(id, "body " + id), "shared");
+                        } catch (UnauthorizedAccessException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                });
+
+                workers.add(worker);
+                worker.start();
+            }
+
+            for (Thread worker : workers) {
+                worker.join();
+            }
+
+            syncs = Math.max(dataBoard.syncs() - syncs, 1);
+
+            System.out.printf("%7d | %12d | %13d%n", threads, ids.get() / millis, ids.get() / syncs);
+
+            dataBoard.close();
+            delete(directory);
+        }
+
+        System.out.println();
+        System.out.println("posts     | open from log (ms) | open from snapshot (ms) | checkpoint (ms) | max put (ms)");
+
+        for (int posts : new int[] {100_000, 1_000_000}) {
+            Path directory = Files.createTempDirectory("databoard");
+            DurableDataBoard<Data> dataBoard = durableBoard(directory);
+
+            // riempi la bacheca a lotti, con un like per dato
+            dataBoard.createCategory("shared", PASSWORD);
+            dataBoard.addFriend("shared", PASSWORD, "friend");
+
+            for (int i = 0; i < posts; i += 10_000) {
+                List<Data> batch = new ArrayList<>();
+
+                for (int id = i; id < i + 10_000; id++) {
+                    Data item = new MyData(id, "body " + id);
+                    item.insertLike("friend");
+                    batch.add(item);
+                }
+
+                dataBoard.putAll(PASSWORD, Collections.singletonMap("shared", batch));
+            }
+
+            dataBoard.close();
+
+            // riapri la bacheca rileggendo il log
+            long start = System.nanoTime();
+            dataBoard = durableBoard(directory);
+            long logTime = (System.nanoTime() - start) / 1_000_000;
+
+            dataBoard.checkpoint();
+            dataBoard.close();
+
+            // riapri la bacheca caricando la snapshot
+            start = System.nanoTime();
+            dataBoard = durableBoard(directory);
+            long snapshotTime = (System.nanoTime() - start) / 1_000_000;
+
+            if (!dataBoard.hasData(new MyData(posts - 1, "body " + (posts - 1)))) {
+                throw new IllegalStateException();
+            }
+
+            // misura la durata di un checkpoint e la latenza massima
+            // dei put eseguiti da un altro thread nel frattempo
+            DurableDataBoard<Data> liveBoard = dataBoard;
+            AtomicBoolean running = new AtomicBoolean(true);
+            AtomicLong maxLatency = new AtomicLong();
+            Thread writer = new Thread(() -> {
+                for (int id = posts; running.get(); id++) {
+                    long begin = System.nanoTime();
+
+                    try {
+                        liveBoard.put(PASSWORD, new MyData(id, "body " + id), "shared");
+                    } catch (UnauthorizedAccessException e) {
+                        throw new IllegalStateException(e);
+                    }
+
+                    maxLatency.accumulateAndGet(System.nanoTime() - begin, Math::max);
+                }
+            });
+
+            writer.start();
+
+            start = System.nanoTime();
+            dataBoard.checkpoint();
+            long checkpointTime = (System.nanoTime() - start) / 1_000_000;
+
+            running.set(false);
+            writer.join();
+
+            System.out.printf("%9d | %18d | %23d | %15d | %12d%n",
+                    posts, logTime, snapshotTime, checkpointTime, maxLatency.get() / 1_000_000);
+
+            dataBoard.close();
+            delete(directory);
+        }
+    }
+
+    // confronta la dimensione della codifica di DataCodec con quella a
+    // campi fissi usata prima (id, lunghezza del body, categoria, numero
+    // di like e like come int) e misura i MB/s di codifica e decodifica
+    private static void codecBenchmark() {
+        int size = 1_000_000;
+        int users = 1000;
+        Dictionary categories = new Dictionary();
+        UserTable friends = new UserTable();
+        UserRegistry registry = UserRegistry.getInstance();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ArrayList<Data> dataList = new ArrayList<>(size);
+        long fixedBytes = 0;
+
+        for (int i = 0; i < 10; i++) {
+            categories.add("category " + i);
+        }
+
+        for (int i = 0; i < users; i++) {
+            friends.add(registry.intern("friend " + i));
+        }
+
+        // dati con un body di 20-80 caratteri e fino a 8 like
+        for (int id = 0; id < size; id++) {
+            StringBuilder body = new StringBuilder("post " + id);
+
+            while (body.length() < 20 + random.nextInt(60)) {
+                body.append(" lorem");
+            }
+
+            Data item = new MyData(id, body.toString());
+            item.setCategory(categories.get(random.nextInt(10)));
+
+            for (int k = random.nextInt(9); k > 0; k--) {
+                item.insertLike(friends.get(random.nextInt(users)));
+            }
+
+            dataList.add(item);
+            fixedBytes += Integer.BYTES * (4 + item.getLikeCount())
+                    + item.getBody().getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        DataCodec<Data> codec = new DataCodec<>(categories, friends, MyData::new);
+        ByteBuffer buffer = ByteBuffer.allocate((int) fixedBytes);
+        long encodeTime = Long.MAX_VALUE;
+        long decodeTime = Long.MAX_VALUE;
+
+        for (int round = 0; round < 5; round++) {
+            buffer.clear();
+
+            long start = System.nanoTime();
+
+            for (Data item : dataList) {
+                codec.encode(item, buffer);
+            }
+
+            encodeTime = Math.min(encodeTime, System.nanoTime() - start);
+            buffer.flip();
+
+            start = System.nanoTime();
+
+            for (int i = 0; i < size; i++) {
+                Data item = codec.decode(buffer);
+
+                if (item.id() != i) {
+                    throw new IllegalStateException();
+                }
+            }
+
+            decodeTime = Math.min(decodeTime, System.nanoTime() - start);
+        }
+
+        long codecBytes = buffer.limit();
+
+        System.out.println("format      | bytes per post | encode (MB/s) | decode (MB/s)");
+        System.out.printf("fixed width | %14d | %13s | %13s%n", fixedBytes / size, "-", "-");
+        System.out.printf("DataCodec   | %14d | %13d | %13d%n", codecBytes / size,
+                codecBytes * 1000 / encodeTime, codecBytes * 1000 / decodeTime);
+    }
+
+    // confronta una bacheca di 1M di dati con body di 200 caratteri sullo
+    // heap e in una BodyArena: heap occupato, durata di una garbage
+    // collection completa e memoria diretta prima e dopo aver rimosso
+    // tre dati su quattro, poi dopo una compattazione completa
+    private static void offHeapBenchmark() throws UnauthorizedAccessException {
+        int size = 1_000_000;
+        String padding = "lorem ipsum dolor sit amet ".repeat(8).substring(0, 190);
+
+        System.out.println("bodies   | heap (MB) | full gc (ms) | direct (MB) | after remove (MB) | after compact (MB)");
+
+        for (boolean offHeap : new boolean[] {false, true}) {
+            BodyArena arena = new BodyArena();
+            DataBoard<Data> dataBoard = new MyDataBoardTreeSet<>(new MyUser("Jon Doe", PASSWORD));
+            long before = usedMemory();
+
+            dataBoard.createCategory("shared", PASSWORD);
+
+            for (int id = 0; id < size; id++) {
+                String body = String.format("%09d ", id) + padding;
+
+                dataBoard.put(PASSWORD, offHeap ? new MyData(id, body, arena) : new MyData(id, body), "shared");
+            }
+
+            long heap = usedMemory() - before;
+            long start = System.nanoTime();
+            System.gc();
+            long gcTime = (System.nanoTime() - start) / 1_000_000;
+            long direct = arena.capacity();
+
+            for (int id = 0; id < size; id++) {
+                if (id % 4 != 0) {
+                    dataBoard.remove(PASSWORD, new MyData(id, String.format("%09d ", id) + padding));
+                }
+            }
+
+            long removed = arena.capacity();
+
+            arena.compact();
+
+            System.out.printf("%-8s | %9d | %12d | %11d | %17d | %18d%n", offHeap ? "arena" : "heap",
+                    heap >> 20, gcTime, direct >> 20, removed >> 20, arena.capacity() >> 20);
+        }
+    }
+
+    // confronta una bacheca di 1M di dati in cui il 70% sono repost di
+    // 10000 body popolari (scelti con una distribuzione di Zipf) con body
+    // sullo heap e condivisi con un BodyStore: heap occupato e rapporto
+    // di deduplicazione, anche dopo aver rimosso metà delle categorie
+    private static void dedupBenchmark() throws UnauthorizedAccessException {
+        int size = 1_000_000;
+        int popular = 10_000;
+        String padding = "lorem ipsum dolor sit amet ".repeat(8).substring(0, 190);
+        double[] weights = new double[popular];
+        double total = 0;
+
+        // la probabilità del body popolare k è proporzionale a 1 / (k + 1)
+        for (int k = 0; k < popular; k++) {
+            total += 1.0 / (k + 1);
+            weights[k] = total;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        System.out.println("bodies     | heap (MB) | distinct | dedup ratio | after removing half (ratio)");
+
+        for (boolean shared : new boolean[] {false, true}) {
+            BodyStore store = new BodyStore();
+            DataBoard<Data> dataBoard = new MyDataBoardTreeSet<>(new MyUser("Jon Doe", PASSWORD));
+            long before = usedMemory();
+
+            for (int c = 0; c < 10; c++) {
+                dataBoard.createCategory("category " + c, PASSWORD);
+            }
+
+            for (int id = 0; id < size; id++) {
+                int k = random.nextInt(10) < 7 ? binarySearch(weights, random.nextDouble() * total) : -1 - id;
+
+                // ogni body è una nuova stringa, come se fosse letto da una richiesta
+                String body = String.format("%09d ", k) + padding;
+                Data item = shared ? new MyData(id, body, store) : new MyData(id, body);
+
+                dataBoard.put(PASSWORD, item, "category " + id % 10);
+            }
+
+            long heap = usedMemory() - before;
+            int distinct = store.bodies();
+            double ratio = store.dedupRatio();
+
+            for (int c = 0; c < 5; c++) {
+                dataBoard.removeCategory("category " + c, PASSWORD);
+            }
+
+            System.out.printf("%-10s | %9d | %8d | %11.2f | %27.2f%n", shared ? "BodyStore" : "heap",
+                    heap >> 20, distinct, ratio, store.dedupRatio());
+        }
+    }
+
+    // restituisce il primo indice di weights con valore maggiore o uguale a x
+    private static int binarySearch(double[] weights, double x) {
+        int low = 0;
+        int high = weights.length - 1;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (weights[middle] < x) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    // apre una bacheca persistente in directory
+    private static DurableDataBoard<Data> durableBoard(Path directory)
+            throws UnauthorizedAccessException, IOException {
+        DataBoard<Data> dataBoard = new ConcurrentDataBoard<>(new MyDataBoardTreeSet<>(new MyUser("Jon Doe", PASSWORD)));
+
+        try (OwnerSession session = dataBoard.openSession(PASSWORD)) {
+            return new DurableDataBoard<>(dataBoard, session, directory, MyData::new);
+        }
+    }
+
+    // elimina directory ed i file che contiene
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    // memoria occupata dopo una garbage collection
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
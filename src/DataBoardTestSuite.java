@@ -4,6 +4,8 @@ import tests.CategoryTest;
 import tests.DataTest;
 import tests.FriendTest;
 import tests.IteratorTest;
+import tests.PageTest;
+import tests.SessionTest;
 
 
 public class DataBoardTestSuite<E extends DataBoard<Data>> {
@@ -23,6 +25,8 @@ public class DataBoardTestSuite<E extends DataBoard<Data>> {
         FriendTest<E> friendTest = new FriendTest<>(this.dataBoard, this.password);
         DataTest<E> dataTest = new DataTest<>(this.dataBoard, this.password);
         IteratorTest<E> iteratorTest = new IteratorTest<>(this.dataBoard, this.password);
+        PageTest<E> pageTest = new PageTest<>(this.dataBoard, this.password);
+        SessionTest<E> sessionTest = new SessionTest<>(this.dataBoard, this.password);
 
         // test that...
 
@@ -66,6 +70,7 @@ public class DataBoardTestSuite<E extends DataBoard<Data>> {
         // get
         dataTest.we_can_get_a_data_with_a_valid_password();
         dataTest.we_can_not_get_a_shallow_copy_of_a_data();
+        dataTest.we_can_not_modify_a_data_through_its_copy();
         dataTest.we_can_not_get_a_data_with_a_wrong_password();
         dataTest.we_can_not_get_a_null_data();
         dataTest.we_can_not_get_a_data_that_doesnt_exist();
@@ -83,13 +88,26 @@ public class DataBoardTestSuite<E extends DataBoard<Data>> {
         dataTest.we_can_not_get_the_list_of_data_of_a_null_category();
         dataTest.we_can_not_get_the_list_of_data_of_a_category_that_doesnt_exist();
 
+        // read only views
+        dataTest.we_can_get_a_read_only_view_of_a_data();
+        dataTest.we_can_get_the_read_only_views_of_a_category();
+
         // insert like
         dataTest.we_can_insert_a_like_with_a_valid_user();
         dataTest.we_can_not_insert_a_like_with_a_wrong_user();
         dataTest.we_can_not_insert_a_like_twice_for_the_same_user();
+        dataTest.we_can_not_insert_a_like_twice_into_a_data_put_with_likes();
         dataTest.we_can_not_insert_a_like_into_a_null_data();
         dataTest.we_can_not_insert_a_like_into_a_data_that_doesnt_exist();
 
+        // batch
+        dataTest.we_can_put_a_batch_of_data_with_a_valid_password();
+        dataTest.we_can_not_put_a_batch_with_a_data_already_put();
+        dataTest.we_can_insert_a_batch_of_likes();
+        dataTest.we_can_not_insert_a_batch_of_likes_with_a_wrong_user();
+        friendTest.we_can_add_a_batch_of_friends_to_a_category_with_a_valid_password();
+        friendTest.we_can_not_add_a_batch_of_friends_with_a_friend_already_added();
+
         // get iterator
         iteratorTest.we_can_get_an_iterator_with_a_valid_user();
         iteratorTest.we_can_not_get_an_iterator_with_a_wrong_user();
@@ -102,6 +120,24 @@ public class DataBoardTestSuite<E extends DataBoard<Data>> {
         iteratorTest.we_can_get_a_friend_iterator_that_doesnt_support_remove_method();
         iteratorTest.we_can_get_a_friend_iterator_with_all_his_readable_data();
         iteratorTest.we_can_get_an_empty_friend_iterator();
+
+        // get pages
+        pageTest.we_can_get_the_data_of_a_category_page_by_page();
+        pageTest.we_can_keep_a_cursor_while_data_is_put_and_removed();
+        pageTest.we_can_get_the_shared_data_page_by_page();
+        pageTest.we_can_not_get_a_page_with_a_wrong_limit_or_cursor();
+
+        // get top liked
+        iteratorTest.we_can_get_the_top_liked_data();
+        iteratorTest.we_can_not_get_the_top_liked_data_with_a_wrong_password();
+        iteratorTest.we_can_get_the_friend_top_liked_data();
+
+        // sessions
+        sessionTest.we_can_open_a_session_with_a_valid_password();
+        sessionTest.we_can_not_open_a_session_with_a_wrong_password();
+        sessionTest.we_can_use_a_session_instead_of_the_password();
+        sessionTest.we_can_not_use_a_closed_session();
+        sessionTest.we_can_not_use_a_forged_session();
     }
 
 
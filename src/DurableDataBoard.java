@@ -0,0 +1,612 @@
+import exceptions.UnauthorizedAccessException;
+import exceptions.UserNotFoundException;
+import interfaces.Data;
+import interfaces.DataBoard;
+import interfaces.OwnerSession;
+import interfaces.ReadOnlyData;
+import interfaces.User;
+import models.Cursor;
+import models.LikeEvent;
+import models.Page;
+import storage.Checkpointable;
+import storage.DataFactory;
+import storage.RecordReader;
+import storage.RecordWriter;
+import storage.SnapshotFile;
+import storage.SnapshotImage;
+import storage.Snapshottable;
+import storage.WriteAheadLog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+public class DurableDataBoard<E extends Data> implements DataBoard<E>, Checkpointable, AutoCloseable {
+    /*
+     * OVERVIEW: una DurableDataBoard è una bacheca persistente costruita su
+     * un'altra bacheca: ogni modifica viene applicata alla bacheca ed aggiunta
+     * ad un write-ahead log, e termina solo quando il log è su disco; le
+     * modifiche concorrenti vengono rese persistenti con un solo fsync.
+     * All'apertura la bacheca viene ricostruita dall'ultima snapshot e dalle
+     * modifiche del log successive; checkpoint scrive una nuova snapshot
+     * mentre le modifiche continuano e scarta il log che la precede.
+     * Le letture sono delegate alla bacheca senza lock, quindi con più thread
+     * la bacheca sottostante deve essere thread-safe. Una modifica viene
+     * applicata alla bacheca prima dell'fsync, quindi le letture possono
+     * vedere modifiche non ancora su disco. Dopo che una scrittura del log è
+     * fallita la bacheca rifiuta ogni altra modifica con una
+     * UncheckedIOException, senza applicarla, e va riaperta
+     *
+     * File nella directory: board.snapshot, la snapshot (se esiste)
+     *                       board.wal, il log delle modifiche successive
+     */
+
+    private static final byte CREATE_CATEGORY = 1;
+    private static final byte REMOVE_CATEGORY = 2;
+    private static final byte ADD_FRIEND = 3;
+    private static final byte REMOVE_FRIEND = 4;
+    private static final byte PUT = 5;
+    private static final byte REMOVE = 6;
+    private static final byte INSERT_LIKE = 7;
+    private static final byte PUT_ALL = 8;
+    private static final byte ADD_FRIENDS = 9;
+    private static final byte INSERT_LIKES = 10;
+
+    // la bacheca a cui vengono delegate le operazioni,
+    // accessibile solo attraverso this
+    private final DataBoard<E> dataBoard;
+
+    // crea i dati letti dal log
+    private final DataFactory<E> factory;
+
+    private final WriteAheadLog log;
+
+    private final Path snapshot;
+
+    // serializza le modifiche, così l'ordine dei record
+    // nel log è l'ordine in cui sono state applicate
+    private final ReentrantLock lock;
+
+    // serializza i checkpoint
+    private final ReentrantLock checkpointLock;
+
+    /*
+     * AF: α(c) = α(c.dataBoard)
+     *
+     * IR: I(c) = c.dataBoard != null && c.factory != null && c.log != null
+     *              && c.snapshot != null && c.lock != null && c.checkpointLock != null
+     *              e c.dataBoard viene modificata solo con c.lock
+     *              e α(c.dataBoard) è lo stato ottenuto applicando alla
+     *                  snapshot in c.snapshot i record di c.log successivi
+     */
+
+    /*
+     * Un'operazione sulla bacheca che può
+     * sollevare un'eccezione di tipo X
+     */
+    private interface Operation<T, X extends Exception> {
+        T run() throws X;
+    }
+
+    /*
+     * inizializza this
+     */
+    public DurableDataBoard(DataBoard<E> dataBoard, OwnerSession session, Path directory, DataFactory<E> factory)
+            throws IOException {
+        // validazione
+        if (dataBoard == null || session == null || directory == null || factory == null) {
+            throw new NullPointerException();
+        }
+
+        this.dataBoard = dataBoard;
+        this.factory = factory;
+        this.lock = new ReentrantLock();
+        this.checkpointLock = new ReentrantLock();
+        this.snapshot = directory.resolve("board.snapshot");
+
+        Files.createDirectories(directory);
+
+        // carica la snapshot direttamente nelle strutture della bacheca
+        long lsn = 0;
+
+        if (Files.exists(this.snapshot)) {
+            lsn = SnapshotFile.load(this.snapshot, this.snapshottable(), factory);
+        }
+
+        // un log mancante riparte dalla snapshot
+        this.log = new WriteAheadLog(directory.resolve("board.wal"), lsn);
+
+        try {
+            // applica le modifiche successive alla snapshot
+            this.log.replay(lsn, record -> this.redo(record, session));
+
+            if (this.log.position() < lsn) {
+                throw new IllegalStateException("Log older than the snapshot.");
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                this.log.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+
+            throw e;
+        }
+    }
+    /*
+     * REQUIRES: dataBoard != null && session != null && directory != null && factory != null,
+     *           dataBoard è vuota e non viene più usata se non attraverso this,
+     *           session è una sessione valida di dataBoard e, se this viene
+     *           usata da più thread, dataBoard è thread-safe (ad esempio una
+     *           ConcurrentDataBoard), perché le letture non prendono il lock
+     * MODIFIES: dataBoard, directory
+     * EFFECTS: inizializza this con lo stato salvato in directory, creando i dati con
+     *          factory; session viene usata solo per applicare le modifiche del log
+     * THROWS: se un argomento è null solleva una NullPointerException
+     *         se directory contiene una snapshot e dataBoard non è Snapshottable
+     *             solleva una UnsupportedOperationException
+     *         se il log non può essere applicato solleva una IllegalStateException
+     *         se la lettura fallisce solleva una IOException
+     */
+
+    @Override
+    public OwnerSession openSession(String passw) throws UnauthorizedAccessException {
+        // le sessioni non fanno parte dello stato della bacheca
+        return this.dataBoard.openSession(passw);
+    }
+
+    @Override
+    public void closeSession(OwnerSession session) throws UnauthorizedAccessException {
+        this.dataBoard.closeSession(session);
+    }
+
+    @Override
+    public void createCategory(String category, OwnerSession session) throws UnauthorizedAccessException {
+        this.apply(() -> record(CREATE_CATEGORY).putString(category), () -> {
+            this.dataBoard.createCategory(category, session);
+
+            return null;
+        });
+    }
+
+    @Override
+    public void removeCategory(String category, OwnerSession session) throws UnauthorizedAccessException {
+        this.apply(() -> record(REMOVE_CATEGORY).putString(category), () -> {
+            this.dataBoard.removeCategory(category, session);
+
+            return null;
+        });
+    }
+
+    @Override
+    public void addFriend(String category, OwnerSession session, String friend) throws UnauthorizedAccessException {
+        this.apply(() -> record(ADD_FRIEND).putString(category).putString(friend), () -> {
+            this.dataBoard.addFriend(category, session, friend);
+
+            return null;
+        });
+    }
+
+    @Override
+    public void addFriends(String category, OwnerSession session, Collection<String> friends)
+            throws UnauthorizedAccessException {
+        this.apply(() -> {
+            RecordWriter record = record(ADD_FRIENDS).putString(category).putVarInt(friends.size());
+
+            for (String friend : friends) {
+                record.putString(friend);
+            }
+
+            return record;
+        }, () -> {
+            this.dataBoard.addFriends(category, session, friends);
+
+            return null;
+        });
+    }
+
+    @Override
+    public void removeFriend(String category, OwnerSession session, String friend) throws UnauthorizedAccessException,
+            UserNotFoundException {
+        long lsn;
+
+        // removeFriend solleva due eccezioni controllate,
+        // quindi il lock viene preso direttamente
+        this.lock.lock();
+
+        try {
+            // dopo un errore del log la modifica non
+            // potrebbe più diventare persistente
+            this.log.checkUsable();
+            this.dataBoard.removeFriend(category, session, friend);
+            lsn = this.log.append(record(REMOVE_FRIEND).putString(category).putString(friend).toBuffer());
+        } finally {
+            this.lock.unlock();
+        }
+
+        this.log.sync(lsn);
+    }
+
+    @Override
+    public boolean put(OwnerSession session, E data, String category) throws UnauthorizedAccessException {
+        return this.apply(() -> writeData(record(PUT).putString(category), data),
+                () -> this.dataBoard.put(session, data, category));
+    }
+
+    @Override
+    public int putAll(OwnerSession session, Map<String, ? extends Collection<E>> data)
+            throws UnauthorizedAccessException {
+        return this.apply(() -> {
+            RecordWriter record = record(PUT_ALL).putVarInt(data.size());
+
+            for (Map.Entry<String, ? extends Collection<E>> entry : data.entrySet()) {
+                record.putString(entry.getKey()).putVarInt(entry.getValue().size());
+
+                for (E item : entry.getValue()) {
+                    writeData(record, item);
+                }
+            }
+
+            return record;
+        }, () -> this.dataBoard.putAll(session, data));
+    }
+
+    @Override
+    public E get(OwnerSession session, E data) throws UnauthorizedAccessException {
+        return this.dataBoard.get(session, data);
+    }
+
+    @Override
+    public E remove(OwnerSession session, E data) throws UnauthorizedAccessException {
+        return this.apply(() -> writeKey(record(REMOVE), data), () -> this.dataBoard.remove(session, data));
+    }
+
+    @Override
+    public List<E> getDataCategory(OwnerSession session, String category) throws UnauthorizedAccessException {
+        return this.dataBoard.getDataCategory(session, category);
+    }
+
+    @Override
+    public Page<E> getDataCategoryPage(OwnerSession session, String category, Cursor<E> cursor, int limit)
+            throws UnauthorizedAccessException {
+        return this.dataBoard.getDataCategoryPage(session, category, cursor, limit);
+    }
+
+    @Override
+    public ReadOnlyData getView(OwnerSession session, E data) throws UnauthorizedAccessException {
+        return this.dataBoard.getView(session, data);
+    }
+
+    @Override
+    public List<ReadOnlyData> getDataCategoryView(OwnerSession session, String category)
+            throws UnauthorizedAccessException {
+        return this.dataBoard.getDataCategoryView(session, category);
+    }
+
+    @Override
+    public void insertLike(String friend, E data) throws UnauthorizedAccessException {
+        this.apply(() -> writeKey(record(INSERT_LIKE).putString(friend), data), () -> {
+            this.dataBoard.insertLike(friend, data);
+
+            return null;
+        });
+    }
+
+    @Override
+    public void insertLikes(Collection<LikeEvent<E>> likes) throws UnauthorizedAccessException {
+        this.apply(() -> {
+            RecordWriter record = record(INSERT_LIKES).putVarInt(likes.size());
+
+            for (LikeEvent<E> like : likes) {
+                writeKey(record.putString(like.getFriend()), like.getData());
+            }
+
+            return record;
+        }, () -> {
+            this.dataBoard.insertLikes(likes);
+
+            return null;
+        });
+    }
+
+    @Override
+    public Iterator<E> getIterator(OwnerSession session) throws UnauthorizedAccessException {
+        return this.dataBoard.getIterator(session);
+    }
+
+    @Override
+    public Iterator<E> getFriendIterator(String friend) throws UserNotFoundException {
+        return this.dataBoard.getFriendIterator(friend);
+    }
+
+    @Override
+    public Page<E> getFriendPage(String friend, Cursor<E> cursor, int limit) throws UserNotFoundException {
+        return this.dataBoard.getFriendPage(friend, cursor, limit);
+    }
+
+    @Override
+    public List<E> getTopLiked(OwnerSession session, int k) throws UnauthorizedAccessException {
+        return this.dataBoard.getTopLiked(session, k);
+    }
+
+    @Override
+    public List<E> getFriendTopLiked(String friend, int k) throws UserNotFoundException {
+        return this.dataBoard.getFriendTopLiked(friend, k);
+    }
+
+    @Override
+    public boolean hasCategory(String category) {
+        return this.dataBoard.hasCategory(category);
+    }
+
+    @Override
+    public boolean isReadableBy(String category, User user) {
+        return this.dataBoard.isReadableBy(category, user);
+    }
+
+    @Override
+    public boolean hasData(E data) {
+        return this.dataBoard.hasData(data);
+    }
+
+    @Override
+    public List<User> getLikes(E data) {
+        return this.dataBoard.getLikes(data);
+    }
+
+    @Override
+    public void checkpoint() throws IOException {
+        Snapshottable<E> board = this.snapshottable();
+
+        // un solo checkpoint alla volta
+        this.checkpointLock.lock();
+
+        try {
+            SnapshotImage<E> image;
+            long lsn;
+
+            // le modifiche vengono sospese solo per catturare l'immagine,
+            // così corrisponde esattamente alla posizione lsn del log
+            this.lock.lock();
+
+            try {
+                lsn = this.log.position();
+                image = board.captureSnapshot();
+            } finally {
+                this.lock.unlock();
+            }
+
+            // scrivi la snapshot mentre le modifiche continuano
+            try (SnapshotImage<E> current = image) {
+                this.log.sync(lsn);
+                SnapshotFile.write(this.snapshot, current, lsn);
+            }
+
+            // se il processo termina qui la snapshot è già valida
+            // ed il log viene riletto a partire da lsn
+            this.log.truncate(lsn);
+        } finally {
+            this.checkpointLock.unlock();
+        }
+    }
+
+    /*
+     * Restituisce il numero di fsync del log
+     */
+    public long syncs() {
+        return this.log.syncs();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.log.close();
+    }
+
+    /*
+     * Applica operation alla bacheca e la rende persistente
+     */
+    private <T, X extends Exception> T apply(Supplier<RecordWriter> record, Operation<T, X> operation) throws X {
+        T result;
+        long lsn;
+
+        this.lock.lock();
+
+        try {
+            // dopo un errore del log la modifica non potrebbe più
+            // diventare persistente, quindi non viene applicata
+            this.log.checkUsable();
+
+            // il record viene codificato solo se l'operazione ha
+            // successo, dopo che la bacheca ha validato gli argomenti
+            result = operation.run();
+            lsn = this.log.append(record.get().toBuffer());
+        } finally {
+            this.lock.unlock();
+        }
+
+        // attendi l'fsync senza lock, così le modifiche degli
+        // altri thread vengono rese persistenti con lo stesso fsync
+        this.log.sync(lsn);
+
+        return result;
+    }
+    /*
+     * REQUIRES: record restituisce la codifica di operation
+     * MODIFIES: this
+     * EFFECTS: se il log è utilizzabile esegue operation e, se termina senza
+     *          eccezioni, aggiunge record al log e attende che sia persistente;
+     *          la modifica è visibile alle letture già prima dell'fsync
+     * RETURNS: restituisce il risultato di operation
+     * THROWS: solleva le eccezioni sollevate da operation
+     *         se una scrittura precedente del log è fallita solleva una
+     *             UncheckedIOException senza eseguire operation
+     *         se la scrittura del log fallisce solleva una UncheckedIOException;
+     *             la modifica resta in memoria solo fino alla riapertura,
+     *             come quelle concorrenti con lo stesso fsync
+     */
+
+    /*
+     * Applica alla bacheca un record letto dal log
+     */
+    private void redo(ByteBuffer buffer, OwnerSession session) {
+        RecordReader record = new RecordReader(buffer);
+
+        try {
+            switch (record.getByte()) {
+                case CREATE_CATEGORY:
+                    this.dataBoard.createCategory(record.getString(), session);
+                    break;
+                case REMOVE_CATEGORY:
+                    this.dataBoard.removeCategory(record.getString(), session);
+                    break;
+                case ADD_FRIEND:
+                    this.dataBoard.addFriend(record.getString(), session, record.getString());
+                    break;
+                case REMOVE_FRIEND:
+                    this.dataBoard.removeFriend(record.getString(), session, record.getString());
+                    break;
+                case PUT:
+                    String category = record.getString();
+                    this.dataBoard.put(session, this.readData(record), category);
+                    break;
+                case REMOVE:
+                    // i dati usati solo per cercare quelli della bacheca
+                    // non vengono inseriti, quindi il loro body va rilasciato
+                    E removed = this.readData(record);
+
+                    this.dataBoard.remove(session, removed);
+                    removed.release();
+                    break;
+                case INSERT_LIKE:
+                    String friend = record.getString();
+                    E key = this.readData(record);
+
+                    this.dataBoard.insertLike(friend, key);
+                    key.release();
+                    break;
+                case PUT_ALL:
+                    this.dataBoard.putAll(session, this.readBatch(record));
+                    break;
+                case ADD_FRIENDS:
+                    this.dataBoard.addFriends(record.getString(), session, readStrings(record));
+                    break;
+                case INSERT_LIKES:
+                    List<LikeEvent<E>> likes = this.readLikes(record);
+
+                    this.dataBoard.insertLikes(likes);
+                    likes.forEach(like -> like.getData().release());
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown log record.");
+            }
+        } catch (Exception e) {
+            // il log contiene solo modifiche riuscite, quindi
+            // rileggerle sulla stessa bacheca non può fallire
+            throw new IllegalStateException("Corrupted log.", e);
+        }
+    }
+    /*
+     * REQUIRES: buffer contiene un record scritto da this
+     * MODIFIES: this
+     * EFFECTS: applica alla bacheca la modifica del record
+     * THROWS: se la modifica non può essere applicata solleva una IllegalStateException
+     */
+
+    // restituisce la bacheca a cui viene delegata la snapshot
+    @SuppressWarnings("unchecked")
+    private Snapshottable<E> snapshottable() {
+        if (!(this.dataBoard instanceof Snapshottable)) {
+            throw new UnsupportedOperationException();
+        }
+
+        return (Snapshottable<E>) this.dataBoard;
+    }
+
+    // crea un record con il codice dell'operazione
+    private static RecordWriter record(byte operation) {
+        return new RecordWriter().putByte(operation);
+    }
+
+    // codifica id e body di un dato, che bastano per cercarlo
+    private static RecordWriter writeKey(RecordWriter record, Data data) {
+        return record.putSignedVarInt(data.id()).putString(data.getBody()).putVarInt(0);
+    }
+
+    // codifica id, body e like di un dato
+    private static RecordWriter writeData(RecordWriter record, Data data) {
+        List<User> likes = data.getLikes();
+
+        record.putSignedVarInt(data.id()).putString(data.getBody()).putVarInt(likes.size());
+
+        for (User user : likes) {
+            record.putString(user.getName());
+        }
+
+        return record;
+    }
+
+    // decodifica un dato scritto con writeKey o writeData
+    private E readData(RecordReader record) {
+        E data = this.factory.create(record.getSignedVarInt(), record.getString());
+
+        for (String friend : readStrings(record)) {
+            data.insertLike(friend);
+        }
+
+        return data;
+    }
+
+    // decodifica i dati di putAll
+    private Map<String, List<E>> readBatch(RecordReader record) {
+        int count = record.getVarInt();
+        LinkedHashMap<String, List<E>> batch = new LinkedHashMap<>();
+
+        for (int i = 0; i < count; i++) {
+            String category = record.getString();
+            int size = record.getVarInt();
+            ArrayList<E> items = new ArrayList<>(size);
+
+            for (int j = 0; j < size; j++) {
+                items.add(this.readData(record));
+            }
+
+            batch.put(category, items);
+        }
+
+        return batch;
+    }
+
+    // decodifica i like di insertLikes
+    private List<LikeEvent<E>> readLikes(RecordReader record) {
+        int count = record.getVarInt();
+        ArrayList<LikeEvent<E>> likes = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            String friend = record.getString();
+            likes.add(new LikeEvent<>(friend, this.readData(record)));
+        }
+
+        return likes;
+    }
+
+    // decodifica una lista di stringhe preceduta dalla lunghezza
+    private static List<String> readStrings(RecordReader record) {
+        int count = record.getVarInt();
+        ArrayList<String> strings = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            strings.add(record.getString());
+        }
+
+        return strings;
+    }
+}
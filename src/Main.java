@@ -1,23 +1,48 @@
 import interfaces.Data;
 import interfaces.DataBoard;
+import interfaces.OwnerSession;
 import interfaces.User;
+import models.MyData;
 import models.MyUser;
+import tests.ArenaTest;
+import tests.CodecTest;
+import tests.ConcurrencyTest;
+import tests.DedupTest;
+import tests.RecoveryTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
 
 public class Main {
     public static final String ANSI_CYAN = "\u001B[36m";
     public static final String ANSI_RESET = "\u001B[0m";
 
-    public static void main (String [] args) {
+    public static void main (String [] args) throws Exception {
         String password = "1234";
         User owner = new MyUser("Jon Doe", password);
 
-        // istanzia le due implementazioni dell'interfaccia DataBoard
+        // istanzia le implementazioni dell'interfaccia DataBoard
         MyDataBoardArrayList<Data> myDataBoardArrayList = new MyDataBoardArrayList<>(owner);
         MyDataBoardTreeSet<Data> myDataBoardTreeSet = new MyDataBoardTreeSet<>(owner);
+        MyDataBoardSkipList<Data> myDataBoardSkipList = new MyDataBoardSkipList<>(owner);
+        MyDataBoardStriped<Data> myDataBoardStriped = new MyDataBoardStriped<>(owner);
+        ConcurrentDataBoard<Data> concurrentDataBoard = new ConcurrentDataBoard<>(new MyDataBoardTreeSet<>(owner));
+
+        // le bacheche persistenti scrivono in una directory temporanea
+        Path directory = Files.createTempDirectory("databoard");
+        Callable<DataBoard<Data>> durableDataBoard = () -> durable(new MyDataBoardTreeSet<>(owner),
+                password, directory.resolve("treeset"));
 
         // crea un'istanza della suite di test per ogni implementazione di DataBoard
         DataBoardTestSuite<DataBoard<Data>> dataBoardTestsArrayListImplementation = new DataBoardTestSuite<>(myDataBoardArrayList, password);
         DataBoardTestSuite<DataBoard<Data>> dataBoardTestsTreeSetImplementation = new DataBoardTestSuite<>(myDataBoardTreeSet, password);
+        DataBoardTestSuite<DataBoard<Data>> dataBoardTestsSkipListImplementation = new DataBoardTestSuite<>(myDataBoardSkipList, password);
+        DataBoardTestSuite<DataBoard<Data>> dataBoardTestsStripedImplementation = new DataBoardTestSuite<>(myDataBoardStriped, password);
+        DataBoardTestSuite<DataBoard<Data>> dataBoardTestsConcurrentImplementation = new DataBoardTestSuite<>(concurrentDataBoard, password);
+        DataBoardTestSuite<DataBoard<Data>> dataBoardTestsDurableImplementation = new DataBoardTestSuite<>(durableDataBoard.call(), password);
 
         // esegui i test
         System.out.println(ANSI_CYAN + "\nStarting ArrayList implementation tests..." + ANSI_RESET);
@@ -25,6 +50,106 @@ public class Main {
 
         System.out.println(ANSI_CYAN + "\nStarting TreeSet implementation tests..." + ANSI_RESET);
         dataBoardTestsTreeSetImplementation.run();
+
+        System.out.println(ANSI_CYAN + "\nStarting SkipList implementation tests..." + ANSI_RESET);
+        dataBoardTestsSkipListImplementation.run();
+
+        System.out.println(ANSI_CYAN + "\nStarting striped implementation tests..." + ANSI_RESET);
+        dataBoardTestsStripedImplementation.run();
+
+        System.out.println(ANSI_CYAN + "\nStarting concurrent implementation tests..." + ANSI_RESET);
+        dataBoardTestsConcurrentImplementation.run();
+
+        System.out.println(ANSI_CYAN + "\nStarting durable implementation tests..." + ANSI_RESET);
+        dataBoardTestsDurableImplementation.run();
+
+        // usa le bacheche condivisibili da più thread contemporaneamente
+        System.out.println(ANSI_CYAN + "\nStarting concurrency tests..." + ANSI_RESET);
+        concurrency(new MyDataBoardStriped<>(owner), password);
+        concurrency(new MyDataBoardSkipList<>(owner), password);
+        concurrency(new ConcurrentDataBoard<>(new MyDataBoardTreeSet<>(owner)), password);
+
+        // codifica e decodifica i dati di una bacheca
+        System.out.println(ANSI_CYAN + "\nStarting codec tests..." + ANSI_RESET);
+        CodecTest<DataBoard<Data>> codecTest = new CodecTest<>(new MyDataBoardTreeSet<>(owner), password);
+        codecTest.we_can_encode_and_decode_the_data_of_a_board();
+        codecTest.we_can_encode_integers_and_strings_of_any_size();
+        codecTest.we_can_not_decode_a_truncated_data();
+
+        // conserva i body dei dati fuori dallo heap
+        System.out.println(ANSI_CYAN + "\nStarting off-heap body tests..." + ANSI_RESET);
+        arena(new MyDataBoardArrayList<>(owner), password);
+        arena(new MyDataBoardTreeSet<>(owner), password);
+        arena(new MyDataBoardSkipList<>(owner), password);
+        arena(new MyDataBoardStriped<>(owner), password);
+
+        // condividi i body dei repost
+        System.out.println(ANSI_CYAN + "\nStarting body deduplication tests..." + ANSI_RESET);
+        dedup(new MyDataBoardArrayList<>(owner), password);
+        dedup(new MyDataBoardTreeSet<>(owner), password);
+        dedup(new MyDataBoardSkipList<>(owner), password);
+        dedup(new MyDataBoardStriped<>(owner), password);
+
+        // riapri le bacheche persistenti dai loro file
+        System.out.println(ANSI_CYAN + "\nStarting recovery tests..." + ANSI_RESET);
+        recover(() -> durable(new MyDataBoardTreeSet<>(owner), password, directory.resolve("recovery-treeset")),
+                directory.resolve("recovery-treeset"), password);
+        recover(() -> durable(new MyDataBoardArrayList<>(owner), password, directory.resolve("recovery-arraylist")),
+                directory.resolve("recovery-arraylist"), password);
+
+        // elimina i file delle bacheche persistenti
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    // apre una bacheca persistente in directory costruita su dataBoard
+    private static DurableDataBoard<Data> durable(DataBoard<Data> dataBoard, String password, Path directory)
+            throws Exception {
+        try (OwnerSession session = dataBoard.openSession(password)) {
+            return new DurableDataBoard<>(dataBoard, session, directory, MyData::new);
+        }
+    }
+
+    // esegue i test con più thread su dataBoard
+    private static void concurrency(DataBoard<Data> dataBoard, String password) {
+        ConcurrencyTest<DataBoard<Data>> concurrencyTest = new ConcurrencyTest<>(dataBoard, password);
+
+        concurrencyTest.we_can_insert_likes_to_the_same_data_from_many_threads();
+        concurrencyTest.we_can_read_our_own_like_while_other_likes_are_delivered();
+        concurrencyTest.we_can_read_data_while_other_data_is_put_and_removed();
+        concurrencyTest.we_can_iterate_the_board_while_likes_are_inserted();
+    }
+
+    // esegue i test dell'arena dei body su dataBoard
+    private static void arena(DataBoard<Data> dataBoard, String password) {
+        ArenaTest<DataBoard<Data>> arenaTest = new ArenaTest<>(dataBoard, password);
+
+        arenaTest.we_can_read_the_body_of_a_data_stored_off_heap();
+        arenaTest.we_can_read_a_removed_data_after_its_body_is_released();
+        arenaTest.we_can_compact_the_arena_after_removing_data();
+    }
+
+    // esegue i test della deduplicazione dei body su dataBoard
+    private static void dedup(DataBoard<Data> dataBoard, String password) {
+        DedupTest<DataBoard<Data>> dedupTest = new DedupTest<>(dataBoard, password);
+
+        dedupTest.we_can_share_the_body_of_reposts();
+        dedupTest.we_can_release_a_shared_body_when_its_data_is_removed();
+        dedupTest.we_can_share_bodies_stored_off_heap();
+    }
+
+    // esegue i test di ripristino sulla bacheca aperta da opener
+    private static void recover(Callable<DataBoard<Data>> opener, Path directory, String password) throws Exception {
+        RecoveryTest<DataBoard<Data>> recoveryTest = new RecoveryTest<>(opener, directory.resolve("board.wal"), password);
+
+        recoveryTest.we_can_recover_a_board_from_its_log();
+        recoveryTest.we_can_recover_a_board_from_a_snapshot_and_its_log();
+        recoveryTest.we_can_recover_a_board_with_a_torn_log();
+        recoveryTest.we_can_checkpoint_a_board_while_it_is_modified();
+        recoveryTest.we_can_write_a_snapshot_with_only_the_users_of_the_board();
+        recoveryTest.we_can_not_modify_a_board_after_a_log_failure();
+        recoveryTest.close();
     }
 
 }
@@ -1,19 +1,47 @@
 import exceptions.*;
+import indexes.ConcatIterator;
+import indexes.IntSet;
+import indexes.LikeIndex;
 import interfaces.Category;
 import interfaces.Data;
 import interfaces.DataBoard;
+import interfaces.OwnerSession;
+import interfaces.ReadOnlyData;
 import interfaces.User;
+import models.Cursor;
+import models.LikeEvent;
+import models.Page;
 import models.MyCategory;
 import models.MyUser;
-
+import models.ReadOnlyDataView;
+import models.SessionManager;
+import models.UserRegistry;
+import storage.SnapshotImage;
+import storage.SnapshotReader;
+import storage.Snapshottable;
+
+import java.io.IOException;
 import java.util.*;
 
-public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
-    // lo user proprietario della bacheca
-    private final User owner;
+public class MyDataBoardArrayList<E extends Data> implements DataBoard<E>, Snapshottable<E> {
+    // le sessioni dello user proprietario della bacheca
+    private final SessionManager sessions;
 
     private final ArrayList<Category<E>> categories;
 
+    // indice inverso dei permessi di lettura, associa
+    // ad ogni friend le categorie che può leggere
+    private final HashMap<String, LinkedHashSet<Category<E>>> friendIndex;
+
+    // indice dei dati ordinati per numero di like
+    private final LikeIndex<E> likeIndex;
+
+    // il registro degli user
+    private final UserRegistry registry;
+
+    // l'ultima immagine catturata, conserva i dati modificati finché non viene chiusa
+    private volatile SnapshotImage<E> image;
+
     /*
      * AF: α(c) = { c.categories.get(i).getAllData().get(k) |
      *                  0 <= k < c.categories.get(i).getAllData().size()
@@ -27,6 +55,12 @@ public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
      *              e per tutti gli i, j, k tali che 0 <= i < c.categories.size()
      *                  && 0 <= j < k < c.categories.get(i).getAllData().size(),
      *                  c.categories.get(i).getAllData().get(j).equals(c.categories.get(i).getAllData().get(k)) == false
+     *              e c.friendIndex != null
+     *              e per ogni friend e i tale che 0 <= i < c.categories.size(),
+     *                  c.friendIndex.get(friend).contains(c.categories.get(i))
+     *                  se e solo se c.categories.get(i).isReadableBy(new MyUser(friend))
+     *              e per ogni friend in c.friendIndex.keySet(), c.friendIndex.get(friend) non è vuoto
+     *              e c.likeIndex contiene tutti e soli i dati delle categorie di c.categories
      */
 
     /*
@@ -34,8 +68,11 @@ public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
      * assegna l'owner della bacheca
      */
     public MyDataBoardArrayList(User owner) {
-        this.owner = owner;
+        this.sessions = new SessionManager(owner);
         this.categories = new ArrayList<>();
+        this.friendIndex = new HashMap<>();
+        this.likeIndex = new LikeIndex<>();
+        this.registry = UserRegistry.getInstance();
     }
     /*
      * EFFECTS: inizializza this ad array vuoto
@@ -43,11 +80,19 @@ public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
      */
 
     @Override
-    public void createCategory(String category, String passw) throws UnauthorizedAccessException {
+    public OwnerSession openSession(String passw) throws UnauthorizedAccessException {
+        return this.sessions.open(passw);
+    }
+
+    @Override
+    public void closeSession(OwnerSession session) throws UnauthorizedAccessException {
+        this.sessions.close(session);
+    }
+
+    @Override
+    public void createCategory(String category, OwnerSession session) throws UnauthorizedAccessException {
         // validazione
-        if (!this.owner.authenticate(passw)) {
-            throw new UnauthorizedAccessException();
-        }
+        this.sessions.validate(session);
 
         if (category == null) {
             throw new NullPointerException();
@@ -62,30 +107,47 @@ public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
     }
 
     @Override
-    public void removeCategory(String category, String passw) throws UnauthorizedAccessException {
+    public void removeCategory(String category, OwnerSession session) throws UnauthorizedAccessException {
         // validazione
-        if (!this.owner.authenticate(passw)) {
-            throw new UnauthorizedAccessException();
-        }
+        this.sessions.validate(session);
 
         if (category == null) {
             throw new NullPointerException();
         }
 
-        if (!this.hasCategory(category)) {
+        Category<E> target = this.findCategory(category);
+
+        if (target == null) {
             throw new CategoryNotFoundException();
         }
 
+        // rimuovi la categoria dall'indice inverso dei permessi,
+        // visitando solo i friend che possono leggerla
+        for (int friendId : target.getReaders()) {
+            String friend = this.registry.nameOf(friendId);
+            LinkedHashSet<Category<E>> friendCategories = this.friendIndex.get(friend);
+
+            friendCategories.remove(target);
+
+            if (friendCategories.isEmpty()) {
+                this.friendIndex.remove(friend);
+            }
+        }
+
+        // rimuovi i dati della categoria dall'indice dei like
+        for (E item : target.getAllData()) {
+            this.likeIndex.remove(item);
+            item.release();
+        }
+
         // rimuovi la categoria
-        this.categories.removeIf(el -> el.getName().equals(category));
+        this.categories.remove(target);
     }
 
     @Override
-    public void addFriend(String category, String passw, String friend) throws UnauthorizedAccessException {
+    public void addFriend(String category, OwnerSession session, String friend) throws UnauthorizedAccessException {
         // validazione
-        if (!this.owner.authenticate(passw)) {
-            throw new UnauthorizedAccessException();
-        }
+        this.sessions.validate(session);
 
         if (category == null || friend == null) {
             throw new NullPointerException();
@@ -99,7 +161,8 @@ public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
         // trova la categoria
         for (Category<E> item : this.categories) {
             if (item.getName().equals(category)) {
-                User friendUser = new MyUser(friend);
+                // usa lo user condiviso del registro
+                User friendUser = this.registry.get(this.registry.intern(friend));
 
                 // verifica che friend non sia già
                 // stato aggiunto alla categoria
@@ -109,6 +172,7 @@ public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
 
                 // aggiungi friend alla categoria
                 item.allowRead(friendUser);
+                this.friendIndex.computeIfAbsent(friend, k -> new LinkedHashSet<>()).add(item);
 
                 return;
             }
@@ -116,13 +180,110 @@ public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
     }
 
     @Override
-    public void removeFriend(String category, String passw, String friend) throws UnauthorizedAccessException,
-            UserNotFoundException {
+    public void addFriends(String category, OwnerSession session, Collection<String> friends)
+            throws UnauthorizedAccessException {
         // validazione
-        if (!this.owner.authenticate(passw)) {
-            throw new UnauthorizedAccessException();
+        this.sessions.validate(session);
+
+        if (category == null || friends == null) {
+            throw new NullPointerException();
         }
 
+        // trova la categoria una sola volta per tutto il lotto
+        Category<E> target = this.findCategory(category);
+
+        if (target == null) {
+            throw new CategoryNotFoundException();
+        }
+
+        // valida tutto il lotto prima di modificare this, senza
+        // registrare i nomi di un lotto che potrebbe essere rifiutato
+        LinkedHashSet<String> batch = new LinkedHashSet<>();
+
+        for (String friend : friends) {
+            if (friend == null) {
+                throw new NullPointerException();
+            }
+
+            if (target.isReadableBy(new MyUser(friend)) || !batch.add(friend)) {
+                throw new FriendAlreadyAddedException();
+            }
+        }
+
+        // aggiungi gli amici alla categoria, con lo user condiviso del registro
+        for (String friend : batch) {
+            target.allowRead(this.registry.get(this.registry.intern(friend)));
+            this.friendIndex.computeIfAbsent(friend, k -> new LinkedHashSet<>()).add(target);
+        }
+    }
+
+    /*
+     * Cerca la categoria in this
+     */
+    private Category<E> findCategory(String category) {
+        for (Category<E> item : this.categories) {
+            if (item.getName().equals(category)) {
+                return item;
+            }
+        }
+
+        return null;
+    }
+    /*
+     * REQUIRES: category != null
+     * RETURNS: restituisce la categoria di this di nome category,
+     *          null se non è presente
+     */
+
+    /*
+     * Seleziona i primi dati di una categoria che seguono un cursore
+     */
+    private List<E> dataAfter(Category<E> category, Cursor<E> cursor, int n) {
+        // i dati della categoria non sono ordinati: tieni i primi n
+        // che seguono il cursore in un heap limitato con in cima
+        // l'ultimo, in O(m log n) invece di ordinarli tutti
+        PriorityQueue<E> heap = new PriorityQueue<>(Collections.reverseOrder());
+
+        for (E item : category.getAllData()) {
+            if (cursor.precedes(item)) {
+                heap.add(item);
+
+                if (heap.size() > n) {
+                    heap.poll();
+                }
+            }
+        }
+
+        ArrayList<E> dataList = new ArrayList<>(heap);
+        Collections.sort(dataList);
+
+        return dataList;
+    }
+    /*
+     * REQUIRES: category != null && cursor != null && n > 0
+     * RETURNS: restituisce, senza copiarli, i primi min(n, m) dati di category
+     *          che seguono cursor nell'ordine delle pagine
+     */
+
+    /*
+     * Restituisce quanti dati leggere per una pagina
+     */
+    private static int lookahead(int limit) {
+        // un dato in più dice se ci sono altre pagine,
+        // senza andare in overflow con Integer.MAX_VALUE
+        return limit == Integer.MAX_VALUE ? limit : limit + 1;
+    }
+    /*
+     * REQUIRES: limit > 0
+     * RETURNS: restituisce limit + 1, oppure limit se limit + 1 va in overflow
+     */
+
+    @Override
+    public void removeFriend(String category, OwnerSession session, String friend) throws UnauthorizedAccessException,
+            UserNotFoundException {
+        // validazione
+        this.sessions.validate(session);
+
         if (category == null || friend == null) {
             throw new NullPointerException();
         }
@@ -134,12 +295,20 @@ public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
         // trova la categoria
         for (Category<E> item : this.categories) {
             if (item.getName().equals(category)) {
-                User friendUser = new MyUser(friend);
+                int friendId = this.registry.idOf(friend);
 
                 // se friend è presente nella
                 // categoria rimuovilo
-                if (item.isReadableBy(friendUser)) {
-                    item.denyRead(friendUser);
+                if (friendId >= 0 && item.isReadableBy(this.registry.get(friendId))) {
+                    item.denyRead(this.registry.get(friendId));
+
+                    // non tenere friend che non leggono più nessuna categoria
+                    LinkedHashSet<Category<E>> friendCategories = this.friendIndex.get(friend);
+                    friendCategories.remove(item);
+
+                    if (friendCategories.isEmpty()) {
+                        this.friendIndex.remove(friend);
+                    }
 
                     return;
                 }
@@ -155,11 +324,9 @@ public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
 
     @Override
     @SuppressWarnings("unchecked")
-    public boolean put(String passw, E data, String category) throws UnauthorizedAccessException {
+    public boolean put(OwnerSession session, E data, String category) throws UnauthorizedAccessException {
         // validazione
-        if (!this.owner.authenticate(passw)) {
-            throw new UnauthorizedAccessException();
-        }
+        this.sessions.validate(session);
 
         // fail fast, non aspettare il NullPointerException di item.addData(data)
         if (data == null || category == null) {
@@ -177,8 +344,18 @@ public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
         // trova la categoria passata come parametro
         for (Category<E> item : this.categories) {
             if (item.getName().equals(category)) {
-                // aggiungi una deep copy di data alla categoria
-                return item.addData((E)data.clone());
+                // aggiungi una deep copy di data alla categoria,
+                // assegnandole la categoria come fa MyDataBoardTreeSet
+                E copy = (E)data.clone();
+                copy.setCategory(category);
+
+                if (!item.addData(copy)) {
+                    return false;
+                }
+
+                this.likeIndex.add(copy);
+
+                return true;
             }
         }
 
@@ -187,12 +364,77 @@ public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
 
     @Override
     @SuppressWarnings("unchecked")
-    public E get(String passw, E data) throws UnauthorizedAccessException {
+    public int putAll(OwnerSession session, Map<String, ? extends Collection<E>> data)
+            throws UnauthorizedAccessException {
         // validazione
-        if (!this.owner.authenticate(passw)) {
-            throw new UnauthorizedAccessException();
+        this.sessions.validate(session);
+
+        if (data == null) {
+            throw new NullPointerException();
+        }
+
+        // raccogli una sola volta i dati già presenti, così ogni dato
+        // del lotto viene cercato in tempo costante invece di scorrere
+        // tutte le categorie come fa hasData
+        HashSet<E> existing = new HashSet<>();
+
+        for (Category<E> item : this.categories) {
+            existing.addAll(item.getAllData());
+        }
+
+        // valida tutto il lotto prima di modificare this
+        HashMap<String, Category<E>> targets = new HashMap<>();
+
+        for (Map.Entry<String, ? extends Collection<E>> entry : data.entrySet()) {
+            if (entry.getKey() == null) {
+                throw new NullPointerException();
+            }
+
+            Category<E> target = this.findCategory(entry.getKey());
+
+            if (target == null) {
+                throw new CategoryNotFoundException();
+            }
+
+            targets.put(entry.getKey(), target);
+
+            for (E subItem : entry.getValue()) {
+                if (subItem == null) {
+                    throw new NullPointerException();
+                }
+
+                if (!existing.add(subItem)) {
+                    throw new DataAlreadyPutException();
+                }
+            }
         }
 
+        int count = 0;
+
+        // aggiungi una deep copy di ogni dato alla sua categoria
+        for (Map.Entry<String, ? extends Collection<E>> entry : data.entrySet()) {
+            Category<E> target = targets.get(entry.getKey());
+
+            for (E subItem : entry.getValue()) {
+                E copy = (E)subItem.clone();
+                copy.setCategory(entry.getKey());
+
+                if (target.addData(copy)) {
+                    this.likeIndex.add(copy);
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(OwnerSession session, E data) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
         // fail fast, non aspettare il NullPointerException di a.clone()
         if (data == null) {
             throw new NullPointerException();
@@ -211,11 +453,9 @@ public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
 
     @Override
     @SuppressWarnings("unchecked")
-    public E remove(String passw, E data) throws UnauthorizedAccessException {
+    public E remove(OwnerSession session, E data) throws UnauthorizedAccessException {
         // validazione
-        if (!this.owner.authenticate(passw)) {
-            throw new UnauthorizedAccessException();
-        }
+        this.sessions.validate(session);
 
         // fail fast, non aspettare il NullPointerException di item.removeData(data)
         if (data == null) {
@@ -226,7 +466,11 @@ public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
         for (Category<E> item : this.categories) {
             if (item.hasData(data)) {
                 // rimuovi il dato e restituisci una deep copy
-                return (E)item.removeData(data).clone();
+                E removed = item.removeData(data);
+                this.likeIndex.remove(removed);
+                removed.release();
+
+                return (E)removed.clone();
             }
         }
 
@@ -235,11 +479,9 @@ public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
 
     @Override
     @SuppressWarnings("unchecked")
-    public List<E> getDataCategory(String passw, String category) throws UnauthorizedAccessException {
+    public List<E> getDataCategory(OwnerSession session, String category) throws UnauthorizedAccessException {
         // validazione
-        if (!this.owner.authenticate(passw)) {
-            throw new UnauthorizedAccessException();
-        }
+        this.sessions.validate(session);
 
         if (category == null) {
             throw new NullPointerException();
@@ -262,6 +504,78 @@ public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
         throw new CategoryNotFoundException();
     }
 
+    @Override
+    public Page<E> getDataCategoryPage(OwnerSession session, String category, Cursor<E> cursor, int limit)
+            throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (category == null || cursor == null) {
+            throw new NullPointerException();
+        }
+
+        Category<E> target = this.findCategory(category);
+
+        if (target == null) {
+            throw new CategoryNotFoundException();
+        }
+
+        if (limit <= 0 || !cursor.isValidFor(category)) {
+            throw new IllegalArgumentException();
+        }
+
+        int n = lookahead(limit);
+
+        return Page.of(cursor, this.dataAfter(target, cursor, n).iterator(), limit);
+    }
+
+    @Override
+    public ReadOnlyData getView(OwnerSession session, E data) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (data == null) {
+            throw new NullPointerException();
+        }
+
+        // cerca il dato nelle categorie
+        for (Category<E> item : this.categories) {
+            if (item.hasData(data)) {
+                // restituisci una vista del dato senza copiarlo
+                return new ReadOnlyDataView(item.getData(data));
+            }
+        }
+
+        throw new DataNotFoundException();
+    }
+
+    @Override
+    public List<ReadOnlyData> getDataCategoryView(OwnerSession session, String category)
+            throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (category == null) {
+            throw new NullPointerException();
+        }
+
+        // trova la categoria passata come parametro
+        for (Category<E> item : this.categories) {
+            if (item.getName().equals(category)) {
+                ArrayList<ReadOnlyData> viewList = new ArrayList<>(item.getAllData().size());
+
+                // crea una vista per ogni dato della categoria
+                for (E subItem : item.getAllData()) {
+                    viewList.add(new ReadOnlyDataView(subItem));
+                }
+
+                return viewList;
+            }
+        }
+
+        throw new CategoryNotFoundException();
+    }
+
     @Override
     public void insertLike(String friend, E data) throws UnauthorizedAccessException {
         // validazione
@@ -273,23 +587,23 @@ public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
         for (Category<E> item : this.categories) {
             if (item.hasData(data)) {
                 // controlla se friend può leggere data
-                if (!item.isReadableBy(new MyUser(friend))) {
+                int friendId = this.registry.idOf(friend);
+
+                if (friendId < 0 || !item.isReadableBy(this.registry.get(friendId))) {
                     throw new UnauthorizedAccessException();
                 }
 
                 E dataItem = item.getData(data);
 
                 // controlla se friend ha già inserito un like
-                List<User> likesList = dataItem.getLikes();
-
-                for (User user : likesList) {
-                    if (user.equals(new MyUser(friend))) {
-                        throw new FriendAlreadyAddedException();
-                    }
+                if (dataItem.hasLiked(friend)) {
+                    throw new FriendAlreadyAddedException();
                 }
 
-                // inserisci il like
+                // inserisci il like e aggiorna l'indice dei like
+                this.preserve(dataItem);
                 dataItem.insertLike(friend);
+                this.likeIndex.update(dataItem);
 
                 return;
             }
@@ -300,62 +614,159 @@ public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
     }
 
     @Override
-    public Iterator<E> getIterator(String passw) throws UnauthorizedAccessException {
+    public void insertLikes(Collection<LikeEvent<E>> likes) throws UnauthorizedAccessException {
         // validazione
-        if (!this.owner.authenticate(passw)) {
-            throw new UnauthorizedAccessException();
+        if (likes == null) {
+            throw new NullPointerException();
         }
 
-        // mergia tutti i dati delle category
-        List<E> dataList = new ArrayList<>();
+        // associa una sola volta ogni dato alla sua copia in this e
+        // alla sua categoria, così ogni like del lotto trova il dato
+        // in tempo costante
+        HashMap<E, E> stored = new HashMap<>();
+        HashMap<E, Category<E>> owners = new HashMap<>();
 
         for (Category<E> item : this.categories) {
-            dataList.addAll(item.getAllData());
+            for (E subItem : item.getAllData()) {
+                stored.put(subItem, subItem);
+                owners.put(subItem, item);
+            }
         }
 
-        // ordina decrescente
-        dataList.sort(Comparator.comparingInt(o -> -(o.getLikes().size())));
+        // valida tutto il lotto prima di modificare this
+        ArrayList<E> dataItems = new ArrayList<>(likes.size());
+        HashSet<LikeEvent<E>> batch = new HashSet<>();
+
+        for (LikeEvent<E> like : likes) {
+            Category<E> item = owners.get(like.getData());
+
+            if (item == null) {
+                throw new DataNotFoundException();
+            }
+
+            int friendId = this.registry.idOf(like.getFriend());
+
+            if (friendId < 0 || !item.isReadableBy(this.registry.get(friendId))) {
+                throw new UnauthorizedAccessException();
+            }
+
+            E dataItem = stored.get(like.getData());
+
+            if (dataItem.hasLiked(like.getFriend()) || !batch.add(like)) {
+                throw new FriendAlreadyAddedException();
+            }
+
+            dataItems.add(dataItem);
+        }
 
-        // disabilita il metodo remove dell'iteratore che verrà generato
-        // sfruttando il metodo Collections.unmodifiableList
-        dataList = Collections.unmodifiableList(dataList);
+        // inserisci i like e aggiorna l'indice dei like
+        Iterator<E> dataIterator = dataItems.iterator();
 
-        // ritorna l'iteratore
-        return dataList.iterator();
+        for (LikeEvent<E> like : likes) {
+            E dataItem = dataIterator.next();
+
+            this.preserve(dataItem);
+            dataItem.insertLike(like.getFriend());
+            this.likeIndex.update(dataItem);
+        }
     }
 
     @Override
-    public Iterator<E> getFriendIterator(String friend) throws UserNotFoundException {
-        List<E> dataList = new ArrayList<>();
+    public Iterator<E> getIterator(OwnerSession session) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
 
-        boolean friendFound = false;
+        // l'indice dei like è già ordinato in modo decrescente
+        // e il suo iteratore non supporta il metodo remove
+        return this.likeIndex.iterator();
+    }
 
-        User friendUser = new MyUser(friend);
+    @Override
+    public Iterator<E> getFriendIterator(String friend) throws UserNotFoundException {
+        LinkedHashSet<Category<E>> friendCategories = this.friendIndex.get(friend);
 
-        // cerca friend nelle categorie
-        for (Category<E> item : this.categories) {
+        // non esistono categorie leggibili
+        // da friend, errore
+        if (friendCategories == null) {
+            throw new UserNotFoundException();
+        }
 
-            // se lo trovo aggiungi i dati
-            // della categoria alla lista
-            if (item.isReadableBy(friendUser)) {
-                friendFound = true;
+        // scorri uno dopo l'altro i dati delle categorie
+        // leggibili da friend, senza copiarli in una lista;
+        // l'iteratore non supporta il metodo remove
+        return new ConcatIterator<>(friendCategories.stream()
+                .map(Category::getAllData)
+                .iterator());
+    }
 
-                dataList.addAll(item.getAllData());
-            }
+    @Override
+    public Page<E> getFriendPage(String friend, Cursor<E> cursor, int limit) throws UserNotFoundException {
+        // validazione
+        if (cursor == null) {
+            throw new NullPointerException();
         }
 
-        if (friendFound) {
-            // disabilita il metodo remove dell'iteratore che verrà generato
-            // sfruttando il metodo Collections.unmodifiableList
-            dataList = Collections.unmodifiableList(dataList);
-
-            // restituisci l'iteratore creato
-            return dataList.iterator();
+        if (limit <= 0) {
+            throw new IllegalArgumentException();
         }
 
+        LinkedHashSet<Category<E>> friendCategories = this.friendIndex.get(friend);
+
         // non esistono categorie leggibili
         // da friend, errore
-        throw new UserNotFoundException();
+        if (friendCategories == null) {
+            throw new UserNotFoundException();
+        }
+
+        ArrayList<Category<E>> sorted = new ArrayList<>(friendCategories);
+        ArrayList<E> dataList = new ArrayList<>();
+
+        int n = lookahead(limit);
+
+        sorted.sort(Comparator.comparing(Category::getName));
+
+        // seleziona i dati categoria per categoria, in ordine
+        // di nome, finché non c'è un dato oltre la pagina
+        for (Category<E> item : sorted) {
+            if (dataList.size() >= n) {
+                break;
+            }
+
+            if (cursor.isStart() || item.getName().compareTo(cursor.getCategory()) >= 0) {
+                dataList.addAll(this.dataAfter(item, cursor, n - dataList.size()));
+            }
+        }
+
+        return Page.of(cursor, dataList.iterator(), limit);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<E> getTopLiked(OwnerSession session, int k) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        // l'indice dei like è già ordinato,
+        // prendi solo i primi k dati
+        List<E> topList = this.likeIndex.top(k);
+
+        // ritorna una deep copy dei dati
+        topList.replaceAll(item -> (E)item.clone());
+
+        return topList;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<E> getFriendTopLiked(String friend, int k) throws UserNotFoundException {
+        // seleziona i k dati con più like fra quelli
+        // condivisi con friend usando un heap limitato
+        List<E> topList = LikeIndex.top(this.getFriendIterator(friend), k);
+
+        // ritorna una deep copy dei dati
+        topList.replaceAll(item -> (E)item.clone());
+
+        return topList;
     }
 
     @Override
@@ -427,4 +838,86 @@ public class MyDataBoardArrayList<E extends Data> implements DataBoard<E> {
         // il dato non è stato trovato, errore
         throw new DataNotFoundException();
     }
+
+    @Override
+    public SnapshotImage<E> captureSnapshot() {
+        // validazione
+        if (this.image != null && !this.image.isClosed()) {
+            throw new IllegalStateException();
+        }
+
+        LinkedHashMap<String, IntSet> categoryReaders = new LinkedHashMap<>();
+        ArrayList<E> data = new ArrayList<>(this.likeIndex.size());
+
+        // dei dati copia solo i riferimenti, categoria per categoria;
+        // quelli modificati in seguito vengono conservati da preserve
+        for (Category<E> item : this.categories) {
+            IntSet readers = new IntSet();
+
+            for (int friendId : item.getReaders()) {
+                readers.add(friendId);
+            }
+
+            categoryReaders.put(item.getName(), readers);
+            data.addAll(item.getAllData());
+        }
+
+        this.image = new SnapshotImage<>(categoryReaders, data);
+
+        return this.image;
+    }
+
+    /*
+     * Conserva un dato per l'immagine in corso prima di modificarlo
+     */
+    private void preserve(E item) {
+        SnapshotImage<E> current = this.image;
+
+        if (current != null) {
+            current.preserve(item);
+        }
+    }
+    /*
+     * REQUIRES: item è un dato di this che sta per essere modificato
+     * MODIFIES: this.image
+     * EFFECTS: se c'è un'immagine di this aperta le passa item
+     */
+
+    @Override
+    public void loadSnapshot(SnapshotReader<E> reader) throws IOException {
+        // validazione
+        if (!this.categories.isEmpty()) {
+            throw new IllegalStateException();
+        }
+
+        // costruisci direttamente le categorie e l'indice
+        // inverso dei permessi, senza i controlli di addFriend
+        HashMap<String, Category<E>> loaded = new HashMap<>();
+        int categoryCount = reader.readCount();
+
+        for (int i = 0; i < categoryCount; i++) {
+            Category<E> item = new MyCategory<>(reader.readCategory());
+
+            reader.readReaders().forEach(friendId -> {
+                User friendUser = this.registry.get(friendId);
+
+                item.allowRead(friendUser);
+                this.friendIndex.computeIfAbsent(friendUser.getName(), k -> new LinkedHashSet<>()).add(item);
+            });
+
+            this.categories.add(item);
+            loaded.put(item.getName(), item);
+        }
+
+        // i dati della snapshot sono già copie, non serve
+        // né cercarli con hasData né copiarli come fa put
+        int dataCount = reader.readCount();
+
+        for (int i = 0; i < dataCount; i++) {
+            E subItem = reader.readData();
+
+            loaded.get(subItem.getCategory()).addData(subItem);
+            this.likeIndex.add(subItem);
+        }
+    }
 }
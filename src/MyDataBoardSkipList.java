@@ -0,0 +1,1043 @@
+import exceptions.*;
+import indexes.ConcatIterator;
+import indexes.IntMap;
+import indexes.LikeIndex;
+import indexes.SnapshotRegistry;
+import interfaces.Data;
+import interfaces.DataBoard;
+import interfaces.OwnerSession;
+import interfaces.ReadOnlyData;
+import interfaces.User;
+import models.Cursor;
+import models.LikeEvent;
+import models.Page;
+import models.ReadOnlyDataView;
+import models.SessionManager;
+import models.UserRegistry;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class MyDataBoardSkipList<E extends Data> implements DataBoard<E> {
+    /*
+     * OVERVIEW: una MyDataBoardSkipList è una bacheca che può essere condivisa
+     * fra più thread, costruita su mappe ordinate concorrenti: le letture non
+     * prendono lock e non bloccano mai le modifiche, che sono serializzate da
+     * un unico lock; ogni modifica dei dati crea una nuova versione della
+     * bacheca e gli iteratori, senza copiare la bacheca, generano i dati
+     * della versione corrente al momento della loro creazione
+     */
+
+    /*
+     * Una versione di un dato: la copia del dato valida dalla versione
+     * from (inclusa) della bacheca alla versione to (esclusa)
+     */
+    private static final class Version<E extends Data> {
+        // il dato, modificato solo dagli scrittori
+        final E item;
+
+        // copia del dato in questa versione, non viene mai modificata
+        final E data;
+
+        final long from;
+        volatile long to;
+
+        // le chiavi della versione nell'indice dei like
+        // e nella mappa della sua categoria
+        final VersionKey likeKey;
+        final VersionKey categoryKey;
+
+        // la mappa della categoria, che può essere già stata
+        // rimossa dalla bacheca quando la versione viene raccolta
+        final ConcurrentSkipListMap<VersionKey, Version<E>> categoryData;
+
+        @SuppressWarnings("unchecked")
+        Version(E item, long from, ConcurrentSkipListMap<VersionKey, Version<E>> categoryData) {
+            this.item = item;
+            this.data = (E)item.clone();
+            this.from = from;
+            this.to = Long.MAX_VALUE;
+            this.likeKey = new VersionKey(this.data.getLikeCount(), this.data.id(), from);
+            this.categoryKey = new VersionKey(0, this.data.id(), from);
+            this.categoryData = categoryData;
+        }
+    }
+
+    /*
+     * La posizione di una versione in un indice: le versioni sono ordinate
+     * per like in ordine decrescente, a parità di like per id in ordine
+     * decrescente come in MyData.compareTo e poi per versione; nelle
+     * mappe delle categorie likes è sempre 0
+     */
+    private static final class VersionKey implements Comparable<VersionKey> {
+        final int likes;
+        final int id;
+        final long from;
+
+        VersionKey(int likes, int id, long from) {
+            this.likes = likes;
+            this.id = id;
+            this.from = from;
+        }
+
+        @Override
+        public int compareTo(VersionKey key) {
+            int result = Integer.compare(key.likes, this.likes);
+
+            if (result == 0) {
+                result = Integer.compare(key.id, this.id);
+            }
+
+            return result != 0 ? result : Long.compare(key.from, this.from);
+        }
+    }
+
+    // le sessioni dello user proprietario della bacheca
+    private final SessionManager sessions;
+
+    // associa ad ogni categoria l'insieme degli id
+    // (in UserRegistry) degli user con i permessi di lettura
+    private final ConcurrentHashMap<String, Set<Integer>> categories;
+
+    // indice primario dei dati per id
+    private final ConcurrentSkipListMap<Integer, E> dataIndex;
+
+    // associa all'id di ogni dato la sua versione
+    // corrente, usato solo dagli scrittori
+    private final IntMap<Version<E>> versions;
+
+    // indice secondario delle versioni dei dati per categoria,
+    // le versioni di ogni categoria sono ordinate per id
+    private final ConcurrentHashMap<String, ConcurrentSkipListMap<VersionKey, Version<E>>> categoryIndex;
+
+    // indice inverso dei permessi di lettura, associa
+    // all'id di ogni friend le categorie che può leggere
+    private final ConcurrentHashMap<Integer, Set<String>> friendIndex;
+
+    // indice delle versioni dei dati ordinate per numero di like
+    private final ConcurrentSkipListMap<VersionKey, Version<E>> likeIndex;
+
+    // la versione corrente della bacheca e le versioni fissate dai lettori
+    private final SnapshotRegistry snapshots;
+
+    // le versioni superate in ordine di versione to,
+    // da rimuovere dagli indici quando nessuno può più leggerle
+    private final ArrayDeque<Version<E>> retired;
+
+    // il registro degli user
+    private final UserRegistry registry;
+
+    // serializza le modifiche, le letture non lo prendono mai
+    private final ReentrantLock writeLock;
+
+    /*
+     * AF: α(c) = { c.dataIndex.get(id) | id in c.dataIndex.keySet() }
+     *
+     * IR: I(c) = c.categoryIndex.keySet().equals(c.categories.keySet())
+     *              e per ogni data in c.dataIndex.values(),
+     *                  c.categoryIndex.get(data.getCategory()).get(data.id()) == data
+     *              e la somma delle dimensioni delle mappe di c.categoryIndex == c.dataIndex.size()
+     *              e per ogni id e category, c.friendIndex.get(id).contains(category)
+     *                  se e solo se c.categories.get(category).contains(id)
+     *              e per ogni id, c.friendIndex.get(id) == null oppure non è vuoto
+     *              e per ogni data in c.dataIndex.values(), c.versions.get(data.id()).item == data
+     *                  e c.versions.get(data.id()).to == Long.MAX_VALUE
+     *              e per ogni versione v in c.likeIndex.values(), c.likeIndex.get(v.likeKey) == v
+     *                  e v.categoryData.get(v.categoryKey) == v
+     *              e per ogni id, gli intervalli [from, to) delle versioni in c.likeIndex
+     *                  con quell'id sono disgiunti
+     *              e c.retired contiene tutte e sole le versioni in c.likeIndex con
+     *                  to != Long.MAX_VALUE, in ordine di to
+     *
+     * Un lettore che ha fissato la versione s vede i dati delle versioni v con
+     * v.from <= s < v.to, le modifiche ad una nuova versione vengono pubblicate
+     * tutte insieme da c.snapshots.publish; le versioni superate restano negli
+     * indici finché la versione più vecchia fissata non è >= v.to.
+     */
+
+    /*
+     * inizializza this e
+     * assegna l'owner della bacheca
+     */
+    public MyDataBoardSkipList(User owner) {
+        this.sessions = new SessionManager(owner);
+        this.categories = new ConcurrentHashMap<>();
+        this.dataIndex = new ConcurrentSkipListMap<>();
+        this.versions = new IntMap<>();
+        this.categoryIndex = new ConcurrentHashMap<>();
+        this.friendIndex = new ConcurrentHashMap<>();
+        this.likeIndex = new ConcurrentSkipListMap<>();
+        this.snapshots = new SnapshotRegistry();
+        this.retired = new ArrayDeque<>();
+        this.registry = UserRegistry.getInstance();
+        this.writeLock = new ReentrantLock();
+    }
+    /*
+     * EFFECTS: inizializza this a bacheca vuota
+     *          e inizializza l'owner con lo user passato come argomento
+     */
+
+    @Override
+    public OwnerSession openSession(String passw) throws UnauthorizedAccessException {
+        return this.sessions.open(passw);
+    }
+
+    @Override
+    public void closeSession(OwnerSession session) throws UnauthorizedAccessException {
+        this.sessions.close(session);
+    }
+
+    @Override
+    public void createCategory(String category, OwnerSession session) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (category == null) {
+            throw new NullPointerException();
+        }
+
+        this.writeLock.lock();
+
+        try {
+            if (this.hasCategory(category)) {
+                throw new CategoryAlreadyExistsException();
+            }
+
+            // aggiungi la categoria, prima i dati
+            // così chi vede la categoria trova anche i suoi dati
+            this.categoryIndex.put(category, new ConcurrentSkipListMap<>());
+            this.categories.put(category, ConcurrentHashMap.newKeySet());
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeCategory(String category, OwnerSession session) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (category == null) {
+            throw new NullPointerException();
+        }
+
+        this.writeLock.lock();
+
+        try {
+            if (!this.hasCategory(category)) {
+                throw new CategoryNotFoundException();
+            }
+
+            // rimuovi prima la categoria, poi i suoi dati
+            // in una nuova versione
+            Set<Integer> readers = this.categories.remove(category);
+            ConcurrentSkipListMap<VersionKey, Version<E>> categoryData = this.categoryIndex.remove(category);
+            long next = this.snapshots.version() + 1;
+
+            for (Version<E> version : categoryData.values()) {
+                if (version.to == Long.MAX_VALUE) {
+                    this.retire(version.item, next);
+                    this.dataIndex.remove(version.item.id());
+                    version.item.release();
+                }
+            }
+
+            this.publish(next);
+
+            // aggiorna l'indice inverso dei permessi
+            for (Integer friendId : readers) {
+                this.unindexFriend(friendId, category);
+            }
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void addFriend(String category, OwnerSession session, String friend) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (category == null || friend == null) {
+            throw new NullPointerException();
+        }
+
+        this.writeLock.lock();
+
+        try {
+            if (!this.hasCategory(category)) {
+                throw new CategoryNotFoundException();
+            }
+
+            int friendId = this.registry.intern(friend);
+
+            // aggiungi friend ai permessi della categoria
+            if (!this.categories.get(category).add(friendId)) {
+                throw new FriendAlreadyAddedException();
+            }
+
+            // aggiorna l'indice inverso dei permessi
+            this.friendIndex.computeIfAbsent(friendId, k -> ConcurrentHashMap.newKeySet()).add(category);
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void addFriends(String category, OwnerSession session, Collection<String> friends)
+            throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (category == null || friends == null) {
+            throw new NullPointerException();
+        }
+
+        this.writeLock.lock();
+
+        try {
+            if (!this.hasCategory(category)) {
+                throw new CategoryNotFoundException();
+            }
+
+            Set<Integer> readers = this.categories.get(category);
+            LinkedHashSet<String> batch = new LinkedHashSet<>();
+
+            // valida tutto il lotto prima di modificare this, senza
+            // registrare i nomi di un lotto che potrebbe essere rifiutato
+            for (String friend : friends) {
+                if (friend == null) {
+                    throw new NullPointerException();
+                }
+
+                if (readers.contains(this.registry.idOf(friend)) || !batch.add(friend)) {
+                    throw new FriendAlreadyAddedException();
+                }
+            }
+
+            // aggiungi gli amici e aggiorna l'indice inverso dei permessi
+            for (String friend : batch) {
+                int friendId = this.registry.intern(friend);
+
+                readers.add(friendId);
+                this.friendIndex.computeIfAbsent(friendId, k -> ConcurrentHashMap.newKeySet()).add(category);
+            }
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeFriend(String category, OwnerSession session, String friend) throws UnauthorizedAccessException,
+            UserNotFoundException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (category == null || friend == null) {
+            throw new NullPointerException();
+        }
+
+        this.writeLock.lock();
+
+        try {
+            if (!this.hasCategory(category)) {
+                throw new CategoryNotFoundException();
+            }
+
+            int friendId = this.registry.idOf(friend);
+
+            // friend non è presente nella
+            // categoria, errore
+            if (!this.categories.get(category).remove(friendId)) {
+                throw new UserNotFoundException();
+            }
+
+            this.unindexFriend(friendId, category);
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /*
+     * Rimuove una categoria dall'indice inverso dei permessi di friend
+     */
+    private void unindexFriend(int friendId, String category) {
+        Set<String> friendCategories = this.friendIndex.get(friendId);
+        friendCategories.remove(category);
+
+        // non tenere friend che non leggono più nessuna categoria
+        if (friendCategories.isEmpty()) {
+            this.friendIndex.remove(friendId);
+        }
+    }
+    /*
+     * REQUIRES: this.writeLock è preso dal thread corrente
+     *           && this.friendIndex.get(friendId).contains(category)
+     * MODIFIES: this
+     * EFFECTS: category viene rimossa dalle categorie di friendId
+     */
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean put(OwnerSession session, E data, String category) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (data == null || category == null) {
+            throw new NullPointerException();
+        }
+
+        this.writeLock.lock();
+
+        try {
+            if (!this.hasCategory(category)) {
+                throw new CategoryNotFoundException();
+            }
+
+            if (this.hasData(data)) {
+                throw new DataAlreadyPutException();
+            }
+
+            // un dato diverso con lo stesso id
+            if (this.dataIndex.containsKey(data.id())) {
+                return false;
+            }
+
+            // aggiungi una deep copy di data con la sua categoria
+            E copy = (E)data.clone();
+            copy.setCategory(category);
+
+            long next = this.snapshots.version() + 1;
+
+            this.dataIndex.put(copy.id(), copy);
+            this.addVersion(copy, next);
+            this.publish(next);
+
+            return true;
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int putAll(OwnerSession session, Map<String, ? extends Collection<E>> data)
+            throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (data == null) {
+            throw new NullPointerException();
+        }
+
+        this.writeLock.lock();
+
+        try {
+            HashSet<E> batch = new HashSet<>();
+
+            // valida tutto il lotto prima di modificare this
+            for (Map.Entry<String, ? extends Collection<E>> entry : data.entrySet()) {
+                if (!this.hasCategory(entry.getKey())) {
+                    throw new CategoryNotFoundException();
+                }
+
+                for (E item : entry.getValue()) {
+                    if (item == null) {
+                        throw new NullPointerException();
+                    }
+
+                    if (this.hasData(item) || !batch.add(item)) {
+                        throw new DataAlreadyPutException();
+                    }
+                }
+            }
+
+            // inserisci tutti i dati in una sola nuova versione,
+            // così i lettori vedono il lotto intero o niente
+            long next = this.snapshots.version() + 1;
+            int count = 0;
+
+            for (Map.Entry<String, ? extends Collection<E>> entry : data.entrySet()) {
+                for (E item : entry.getValue()) {
+                    // un dato diverso con lo stesso id
+                    if (this.dataIndex.containsKey(item.id())) {
+                        continue;
+                    }
+
+                    E copy = (E)item.clone();
+                    copy.setCategory(entry.getKey());
+
+                    this.dataIndex.put(copy.id(), copy);
+                    this.addVersion(copy, next);
+                    count++;
+                }
+            }
+
+            this.publish(next);
+
+            return count;
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(OwnerSession session, E data) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        // restituisci una deep copy del dato
+        return (E)this.getData(data).clone();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(OwnerSession session, E data) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        this.writeLock.lock();
+
+        try {
+            E item = this.getData(data);
+
+            // rimuovi il dato in una nuova versione
+            // e restituisci una deep copy
+            long next = this.snapshots.version() + 1;
+
+            this.retire(item, next);
+            this.dataIndex.remove(item.id());
+            this.publish(next);
+            item.release();
+
+            return (E)item.clone();
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<E> getDataCategory(OwnerSession session, String category) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        // ritorna una deep copy della lista
+        // di dati della categoria
+        return this.getCategoryData(category, version -> (E)version.data.clone());
+    }
+
+    @Override
+    public Page<E> getDataCategoryPage(OwnerSession session, String category, Cursor<E> cursor, int limit)
+            throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (category == null || cursor == null) {
+            throw new NullPointerException();
+        }
+
+        ConcurrentSkipListMap<VersionKey, Version<E>> categoryData = this.categoryIndex.get(category);
+
+        if (categoryData == null) {
+            throw new CategoryNotFoundException();
+        }
+
+        if (limit <= 0 || !cursor.isValidFor(category)) {
+            throw new IllegalArgumentException();
+        }
+
+        // cerca la versione che segue il cursore in O(log n) e
+        // copia solo i dati della pagina nella versione corrente
+        try (SnapshotIterator<E> iterator = new SnapshotIterator<>(
+                () -> this.versionsAfter(categoryData, category, cursor).iterator(), version -> version.data)) {
+            return Page.of(cursor, iterator, limit);
+        }
+    }
+
+    @Override
+    public ReadOnlyData getView(OwnerSession session, E data) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        // restituisci una vista del dato senza copiarlo
+        return new ReadOnlyDataView(this.getData(data));
+    }
+
+    @Override
+    public List<ReadOnlyData> getDataCategoryView(OwnerSession session, String category)
+            throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        // crea una vista per ogni dato della categoria
+        return this.getCategoryData(category, version -> new ReadOnlyDataView(version.item));
+    }
+
+    @Override
+    public void insertLike(String friend, E data) throws UnauthorizedAccessException {
+        this.writeLock.lock();
+
+        try {
+            E item = this.getData(data);
+
+            // controlla che friend abbia
+            // i permessi di lettura
+            if (!this.categories.get(item.getCategory()).contains(this.registry.idOf(friend))) {
+                throw new UnauthorizedAccessException();
+            }
+
+            // controlla se friend ha già inserito un like
+            if (item.hasLiked(friend)) {
+                throw new FriendAlreadyAddedException();
+            }
+
+            // inserisci il like in una nuova versione del dato
+            long next = this.snapshots.version() + 1;
+
+            item.insertLike(friend);
+            this.retire(item, next);
+            this.addVersion(item, next);
+            this.publish(next);
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void insertLikes(Collection<LikeEvent<E>> likes) throws UnauthorizedAccessException {
+        // validazione
+        if (likes == null) {
+            throw new NullPointerException();
+        }
+
+        this.writeLock.lock();
+
+        try {
+            ArrayList<E> items = new ArrayList<>(likes.size());
+            HashSet<LikeEvent<E>> batch = new HashSet<>();
+
+            // valida tutto il lotto prima di modificare this
+            for (LikeEvent<E> like : likes) {
+                E item = this.getData(like.getData());
+
+                if (!this.categories.get(item.getCategory()).contains(this.registry.idOf(like.getFriend()))) {
+                    throw new UnauthorizedAccessException();
+                }
+
+                if (item.hasLiked(like.getFriend()) || !batch.add(like)) {
+                    throw new FriendAlreadyAddedException();
+                }
+
+                items.add(item);
+            }
+
+            // inserisci i like
+            Iterator<E> itemIterator = items.iterator();
+
+            for (LikeEvent<E> like : likes) {
+                itemIterator.next().insertLike(like.getFriend());
+            }
+
+            // crea una sola nuova versione di ogni dato,
+            // anche se ha ricevuto più like nel lotto
+            long next = this.snapshots.version() + 1;
+
+            for (E item : new LinkedHashSet<>(items)) {
+                this.retire(item, next);
+                this.addVersion(item, next);
+            }
+
+            this.publish(next);
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<E> getIterator(OwnerSession session) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        // scorri le versioni dell'indice dei like senza copiarlo,
+        // generando solo quelle della versione corrente
+        return this.snapshotIterator(() -> this.likeIndex.values().iterator());
+    }
+
+    @Override
+    public Iterator<E> getFriendIterator(String friend) throws UserNotFoundException {
+        Set<String> friendCategories = this.friendIndex.get(this.registry.idOf(friend));
+
+        // non esistono categorie leggibili
+        // da friend, errore
+        if (friendCategories == null) {
+            throw new UserNotFoundException();
+        }
+
+        // prendi le mappe delle categorie leggibili da friend prima di
+        // fissare la versione: una categoria rimossa dopo resta nella
+        // sua mappa con i dati della versione fissata
+        ArrayList<Collection<Version<E>>> friendData = new ArrayList<>();
+
+        for (String category : friendCategories) {
+            ConcurrentSkipListMap<VersionKey, Version<E>> categoryData = this.categoryIndex.get(category);
+
+            if (categoryData != null) {
+                friendData.add(categoryData.values());
+            }
+        }
+
+        // scorri uno dopo l'altro i dati delle categorie
+        // leggibili da friend nella versione corrente
+        return this.snapshotIterator(() -> new ConcatIterator<>(friendData.iterator()));
+    }
+
+    @Override
+    public Page<E> getFriendPage(String friend, Cursor<E> cursor, int limit) throws UserNotFoundException {
+        // validazione
+        if (cursor == null) {
+            throw new NullPointerException();
+        }
+
+        if (limit <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        Set<String> friendCategories = this.friendIndex.get(this.registry.idOf(friend));
+
+        // non esistono categorie leggibili
+        // da friend, errore
+        if (friendCategories == null) {
+            throw new UserNotFoundException();
+        }
+
+        // ordina per nome solo le categorie leggibili da friend,
+        // che sono poche rispetto ai dati, e salta quelle
+        // che precedono la categoria del cursore
+        TreeMap<String, ConcurrentSkipListMap<VersionKey, Version<E>>> friendData = new TreeMap<>();
+
+        for (String category : friendCategories) {
+            ConcurrentSkipListMap<VersionKey, Version<E>> categoryData = this.categoryIndex.get(category);
+
+            if (categoryData != null && (cursor.isStart() || category.compareTo(cursor.getCategory()) >= 0)) {
+                friendData.put(category, categoryData);
+            }
+        }
+
+        ArrayList<Collection<Version<E>>> sources = new ArrayList<>(friendData.size());
+
+        for (Map.Entry<String, ConcurrentSkipListMap<VersionKey, Version<E>>> entry : friendData.entrySet()) {
+            sources.add(this.versionsAfter(entry.getValue(), entry.getKey(), cursor));
+        }
+
+        // scorri uno dopo l'altro i dati che seguono il cursore e
+        // copia solo quelli della pagina nella versione corrente
+        try (SnapshotIterator<E> iterator = new SnapshotIterator<>(
+                () -> new ConcatIterator<>(sources.iterator()), version -> version.data)) {
+            return Page.of(cursor, iterator, limit);
+        }
+    }
+
+    @Override
+    public List<E> getTopLiked(OwnerSession session, int k) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (k < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        // l'indice dei like è già ordinato,
+        // prendi solo i primi k dati
+        ArrayList<E> topList = new ArrayList<>();
+
+        try (SnapshotIterator<E> iterator = this.snapshotIterator(() -> this.likeIndex.values().iterator())) {
+            while (topList.size() < k && iterator.hasNext()) {
+                topList.add(iterator.next());
+            }
+        }
+
+        return topList;
+    }
+
+    @Override
+    public List<E> getFriendTopLiked(String friend, int k) throws UserNotFoundException {
+        // seleziona i k dati con più like fra quelli condivisi
+        // con friend usando un heap limitato, l'iteratore
+        // genera già delle deep copy
+        return LikeIndex.top(this.getFriendIterator(friend), k);
+    }
+
+    @Override
+    public boolean hasCategory(String category) {
+        //validazione
+        if (category == null) {
+            throw new NullPointerException();
+        }
+
+        return this.categories.containsKey(category);
+    }
+
+    @Override
+    public boolean isReadableBy(String category, User user) {
+        Set<Integer> readers = this.categories.get(category);
+
+        if (readers == null) {
+            throw new CategoryNotFoundException();
+        }
+
+        return user != null && readers.contains(this.registry.idOf(user.getName()));
+    }
+
+    @Override
+    public boolean hasData(E data) {
+        //validazione
+        if (data == null) {
+            throw new NullPointerException();
+        }
+
+        // cerca il dato tramite l'indice per id
+        return this.findData(data) != null;
+    }
+
+    @Override
+    public List<User> getLikes(E data) {
+        //se lo trovo ritorna i like
+        return this.getData(data).getLikes();
+    }
+
+    /*
+     * Cerca un dato di this uguale a data
+     */
+    private E findData(E data) {
+        E item = this.dataIndex.get(data.id());
+
+        // l'id da solo non basta, verifica anche
+        // il body come fa il metodo equals
+        if (item != null && item.equals(data)) {
+            return item;
+        }
+
+        return null;
+    }
+    /*
+     * REQUIRES: data != null
+     * RETURNS: restituisce il dato di this uguale a data, null se non è presente
+     */
+
+    /*
+     * Restituisce il dato di this uguale a data
+     */
+    private E getData(E data) {
+        // validazione
+        if (data == null) {
+            throw new NullPointerException();
+        }
+
+        E item = this.findData(data);
+
+        // il dato non è stato trovato, errore
+        if (item == null) {
+            throw new DataNotFoundException();
+        }
+
+        return item;
+    }
+    /*
+     * REQUIRES: data != null
+     * RETURNS: restituisce il dato di this uguale a data
+     * THROWS: se data == null solleva una NullPointerException
+     *         se data non è presente in this solleva una DataNotFoundException
+     */
+
+    /*
+     * Applica mapper alle versioni correnti dei dati di una categoria
+     */
+    private <T> List<T> getCategoryData(String category, Function<Version<E>, T> mapper) {
+        // validazione
+        if (category == null) {
+            throw new NullPointerException();
+        }
+
+        ConcurrentSkipListMap<VersionKey, Version<E>> categoryData = this.categoryIndex.get(category);
+
+        if (categoryData == null) {
+            throw new CategoryNotFoundException();
+        }
+
+        ArrayList<T> list = new ArrayList<>();
+        SnapshotIterator<T> iterator = new SnapshotIterator<>(() -> categoryData.values().iterator(), mapper);
+
+        // l'iteratore rilascia la versione quando è consumato
+        iterator.forEachRemaining(list::add);
+
+        return list;
+    }
+    /*
+     * REQUIRES: category != null && mapper != null
+     * RETURNS: restituisce i risultati di mapper sulle versioni dei dati
+     *          di category nella versione corrente della bacheca
+     * THROWS: se category == null solleva una NullPointerException
+     *         se category non è presente solleva una CategoryNotFoundException
+     */
+
+    /*
+     * Restituisce le versioni dei dati di una categoria che seguono un cursore
+     */
+    private Collection<Version<E>> versionsAfter(ConcurrentSkipListMap<VersionKey, Version<E>> categoryData,
+                                                 String category, Cursor<E> cursor) {
+        // nella categoria del cursore riparti dopo tutte le versioni
+        // del suo dato, la chiave con from minimo le segue tutte
+        if (!cursor.isStart() && category.equals(cursor.getCategory())) {
+            VersionKey key = new VersionKey(0, cursor.getKey().id(), Long.MIN_VALUE);
+
+            return categoryData.tailMap(key, false).values();
+        }
+
+        return categoryData.values();
+    }
+    /*
+     * REQUIRES: categoryData è la mappa di category && cursor != null
+     * RETURNS: restituisce una vista, senza copiarle, delle versioni di
+     *          categoryData che seguono cursor nell'ordine delle pagine
+     */
+
+    /*
+     * Aggiunge la nuova versione di un dato
+     */
+    private void addVersion(E item, long next) {
+        Version<E> version = new Version<>(item, next, this.categoryIndex.get(item.getCategory()));
+
+        this.versions.put(item.id(), version);
+        this.likeIndex.put(version.likeKey, version);
+        version.categoryData.put(version.categoryKey, version);
+    }
+    /*
+     * REQUIRES: this.writeLock è preso dal thread corrente
+     *           && next == this.snapshots.version() + 1
+     * MODIFIES: this
+     * EFFECTS: aggiunge una copia di item come versione valida da next,
+     *          invisibile ai lettori finché next non viene pubblicata
+     */
+
+    /*
+     * Chiude la versione corrente di un dato
+     */
+    private void retire(E item, long next) {
+        Version<E> version = this.versions.remove(item.id());
+
+        version.to = next;
+        this.retired.add(version);
+    }
+    /*
+     * REQUIRES: this.writeLock è preso dal thread corrente
+     *           && next == this.snapshots.version() + 1
+     *           && item ha una versione corrente
+     * MODIFIES: this
+     * EFFECTS: la versione corrente di item non è più valida da next
+     */
+
+    /*
+     * Pubblica una nuova versione e raccoglie le versioni superate
+     */
+    private void publish(long next) {
+        this.snapshots.publish(next);
+
+        // rimuovi le versioni che nessun lettore può più leggere,
+        // sono in ordine di to quindi basta fermarsi alla prima
+        long oldest = this.snapshots.oldest();
+
+        while (!this.retired.isEmpty() && this.retired.peek().to <= oldest) {
+            Version<E> version = this.retired.poll();
+
+            this.likeIndex.remove(version.likeKey);
+            version.categoryData.remove(version.categoryKey);
+        }
+    }
+    /*
+     * REQUIRES: this.writeLock è preso dal thread corrente
+     *           && next == this.snapshots.version() + 1
+     * MODIFIES: this
+     * EFFECTS: pubblica next e rimuove dagli indici le versioni
+     *          non più valide da una versione <= this.snapshots.oldest()
+     */
+
+    /*
+     * Crea un iteratore che genera le deep copy
+     * dei dati della versione corrente
+     */
+    @SuppressWarnings("unchecked")
+    private SnapshotIterator<E> snapshotIterator(Supplier<Iterator<Version<E>>> source) {
+        return new SnapshotIterator<>(source, version -> (E)version.data.clone());
+    }
+
+    /*
+     * Un iteratore (senza remove) sulle versioni visibili in una versione
+     * fissata della bacheca, che viene rilasciata quando l'iteratore è
+     * consumato, chiuso o non più raggiungibile
+     */
+    private final class SnapshotIterator<T> implements Iterator<T>, AutoCloseable {
+        private final Iterator<Version<E>> source;
+        private final Function<Version<E>, T> mapper;
+        private final SnapshotRegistry.Snapshot snapshot;
+
+        // la prossima versione da generare, null se l'iteratore è consumato
+        private Version<E> next;
+
+        SnapshotIterator(Supplier<Iterator<Version<E>>> source, Function<Version<E>, T> mapper) {
+            this.mapper = mapper;
+
+            // fissa la versione prima di creare l'iteratore sulle mappe:
+            // un iteratore di ConcurrentSkipListMap ricorda il primo nodo
+            // quando viene creato, quindi una nuova versione inserita prima
+            // di quel nodo non verrebbe generata, mentre quella superata
+            // sarebbe già invisibile nella versione fissata dopo
+            this.snapshot = MyDataBoardSkipList.this.snapshots.pin(this);
+            this.source = source.get();
+            this.next = this.advance();
+        }
+
+        // cerca la prossima versione visibile
+        private Version<E> advance() {
+            while (this.source.hasNext()) {
+                Version<E> version = this.source.next();
+
+                if (this.snapshot.isVisible(version.from, version.to)) {
+                    return version;
+                }
+            }
+
+            // l'iteratore è consumato, rilascia la versione
+            this.close();
+
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public T next() {
+            if (this.next == null) {
+                throw new NoSuchElementException();
+            }
+
+            Version<E> version = this.next;
+            this.next = this.advance();
+
+            return this.mapper.apply(version);
+        }
+
+        @Override
+        public void close() {
+            this.snapshot.close();
+        }
+    }
+}
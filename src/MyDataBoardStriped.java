@@ -0,0 +1,1088 @@
+import exceptions.*;
+import indexes.IntMap;
+import indexes.IntSet;
+import indexes.LikeCounter;
+import indexes.LikeIndex;
+import interfaces.Data;
+import interfaces.DataBoard;
+import interfaces.OwnerSession;
+import interfaces.ReadOnlyData;
+import interfaces.User;
+import models.Cursor;
+import models.LikeEvent;
+import models.Page;
+import models.ReadOnlyDataView;
+import models.SessionManager;
+import models.UserRegistry;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiFunction;
+
+public class MyDataBoardStriped<E extends Data> implements DataBoard<E> {
+    /*
+     * OVERVIEW: una MyDataBoardStriped è una bacheca che può essere condivisa
+     * fra più thread, il suo stato è diviso per categoria e ogni categoria ha
+     * il proprio lock, quindi le operazioni su categorie diverse procedono
+     * in parallelo; i like vengono inseriti con il lock della categoria in
+     * lettura e senza lock sul dato, quindi anche i like allo stesso dato
+     * procedono in parallelo
+     */
+
+    /*
+     * Una categoria con i propri dati, i propri permessi di lettura
+     * ed il lock che li protegge
+     */
+    private static final class Stripe<E extends Data> {
+        // non rientrante, nessuna operazione lo prende due volte
+        final StampedLock lock = new StampedLock();
+
+        // gli id (in UserRegistry) degli user con i permessi di lettura
+        final IntSet readers = new IntSet();
+
+        // i dati della categoria ordinati per id
+        final TreeSet<E> dataSet = new TreeSet<>();
+
+        // associa all'id di ogni dato della categoria i suoi like,
+        // inseriti senza lock e consegnati al dato quando viene letto
+        final IntMap<LikeCounter> likes = new IntMap<>();
+
+        // true se la categoria è stata rimossa dalla bacheca
+        boolean removed = false;
+
+        // verifica se item è un dato della categoria,
+        // richiede il lock della categoria
+        boolean contains(E item) {
+            return !this.removed && this.dataSet.floor(item) == item;
+        }
+
+        // restituisce item con tutti i like inseriti prima della chiamata,
+        // richiede il lock della categoria in lettura. I like in attesa
+        // vengono consegnati ad item, a meno che non lo stia già facendo
+        // un altro thread: in quel caso, invece di attenderlo, restituisce
+        // una copia di item con i like ancora in attesa. I like in attesa
+        // vengono letti prima di copiare item, così un like consegnato nel
+        // frattempo è nella copia oppure fra quelli letti
+        @SuppressWarnings("unchecked")
+        E current(E item) {
+            LikeCounter counter = this.likes.get(item.id());
+
+            counter.tryDrainTo(item::insertLike);
+
+            if (!counter.hasPending()) {
+                return item;
+            }
+
+            int[] waiting = counter.pending();
+            E copy = (E)item.clone();
+
+            for (int id : waiting) {
+                copy.insertLike(id);
+            }
+
+            return copy;
+        }
+
+        // consegna ad item i like in attesa e lo restituisce, attendendo
+        // il thread che li sta già consegnando; richiede il lock della
+        // categoria in lettura. Le consegne sono serializzate dal
+        // LikeCounter e i like del dato sono un insieme persistente
+        // pubblicato con un campo volatile, quindi gli altri lettori
+        // vedono i like prima o dopo la consegna, mai a metà
+        E deliver(E item) {
+            this.likes.get(item.id()).drainTo(item::insertLike);
+
+            return item;
+        }
+    }
+
+    // le sessioni dello user proprietario della bacheca
+    private final SessionManager sessions;
+
+    // associa ad ogni categoria il suo stato
+    private final ConcurrentHashMap<String, Stripe<E>> categories;
+
+    // indice globale dei dati per id, usato per i controlli
+    // sui duplicati e per trovare la categoria di un dato
+    private final ConcurrentHashMap<Integer, E> dataIndex;
+
+    // il registro degli user
+    private final UserRegistry registry;
+
+    /*
+     * AF: α(c) = { data | data in c.categories.get(category).dataSet
+     *                  per ogni category in c.categories.keySet() }
+     *
+     * IR: I(c) = c.categories != null && c.dataIndex != null
+     *              e per ogni category in c.categories.keySet(),
+     *                  c.categories.get(category).removed == false
+     *              e per ogni stripe in c.categories.values(), per ogni data
+     *                  in stripe.dataSet, data.getCategory() è la chiave di stripe
+     *                  e c.dataIndex.get(data.id()) == data
+     *              e stripe.likes contiene tutti e soli gli id dei dati di stripe.dataSet
+     *              e per ogni data in stripe.dataSet, data.getLikes() contiene i like
+     *                  di stripe.likes.get(data.id()) non più in attesa
+     *              e per ogni id in c.dataIndex.keySet(), esiste al più un dato con id id
+     *                  che non appartiene a nessuna categoria (un put in corso)
+     *
+     * Lo stato di una categoria viene letto solo con il suo lock in lettura
+     * e modificato solo con il suo lock in scrittura; solo le operazioni a
+     * lotti tengono il lock di più categorie contemporaneamente, e li
+     * prendono in ordine di nome della categoria.
+     */
+
+    /*
+     * inizializza this e
+     * assegna l'owner della bacheca
+     */
+    public MyDataBoardStriped(User owner) {
+        this.sessions = new SessionManager(owner);
+        this.categories = new ConcurrentHashMap<>();
+        this.dataIndex = new ConcurrentHashMap<>();
+        this.registry = UserRegistry.getInstance();
+    }
+    /*
+     * EFFECTS: inizializza this a bacheca vuota
+     *          e inizializza l'owner con lo user passato come argomento
+     */
+
+    @Override
+    public OwnerSession openSession(String passw) throws UnauthorizedAccessException {
+        return this.sessions.open(passw);
+    }
+
+    @Override
+    public void closeSession(OwnerSession session) throws UnauthorizedAccessException {
+        this.sessions.close(session);
+    }
+
+    @Override
+    public void createCategory(String category, OwnerSession session) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (category == null) {
+            throw new NullPointerException();
+        }
+
+        // aggiungi la categoria se non esiste già
+        if (this.categories.putIfAbsent(category, new Stripe<>()) != null) {
+            throw new CategoryAlreadyExistsException();
+        }
+    }
+
+    @Override
+    public void removeCategory(String category, OwnerSession session) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        Stripe<E> stripe = this.stripe(category);
+        Lock lock = stripe.lock.asWriteLock();
+
+        lock.lock();
+
+        try {
+            // la categoria è stata rimossa nel frattempo
+            if (stripe.removed) {
+                throw new CategoryNotFoundException();
+            }
+
+            // rimuovi i dati della categoria dall'indice globale
+            for (E item : stripe.dataSet) {
+                this.dataIndex.remove(item.id(), item);
+                item.release();
+            }
+
+            // rimuovi la categoria
+            stripe.removed = true;
+            this.categories.remove(category, stripe);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void addFriend(String category, OwnerSession session, String friend) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (friend == null) {
+            throw new NullPointerException();
+        }
+
+        Stripe<E> stripe = this.stripe(category);
+        Lock lock = stripe.lock.asWriteLock();
+
+        lock.lock();
+
+        try {
+            if (stripe.removed) {
+                throw new CategoryNotFoundException();
+            }
+
+            // aggiungi friend, se non era già presente
+            if (!stripe.readers.add(this.registry.intern(friend))) {
+                throw new FriendAlreadyAddedException();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void addFriends(String category, OwnerSession session, Collection<String> friends)
+            throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (friends == null) {
+            throw new NullPointerException();
+        }
+
+        Stripe<E> stripe = this.stripe(category);
+        Lock lock = stripe.lock.asWriteLock();
+
+        lock.lock();
+
+        try {
+            if (stripe.removed) {
+                throw new CategoryNotFoundException();
+            }
+
+            LinkedHashSet<String> batch = new LinkedHashSet<>();
+
+            // valida tutto il lotto prima di modificare la categoria, senza
+            // registrare i nomi di un lotto che potrebbe essere rifiutato
+            for (String friend : friends) {
+                if (friend == null) {
+                    throw new NullPointerException();
+                }
+
+                if (stripe.readers.contains(this.registry.idOf(friend)) || !batch.add(friend)) {
+                    throw new FriendAlreadyAddedException();
+                }
+            }
+
+            // aggiungi gli amici
+            for (String friend : batch) {
+                stripe.readers.add(this.registry.intern(friend));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void removeFriend(String category, OwnerSession session, String friend) throws UnauthorizedAccessException,
+            UserNotFoundException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (friend == null) {
+            throw new NullPointerException();
+        }
+
+        Stripe<E> stripe = this.stripe(category);
+        Lock lock = stripe.lock.asWriteLock();
+
+        lock.lock();
+
+        try {
+            if (stripe.removed) {
+                throw new CategoryNotFoundException();
+            }
+
+            // friend non è presente nella categoria, errore
+            if (!stripe.readers.remove(this.registry.idOf(friend))) {
+                throw new UserNotFoundException();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean put(OwnerSession session, E data, String category) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (data == null || category == null) {
+            throw new NullPointerException();
+        }
+
+        Stripe<E> stripe = this.stripe(category);
+
+        // crea una deep copy di data con la sua categoria
+        E copy = (E)data.clone();
+        copy.setCategory(category);
+
+        // riserva l'id nell'indice globale, così due put
+        // concorrenti dello stesso id non possono riuscire entrambi
+        E existing = this.dataIndex.putIfAbsent(copy.id(), copy);
+
+        if (existing != null) {
+            if (existing.equals(data)) {
+                throw new DataAlreadyPutException();
+            }
+
+            // un dato diverso con lo stesso id
+            return false;
+        }
+
+        Lock lock = stripe.lock.asWriteLock();
+
+        lock.lock();
+
+        try {
+            // la categoria è stata rimossa nel frattempo,
+            // libera l'id riservato
+            if (stripe.removed) {
+                this.dataIndex.remove(copy.id(), copy);
+
+                throw new CategoryNotFoundException();
+            }
+
+            stripe.dataSet.add(copy);
+            stripe.likes.put(copy.id(), this.counterOf(copy));
+        } finally {
+            lock.unlock();
+        }
+
+        return true;
+    }
+
+    @Override
+    public int putAll(OwnerSession session, Map<String, ? extends Collection<E>> data)
+            throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (data == null) {
+            throw new NullPointerException();
+        }
+
+        TreeMap<String, Stripe<E>> stripes = new TreeMap<>();
+
+        for (String category : data.keySet()) {
+            stripes.put(category, this.stripe(category));
+        }
+
+        List<Lock> locks = this.lockAll(stripes.values());
+
+        try {
+            ArrayList<E> reserved = this.reserveAll(data, stripes);
+
+            // inserisci i dati
+            for (E copy : reserved) {
+                Stripe<E> stripe = stripes.get(copy.getCategory());
+
+                stripe.dataSet.add(copy);
+                stripe.likes.put(copy.id(), this.counterOf(copy));
+            }
+
+            return reserved.size();
+        } finally {
+            unlockAll(locks);
+        }
+    }
+
+    /*
+     * Riserva nell'indice globale gli id dei dati di un lotto
+     */
+    @SuppressWarnings("unchecked")
+    private ArrayList<E> reserveAll(Map<String, ? extends Collection<E>> data, Map<String, Stripe<E>> stripes) {
+        ArrayList<E> reserved = new ArrayList<>();
+
+        try {
+            // una categoria è stata rimossa nel frattempo
+            for (Stripe<E> stripe : stripes.values()) {
+                if (stripe.removed) {
+                    throw new CategoryNotFoundException();
+                }
+            }
+
+            for (Map.Entry<String, ? extends Collection<E>> entry : data.entrySet()) {
+                for (E item : entry.getValue()) {
+                    if (item == null) {
+                        throw new NullPointerException();
+                    }
+
+                    E copy = (E)item.clone();
+                    copy.setCategory(entry.getKey());
+
+                    // riserva l'id come fa put
+                    E existing = this.dataIndex.putIfAbsent(copy.id(), copy);
+
+                    if (existing == null) {
+                        reserved.add(copy);
+                    } else if (existing.equals(item)) {
+                        throw new DataAlreadyPutException();
+                    }
+
+                    // altrimenti un dato diverso con lo stesso id,
+                    // il dato non viene inserito
+                }
+            }
+        } catch (RuntimeException e) {
+            // libera gli id già riservati
+            for (E copy : reserved) {
+                this.dataIndex.remove(copy.id(), copy);
+            }
+
+            throw e;
+        }
+
+        return reserved;
+    }
+    /*
+     * REQUIRES: data != null e stripes contiene le categorie di data,
+     *           con il loro lock in scrittura
+     * MODIFIES: this.dataIndex
+     * EFFECTS: riserva l'id di una deep copy di ogni dato di data, con la
+     *          sua categoria, che non ha lo stesso id di un altro dato;
+     *          se viene sollevata un'eccezione nessun id resta riservato
+     * RETURNS: restituisce le copie con l'id riservato
+     * THROWS: se un dato è null solleva una NullPointerException
+     *         se una categoria è stata rimossa solleva una CategoryNotFoundException
+     *         se un dato è già presente in this oppure compare più di una volta
+     *         in data solleva una DataAlreadyPutException
+     */
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(OwnerSession session, E data) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        // restituisci una deep copy del dato
+        return this.read(data, (stripe, item) -> (E)stripe.current(item).clone());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(OwnerSession session, E data) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        E item = this.findData(data);
+        Stripe<E> stripe = item != null ? this.categories.get(item.getCategory()) : null;
+
+        if (stripe == null) {
+            throw new DataNotFoundException();
+        }
+
+        Lock lock = stripe.lock.asWriteLock();
+
+        lock.lock();
+
+        try {
+            // il dato è stato rimosso nel frattempo
+            if (!stripe.contains(item)) {
+                throw new DataNotFoundException();
+            }
+
+            // rimuovi il dato e restituisci una deep copy
+            stripe.deliver(item);
+            stripe.dataSet.remove(item);
+            stripe.likes.remove(item.id());
+            this.dataIndex.remove(item.id(), item);
+            item.release();
+
+            return (E)item.clone();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<E> getDataCategory(OwnerSession session, String category) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        // ritorna una deep copy della lista
+        // di dati della categoria
+        return this.readCategory(category, (stripe, item) -> (E)stripe.current(item).clone());
+    }
+
+    @Override
+    public Page<E> getDataCategoryPage(OwnerSession session, String category, Cursor<E> cursor, int limit)
+            throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (cursor == null) {
+            throw new NullPointerException();
+        }
+
+        Stripe<E> stripe = this.stripe(category);
+
+        if (limit <= 0 || !cursor.isValidFor(category)) {
+            throw new IllegalArgumentException();
+        }
+
+        Lock lock = stripe.lock.asReadLock();
+
+        lock.lock();
+
+        try {
+            if (stripe.removed) {
+                throw new CategoryNotFoundException();
+            }
+
+            ArrayList<E> items = new ArrayList<>(Math.min(limit, stripe.dataSet.size()));
+            boolean more = this.copyAfter(stripe, category, cursor, limit, items);
+
+            return new Page<>(items, cursor, more);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public ReadOnlyData getView(OwnerSession session, E data) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        // la vista legge il dato senza lock: i like sono un insieme
+        // immutabile pubblicato in modo sicuro, quindi la vista vede
+        // sempre una versione coerente, anche se non la più recente
+        return this.read(data, (stripe, item) -> new ReadOnlyDataView(stripe.deliver(item)));
+    }
+
+    @Override
+    public List<ReadOnlyData> getDataCategoryView(OwnerSession session, String category)
+            throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        return this.readCategory(category, (stripe, item) -> new ReadOnlyDataView(stripe.deliver(item)));
+    }
+
+    @Override
+    public void insertLike(String friend, E data) throws UnauthorizedAccessException {
+        E item = this.findData(data);
+        Stripe<E> stripe = item != null ? this.categories.get(item.getCategory()) : null;
+
+        if (stripe == null) {
+            throw new DataNotFoundException();
+        }
+
+        // il lock in lettura esclude solo le modifiche alla
+        // categoria, non gli altri like allo stesso dato
+        Lock lock = stripe.lock.asReadLock();
+
+        lock.lock();
+
+        try {
+            if (!stripe.contains(item)) {
+                throw new DataNotFoundException();
+            }
+
+            // controlla che friend abbia
+            // i permessi di lettura
+            int friendId = this.registry.idOf(friend);
+
+            if (!stripe.readers.contains(friendId)) {
+                throw new UnauthorizedAccessException();
+            }
+
+            LikeCounter likes = stripe.likes.get(item.id());
+
+            // inserisci il like, l'inserimento è atomico quindi
+            // il controllo sui like già inseriti è esatto anche
+            // con più thread
+            if (!likes.add(friendId)) {
+                throw new FriendAlreadyAddedException();
+            }
+
+            // consegna i like al dato, a meno che non lo stia già
+            // facendo un altro thread
+            likes.tryDrainTo(item::insertLike);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void insertLikes(Collection<LikeEvent<E>> likes) throws UnauthorizedAccessException {
+        // validazione
+        if (likes == null) {
+            throw new NullPointerException();
+        }
+
+        // trova i dati del lotto e le loro categorie
+        ArrayList<E> items = new ArrayList<>(likes.size());
+        TreeMap<String, Stripe<E>> stripes = new TreeMap<>();
+
+        for (LikeEvent<E> like : likes) {
+            E item = this.findData(like.getData());
+            Stripe<E> stripe = item != null ? this.categories.get(item.getCategory()) : null;
+
+            if (stripe == null) {
+                throw new DataNotFoundException();
+            }
+
+            items.add(item);
+            stripes.put(item.getCategory(), stripe);
+        }
+
+        // il lock in scrittura esclude anche i like inseriti con insertLike,
+        // così nessun like del lotto può essere inserito fra la validazione
+        // e la modifica
+        List<Lock> locks = this.lockAll(stripes.values());
+
+        try {
+            // valida tutto il lotto prima di modificare this
+            ArrayList<LikeCounter> counters = new ArrayList<>(items.size());
+            int[] friendIds = new int[items.size()];
+            HashSet<LikeEvent<E>> batch = new HashSet<>();
+            Iterator<E> itemIterator = items.iterator();
+
+            for (LikeEvent<E> like : likes) {
+                E item = itemIterator.next();
+                Stripe<E> stripe = stripes.get(item.getCategory());
+
+                if (!stripe.contains(item)) {
+                    throw new DataNotFoundException();
+                }
+
+                int friendId = this.registry.idOf(like.getFriend());
+
+                if (!stripe.readers.contains(friendId)) {
+                    throw new UnauthorizedAccessException();
+                }
+
+                LikeCounter counter = stripe.likes.get(item.id());
+
+                if (counter.contains(friendId) || !batch.add(like)) {
+                    throw new FriendAlreadyAddedException();
+                }
+
+                friendIds[counters.size()] = friendId;
+                counters.add(counter);
+            }
+
+            // inserisci i like e consegnali ai dati
+            for (int i = 0; i < items.size(); i++) {
+                E item = items.get(i);
+                LikeCounter counter = counters.get(i);
+
+                counter.add(friendIds[i]);
+                counter.drainTo(item::insertLike);
+            }
+        } finally {
+            unlockAll(locks);
+        }
+    }
+
+    @Override
+    public Iterator<E> getIterator(OwnerSession session) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        ArrayList<E> dataList = this.readAllCategories();
+
+        // ordina le copie, l'ordinamento è stabile quindi
+        // a parità di like l'ordine per id è mantenuto
+        dataList.sort(Comparator.comparingInt(Data::getLikeCount).reversed());
+
+        // l'iteratore non supporta il metodo remove
+        return Collections.unmodifiableList(dataList).iterator();
+    }
+
+    @Override
+    public Iterator<E> getFriendIterator(String friend) throws UserNotFoundException {
+        ArrayList<E> dataList = this.readFriendCategories(friend);
+
+        // l'iteratore non supporta il metodo remove
+        return Collections.unmodifiableList(dataList).iterator();
+    }
+
+    @Override
+    public Page<E> getFriendPage(String friend, Cursor<E> cursor, int limit) throws UserNotFoundException {
+        // validazione
+        if (cursor == null) {
+            throw new NullPointerException();
+        }
+
+        if (limit <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        int friendId = this.registry.idOf(friend);
+        boolean found = false;
+        boolean more = false;
+        ArrayList<E> items = new ArrayList<>();
+
+        // visita le categorie in ordine di nome, prendendo il
+        // lock di una categoria alla volta; le categorie sono
+        // poche rispetto ai dati
+        for (Map.Entry<String, Stripe<E>> entry : new TreeMap<>(this.categories).entrySet()) {
+            Stripe<E> stripe = entry.getValue();
+            Lock lock = stripe.lock.asReadLock();
+
+            lock.lock();
+
+            try {
+                if (stripe.removed || !stripe.readers.contains(friendId)) {
+                    continue;
+                }
+
+                found = true;
+
+                // salta le categorie che precedono quella del cursore; a
+                // pagina piena basta sapere se ci sono altri dati
+                if (cursor.isStart() || entry.getKey().compareTo(cursor.getCategory()) >= 0) {
+                    more = this.copyAfter(stripe, entry.getKey(), cursor, limit, items);
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (more) {
+                break;
+            }
+        }
+
+        // non esistono categorie leggibili
+        // da friend, errore
+        if (!found) {
+            throw new UserNotFoundException();
+        }
+
+        return new Page<>(items, cursor, more);
+    }
+
+    @Override
+    public List<E> getTopLiked(OwnerSession session, int k) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (k < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        // i like cambiano senza il lock della categoria, quindi
+        // i dati vengono selezionati dalle loro copie con un heap limitato
+        return LikeIndex.top(this.readAllCategories().iterator(), k);
+    }
+
+    @Override
+    public List<E> getFriendTopLiked(String friend, int k) throws UserNotFoundException {
+        // seleziona i k dati con più like fra quelli
+        // condivisi con friend usando un heap limitato
+        return LikeIndex.top(this.readFriendCategories(friend).iterator(), k);
+    }
+
+    @Override
+    public boolean hasCategory(String category) {
+        //validazione
+        if (category == null) {
+            throw new NullPointerException();
+        }
+
+        return this.categories.containsKey(category);
+    }
+
+    @Override
+    public boolean isReadableBy(String category, User user) {
+        Stripe<E> stripe = this.stripe(category);
+        Lock lock = stripe.lock.asReadLock();
+
+        lock.lock();
+
+        try {
+            return user != null && stripe.readers.contains(this.registry.idOf(user.getName()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean hasData(E data) {
+        try {
+            return this.read(data, (stripe, item) -> true);
+        } catch (DataNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public List<User> getLikes(E data) {
+        // ritorna la lista degli user che
+        // hanno inserito un like al dato
+        return this.read(data, (stripe, item) -> stripe.current(item).getLikes());
+    }
+
+    /*
+     * Restituisce lo stato di una categoria
+     */
+    private Stripe<E> stripe(String category) {
+        if (category == null) {
+            throw new NullPointerException();
+        }
+
+        Stripe<E> stripe = this.categories.get(category);
+
+        if (stripe == null) {
+            throw new CategoryNotFoundException();
+        }
+
+        return stripe;
+    }
+    /*
+     * RETURNS: restituisce lo stato di category
+     * THROWS: se category == null solleva una NullPointerException
+     *         se category non è presente solleva una CategoryNotFoundException
+     */
+
+    /*
+     * Prende il lock in scrittura di più categorie
+     */
+    private List<Lock> lockAll(Collection<Stripe<E>> stripes) {
+        ArrayList<Lock> locks = new ArrayList<>(stripes.size());
+
+        for (Stripe<E> stripe : stripes) {
+            Lock lock = stripe.lock.asWriteLock();
+
+            lock.lock();
+            locks.add(lock);
+        }
+
+        return locks;
+    }
+    /*
+     * REQUIRES: stripes è ordinata per nome della categoria e non contiene
+     *           due volte la stessa categoria, così due operazioni a lotti
+     *           concorrenti non possono attendersi a vicenda
+     * RETURNS: restituisce i lock presi, nell'ordine in cui sono stati presi
+     */
+
+    // rilascia i lock presi con lockAll
+    private static void unlockAll(List<Lock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    /*
+     * Cerca un dato nell'indice globale
+     */
+    private E findData(E data) {
+        if (data == null) {
+            throw new NullPointerException();
+        }
+
+        E item = this.dataIndex.get(data.id());
+
+        // l'id da solo non basta, verifica anche
+        // il body come fa il metodo equals
+        if (item != null && item.equals(data)) {
+            return item;
+        }
+
+        return null;
+    }
+    /*
+     * RETURNS: restituisce il dato di this uguale a data, null se non è presente;
+     *          il dato può appartenere ad un put in corso e va verificato con
+     *          il lock della sua categoria
+     * THROWS: se data == null solleva una NullPointerException
+     */
+
+    /*
+     * Applica reader al dato uguale a data con il lock
+     * in lettura della sua categoria
+     */
+    private <T> T read(E data, BiFunction<Stripe<E>, E, T> reader) {
+        E item = this.findData(data);
+        Stripe<E> stripe = item != null ? this.categories.get(item.getCategory()) : null;
+
+        if (stripe == null) {
+            throw new DataNotFoundException();
+        }
+
+        Lock lock = stripe.lock.asReadLock();
+
+        lock.lock();
+
+        try {
+            if (!stripe.contains(item)) {
+                throw new DataNotFoundException();
+            }
+
+            return reader.apply(stripe, item);
+        } finally {
+            lock.unlock();
+        }
+    }
+    /*
+     * REQUIRES: reader non modifica il dato
+     * RETURNS: restituisce il risultato di reader sul dato
+     * THROWS: se data == null solleva una NullPointerException
+     *         se data non è presente in this solleva una DataNotFoundException
+     */
+
+    /*
+     * Applica mapper ad ogni dato di una categoria con il suo lock in lettura
+     */
+    private <T> List<T> readCategory(String category, BiFunction<Stripe<E>, E, T> mapper) {
+        Stripe<E> stripe = this.stripe(category);
+        Lock lock = stripe.lock.asReadLock();
+
+        lock.lock();
+
+        try {
+            if (stripe.removed) {
+                throw new CategoryNotFoundException();
+            }
+
+            ArrayList<T> list = new ArrayList<>(stripe.dataSet.size());
+
+            for (E item : stripe.dataSet) {
+                list.add(mapper.apply(stripe, item));
+            }
+
+            return list;
+        } finally {
+            lock.unlock();
+        }
+    }
+    /*
+     * REQUIRES: mapper non modifica i dati
+     * RETURNS: restituisce la lista dei risultati di mapper
+     *          sui dati di category, ordinati per id
+     * THROWS: se category == null solleva una NullPointerException
+     *         se category non è presente solleva una CategoryNotFoundException
+     */
+
+    /*
+     * Crea il contatore dei like di un dato
+     */
+    private LikeCounter counterOf(E copy) {
+        LikeCounter counter = new LikeCounter();
+
+        // i like che il dato ha già, altrimenti lo stesso
+        // friend potrebbe inserire un secondo like
+        copy.forEachLike(counter::restore);
+
+        return counter;
+    }
+    /*
+     * REQUIRES: copy != null
+     * RETURNS: restituisce un contatore con i like di copy, senza like in attesa
+     */
+
+    /*
+     * Copia i dati di una categoria che seguono un cursore
+     */
+    @SuppressWarnings("unchecked")
+    private boolean copyAfter(Stripe<E> stripe, String category, Cursor<E> cursor, int limit, List<E> items) {
+        NavigableSet<E> dataSet = stripe.dataSet;
+
+        // nella categoria del cursore riparti in O(log n) dal dato che
+        // lo segue, anche se nel frattempo il dato è stato rimosso
+        if (!cursor.isStart() && category.equals(cursor.getCategory())) {
+            dataSet = dataSet.tailSet(cursor.getKey(), false);
+        }
+
+        Iterator<E> iterator = dataSet.iterator();
+
+        while (items.size() < limit && iterator.hasNext()) {
+            items.add((E)stripe.current(iterator.next()).clone());
+        }
+
+        return iterator.hasNext();
+    }
+    /*
+     * REQUIRES: stripe è lo stato di category, il suo lock in lettura è preso
+     *           dal thread corrente && cursor != null && items.size() <= limit
+     * MODIFIES: items
+     * EFFECTS: aggiunge ad items le deep copy dei dati di category che seguono
+     *          cursor, nell'ordine delle pagine, finché items non ha limit dati
+     * RETURNS: restituisce true se in category ci sono altri dati oltre a quelli
+     *          copiati, false altrimenti
+     */
+
+    /*
+     * Copia i dati di tutte le categorie
+     */
+    @SuppressWarnings("unchecked")
+    private ArrayList<E> readAllCategories() {
+        ArrayList<E> dataList = new ArrayList<>();
+
+        // copia i dati di una categoria alla volta, le copie
+        // non cambiano dopo il rilascio del lock
+        for (Stripe<E> stripe : this.categories.values()) {
+            Lock lock = stripe.lock.asReadLock();
+
+            lock.lock();
+
+            try {
+                // la categoria è stata rimossa nel frattempo
+                if (stripe.removed) {
+                    continue;
+                }
+
+                for (E item : stripe.dataSet) {
+                    dataList.add((E)stripe.current(item).clone());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        return dataList;
+    }
+    /*
+     * RETURNS: restituisce le deep copy dei dati di this
+     */
+
+    /*
+     * Copia i dati di ogni categoria leggibile da friend
+     */
+    @SuppressWarnings("unchecked")
+    private ArrayList<E> readFriendCategories(String friend)
+            throws UserNotFoundException {
+        int friendId = this.registry.idOf(friend);
+        boolean found = false;
+        ArrayList<E> dataList = new ArrayList<>();
+
+        for (Stripe<E> stripe : this.categories.values()) {
+            Lock lock = stripe.lock.asReadLock();
+
+            lock.lock();
+
+            try {
+                if (stripe.removed || !stripe.readers.contains(friendId)) {
+                    continue;
+                }
+
+                found = true;
+
+                for (E item : stripe.dataSet) {
+                    dataList.add((E)stripe.current(item).clone());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // non esistono categorie leggibili
+        // da friend, errore
+        if (!found) {
+            throw new UserNotFoundException();
+        }
+
+        return dataList;
+    }
+    /*
+     * RETURNS: restituisce le deep copy dei dati
+     *          delle categorie leggibili da friend
+     * THROWS: se friend non è stato aggiunto a nessuna categoria solleva una UserNotFoundException
+     */
+}
@@ -1,17 +1,57 @@
 import exceptions.*;
+import indexes.ConcatIterator;
+import indexes.IntMap;
+import indexes.IntSet;
+import indexes.LikeIndex;
+import indexes.SortedListView;
 import interfaces.Data;
 import interfaces.DataBoard;
+import interfaces.OwnerSession;
+import interfaces.ReadOnlyData;
 import interfaces.User;
-import models.MyUser;
-
+import models.Cursor;
+import models.LikeEvent;
+import models.Page;
+import models.ReadOnlyDataView;
+import models.SessionManager;
+import models.UserRegistry;
+import storage.SnapshotImage;
+import storage.SnapshotReader;
+import storage.Snapshottable;
+
+import java.io.IOException;
 import java.util.*;
 
-public class MyDataBoardTreeSet<E extends Data> implements DataBoard<E> {
-    // lo user proprietario della bacheca
-    private final User owner;
+public class MyDataBoardTreeSet<E extends Data> implements DataBoard<E>, Snapshottable<E> {
+    // le sessioni dello user proprietario della bacheca
+    private final SessionManager sessions;
 
     private final TreeSet<E> dataList;
-    private final HashMap<String, ArrayList<User>> categories;
+    // associa ad ogni categoria l'insieme degli id
+    // (in UserRegistry) degli user con i permessi di lettura
+    private final HashMap<String, IntSet> categories;
+
+    // indice primario dei dati per id, contiene
+    // gli stessi elementi di dataList
+    private final IntMap<E> dataIndex;
+
+    // indice secondario dei dati per categoria,
+    // ogni dato di dataList compare nell'insieme
+    // della propria categoria
+    private final HashMap<String, TreeSet<E>> categoryIndex;
+
+    // indice inverso dei permessi di lettura, associa
+    // all'id di ogni friend le categorie che può leggere
+    private final IntMap<HashSet<String>> friendIndex;
+
+    // il registro degli user
+    private final UserRegistry registry;
+
+    // indice dei dati ordinati per numero di like
+    private final LikeIndex<E> likeIndex;
+
+    // l'ultima immagine catturata, conserva i dati modificati finché non viene chiusa
+    private volatile SnapshotImage<E> image;
 
     /*
      * AF: α(c) = { this.datalist.iterator().next() |
@@ -20,6 +60,16 @@ public class MyDataBoardTreeSet<E extends Data> implements DataBoard<E> {
      * IR: I(c) = this.dataList != null
      *              e mentre this.datalist.iterator().hasNext(),
      *                  per ogni E data = this.datalist.iterator().next(), data implementa l'interfaccia Data
+     *              e this.dataIndex != null
+     *              e this.dataIndex.size() == this.dataList.size()
+     *              e per ogni E data in this.dataList, this.dataIndex.get(data.id()) == data
+     *              e this.categoryIndex.keySet().equals(this.categories.keySet())
+     *              e per ogni E data in this.dataList, this.categoryIndex.get(data.getCategory()).contains(data)
+     *              e la somma delle dimensioni degli insiemi di this.categoryIndex == this.dataList.size()
+     *              e per ogni id e category, this.friendIndex.get(id).contains(category)
+     *                  se e solo se this.categories.get(category).contains(id)
+     *              e per ogni id, this.friendIndex.get(id) == null oppure non è vuoto
+     *              e this.likeIndex contiene tutti e soli i dati di this.dataList
      */
 
     /*
@@ -27,9 +77,14 @@ public class MyDataBoardTreeSet<E extends Data> implements DataBoard<E> {
      * assegna l'owner della bacheca
      */
     public MyDataBoardTreeSet(User owner) {
-        this.owner = owner;
+        this.sessions = new SessionManager(owner);
         this.dataList = new TreeSet<>();
         this.categories = new HashMap<>();
+        this.dataIndex = new IntMap<>();
+        this.categoryIndex = new HashMap<>();
+        this.friendIndex = new IntMap<>();
+        this.registry = UserRegistry.getInstance();
+        this.likeIndex = new LikeIndex<>();
     }
     /*
      * EFFECTS: inizializza this a tree set vuoto
@@ -37,11 +92,19 @@ public class MyDataBoardTreeSet<E extends Data> implements DataBoard<E> {
      */
 
     @Override
-    public void createCategory(String category, String passw) throws UnauthorizedAccessException {
+    public OwnerSession openSession(String passw) throws UnauthorizedAccessException {
+        return this.sessions.open(passw);
+    }
+
+    @Override
+    public void closeSession(OwnerSession session) throws UnauthorizedAccessException {
+        this.sessions.close(session);
+    }
+
+    @Override
+    public void createCategory(String category, OwnerSession session) throws UnauthorizedAccessException {
         // validazione
-        if (!this.owner.authenticate(passw)) {
-            throw new UnauthorizedAccessException();
-        }
+        this.sessions.validate(session);
 
         if (category == null) {
             throw new NullPointerException();
@@ -52,15 +115,14 @@ public class MyDataBoardTreeSet<E extends Data> implements DataBoard<E> {
         }
 
         // aggiungi la categoria
-        this.categories.put(category, new ArrayList<>());
+        this.categories.put(category, new IntSet());
+        this.categoryIndex.put(category, new TreeSet<>());
     }
 
     @Override
-    public void removeCategory(String category, String passw) throws UnauthorizedAccessException {
+    public void removeCategory(String category, OwnerSession session) throws UnauthorizedAccessException {
         // validazione
-        if (!this.owner.authenticate(passw)) {
-            throw new UnauthorizedAccessException();
-        }
+        this.sessions.validate(session);
 
         if (category == null) {
             throw new NullPointerException();
@@ -73,20 +135,97 @@ public class MyDataBoardTreeSet<E extends Data> implements DataBoard<E> {
         // rimuovi prima i dati della categoria
         this.emptyData(category);
 
+        // aggiorna l'indice inverso dei permessi
+        this.categories.get(category).forEach(item -> this.unindexFriend(item, category));
+
         // rimuovi la categoria
         this.categories.remove(category);
+        this.categoryIndex.remove(category);
     }
 
+    /*
+     * Rimuove da this tutti i dati della categoria
+     */
     private void emptyData(String category) {
-        this.dataList.removeIf(item -> item.getCategory().equals(category));
+        // scorri solo i dati della categoria
+        for (E item : this.categoryIndex.get(category)) {
+            this.dataList.remove(item);
+            this.dataIndex.remove(item.id());
+            this.likeIndex.remove(item);
+            item.release();
+        }
+
+        this.categoryIndex.get(category).clear();
+    }
+    /*
+     * REQUIRES: category != null && this.hasCategory(category)
+     * MODIFIES: this
+     * EFFECTS: i dati di category vengono rimossi da this
+     */
+
+    /*
+     * Rimuove category dalle categorie leggibili da friend
+     */
+    private void unindexFriend(int friend, String category) {
+        HashSet<String> friendCategories = this.friendIndex.get(friend);
+
+        friendCategories.remove(category);
+
+        // non tenere friend che non leggono più nessuna categoria
+        if (friendCategories.isEmpty()) {
+            this.friendIndex.remove(friend);
+        }
+    }
+    /*
+     * REQUIRES: this.friendIndex.get(friend).contains(category)
+     * MODIFIES: this
+     * EFFECTS: category viene rimossa dalle categorie leggibili da friend
+     */
+
+    /*
+     * Cerca il dato in this tramite l'indice per id
+     */
+    private E findData(E data) {
+        E item = this.dataIndex.get(data.id());
+
+        // l'id da solo non basta, verifica anche
+        // il body come fa il metodo equals
+        if (item != null && item.equals(data)) {
+            return item;
+        }
+
+        return null;
+    }
+    /*
+     * REQUIRES: data != null
+     * RETURNS: restituisce il dato di this uguale a data,
+     *          null se non è presente
+     */
+
+    /*
+     * Restituisce i dati di una categoria che seguono un cursore
+     */
+    private NavigableSet<E> dataAfter(String category, Cursor<E> cursor) {
+        TreeSet<E> categoryData = this.categoryIndex.get(category);
+
+        // nella categoria del cursore riparti dal dato che lo segue,
+        // anche se nel frattempo il dato del cursore è stato rimosso
+        if (!cursor.isStart() && category.equals(cursor.getCategory())) {
+            return categoryData.tailSet(cursor.getKey(), false);
+        }
+
+        return categoryData;
     }
+    /*
+     * REQUIRES: category != null && this.hasCategory(category) && cursor != null
+     * RETURNS: restituisce una vista, senza copiarli, dei dati di category
+     *          che seguono cursor nell'ordine delle pagine
+     */
 
     @Override
-    public void addFriend(String category, String passw, String friend) throws UnauthorizedAccessException {
+    public void addFriend(String category, OwnerSession session, String friend) throws UnauthorizedAccessException {
         // validazione
-        if (!this.owner.authenticate(passw)) {
-            throw new UnauthorizedAccessException();
-        }
+        this.sessions.validate(session);
 
         if (category == null || friend == null) {
             throw new NullPointerException();
@@ -96,22 +235,80 @@ public class MyDataBoardTreeSet<E extends Data> implements DataBoard<E> {
             throw new CategoryNotFoundException();
         }
 
-        if (this.isReadableBy(category, new MyUser(friend))) {
+        int friendId = this.registry.intern(friend);
+
+        // prendi la categoria (se siamo arrivati qui siamo
+        // sicuri che esiste) e aggiungi friend alla categoria,
+        // se friend era già presente l'insieme non cambia
+        if (!this.categories.get(category).add(friendId)) {
             throw new FriendAlreadyAddedException();
         }
 
-        // prendi la categoria (se siamo arrivati qui siamo
-        // sicuri che esiste) e aggiungi friend alla categoria
-        this.categories.get(category).add(new MyUser(friend));
+        this.indexFriend(friendId, category);
     }
 
     @Override
-    public void removeFriend(String category, String passw, String friend) throws UnauthorizedAccessException,
-            UserNotFoundException {
+    public void addFriends(String category, OwnerSession session, Collection<String> friends)
+            throws UnauthorizedAccessException {
         // validazione
-        if (!this.owner.authenticate(passw)) {
-            throw new UnauthorizedAccessException();
+        this.sessions.validate(session);
+
+        if (category == null || friends == null) {
+            throw new NullPointerException();
+        }
+
+        if (!this.hasCategory(category)) {
+            throw new CategoryNotFoundException();
+        }
+
+        IntSet readers = this.categories.get(category);
+        LinkedHashSet<String> batch = new LinkedHashSet<>();
+
+        // valida tutto il lotto prima di modificare this, senza
+        // registrare i nomi di un lotto che potrebbe essere rifiutato
+        for (String friend : friends) {
+            if (friend == null) {
+                throw new NullPointerException();
+            }
+
+            if (readers.contains(this.registry.idOf(friend)) || !batch.add(friend)) {
+                throw new FriendAlreadyAddedException();
+            }
+        }
+
+        // aggiungi gli amici alla categoria
+        for (String friend : batch) {
+            int friendId = this.registry.intern(friend);
+
+            readers.add(friendId);
+            this.indexFriend(friendId, category);
         }
+    }
+
+    /*
+     * Aggiunge category alle categorie leggibili da friend
+     */
+    private void indexFriend(int friend, String category) {
+        HashSet<String> friendCategories = this.friendIndex.get(friend);
+
+        if (friendCategories == null) {
+            friendCategories = new HashSet<>();
+            this.friendIndex.put(friend, friendCategories);
+        }
+
+        friendCategories.add(category);
+    }
+    /*
+     * REQUIRES: this.categories.get(category).contains(friend)
+     * MODIFIES: this
+     * EFFECTS: category viene aggiunta alle categorie leggibili da friend
+     */
+
+    @Override
+    public void removeFriend(String category, OwnerSession session, String friend) throws UnauthorizedAccessException,
+            UserNotFoundException {
+        // validazione
+        this.sessions.validate(session);
 
         if (category == null || friend == null) {
             throw new NullPointerException();
@@ -121,22 +318,22 @@ public class MyDataBoardTreeSet<E extends Data> implements DataBoard<E> {
             throw new CategoryNotFoundException();
         }
 
-        if (!this.isReadableBy(category, new MyUser(friend))) {
+        int friendId = this.registry.idOf(friend);
+
+        // prendi la categoria (se siamo arrivati qui siamo
+        // sicuri che esiste) e rimuovi friend dalla categoria,
+        // se friend non era presente l'insieme non cambia
+        if (!this.categories.get(category).remove(friendId)) {
             throw new UserNotFoundException();
         }
 
-        // prendi la categoria (se siamo arrivati qui siamo
-        // sicuri che esiste) e rimuovi friend dalla categoria
-        this.categories.get(category).removeIf(el -> el.equals(new MyUser(friend)));
+        this.unindexFriend(friendId, category);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
-    public boolean put(String passw, E data, String category) throws UnauthorizedAccessException {
+    public boolean put(OwnerSession session, E data, String category) throws UnauthorizedAccessException {
         // validazione
-        if (!this.owner.authenticate(passw)) {
-            throw new UnauthorizedAccessException();
-        }
+        this.sessions.validate(session);
 
         if (data == null || category == null) {
             throw new NullPointerException();
@@ -150,184 +347,392 @@ public class MyDataBoardTreeSet<E extends Data> implements DataBoard<E> {
             throw new DataAlreadyPutException();
         }
 
+        return this.insert(data, category);
+    }
+
+    @Override
+    public int putAll(OwnerSession session, Map<String, ? extends Collection<E>> data)
+            throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (data == null) {
+            throw new NullPointerException();
+        }
+
+        // valida tutto il lotto prima di modificare this,
+        // ogni dato viene cercato una sola volta nell'indice
+        HashSet<E> batch = new HashSet<>();
+
+        for (Map.Entry<String, ? extends Collection<E>> entry : data.entrySet()) {
+            if (!this.hasCategory(entry.getKey())) {
+                throw new CategoryNotFoundException();
+            }
+
+            for (E item : entry.getValue()) {
+                if (item == null) {
+                    throw new NullPointerException();
+                }
+
+                if (this.hasData(item) || !batch.add(item)) {
+                    throw new DataAlreadyPutException();
+                }
+            }
+        }
+
+        int count = 0;
+
+        // inserisci i dati
+        for (Map.Entry<String, ? extends Collection<E>> entry : data.entrySet()) {
+            for (E item : entry.getValue()) {
+                if (this.insert(item, entry.getKey())) {
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /*
+     * Inserisce in this una deep copy del dato
+     */
+    @SuppressWarnings("unchecked")
+    private boolean insert(E data, String category) {
         // imposta la categoria al dato
         data.setCategory(category);
 
         // aggiungi una deep copy di data
-        return this.dataList.add((E)data.clone());
+        E copy = (E)data.clone();
+
+        if (!this.dataList.add(copy)) {
+            return false;
+        }
+
+        // aggiorna gli indici
+        this.dataIndex.put(copy.id(), copy);
+        this.categoryIndex.get(category).add(copy);
+        this.likeIndex.add(copy);
+
+        return true;
     }
+    /*
+     * REQUIRES: data != null && this.hasCategory(category) && !this.hasData(data)
+     * MODIFIES: this, data
+     * EFFECTS: imposta category come categoria di data e ne inserisce una deep
+     *          copy in this, se non è già presente un dato con lo stesso id
+     * RETURNS: restituisce true se il dato è stato inserito, false altrimenti
+     */
 
     @Override
     @SuppressWarnings("unchecked")
-    public E get(String passw, E data) throws UnauthorizedAccessException {
+    public E get(OwnerSession session, E data) throws UnauthorizedAccessException {
         // validazione
-        if (!this.owner.authenticate(passw)) {
-            throw new UnauthorizedAccessException();
-        }
+        this.sessions.validate(session);
 
         if (data == null) {
             throw new NullPointerException();
         }
 
         // cerca il dato in this
-        for (E item : this.dataList) {
-            if (item.equals(data)) {
-                // restituisci una deep copy del dato
-                return (E)item.clone();
-            }
+        E item = this.findData(data);
+
+        if (item == null) {
+            throw new DataNotFoundException();
         }
 
-        throw new DataNotFoundException();
+        // restituisci una deep copy del dato
+        return (E)item.clone();
     }
 
     @Override
     @SuppressWarnings("unchecked")
-    public E remove(String passw, E data) throws UnauthorizedAccessException {
+    public E remove(OwnerSession session, E data) throws UnauthorizedAccessException {
         // validazione
-        if (!this.owner.authenticate(passw)) {
-            throw new UnauthorizedAccessException();
-        }
+        this.sessions.validate(session);
 
         if (data == null) {
             throw new NullPointerException();
         }
 
         // cerca il dato in this
-        for (E item : this.dataList) {
-            if (item.equals(data)) {
-                // rimuovi il dato e restituisci una deep copy
-                this.dataList.removeIf(el -> el.equals(data));
+        E item = this.findData(data);
 
-                return (E)item.clone();
-            }
+        if (item == null) {
+            throw new DataNotFoundException();
         }
 
-        throw new DataNotFoundException();
+        // rimuovi il dato e restituisci una deep copy
+        this.dataList.remove(item);
+        this.dataIndex.remove(item.id());
+        this.categoryIndex.get(item.getCategory()).remove(item);
+        this.likeIndex.remove(item);
+        item.release();
+
+        return (E)item.clone();
     }
 
     @Override
     @SuppressWarnings("unchecked")
-    public List<E> getDataCategory(String passw, String category) throws UnauthorizedAccessException {
+    public List<E> getDataCategory(OwnerSession session, String category) throws UnauthorizedAccessException {
         // validazione
-        if (!this.owner.authenticate(passw)) {
-            throw new UnauthorizedAccessException();
-        }
+        this.sessions.validate(session);
 
         if (category == null) {
             throw new NullPointerException();
         }
 
+        if (!this.hasCategory(category)) {
+            throw new CategoryNotFoundException();
+        }
+
         // ritorna una deep copy della lista
         // di dati della categoria
         ArrayList<E> dataList = new ArrayList<>();
 
-        // cicla tutti i dati
-        for (E item : this.dataList) {
-            if (item.getCategory().equals(category)) {
-                    dataList.add((E)item.clone());
-            }
+        // cicla solo i dati della categoria
+        for (E item : this.categoryIndex.get(category)) {
+            dataList.add((E)item.clone());
+        }
+
+        return dataList;
+    }
+
+    @Override
+    public Page<E> getDataCategoryPage(OwnerSession session, String category, Cursor<E> cursor, int limit)
+            throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        if (category == null || cursor == null) {
+            throw new NullPointerException();
+        }
+
+        if (!this.hasCategory(category)) {
+            throw new CategoryNotFoundException();
         }
 
-        if (dataList.size() > 0) {
-            return dataList;
+        if (limit <= 0 || !cursor.isValidFor(category)) {
+            throw new IllegalArgumentException();
         }
 
-        throw new CategoryNotFoundException();
+        // cerca il dato che segue il cursore in O(log n)
+        // e copia solo i dati della pagina
+        return Page.of(cursor, this.dataAfter(category, cursor).iterator(), limit);
     }
 
     @Override
-    public void insertLike(String friend, E data) throws UnauthorizedAccessException {
+    public ReadOnlyData getView(OwnerSession session, E data) throws UnauthorizedAccessException {
         // validazione
+        this.sessions.validate(session);
+
         if (data == null) {
             throw new NullPointerException();
         }
 
-        // cerco il dato
-        for (E item : this.dataList) {
-            if (item.equals(data)) {
-                //controlla che friend abbia
-                // i permessi di lettura
-                if (!this.isReadableBy(item.getCategory(), new MyUser(friend))) {
-                    throw new UnauthorizedAccessException();
-                }
+        // cerca il dato in this
+        E item = this.findData(data);
 
-                // controlla se friend ha già inserito un like
-                List<User> likesList = item.getLikes();
+        if (item == null) {
+            throw new DataNotFoundException();
+        }
 
-                for (User user : likesList) {
-                    if (user.equals(new MyUser(friend))) {
-                        throw new FriendAlreadyAddedException();
-                    }
-                }
+        // restituisci una vista del dato senza copiarlo
+        return new ReadOnlyDataView(item);
+    }
 
-                //inserisci il like
-                item.insertLike(friend);
+    @Override
+    public List<ReadOnlyData> getDataCategoryView(OwnerSession session, String category)
+            throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
 
-                return;
-            }
+        if (category == null) {
+            throw new NullPointerException();
         }
 
-        // il dato non è stato trovato, errore
-        throw new DataNotFoundException();
+        if (!this.hasCategory(category)) {
+            throw new CategoryNotFoundException();
+        }
+
+        TreeSet<E> categoryData = this.categoryIndex.get(category);
+        ArrayList<ReadOnlyData> viewList = new ArrayList<>(categoryData.size());
+
+        // crea una vista per ogni dato della categoria
+        for (E item : categoryData) {
+            viewList.add(new ReadOnlyDataView(item));
+        }
+
+        return viewList;
     }
 
     @Override
-    public Iterator<E> getIterator(String passw) throws UnauthorizedAccessException {
+    public void insertLike(String friend, E data) throws UnauthorizedAccessException {
         // validazione
-        if (!this.owner.authenticate(passw)) {
+        if (data == null) {
+            throw new NullPointerException();
+        }
+
+        // cerco il dato
+        E item = this.findData(data);
+
+        // il dato non è stato trovato, errore
+        if (item == null) {
+            throw new DataNotFoundException();
+        }
+
+        //controlla che friend abbia
+        // i permessi di lettura
+        if (!this.categories.get(item.getCategory()).contains(this.registry.idOf(friend))) {
             throw new UnauthorizedAccessException();
         }
 
-        // converti il TreeSet in ArrayList
-        List<E> dataList = new ArrayList<>(this.dataList);
+        // controlla se friend ha già inserito un like
+        if (item.hasLiked(friend)) {
+            throw new FriendAlreadyAddedException();
+        }
+
+        //inserisci il like e aggiorna l'indice dei like
+        this.preserve(item);
+        item.insertLike(friend);
+        this.likeIndex.update(item);
+    }
+
+    @Override
+    public void insertLikes(Collection<LikeEvent<E>> likes) throws UnauthorizedAccessException {
+        // validazione
+        if (likes == null) {
+            throw new NullPointerException();
+        }
+
+        // valida tutto il lotto prima di modificare this
+        ArrayList<E> items = new ArrayList<>(likes.size());
+        HashSet<LikeEvent<E>> batch = new HashSet<>();
+
+        for (LikeEvent<E> like : likes) {
+            E item = this.findData(like.getData());
+
+            if (item == null) {
+                throw new DataNotFoundException();
+            }
+
+            if (!this.categories.get(item.getCategory()).contains(this.registry.idOf(like.getFriend()))) {
+                throw new UnauthorizedAccessException();
+            }
+
+            if (item.hasLiked(like.getFriend()) || !batch.add(like)) {
+                throw new FriendAlreadyAddedException();
+            }
+
+            items.add(item);
+        }
+
+        // inserisci i like e aggiorna l'indice dei like
+        Iterator<E> itemIterator = items.iterator();
 
-        // ordina decrescente
-        dataList.sort(Comparator.comparingInt(o -> -(o.getLikes().size())));
+        for (LikeEvent<E> like : likes) {
+            E item = itemIterator.next();
+
+            this.preserve(item);
+            item.insertLike(like.getFriend());
+            this.likeIndex.update(item);
+        }
+    }
 
-        // disabilita il metodo remove dell'iteratore che verrà generato
-        // sfruttando il metodo Collections.unmodifiableList
-        dataList = Collections.unmodifiableList(dataList);
+    @Override
+    public Iterator<E> getIterator(OwnerSession session) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
 
-        // ritorna l'iteratore
-        return dataList.iterator();
+        // l'indice dei like è già ordinato in modo decrescente
+        // e il suo iteratore non supporta il metodo remove
+        return this.likeIndex.iterator();
     }
 
     @Override
     public Iterator<E> getFriendIterator(String friend) throws UserNotFoundException {
-        List<E> dataList = new ArrayList<>();
+        HashSet<String> friendCategories = this.friendIndex.get(this.registry.idOf(friend));
 
-        // scorri this e aggiungi alla lista i dati
-        // appartenenti a categorie leggibili da friend
-        for (E item : this.dataList) {
-            if (this.isReadableBy(item.getCategory(), new MyUser(friend))) {
-                dataList.add(item);
-            }
+        // non esistono categorie leggibili
+        // da friend, errore
+        if (friendCategories == null) {
+            throw new UserNotFoundException();
         }
 
-        // se la lista è vuota controlla se esistono
-        // categorie leggibili da friend
-        if (dataList.size() == 0) {
-            boolean friendFound = false;
+        // scorri uno dopo l'altro solo i dati delle categorie
+        // leggibili da friend, senza copiarli in una lista;
+        // l'iteratore non supporta il metodo remove
+        return new ConcatIterator<>(friendCategories.stream()
+                .map(this.categoryIndex::get)
+                .iterator());
+    }
 
-            for (String item : this.categories.keySet()) {
-                if (this.isReadableBy(item, new MyUser(friend))) {
-                    friendFound = true;
-                }
-            }
+    @Override
+    public Page<E> getFriendPage(String friend, Cursor<E> cursor, int limit) throws UserNotFoundException {
+        // validazione
+        if (cursor == null) {
+            throw new NullPointerException();
+        }
+
+        if (limit <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        HashSet<String> friendCategories = this.friendIndex.get(this.registry.idOf(friend));
+
+        // non esistono categorie leggibili
+        // da friend, errore
+        if (friendCategories == null) {
+            throw new UserNotFoundException();
+        }
 
-            // non esistono categorie leggibili
-            // da friend, errore
-            if (!friendFound) {
-                throw new UserNotFoundException();
+        // ordina per nome solo le categorie leggibili da friend,
+        // che sono poche rispetto ai dati, e salta quelle
+        // che precedono la categoria del cursore
+        ArrayList<String> names = new ArrayList<>(friendCategories.size());
+
+        for (String category : friendCategories) {
+            if (cursor.isStart() || category.compareTo(cursor.getCategory()) >= 0) {
+                names.add(category);
             }
         }
 
-        // disabilita il metodo remove dell'iteratore che verrà generato
-        // sfruttando il metodo Collections.unmodifiableList
-        dataList = Collections.unmodifiableList(dataList);
+        Collections.sort(names);
+
+        // scorri uno dopo l'altro i dati che seguono
+        // il cursore e copia solo quelli della pagina
+        return Page.of(cursor, new ConcatIterator<>(names.stream()
+                .map(category -> this.dataAfter(category, cursor))
+                .iterator()), limit);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<E> getTopLiked(OwnerSession session, int k) throws UnauthorizedAccessException {
+        // validazione
+        this.sessions.validate(session);
+
+        // l'indice dei like è già ordinato,
+        // prendi solo i primi k dati
+        List<E> topList = this.likeIndex.top(k);
+
+        // ritorna una deep copy dei dati
+        topList.replaceAll(item -> (E)item.clone());
 
-        // ritorna l'iteratore
-        return dataList.iterator();
+        return topList;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<E> getFriendTopLiked(String friend, int k) throws UserNotFoundException {
+        // seleziona i k dati con più like fra quelli
+        // condivisi con friend usando un heap limitato
+        List<E> topList = LikeIndex.top(this.getFriendIterator(friend), k);
+
+        // ritorna una deep copy dei dati
+        topList.replaceAll(item -> (E)item.clone());
+
+        return topList;
     }
 
     @Override
@@ -346,17 +751,9 @@ public class MyDataBoardTreeSet<E extends Data> implements DataBoard<E> {
             throw new CategoryNotFoundException();
         }
 
-        // scorri gli user di category
-        // per vedere se user è presente
-        for (User item : this.categories.get(category)) {
-            if (item.equals(user)) {
-                return true;
-            }
-        }
-
-        // user non è presente
-        // in category
-        return false;
+        // controlla se user è presente
+        // fra gli user di category
+        return user != null && this.categories.get(category).contains(this.registry.idOf(user.getName()));
     }
 
     @Override
@@ -366,14 +763,8 @@ public class MyDataBoardTreeSet<E extends Data> implements DataBoard<E> {
             throw new NullPointerException();
         }
 
-        // scorri this per confrontare i dati
-        for (E item : this.dataList) {
-            if (item.equals(data)) {
-                return true;
-            }
-        }
-
-        return false;
+        // cerca il dato tramite l'indice per id
+        return this.findData(data) != null;
     }
 
     @Override
@@ -384,14 +775,112 @@ public class MyDataBoardTreeSet<E extends Data> implements DataBoard<E> {
         }
 
         // cerco il dato
-        for (E item : this.dataList) {
-            if (item.equals(data)) {
-                //se lo trovo ritorna i like
-                return item.getLikes();
+        E item = this.findData(data);
+
+        // il dato non è stato trovato, errore
+        if (item == null) {
+            throw new DataNotFoundException();
+        }
+
+        //se lo trovo ritorna i like
+        return item.getLikes();
+    }
+
+    @Override
+    public SnapshotImage<E> captureSnapshot() {
+        // validazione
+        if (this.image != null && !this.image.isClosed()) {
+            throw new IllegalStateException();
+        }
+
+        // copia i permessi di lettura, che cambiano sul posto
+        LinkedHashMap<String, IntSet> readers = new LinkedHashMap<>();
+
+        for (Map.Entry<String, IntSet> entry : this.categories.entrySet()) {
+            readers.put(entry.getKey(), new IntSet(entry.getValue()));
+        }
+
+        // dei dati copia solo i riferimenti, nell'ordine di dataList;
+        // quelli modificati in seguito vengono conservati da preserve
+        this.image = new SnapshotImage<>(readers, new ArrayList<>(this.dataList));
+
+        return this.image;
+    }
+
+    /*
+     * Conserva un dato per l'immagine in corso prima di modificarlo
+     */
+    private void preserve(E item) {
+        SnapshotImage<E> current = this.image;
+
+        if (current != null) {
+            current.preserve(item);
+        }
+    }
+    /*
+     * REQUIRES: item è un dato di this che sta per essere modificato
+     * MODIFIES: this.image
+     * EFFECTS: se c'è un'immagine di this aperta le passa item
+     */
+
+    @Override
+    public void loadSnapshot(SnapshotReader<E> reader) throws IOException {
+        // validazione
+        if (!this.categories.isEmpty()) {
+            throw new IllegalStateException();
+        }
+
+        // costruisci direttamente le categorie e l'indice
+        // inverso dei permessi, senza i controlli di addFriend
+        int categoryCount = reader.readCount();
+
+        for (int i = 0; i < categoryCount; i++) {
+            String category = reader.readCategory();
+            IntSet readers = reader.readReaders();
+
+            this.categories.put(category, readers);
+            this.categoryIndex.put(category, new TreeSet<>());
+            readers.forEach(friendId -> this.indexFriend(friendId, category));
+        }
+
+        // i dati della snapshot sono già copie, non serve
+        // né cercarli con hasData né copiarli come fa put
+        int dataCount = reader.readCount();
+        ArrayList<E> loaded = new ArrayList<>(dataCount);
+        HashMap<String, ArrayList<E>> loadedCategories = new HashMap<>();
+        boolean sorted = true;
+
+        for (int i = 0; i < dataCount; i++) {
+            E item = reader.readData();
+
+            // captureSnapshot cattura i dati nell'ordine di dataList
+            if (!loaded.isEmpty() && loaded.get(loaded.size() - 1).compareTo(item) >= 0) {
+                sorted = false;
             }
+
+            loaded.add(item);
+            loadedCategories.computeIfAbsent(item.getCategory(), k -> new ArrayList<>()).add(item);
+            this.dataIndex.put(item.id(), item);
+            this.likeIndex.add(item);
         }
 
-        // il dato non è stato trovato, errore
-        throw new DataNotFoundException();
+        if (sorted) {
+            // costruisci gli alberi in tempo lineare dai dati già ordinati
+            this.dataList.addAll(new SortedListView<>(loaded));
+
+            for (Map.Entry<String, ArrayList<E>> entry : loadedCategories.entrySet()) {
+                this.categoryIndex.get(entry.getKey()).addAll(new SortedListView<>(entry.getValue()));
+            }
+        } else {
+            for (E item : loaded) {
+                this.dataList.add(item);
+                this.categoryIndex.get(item.getCategory()).add(item);
+            }
+        }
+
+        // la snapshot contiene ogni dato una sola volta
+        if (this.dataList.size() != dataCount || this.dataIndex.size() != dataCount) {
+            throw new IOException("Corrupted snapshot.");
+        }
     }
 }
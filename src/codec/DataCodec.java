@@ -0,0 +1,202 @@
+package codec;
+
+import interfaces.Data;
+import storage.DataFactory;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class DataCodec<E extends Data> {
+    /*
+     * OVERVIEW: un DataCodec codifica i dati in un formato binario compatto,
+     * scritto e letto direttamente da un ByteBuffer: l'id come VarInt con
+     * segno, il body in UTF-8 preceduto dalla lunghezza, la categoria con il
+     * suo indice in un dizionario e gli user che hanno inserito un like con
+     * i loro indici in uno UserTable, in ordine crescente e codificati come
+     * differenza dal precedente. I like vengono letti e inseriti come id in
+     * UserRegistry, senza creare gli user né cercarne il nome.
+     * Un DataCodec non è thread-safe
+     *
+     * Formato: id (VarInt con segno), body (Utf8), indice della categoria + 1
+     *          (VarInt, 0 se il dato non ha categoria), numero di like (VarInt),
+     *          per ogni like l'indice dello user meno quello del precedente (VarInt)
+     */
+
+    private final Dictionary categories;
+
+    private final UserTable users;
+
+    // crea i dati decodificati, null se this codifica soltanto
+    private final DataFactory<E> factory;
+
+    // gli indici dei like del dato codificato, riusato fra le codifiche
+    private int[] likes;
+
+    /*
+     * AF: α(c) = la funzione che associa ad ogni dato la sua codifica
+     *            con il dizionario c.categories e la tabella c.users
+     *
+     * IR: I(c) = c.categories != null && c.users != null && c.likes != null
+     */
+
+    /*
+     * inizializza this
+     */
+    public DataCodec(Dictionary categories, UserTable users, DataFactory<E> factory) {
+        // validazione
+        if (categories == null || users == null) {
+            throw new NullPointerException();
+        }
+
+        this.categories = categories;
+        this.users = users;
+        this.factory = factory;
+        this.likes = new int[16];
+    }
+    /*
+     * REQUIRES: categories != null && users != null
+     * EFFECTS: inizializza this con il dizionario delle categorie e la tabella
+     *          degli user, factory può essere null se this viene usato solo
+     *          per codificare
+     * THROWS: se categories == null || users == null solleva una NullPointerException
+     */
+
+    /*
+     * Restituisce un limite superiore ai byte della codifica di un dato
+     */
+    public int maxSize(Data data) {
+        // un char occupa al più 3 byte in UTF-8
+        return VarInt.MAX_BYTES * 4 + data.getBody().length() * 3 + data.getLikeCount() * VarInt.MAX_BYTES;
+    }
+    /*
+     * REQUIRES: data != null
+     * RETURNS: restituisce un numero di byte maggiore o uguale a quello della codifica
+     *          di data, calcolato in tempo costante
+     */
+
+    /*
+     * Codifica un dato
+     */
+    public void encode(Data data, ByteBuffer buffer) {
+        // validazione
+        if (data == null || buffer == null) {
+            throw new NullPointerException();
+        }
+
+        int category = 0;
+
+        if (data.getCategory() != null) {
+            category = this.categories.indexOf(data.getCategory()) + 1;
+
+            if (category == 0) {
+                throw new IllegalArgumentException();
+            }
+        }
+
+        int count = this.likes(data);
+        int start = buffer.position();
+
+        try {
+            VarInt.putSignedInt(buffer, data.id());
+            Utf8.put(buffer, data.getBody());
+            VarInt.putInt(buffer, category);
+            VarInt.putInt(buffer, count);
+
+            // gli indici sono ordinati e distinti, quindi
+            // ogni differenza è positiva e di solito piccola
+            int previous = 0;
+
+            for (int i = 0; i < count; i++) {
+                VarInt.putInt(buffer, this.likes[i] - previous);
+                previous = this.likes[i];
+            }
+        } catch (BufferOverflowException e) {
+            buffer.position(start);
+
+            throw e;
+        }
+    }
+    /*
+     * REQUIRES: data != null && buffer != null, la categoria di data, se c'è, è
+     *           nel dizionario delle categorie e gli user che hanno inserito un like
+     *           a data sono nella tabella degli user
+     * MODIFIES: buffer
+     * EFFECTS: scrive in buffer la codifica di data
+     * THROWS: se data == null || buffer == null solleva una NullPointerException
+     *         se la categoria di data non è nel dizionario solleva una IllegalArgumentException
+     *         se uno user non è nella tabella solleva una IllegalStateException
+     *         se buffer non ha abbastanza spazio solleva una BufferOverflowException
+     *             e buffer non viene modificato
+     */
+
+    /*
+     * Decodifica un dato
+     */
+    public E decode(ByteBuffer buffer) {
+        // validazione
+        if (this.factory == null) {
+            throw new IllegalStateException();
+        }
+
+        int id = VarInt.getSignedInt(buffer);
+        E data = this.factory.create(id, Utf8.get(buffer));
+        int category = VarInt.getInt(buffer);
+
+        if (category != 0) {
+            data.setCategory(this.categories.get(category - 1));
+        }
+
+        int count = VarInt.getInt(buffer);
+
+        // ogni like occupa almeno un byte
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalStateException("Corrupted data.");
+        }
+
+        int index = 0;
+
+        // inserisci direttamente gli id, senza passare dai nomi
+        for (int i = 0; i < count; i++) {
+            index += VarInt.getInt(buffer);
+            data.insertLike(this.users.get(index));
+        }
+
+        return data;
+    }
+    /*
+     * REQUIRES: buffer != null contiene, dalla posizione corrente, la codifica
+     *           di un dato scritta con un dizionario ed una tabella uguali a quelli di this
+     * MODIFIES: buffer
+     * RETURNS: restituisce un nuovo dato creato con la factory, con la sua
+     *          categoria ed i like
+     * THROWS: se this non ha una factory solleva una IllegalStateException
+     *         se i byte letti non sono validi solleva una IllegalStateException
+     *             o una BufferUnderflowException
+     */
+
+    // scrive in likes gli indici ordinati degli user che
+    // hanno inserito un like a data, restituisce quanti sono
+    private int likes(Data data) {
+        // il contatore è un array per poterlo modificare nella lambda
+        int[] size = {0};
+
+        data.forEachLike(id -> {
+            int index = this.users.indexOf(id);
+
+            if (index < 0) {
+                throw new IllegalStateException();
+            }
+
+            if (size[0] == this.likes.length) {
+                this.likes = Arrays.copyOf(this.likes, size[0] << 1);
+            }
+
+            this.likes[size[0]++] = index;
+        });
+
+        Arrays.sort(this.likes, 0, size[0]);
+
+        return size[0];
+    }
+}
@@ -0,0 +1,102 @@
+package codec;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class Dictionary {
+    /*
+     * OVERVIEW: un Dictionary associa ad ogni nome un indice, nell'ordine in
+     * cui i nomi vengono aggiunti; un nome ripetuto molte volte, come la
+     * categoria di un dato o uno user che ha inserito un like, viene scritto
+     * una sola volta e poi codificato con il suo indice
+     *
+     * Elemento tipico: <name_0, ..., name_n-1> con name_i != name_j per ogni i != j
+     */
+
+    // associa ad ogni nome il suo indice
+    private final HashMap<String, Integer> indexes;
+
+    // i nomi in ordine di indice
+    private final ArrayList<String> names;
+
+    /*
+     * AF: α(c) = <c.names.get(0), ..., c.names.get(c.names.size() - 1)>
+     *
+     * IR: I(c) = c.indexes != null && c.names != null
+     *              e c.indexes.size() == c.names.size()
+     *              e per ogni 0 <= i < c.names.size(), c.indexes.get(c.names.get(i)) == i
+     */
+
+    /*
+     * inizializza this
+     */
+    public Dictionary() {
+        this.indexes = new HashMap<>();
+        this.names = new ArrayList<>();
+    }
+    /*
+     * EFFECTS: inizializza this a dizionario vuoto
+     */
+
+    /*
+     * Aggiunge un nome
+     */
+    public int add(String name) {
+        // validazione
+        if (name == null) {
+            throw new NullPointerException();
+        }
+
+        Integer index = this.indexes.putIfAbsent(name, this.names.size());
+
+        if (index != null) {
+            return index;
+        }
+
+        this.names.add(name);
+
+        return this.names.size() - 1;
+    }
+    /*
+     * REQUIRES: name != null
+     * MODIFIES: this
+     * EFFECTS: se name non è presente in this lo aggiunge in coda
+     * RETURNS: restituisce l'indice di name
+     * THROWS: se name == null solleva una NullPointerException
+     */
+
+    /*
+     * Restituisce l'indice di un nome
+     */
+    public int indexOf(String name) {
+        Integer index = name != null ? this.indexes.get(name) : null;
+
+        return index != null ? index : -1;
+    }
+    /*
+     * RETURNS: restituisce l'indice di name, -1 se name non è presente in this
+     */
+
+    /*
+     * Restituisce il nome associato ad un indice
+     */
+    public String get(int index) {
+        if (index < 0 || index >= this.names.size()) {
+            throw new IllegalStateException("Unknown dictionary index.");
+        }
+
+        return this.names.get(index);
+    }
+    /*
+     * RETURNS: restituisce il nome con indice index
+     * THROWS: se index non è un indice di this solleva una IllegalStateException,
+     *         in fase di decodifica significa che i byte letti non sono validi
+     */
+
+    /*
+     * Restituisce il numero di nomi
+     */
+    public int size() {
+        return this.names.size();
+    }
+}
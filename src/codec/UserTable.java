@@ -0,0 +1,111 @@
+package codec;
+
+import indexes.IntMap;
+
+import java.util.Arrays;
+
+public class UserTable {
+    /*
+     * OVERVIEW: uno UserTable associa ad ogni user, identificato dal suo id
+     * in UserRegistry, un indice nell'ordine in cui gli user vengono aggiunti;
+     * come un Dictionary, ma per gli id, così i like vengono codificati
+     * senza passare dai nomi degli user
+     *
+     * Elemento tipico: <id_0, ..., id_n-1> con id_i != id_j per ogni i != j
+     */
+
+    // associa ad ogni id il suo indice
+    private final IntMap<Integer> indexes;
+
+    // gli id in ordine di indice, le prime size posizioni sono usate
+    private int[] ids;
+
+    private int size;
+
+    /*
+     * AF: α(c) = <c.ids[0], ..., c.ids[c.size - 1]>
+     *
+     * IR: I(c) = c.indexes != null && c.ids != null && c.size <= c.ids.length
+     *              e c.indexes.size() == c.size
+     *              e per ogni 0 <= i < c.size, c.indexes.get(c.ids[i]) == i
+     */
+
+    /*
+     * inizializza this
+     */
+    public UserTable() {
+        this.indexes = new IntMap<>();
+        this.ids = new int[16];
+        this.size = 0;
+    }
+    /*
+     * EFFECTS: inizializza this a tabella vuota
+     */
+
+    /*
+     * Aggiunge uno user
+     */
+    public int add(int id) {
+        // validazione
+        if (id < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        Integer index = this.indexes.get(id);
+
+        if (index != null) {
+            return index;
+        }
+
+        if (this.size == this.ids.length) {
+            this.ids = Arrays.copyOf(this.ids, this.size << 1);
+        }
+
+        this.ids[this.size] = id;
+        this.indexes.put(id, this.size);
+
+        return this.size++;
+    }
+    /*
+     * REQUIRES: id >= 0
+     * MODIFIES: this
+     * EFFECTS: se id non è presente in this lo aggiunge in coda
+     * RETURNS: restituisce l'indice di id
+     * THROWS: se id < 0 solleva una IllegalArgumentException
+     */
+
+    /*
+     * Restituisce l'indice di uno user
+     */
+    public int indexOf(int id) {
+        Integer index = this.indexes.get(id);
+
+        return index != null ? index : -1;
+    }
+    /*
+     * RETURNS: restituisce l'indice di id, -1 se id non è presente in this
+     */
+
+    /*
+     * Restituisce lo user associato ad un indice
+     */
+    public int get(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IllegalStateException("Unknown user index.");
+        }
+
+        return this.ids[index];
+    }
+    /*
+     * RETURNS: restituisce l'id dello user con indice index
+     * THROWS: se index non è un indice di this solleva una IllegalStateException,
+     *         in fase di decodifica significa che i byte letti non sono validi
+     */
+
+    /*
+     * Restituisce il numero di user
+     */
+    public int size() {
+        return this.size;
+    }
+}
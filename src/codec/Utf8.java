@@ -0,0 +1,174 @@
+package codec;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public final class Utf8 {
+    /*
+     * OVERVIEW: Utf8 codifica le stringhe in UTF-8 precedute dalla lunghezza
+     * in byte scritta con VarInt; nei buffer su heap la codifica viene
+     * scritta direttamente nell'array del buffer, senza copie intermedie.
+     * Come String.getBytes, un surrogato senza la sua coppia viene
+     * codificato come '?'
+     */
+
+    private Utf8() {
+    }
+
+    /*
+     * Scrive una stringa preceduta dalla sua lunghezza
+     */
+    public static void put(ByteBuffer buffer, String value) {
+        int length = length(value);
+
+        // controlla lo spazio prima di scrivere, così se
+        // non basta buffer non viene modificato
+        if (buffer.remaining() < VarInt.size(length) + length) {
+            throw new BufferOverflowException();
+        }
+
+        VarInt.putInt(buffer, length);
+
+        if (buffer.hasArray()) {
+            // scrivi direttamente nell'array del buffer
+            int offset = buffer.arrayOffset() + buffer.position();
+            int end = encode(value, buffer.array(), offset);
+
+            buffer.position(buffer.position() + end - offset);
+        } else {
+            byte[] bytes = new byte[length];
+
+            encode(value, bytes, 0);
+            buffer.put(bytes);
+        }
+    }
+    /*
+     * REQUIRES: buffer != null && value != null
+     * MODIFIES: buffer
+     * EFFECTS: scrive in buffer la lunghezza della codifica UTF-8 di value e la codifica
+     * THROWS: se value == null solleva una NullPointerException
+     *         se buffer non ha abbastanza spazio solleva una BufferOverflowException
+     *             e buffer non viene modificato
+     */
+
+    /*
+     * Legge una stringa scritta con put
+     */
+    public static String get(ByteBuffer buffer) {
+        int length = VarInt.getInt(buffer);
+
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalStateException("Corrupted string.");
+        }
+
+        String value;
+
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        return value;
+    }
+    /*
+     * REQUIRES: buffer != null
+     * MODIFIES: buffer
+     * RETURNS: restituisce la stringa successiva di buffer
+     * THROWS: se la lunghezza letta non è valida solleva una IllegalStateException
+     */
+
+    /*
+     * Restituisce il numero di byte della codifica UTF-8 di una stringa
+     */
+    public static int length(String value) {
+        int count = value.length();
+        int length = count;
+
+        for (int i = 0; i < count; i++) {
+            char c = value.charAt(i);
+
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    length += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < count
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    // una coppia di surrogati occupa 4 byte
+                    length += 2;
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    // un surrogato isolato diventa '?'
+                    continue;
+                } else {
+                    length += 2;
+                }
+            }
+        }
+
+        return length;
+    }
+    /*
+     * REQUIRES: value != null
+     * RETURNS: restituisce la lunghezza in byte della codifica UTF-8 di value
+     */
+
+    /*
+     * Restituisce il numero di byte di una stringa scritta con put
+     */
+    public static int size(String value) {
+        int length = length(value);
+
+        return VarInt.size(length) + length;
+    }
+
+    // codifica value in bytes a partire da offset,
+    // restituisce la posizione dopo l'ultimo byte scritto
+    private static int encode(String value, byte[] bytes, int offset) {
+        int count = value.length();
+        int i = 0;
+
+        // la maggior parte delle stringhe è ASCII
+        while (i < count) {
+            char c = value.charAt(i);
+
+            if (c >= 0x80) {
+                break;
+            }
+
+            bytes[offset++] = (byte) c;
+            i++;
+        }
+
+        for (; i < count; i++) {
+            char c = value.charAt(i);
+
+            if (c < 0x80) {
+                bytes[offset++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[offset++] = (byte) (0xc0 | (c >> 6));
+                bytes[offset++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < count
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+
+                bytes[offset++] = (byte) (0xf0 | (codePoint >> 18));
+                bytes[offset++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                bytes[offset++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                bytes[offset++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                bytes[offset++] = '?';
+            } else {
+                bytes[offset++] = (byte) (0xe0 | (c >> 12));
+                bytes[offset++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                bytes[offset++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+
+        return offset;
+    }
+}
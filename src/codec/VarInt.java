@@ -0,0 +1,100 @@
+package codec;
+
+import java.nio.ByteBuffer;
+
+public final class VarInt {
+    /*
+     * OVERVIEW: VarInt codifica gli interi in un numero variabile di byte
+     * (LEB128): ogni byte contiene 7 bit del valore, dai meno significativi,
+     * ed il bit più alto indica se segue un altro byte; un intero minore di
+     * 128 occupa un solo byte, uno qualsiasi al più 5. Gli interi con segno
+     * vengono prima mappati sui naturali con lo zigzag (0, -1, 1, -2, ...),
+     * così anche i valori negativi piccoli occupano pochi byte
+     */
+
+    // numero massimo di byte di un intero codificato
+    public static final int MAX_BYTES = 5;
+
+    private VarInt() {
+    }
+
+    /*
+     * Scrive un intero senza segno
+     */
+    public static void putInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7f) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+
+        buffer.put((byte) value);
+    }
+    /*
+     * REQUIRES: buffer != null
+     * MODIFIES: buffer
+     * EFFECTS: scrive in buffer value, interpretato senza segno, in size(value) byte
+     * THROWS: se buffer non ha abbastanza spazio solleva una BufferOverflowException
+     */
+
+    /*
+     * Legge un intero senza segno
+     */
+    public static int getInt(ByteBuffer buffer) {
+        int value = 0;
+
+        for (int shift = 0; shift < 7 * MAX_BYTES; shift += 7) {
+            int b = buffer.get();
+
+            value |= (b & 0x7f) << shift;
+
+            if ((b & 0x80) == 0) {
+                // il quinto byte contiene solo i 4 bit più alti
+                if (shift == 28 && (b & 0x70) != 0) {
+                    break;
+                }
+
+                return value;
+            }
+        }
+
+        throw new IllegalStateException("Corrupted varint.");
+    }
+    /*
+     * REQUIRES: buffer != null
+     * MODIFIES: buffer
+     * RETURNS: restituisce l'intero scritto con putInt
+     * THROWS: se buffer termina prima dell'intero solleva una BufferUnderflowException
+     *         se i byte letti non codificano un intero solleva una IllegalStateException
+     */
+
+    /*
+     * Scrive un intero con segno
+     */
+    public static void putSignedInt(ByteBuffer buffer, int value) {
+        putInt(buffer, (value << 1) ^ (value >> 31));
+    }
+
+    /*
+     * Legge un intero con segno
+     */
+    public static int getSignedInt(ByteBuffer buffer) {
+        int value = getInt(buffer);
+
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /*
+     * Restituisce il numero di byte di un intero senza segno
+     */
+    public static int size(int value) {
+        // 7 bit per byte, almeno un byte anche per 0
+        return (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    /*
+     * Restituisce il numero di byte di un intero con segno
+     */
+    public static int signedSize(int value) {
+        return size((value << 1) ^ (value >> 31));
+    }
+}
@@ -0,0 +1,58 @@
+package indexes;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class ConcatIterator<E> implements Iterator<E> {
+    /*
+     * OVERVIEW: un ConcatIterator è un iteratore (senza remove) che genera
+     * uno dopo l'altro gli elementi di una sequenza di collezioni,
+     * senza copiarli
+     *
+     * Elemento tipico: <c_1.e_1, ..., c_1.e_n, ..., c_m.e_1, ..., c_m.e_k>
+     */
+
+    // iteratore sulle collezioni da concatenare
+    private final Iterator<? extends Iterable<? extends E>> sources;
+
+    // iteratore sulla collezione corrente
+    private Iterator<? extends E> current;
+
+    /*
+     * inizializza this
+     */
+    public ConcatIterator(Iterator<? extends Iterable<? extends E>> sources) {
+        if (sources == null) {
+            throw new NullPointerException();
+        }
+
+        this.sources = sources;
+        this.current = Collections.emptyIterator();
+    }
+    /*
+     * REQUIRES: sources != null
+     * EFFECTS: inizializza this con le collezioni generate da sources,
+     *          le collezioni vengono aperte solo quando servono
+     * THROWS: se sources == null solleva una NullPointerException
+     */
+
+    @Override
+    public boolean hasNext() {
+        // passa alla prossima collezione non vuota
+        while (!this.current.hasNext() && this.sources.hasNext()) {
+            this.current = this.sources.next().iterator();
+        }
+
+        return this.current.hasNext();
+    }
+
+    @Override
+    public E next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        return this.current.next();
+    }
+}
@@ -0,0 +1,235 @@
+package indexes;
+
+import java.util.Arrays;
+
+public class IntMap<V> {
+    /*
+     * OVERVIEW: un IntMap è una mappa modificabile da chiavi int a valori
+     * non null, implementata con indirizzamento aperto e scansione lineare
+     * per evitare il boxing delle chiavi e un oggetto per ogni entry
+     *
+     * Elemento tipico: {<k_1, v_1>, ..., <k_n, v_n>} con k_i != k_j per ogni i != j
+     */
+
+    // capacità iniziale della tabella, sempre una potenza di 2
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] keys;
+    private Object[] values;
+
+    // numero di entry presenti
+    private int size;
+
+    /*
+     * AF: α(c) = { <c.keys[i], c.values[i]> | 0 <= i < c.values.length && c.values[i] != null }
+     *
+     * IR: I(c) = c.keys.length == c.values.length
+     *              e c.values.length è una potenza di 2
+     *              e c.size == |{ i | c.values[i] != null }|
+     *              e 2 * c.size <= c.values.length
+     *              e per ogni i tale che c.values[i] != null, tutte le posizioni
+     *                  fra slot(c.keys[i]) e i (in modo circolare) sono occupate
+     */
+
+    /*
+     * inizializza this
+     */
+    public IntMap() {
+        this(INITIAL_CAPACITY);
+    }
+    /*
+     * EFFECTS: inizializza this a mappa vuota
+     */
+
+    /*
+     * inizializza this per contenere expectedSize
+     * entry senza doversi ridimensionare
+     */
+    public IntMap(int expectedSize) {
+        int capacity = INITIAL_CAPACITY;
+
+        while (capacity < 2 * expectedSize) {
+            capacity <<= 1;
+        }
+
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+        this.size = 0;
+    }
+    /*
+     * REQUIRES: expectedSize >= 0
+     * EFFECTS: inizializza this a mappa vuota
+     */
+
+    /*
+     * Restituisce il valore associato a key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int mask = this.values.length - 1;
+
+        // scorri le posizioni a partire da quella della chiave
+        // fino a trovare la chiave o una posizione vuota
+        for (int i = slot(key, mask); this.values[i] != null; i = (i + 1) & mask) {
+            if (this.keys[i] == key) {
+                return (V)this.values[i];
+            }
+        }
+
+        return null;
+    }
+    /*
+     * RETURNS: restituisce il valore associato a key, null se key non è presente
+     */
+
+    /*
+     * Verifica se key è presente in this
+     */
+    public boolean containsKey(int key) {
+        return this.get(key) != null;
+    }
+
+    /*
+     * Associa value a key
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        // validazione
+        if (value == null) {
+            throw new NullPointerException();
+        }
+
+        // mantieni il fattore di carico sotto 1/2
+        if (2 * (this.size + 1) > this.values.length) {
+            this.resize(this.values.length << 1);
+        }
+
+        int mask = this.values.length - 1;
+        int i = slot(key, mask);
+
+        while (this.values[i] != null) {
+            // la chiave è già presente, sostituisci il valore
+            if (this.keys[i] == key) {
+                V previous = (V)this.values[i];
+                this.values[i] = value;
+
+                return previous;
+            }
+
+            i = (i + 1) & mask;
+        }
+
+        this.keys[i] = key;
+        this.values[i] = value;
+        this.size++;
+
+        return null;
+    }
+    /*
+     * REQUIRES: value != null
+     * MODIFIES: this
+     * EFFECTS: value viene associato a key in this
+     * RETURNS: restituisce il valore associato in precedenza a key,
+     *          null se key non era presente
+     * THROWS: se value == null solleva una NullPointerException
+     */
+
+    /*
+     * Rimuove key da this
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int mask = this.values.length - 1;
+        int i = slot(key, mask);
+
+        while (this.values[i] != null && this.keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+
+        // la chiave non è presente
+        if (this.values[i] == null) {
+            return null;
+        }
+
+        V previous = (V)this.values[i];
+
+        // sposta indietro le entry successive che non sono nella
+        // loro posizione, così le scansioni non si interrompono
+        // sulla posizione liberata (niente tombstone)
+        int hole = i;
+
+        for (int j = (i + 1) & mask; this.values[j] != null; j = (j + 1) & mask) {
+            int home = slot(this.keys[j], mask);
+
+            // j può riempire hole se home non cade
+            // (in modo circolare) fra hole e j
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                this.keys[hole] = this.keys[j];
+                this.values[hole] = this.values[j];
+                hole = j;
+            }
+        }
+
+        this.values[hole] = null;
+        this.size--;
+
+        return previous;
+    }
+    /*
+     * MODIFIES: this
+     * EFFECTS: key viene rimossa da this se presente
+     * RETURNS: restituisce il valore associato a key,
+     *          null se key non era presente
+     */
+
+    /*
+     * Restituisce il numero di entry
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /*
+     * Rimuove tutte le entry
+     */
+    public void clear() {
+        Arrays.fill(this.values, null);
+        this.size = 0;
+    }
+    /*
+     * MODIFIES: this
+     * EFFECTS: this diventa una mappa vuota
+     */
+
+    // ricostruisce la tabella con la capacità indicata
+    private void resize(int capacity) {
+        int[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+
+        int mask = capacity - 1;
+
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int j = slot(oldKeys[i], mask);
+
+                while (this.values[j] != null) {
+                    j = (j + 1) & mask;
+                }
+
+                this.keys[j] = oldKeys[i];
+                this.values[j] = oldValues[i];
+            }
+        }
+    }
+
+    // posizione iniziale della chiave nella tabella,
+    // mescola i bit perché gli id sono spesso consecutivi
+    private static int slot(int key, int mask) {
+        int hash = key * 0x9E3779B9;
+
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,248 @@
+package indexes;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+public class IntSet {
+    /*
+     * OVERVIEW: un IntSet è un insieme modificabile di interi non negativi,
+     * implementato con indirizzamento aperto e scansione lineare su un
+     * array di int, senza boxing e senza un oggetto per ogni elemento
+     *
+     * Elemento tipico: {x_1, ..., x_n} con x_i >= 0 e x_i != x_j per ogni i != j
+     */
+
+    // capacità iniziale della tabella, sempre una potenza di 2
+    private static final int INITIAL_CAPACITY = 8;
+
+    // ogni posizione contiene x + 1, 0 indica una posizione vuota
+    private int[] table;
+
+    // numero di elementi presenti
+    private int size;
+
+    /*
+     * AF: α(c) = { c.table[i] - 1 | 0 <= i < c.table.length && c.table[i] != 0 }
+     *
+     * IR: I(c) = c.table.length è una potenza di 2
+     *              e c.size == |{ i | c.table[i] != 0 }|
+     *              e 2 * c.size <= c.table.length
+     *              e per ogni i tale che c.table[i] != 0, tutte le posizioni
+     *                  fra slot(c.table[i] - 1) e i (in modo circolare) sono occupate
+     */
+
+    /*
+     * inizializza this
+     */
+    public IntSet() {
+        this.table = new int[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+    /*
+     * EFFECTS: inizializza this ad insieme vuoto
+     */
+
+    /*
+     * inizializza this come copia di set
+     */
+    public IntSet(IntSet set) {
+        this.table = set.table.clone();
+        this.size = set.size;
+    }
+    /*
+     * REQUIRES: set != null
+     * EFFECTS: inizializza this con gli elementi di set
+     * THROWS: se set == null solleva una NullPointerException
+     */
+
+    /*
+     * Verifica se x è presente in this
+     */
+    public boolean contains(int x) {
+        if (x < 0) {
+            return false;
+        }
+
+        int mask = this.table.length - 1;
+
+        for (int i = slot(x, mask); this.table[i] != 0; i = (i + 1) & mask) {
+            if (this.table[i] == x + 1) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+    /*
+     * RETURNS: restituisce true se x appartiene a this, false altrimenti
+     */
+
+    /*
+     * Aggiunge x a this
+     */
+    public boolean add(int x) {
+        // validazione
+        if (x < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        // mantieni il fattore di carico sotto 1/2
+        if (2 * (this.size + 1) > this.table.length) {
+            this.resize(this.table.length << 1);
+        }
+
+        int mask = this.table.length - 1;
+        int i = slot(x, mask);
+
+        while (this.table[i] != 0) {
+            if (this.table[i] == x + 1) {
+                return false;
+            }
+
+            i = (i + 1) & mask;
+        }
+
+        this.table[i] = x + 1;
+        this.size++;
+
+        return true;
+    }
+    /*
+     * REQUIRES: x >= 0
+     * MODIFIES: this
+     * EFFECTS: x viene aggiunto a this
+     * RETURNS: restituisce true se x non era presente in this, false altrimenti
+     * THROWS: se x < 0 solleva una IllegalArgumentException
+     */
+
+    /*
+     * Rimuove x da this
+     */
+    public boolean remove(int x) {
+        if (x < 0) {
+            return false;
+        }
+
+        int mask = this.table.length - 1;
+        int i = slot(x, mask);
+
+        while (this.table[i] != 0 && this.table[i] != x + 1) {
+            i = (i + 1) & mask;
+        }
+
+        // x non è presente
+        if (this.table[i] == 0) {
+            return false;
+        }
+
+        // sposta indietro gli elementi successivi che non sono nella
+        // loro posizione, così le scansioni non si interrompono
+        // sulla posizione liberata (niente tombstone)
+        int hole = i;
+
+        for (int j = (i + 1) & mask; this.table[j] != 0; j = (j + 1) & mask) {
+            int home = slot(this.table[j] - 1, mask);
+
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                this.table[hole] = this.table[j];
+                hole = j;
+            }
+        }
+
+        this.table[hole] = 0;
+        this.size--;
+
+        return true;
+    }
+    /*
+     * MODIFIES: this
+     * EFFECTS: x viene rimosso da this se presente
+     * RETURNS: restituisce true se x era presente in this, false altrimenti
+     */
+
+    /*
+     * Restituisce il numero di elementi
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /*
+     * Verifica se this è vuoto
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /*
+     * Esegue action su ogni elemento di this
+     */
+    public void forEach(IntConsumer action) {
+        for (int item : this.table) {
+            if (item != 0) {
+                action.accept(item - 1);
+            }
+        }
+    }
+    /*
+     * REQUIRES: action != null && action non modifica this
+     * EFFECTS: action viene eseguita su ogni elemento di this,
+     *          in un ordine non specificato
+     */
+
+    /*
+     * Restituisce gli elementi di this in un array
+     */
+    public int[] toArray() {
+        int[] array = new int[this.size];
+        int k = 0;
+
+        for (int item : this.table) {
+            if (item != 0) {
+                array[k++] = item - 1;
+            }
+        }
+
+        return array;
+    }
+    /*
+     * RETURNS: restituisce un nuovo array con gli elementi di this,
+     *          in un ordine non specificato
+     */
+
+    /*
+     * Rimuove tutti gli elementi
+     */
+    public void clear() {
+        Arrays.fill(this.table, 0);
+        this.size = 0;
+    }
+
+    // ricostruisce la tabella con la capacità indicata
+    private void resize(int capacity) {
+        int[] oldTable = this.table;
+        this.table = new int[capacity];
+
+        int mask = capacity - 1;
+
+        for (int item : oldTable) {
+            if (item != 0) {
+                int j = slot(item - 1, mask);
+
+                while (this.table[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+
+                this.table[j] = item;
+            }
+        }
+    }
+
+    // posizione iniziale dell'elemento nella tabella,
+    // mescola i bit perché gli id sono spesso consecutivi
+    private static int slot(int x, int mask) {
+        int hash = x * 0x9E3779B9;
+
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,179 @@
+package indexes;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+
+public class LikeCounter {
+    /*
+     * OVERVIEW: un LikeCounter è l'insieme degli id degli user che hanno
+     * inserito un like ad un dato, può essere modificato da più thread
+     * senza lock; i like inseriti restano in attesa finché non vengono
+     * consegnati al dato con drainTo
+     *
+     * Elemento tipico: <{x_1, ..., x_n}, <x_k, ..., x_n>> dove la sequenza
+     *                  contiene i like non ancora consegnati
+     */
+
+    // gli id degli user che hanno inserito un like; il numero
+    // di like viene letto dal dato, a cui i like sono consegnati
+    private final Set<Integer> likers;
+
+    // i like inseriti e non ancora consegnati,
+    // in ordine di inserimento
+    private final ConcurrentLinkedQueue<Integer> pending;
+
+    // un solo thread alla volta consegna i like in attesa
+    private final ReentrantLock drainLock;
+
+    /*
+     * AF: α(c) = <c.likers, c.pending>
+     *
+     * IR: I(c) = c.likers != null && c.pending != null
+     *              e ogni elemento di c.pending appartiene a c.likers
+     */
+
+    /*
+     * inizializza this
+     */
+    public LikeCounter() {
+        this.likers = ConcurrentHashMap.newKeySet();
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.drainLock = new ReentrantLock();
+    }
+    /*
+     * EFFECTS: inizializza this senza like
+     */
+
+    /*
+     * Aggiunge il like di uno user
+     */
+    public boolean add(int id) {
+        // l'inserimento nell'insieme è atomico, quindi
+        // di due like concorrenti dello stesso user
+        // ne viene accettato uno solo
+        if (!this.likers.add(id)) {
+            return false;
+        }
+
+        this.pending.add(id);
+
+        return true;
+    }
+    /*
+     * MODIFIES: this
+     * EFFECTS: id viene aggiunto ai like di this e ai like in attesa
+     * RETURNS: restituisce true se id non aveva già inserito un like, false altrimenti
+     */
+
+    /*
+     * Verifica se uno user ha inserito un like
+     */
+    public boolean contains(int id) {
+        return this.likers.contains(id);
+    }
+
+    /*
+     * Aggiunge il like di uno user già consegnato al dato
+     */
+    public void restore(int id) {
+        this.likers.add(id);
+    }
+    /*
+     * MODIFIES: this
+     * EFFECTS: id viene aggiunto ai like di this ma non ai like in attesa,
+     *          così un secondo like di id viene rifiutato da add
+     */
+
+    /*
+     * Verifica se ci sono like in attesa
+     */
+    public boolean hasPending() {
+        return !this.pending.isEmpty();
+    }
+
+    /*
+     * Restituisce i like in attesa
+     */
+    public int[] pending() {
+        ArrayList<Integer> ids = new ArrayList<>(this.pending);
+        int[] result = new int[ids.size()];
+
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids.get(i);
+        }
+
+        return result;
+    }
+    /*
+     * RETURNS: restituisce un nuovo array con i like in attesa; un like
+     *          consegnato durante la chiamata può comparire o no, uno
+     *          rimosso dall'attesa prima della chiamata è già stato
+     *          consegnato, quindi i like in attesa all'inizio della chiamata
+     *          sono nell'array oppure nel dato
+     */
+
+    /*
+     * Consegna ad action i like in attesa
+     */
+    public void drainTo(IntConsumer action) {
+        // caso comune, non ci sono like in attesa
+        if (this.pending.isEmpty()) {
+            return;
+        }
+
+        this.drainLock.lock();
+
+        try {
+            this.drain(action);
+        } finally {
+            this.drainLock.unlock();
+        }
+    }
+    /*
+     * REQUIRES: action != null
+     * MODIFIES: this
+     * EFFECTS: action viene eseguita una sola volta su ogni like in attesa,
+     *          in ordine di inserimento, e i like non sono più in attesa;
+     *          al termine action è stata eseguita su ogni like il cui add
+     *          è terminato prima della chiamata
+     */
+
+    /*
+     * Consegna ad action i like in attesa, senza
+     * attendere se un altro thread li sta già consegnando
+     */
+    public void tryDrainTo(IntConsumer action) {
+        // chi sta consegnando può aver trovato la coda vuota prima
+        // dell'ultimo add, quindi dopo aver rilasciato il lock si
+        // controlla di nuovo che non sia rimasto nessun like in attesa
+        while (!this.pending.isEmpty() && this.drainLock.tryLock()) {
+            try {
+                this.drain(action);
+            } finally {
+                this.drainLock.unlock();
+            }
+        }
+    }
+    /*
+     * REQUIRES: action != null
+     * MODIFIES: this
+     * EFFECTS: come drainTo, ma se un altro thread sta consegnando
+     *          i like termina subito lasciando a lui i like in attesa
+     */
+
+    // consegna i like in attesa, richiede drainLock
+    private void drain(IntConsumer action) {
+        Integer id;
+
+        // rimuovi il like solo dopo averlo consegnato, così chi
+        // trova la coda vuota sa che tutti i like sono stati consegnati
+        while ((id = this.pending.peek()) != null) {
+            action.accept(id);
+            this.pending.poll();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package indexes;
+
+import interfaces.Data;
+
+import java.util.*;
+
+public class LikeIndex<E extends Data> implements Iterable<E> {
+    /*
+     * OVERVIEW: un LikeIndex è un insieme modificabile di dati
+     * ordinati rispetto al numero di like in ordine decrescente,
+     * a parità di like i dati sono in ordine di inserimento
+     *
+     * Elemento tipico: {data_1, ..., data_n} con
+     *                  data_i.getLikeCount() >= data_j.getLikeCount() per ogni i < j
+     */
+
+    // associa ad ogni numero di like
+    // i dati che hanno quel numero di like
+    private final TreeMap<Integer, LinkedHashSet<E>> buckets;
+
+    // il numero di like con cui è indicizzato ogni dato
+    private final HashMap<E, Integer> counts;
+
+    /*
+     * AF: α(c) = { c.buckets.get(k) | k in c.buckets.descendingKeySet() }
+     *
+     * IR: I(c) = c.buckets != null && c.counts != null
+     *              e per ogni k in c.buckets.keySet(), c.buckets.get(k) non è vuoto
+     *              e per ogni data in c.counts.keySet(), c.buckets.get(c.counts.get(data)).contains(data)
+     *              e la somma delle dimensioni degli insiemi di c.buckets == c.counts.size()
+     */
+
+    /*
+     * inizializza this
+     */
+    public LikeIndex() {
+        this.buckets = new TreeMap<>();
+        this.counts = new HashMap<>();
+    }
+    /*
+     * EFFECTS: inizializza this ad indice vuoto
+     */
+
+    /*
+     * Aggiunge un dato all'indice
+     */
+    public void add(E data) {
+        int count = data.getLikeCount();
+
+        this.counts.put(data, count);
+        this.buckets.computeIfAbsent(count, k -> new LinkedHashSet<>()).add(data);
+    }
+    /*
+     * REQUIRES: data != null && data non è presente in this
+     * MODIFIES: this
+     * EFFECTS: data è aggiunto a this con data.getLikeCount() like
+     * THROWS: se data == null solleva una NullPointerException
+     */
+
+    /*
+     * Rimuove un dato dall'indice
+     */
+    public void remove(E data) {
+        Integer count = this.counts.remove(data);
+
+        if (count == null) {
+            return;
+        }
+
+        LinkedHashSet<E> bucket = this.buckets.get(count);
+        bucket.remove(data);
+
+        // non tenere insiemi vuoti
+        if (bucket.isEmpty()) {
+            this.buckets.remove(count);
+        }
+    }
+    /*
+     * MODIFIES: this
+     * EFFECTS: data viene rimosso da this se presente
+     */
+
+    /*
+     * Aggiorna la posizione di un dato il cui
+     * numero di like è cambiato
+     */
+    public void update(E data) {
+        this.remove(data);
+        this.add(data);
+    }
+    /*
+     * REQUIRES: data != null
+     * MODIFIES: this
+     * EFFECTS: data viene indicizzato con data.getLikeCount() like
+     * THROWS: se data == null solleva una NullPointerException
+     */
+
+    /*
+     * Restituisce il numero di dati nell'indice
+     */
+    public int size() {
+        return this.counts.size();
+    }
+
+    /*
+     * Restituisce i primi k dati dell'indice
+     */
+    public List<E> top(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        ArrayList<E> topList = new ArrayList<>(Math.min(k, this.size()));
+
+        // l'indice è già ordinato, basta
+        // fermarsi dopo i primi k dati
+        Iterator<E> iterator = this.iterator();
+
+        while (topList.size() < k && iterator.hasNext()) {
+            topList.add(iterator.next());
+        }
+
+        return topList;
+    }
+    /*
+     * RETURNS: restituisce una lista dei min(k, this.size()) dati di this
+     *          con più like, ordinati in modo decrescente
+     * THROWS: se k < 0 solleva una IllegalArgumentException
+     */
+
+    /*
+     * Seleziona i k dati con più like fra quelli generati da iterator
+     */
+    public static <T extends Data> List<T> top(Iterator<T> iterator, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        // mantieni un min-heap di al più k elementi, la
+        // cui radice è il dato con meno like fra i migliori
+        PriorityQueue<T> heap = new PriorityQueue<>(Math.max(k, 1), Comparator.comparingInt(Data::getLikeCount));
+
+        while (k > 0 && iterator.hasNext()) {
+            T item = iterator.next();
+
+            if (heap.size() < k) {
+                heap.add(item);
+            } else if (item.getLikeCount() > heap.peek().getLikeCount()) {
+                heap.poll();
+                heap.add(item);
+            }
+        }
+
+        // svuota l'heap dal dato con meno like
+        // e rovescia la lista ottenuta
+        ArrayList<T> topList = new ArrayList<>(heap.size());
+
+        while (!heap.isEmpty()) {
+            topList.add(heap.poll());
+        }
+
+        Collections.reverse(topList);
+
+        return topList;
+    }
+    /*
+     * REQUIRES: iterator != null
+     * RETURNS: restituisce una lista dei min(k, n) dati generati da iterator
+     *          con più like, ordinati in modo decrescente, in tempo O(n log k)
+     * THROWS: se k < 0 solleva una IllegalArgumentException
+     */
+
+    /*
+     * Restituisce un iteratore (senza remove) che genera i dati
+     * in ordine decrescente rispetto al numero di like
+     */
+    @Override
+    public Iterator<E> iterator() {
+        // scorre gli insiemi uno dopo l'altro
+        // senza copiarne il contenuto
+        return new ConcatIterator<>(this.buckets.descendingMap().values().iterator());
+    }
+    /*
+     * RETURNS: restituisce un iteratore (senza remove) sui dati di this,
+     *          l'iteratore non è valido se this viene modificato durante la visita
+     */
+}
@@ -0,0 +1,212 @@
+package indexes;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+public final class PersistentIntSet {
+    /*
+     * OVERVIEW: un PersistentIntSet è un insieme immutabile di interi non
+     * negativi che ricorda l'ordine di inserimento; add restituisce una
+     * nuova versione dell'insieme e le versioni condividono la stessa
+     * tabella finché possibile, quindi copiare un insieme costa O(1) e
+     * aggiungere un elemento costa O(1) ammortizzato
+     *
+     * Elemento tipico: <x_1, ..., x_n> con x_i >= 0 e x_i != x_j per ogni i != j
+     */
+
+    // l'insieme vuoto, condiviso da tutti; la sua tabella è
+    // piena in partenza così nessuno vi scrive e il primo
+    // add crea sempre una tabella nuova
+    public static final PersistentIntSet EMPTY = new PersistentIntSet(Table.sealed(), 0);
+
+    /*
+     * Una tabella condivisa fra più versioni: gli elementi sono scritti
+     * una sola volta e mai rimossi, ogni versione vede solo i primi size
+     */
+    private static final class Table {
+        // gli elementi in ordine di inserimento
+        final int[] elements;
+
+        // tabella hash ad indirizzamento aperto, ogni posizione
+        // contiene l'indice in elements + 1, 0 indica una posizione vuota
+        final int[] slots;
+
+        // numero di elementi scritti, solo la versione con
+        // size == count può aggiungere elementi alla tabella
+        final AtomicInteger count;
+
+        Table(int capacity) {
+            this.elements = new int[capacity / 2];
+            this.slots = new int[capacity];
+            this.count = new AtomicInteger(0);
+        }
+
+        static Table sealed() {
+            Table table = new Table(8);
+            table.count.set(table.elements.length);
+
+            return table;
+        }
+    }
+
+    private final Table table;
+
+    // numero di elementi visibili da questa versione
+    private final int size;
+
+    /*
+     * AF: α(c) = <c.table.elements[0], ..., c.table.elements[c.size - 1]>
+     *
+     * IR: I(c) = c.table != null && 0 <= c.size <= c.table.count.get() <= c.table.elements.length
+     *              e c.table.elements[i] è stato scritto per ogni i tale che 0 <= i < c.size
+     *              e c.table.slots.length == 2 * c.table.elements.length è una potenza di 2
+     *              e per ogni i tale che 0 <= i < c.table.count.get(), esiste un'unica
+     *                  posizione p tale che c.table.slots[p] == i + 1 e tutte le posizioni fra
+     *                  slot(c.table.elements[i]) e p (in modo circolare) contengono indici < i
+     *
+     * Le posizioni con indice >= size appartengono a versioni più recenti: poiché gli
+     * elementi non vengono mai rimossi, la scansione di un elemento visibile non incontra
+     * mai una posizione più recente prima di trovarlo, quindi può fermarsi lì.
+     */
+
+    private PersistentIntSet(Table table, int size) {
+        this.table = table;
+        this.size = size;
+    }
+
+    /*
+     * Verifica se x è presente in this
+     */
+    public boolean contains(int x) {
+        if (x < 0) {
+            return false;
+        }
+
+        int[] slots = this.table.slots;
+        int mask = slots.length - 1;
+
+        for (int i = slot(x, mask); slots[i] != 0; i = (i + 1) & mask) {
+            int index = slots[i] - 1;
+
+            // posizione di una versione più recente, x non è visibile
+            if (index >= this.size) {
+                return false;
+            }
+
+            if (this.table.elements[index] == x) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+    /*
+     * RETURNS: restituisce true se x appartiene a this, false altrimenti
+     */
+
+    /*
+     * Restituisce l'insieme ottenuto aggiungendo x a this
+     */
+    public PersistentIntSet add(int x) {
+        // validazione
+        if (x < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        if (this.contains(x)) {
+            return this;
+        }
+
+        // se this è la versione più recente della tabella e c'è
+        // spazio, scrivi x direttamente nella tabella condivisa:
+        // le altre versioni non vedranno la nuova posizione
+        if (this.size < this.table.elements.length
+                && this.table.count.compareAndSet(this.size, this.size + 1)) {
+            write(this.table, this.size, x);
+
+            return new PersistentIntSet(this.table, this.size + 1);
+        }
+
+        // altrimenti copia gli elementi visibili in una nuova tabella
+        int capacity = 8;
+
+        while (capacity < 4 * (this.size + 1)) {
+            capacity <<= 1;
+        }
+
+        Table copy = new Table(capacity);
+
+        for (int i = 0; i < this.size; i++) {
+            write(copy, i, this.table.elements[i]);
+        }
+
+        write(copy, this.size, x);
+        copy.count.set(this.size + 1);
+
+        return new PersistentIntSet(copy, this.size + 1);
+    }
+    /*
+     * REQUIRES: x >= 0
+     * RETURNS: restituisce un insieme con gli elementi di this seguiti da x,
+     *          this se x è già presente; this non viene modificato
+     * THROWS: se x < 0 solleva una IllegalArgumentException
+     */
+
+    /*
+     * Restituisce il numero di elementi
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /*
+     * Esegue action su ogni elemento di this
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < this.size; i++) {
+            action.accept(this.table.elements[i]);
+        }
+    }
+    /*
+     * REQUIRES: action != null
+     * EFFECTS: action viene eseguita su ogni elemento di this
+     *          in ordine di inserimento
+     */
+
+    /*
+     * Restituisce gli elementi di this in un array
+     */
+    public int[] toArray() {
+        int[] array = new int[this.size];
+        System.arraycopy(this.table.elements, 0, array, 0, this.size);
+
+        return array;
+    }
+    /*
+     * RETURNS: restituisce un nuovo array con gli elementi di this
+     *          in ordine di inserimento
+     */
+
+    // scrive x come elemento di indice index della tabella,
+    // prima l'elemento e poi la posizione che lo rende raggiungibile
+    private static void write(Table table, int index, int x) {
+        table.elements[index] = x;
+
+        int mask = table.slots.length - 1;
+        int i = slot(x, mask);
+
+        while (table.slots[i] != 0) {
+            i = (i + 1) & mask;
+        }
+
+        table.slots[i] = index + 1;
+    }
+
+    // posizione iniziale dell'elemento nella tabella,
+    // mescola i bit perché gli id sono spesso consecutivi
+    private static int slot(int x, int mask) {
+        int hash = x * 0x9E3779B9;
+
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
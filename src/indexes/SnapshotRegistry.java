@@ -0,0 +1,173 @@
+package indexes;
+
+import java.lang.ref.Cleaner;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+public class SnapshotRegistry {
+    /*
+     * OVERVIEW: uno SnapshotRegistry tiene la versione corrente di una struttura
+     * dati multiversione e le versioni fissate dai lettori: uno scrittore alla
+     * volta pubblica nuove versioni, i lettori fissano la versione corrente e la
+     * rilasciano quando hanno finito, così lo scrittore sa quali versioni
+     * superate nessuno può più leggere
+     *
+     * Elemento tipico: <v, {<s_1, n_1>, ..., <s_k, n_k>}> con s_i <= v e n_i > 0
+     *                  il numero di lettori che hanno fissato la versione s_i
+     */
+
+    // rilascia le versioni fissate dagli iteratori non consumati
+    // fino in fondo quando diventano irraggiungibili
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    // l'ultima versione pubblicata
+    private volatile long version;
+
+    // associa ad ogni versione fissata il numero di lettori che la usano
+    private final ConcurrentSkipListMap<Long, Integer> pins;
+
+    /*
+     * AF: α(c) = <c.version, { <s, c.pins.get(s)> | s in c.pins.keySet() }>
+     *
+     * IR: I(c) = c.version >= 0 && c.pins != null
+     *              e per ogni s in c.pins.keySet(), s <= c.version && c.pins.get(s) > 0
+     */
+
+    /*
+     * Una versione fissata da un lettore
+     */
+    public static final class Snapshot implements AutoCloseable {
+        private final long version;
+        private final Cleaner.Cleanable cleanable;
+
+        private Snapshot(long version, Cleaner.Cleanable cleanable) {
+            this.version = version;
+            this.cleanable = cleanable;
+        }
+
+        /*
+         * Restituisce la versione fissata
+         */
+        public long version() {
+            return this.version;
+        }
+
+        /*
+         * Verifica se un elemento valido dalla versione from
+         * (inclusa) alla versione to (esclusa) è visibile
+         */
+        public boolean isVisible(long from, long to) {
+            return from <= this.version && this.version < to;
+        }
+
+        /*
+         * Rilascia la versione, le chiamate successive non hanno effetto
+         */
+        @Override
+        public void close() {
+            this.cleanable.clean();
+        }
+    }
+
+    /*
+     * Rilascia una versione fissata, non deve riferire il
+     * proprietario della versione altrimenti non verrebbe mai
+     * raccolto dal garbage collector
+     */
+    private static final class Release implements Runnable {
+        private final ConcurrentSkipListMap<Long, Integer> pins;
+        private final long version;
+
+        Release(ConcurrentSkipListMap<Long, Integer> pins, long version) {
+            this.pins = pins;
+            this.version = version;
+        }
+
+        @Override
+        public void run() {
+            this.pins.computeIfPresent(this.version, (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    /*
+     * inizializza this
+     */
+    public SnapshotRegistry() {
+        this.version = 0;
+        this.pins = new ConcurrentSkipListMap<>();
+    }
+    /*
+     * EFFECTS: inizializza this alla versione 0 senza versioni fissate
+     */
+
+    /*
+     * Restituisce l'ultima versione pubblicata
+     */
+    public long version() {
+        return this.version;
+    }
+
+    /*
+     * Pubblica una nuova versione
+     */
+    public void publish(long version) {
+        // validazione
+        if (version != this.version + 1) {
+            throw new IllegalArgumentException();
+        }
+
+        this.version = version;
+    }
+    /*
+     * REQUIRES: version == this.version() + 1 e un solo thread alla volta pubblica
+     * MODIFIES: this
+     * EFFECTS: version diventa la versione corrente, i lettori che fissano
+     *          una versione da ora in poi vedono tutte le modifiche fatte
+     *          per version prima della chiamata
+     * THROWS: se version != this.version() + 1 solleva una IllegalArgumentException
+     */
+
+    /*
+     * Fissa la versione corrente per un lettore
+     */
+    public Snapshot pin(Object owner) {
+        while (true) {
+            long current = this.version;
+
+            this.pins.merge(current, 1, Integer::sum);
+
+            // se nel frattempo è stata pubblicata una nuova versione, uno
+            // scrittore può aver calcolato oldest() senza vedere questa,
+            // quindi si riprova con la nuova versione
+            if (this.version == current) {
+                return new Snapshot(current, CLEANER.register(owner, new Release(this.pins, current)));
+            }
+
+            new Release(this.pins, current).run();
+        }
+    }
+    /*
+     * REQUIRES: owner != null
+     * MODIFIES: this
+     * EFFECTS: fissa la versione corrente, che resta fissata finché non viene
+     *          chiamato close sulla snapshot o finché owner non diventa irraggiungibile
+     * RETURNS: restituisce la snapshot della versione fissata
+     */
+
+    /*
+     * Restituisce la versione più vecchia che un lettore può leggere
+     */
+    public long oldest() {
+        // leggi la versione prima delle versioni fissate, vedi pin
+        long current = this.version;
+        Map.Entry<Long, Integer> first = this.pins.firstEntry();
+
+        return first != null ? Math.min(first.getKey(), current) : current;
+    }
+    /*
+     * RETURNS: restituisce la versione fissata più vecchia, la versione
+     *          corrente se non ci sono versioni fissate; gli elementi non
+     *          più validi da una versione <= oldest() non sono visibili a
+     *          nessun lettore presente o futuro
+     */
+}
@@ -0,0 +1,138 @@
+package indexes;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+public class SortedListView<E> extends AbstractSet<E> implements SortedSet<E> {
+    /*
+     * OVERVIEW: una SortedListView è una vista in sola lettura, come insieme
+     * ordinato, di una lista già in ordine naturale crescente e senza
+     * duplicati; passata a TreeSet.addAll su un TreeSet vuoto permette di
+     * costruire l'albero in tempo lineare invece che con n inserimenti.
+     * contains e le viste subSet, headSet e tailSet usano la ricerca binaria,
+     * le viste sono a loro volta delle SortedListView della stessa lista
+     *
+     * Elemento tipico: {e_1, ..., e_n} con e_i.compareTo(e_j) < 0 per ogni i < j
+     */
+
+    private final List<E> list;
+
+    /*
+     * AF: α(c) = { c.list.get(i) | 0 <= i < c.list.size() }
+     *
+     * IR: I(c) = c.list != null
+     *              e per ogni i tale che 0 < i < c.list.size(),
+     *                  c.list.get(i - 1).compareTo(c.list.get(i)) < 0
+     */
+
+    /*
+     * inizializza this
+     */
+    public SortedListView(List<E> list) {
+        if (list == null) {
+            throw new NullPointerException();
+        }
+
+        this.list = list;
+    }
+    /*
+     * REQUIRES: list != null è in ordine naturale crescente, senza duplicati,
+     *           e non viene modificata finché this viene usata
+     * EFFECTS: inizializza this come vista di list
+     * THROWS: se list == null solleva una NullPointerException
+     */
+
+    @Override
+    public Iterator<E> iterator() {
+        return Collections.unmodifiableList(this.list).iterator();
+    }
+
+    @Override
+    public int size() {
+        return this.list.size();
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        // ordine naturale, come un TreeSet costruito senza comparator
+        return null;
+    }
+
+    @Override
+    public E first() {
+        if (this.list.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        return this.list.get(0);
+    }
+
+    @Override
+    public E last() {
+        if (this.list.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        return this.list.get(this.list.size() - 1);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        // la lista è ordinata, cerca o con una ricerca binaria
+        return Collections.binarySearch(this.comparable(), o) >= 0;
+    }
+
+    @Override
+    public SortedSet<E> subSet(E fromElement, E toElement) {
+        // validazione
+        if (compare(fromElement, toElement) > 0) {
+            throw new IllegalArgumentException();
+        }
+
+        return new SortedListView<>(this.list.subList(this.lowerBound(fromElement), this.lowerBound(toElement)));
+    }
+
+    @Override
+    public SortedSet<E> headSet(E toElement) {
+        return new SortedListView<>(this.list.subList(0, this.lowerBound(toElement)));
+    }
+
+    @Override
+    public SortedSet<E> tailSet(E fromElement) {
+        return new SortedListView<>(this.list.subList(this.lowerBound(fromElement), this.list.size()));
+    }
+
+    /*
+     * Restituisce la posizione del primo elemento non minore di un elemento
+     */
+    private int lowerBound(E element) {
+        int index = Collections.binarySearch(this.comparable(), element);
+
+        // un indice negativo codifica il punto di inserimento
+        return index >= 0 ? index : -index - 1;
+    }
+    /*
+     * REQUIRES: element != null
+     * RETURNS: restituisce il più piccolo i tale che 0 <= i <= this.size() e
+     *          this.list.get(i).compareTo(element) >= 0, this.size() se non esiste
+     * THROWS: se element == null solleva una NullPointerException
+     */
+
+    // this.list vista come lista di elementi confrontabili,
+    // gli elementi sono in ordine naturale per l'IR
+    @SuppressWarnings("unchecked")
+    private List<? extends Comparable<Object>> comparable() {
+        return (List<? extends Comparable<Object>>) this.list;
+    }
+
+    // confronta due elementi secondo l'ordine naturale
+    @SuppressWarnings("unchecked")
+    private static <E> int compare(E a, E b) {
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+}
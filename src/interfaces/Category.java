@@ -41,6 +41,15 @@ public interface Category<E extends Data> {
      *          per la categoria, false altrimenti
      */
 
+    /*
+     * Restituisce gli user che possono leggere i dati della categoria
+     */
+    public int[] getReaders();
+    /*
+     * RETURNS: restituisce gli id in UserRegistry degli user con i permessi
+     *          di lettura per la categoria, senza un ordine particolare
+     */
+
     /*
      * Aggiunge un dato alla categoria
      */
@@ -1,8 +1,9 @@
 package interfaces;
 
 import java.util.List;
+import java.util.function.IntConsumer;
 
-public interface Data extends Cloneable, Comparable<Data> {
+public interface Data extends ReadOnlyData, Cloneable, Comparable<Data> {
     /*
      * OVERVIEW: un oggetto di tipo Data è una quadrupla di elementi
      * che consistono in un id, un corpo, una categoria ed un elenco
@@ -11,22 +12,6 @@ public interface Data extends Cloneable, Comparable<Data> {
      * Elemento tipico: <id, body, category, {user_1, ..., user_n}>
      */
 
-    /*
-     * Stampa il dato come stringa
-     */
-    public void display();
-    /*
-     * EFFECTS: viene stampata una rappresentazione di this
-     */
-
-    /*
-     * Restituisce l'id del dato
-     */
-    public Integer getId();
-    /*
-     * RETURNS: restituisce l'id di this
-     */
-
     /*
      * Sovrascrive il metodo clone di Object
      */
@@ -43,6 +28,18 @@ public interface Data extends Cloneable, Comparable<Data> {
      * RETURNS: ritorna una lista degli user che hanno inserito un like al dato
      */
 
+    /*
+     * Visita gli user che hanno inserito un like al dato
+     */
+    public void forEachLike(IntConsumer action);
+    /*
+     * REQUIRES: action != null
+     * EFFECTS: chiama action con l'id in UserRegistry di ogni user che ha
+     *          inserito un like a this, in un ordine non specificato, senza
+     *          creare gli user
+     * THROWS: se action == null solleva una NullPointerException
+     */
+
     /*
      * Aggiunge un like di friend
      */
@@ -54,6 +51,18 @@ public interface Data extends Cloneable, Comparable<Data> {
      * THROWS: se data == null solleva una NullPointerException
      */
 
+    /*
+     * Aggiunge un like di uno user registrato
+     */
+    public void insertLike(int friend);
+    /*
+     * REQUIRES: friend è l'id di uno user in UserRegistry
+     * MODIFIES: this
+     * EFFECTS: un like dello user con id friend è aggiunto a this,
+     *          senza cercarne il nome
+     * THROWS: se friend < 0 solleva una IllegalArgumentException
+     */
+
     /*
      * Assegna una categoria
      */
@@ -66,10 +75,14 @@ public interface Data extends Cloneable, Comparable<Data> {
      */
 
     /*
-     * Restituisce la categoria a cui appartiene il dato
+     * Rilascia le risorse del dato
      */
-    public String getCategory();
+    public default void release() {
+    }
     /*
-     * RETURNS: restituisce la categoria di this
+     * MODIFIES: this
+     * EFFECTS: chiamato da una bacheca quando elimina il dato, rilascia
+     *          le risorse che il dato occupa fuori dallo heap o condivide
+     *          con altri dati; this e le sue copie restano utilizzabili
      */
 }
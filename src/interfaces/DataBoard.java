@@ -1,9 +1,14 @@
 package interfaces;
 
 import exceptions.*;
+import models.Cursor;
+import models.LikeEvent;
+import models.Page;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 public interface DataBoard<E extends Data> {
     /*
@@ -13,11 +18,36 @@ public interface DataBoard<E extends Data> {
      * Elemento tipico: {data_1, ..., data_n}
      */
 
+    /*
+     * Apre una sessione dello user proprietario
+     * se vengono rispettati i controlli di identità
+     */
+    public OwnerSession openSession(String passw) throws UnauthorizedAccessException;
+    /*
+     * RETURNS: restituisce una sessione che può essere usata al posto della password
+     *          finché non scade o non viene chiusa
+     * THROWS: se passwd non è una password valida solleva una UnauthorizedAccessException
+     */
+
+    /*
+     * Chiude una sessione dello user proprietario
+     */
+    public void closeSession(OwnerSession session) throws UnauthorizedAccessException;
+    /*
+     * MODIFIES: session
+     * EFFECTS: session non è più valida
+     * THROWS: se session non è stata aperta da this solleva una UnauthorizedAccessException
+     */
+
     /*
      * Crea una categoria di dati
      * se vengono rispettati i controlli di identità
      */
-    public void createCategory(String category, String passw) throws UnauthorizedAccessException;
+    public default void createCategory(String category, String passw) throws UnauthorizedAccessException {
+        try (OwnerSession session = this.openSession(passw)) {
+            this.createCategory(category, session);
+        }
+    }
     /*
      * REQUIRES: category != null
      * MODIFIES: this
@@ -27,11 +57,26 @@ public interface DataBoard<E extends Data> {
      *         se category è già presente in this solleva una CategoryAlreadyExistsException
      */
 
+    /*
+     * Crea una categoria di dati
+     * con una sessione al posto della password
+     */
+    public void createCategory(String category, OwnerSession session) throws UnauthorizedAccessException;
+    /*
+     * EFFECTS: come createCategory(category, passw), ma al posto di controllare
+     *          la password controlla session
+     * THROWS: se session non è una sessione valida di this solleva una UnauthorizedAccessException
+     */
+
     /*
      * Rimuove una categoria di dati
      * se vengono rispettati i controlli di identità
      */
-    public void removeCategory(String category, String passw) throws UnauthorizedAccessException;
+    public default void removeCategory(String category, String passw) throws UnauthorizedAccessException {
+        try (OwnerSession session = this.openSession(passw)) {
+            this.removeCategory(category, session);
+        }
+    }
     /*
      * REQUIRES: category != null
      * MODIFIES: this
@@ -41,11 +86,26 @@ public interface DataBoard<E extends Data> {
      *         se category non esiste in this solleva una CategoryNotFoundException
      */
 
+    /*
+     * Rimuove una categoria di dati
+     * con una sessione al posto della password
+     */
+    public void removeCategory(String category, OwnerSession session) throws UnauthorizedAccessException;
+    /*
+     * EFFECTS: come removeCategory(category, passw), ma al posto di controllare
+     *          la password controlla session
+     * THROWS: se session non è una sessione valida di this solleva una UnauthorizedAccessException
+     */
+
     /*
      * Aggiunge un amico ad una categoria di dati
      * se vengono rispettati i controlli di identità
      */
-    public void addFriend(String category, String passw, String friend) throws UnauthorizedAccessException;
+    public default void addFriend(String category, String passw, String friend) throws UnauthorizedAccessException {
+        try (OwnerSession session = this.openSession(passw)) {
+            this.addFriend(category, session, friend);
+        }
+    }
     /*
      * REQUIRES: category != null && friend != null
      * MODIFIES: this
@@ -56,12 +116,27 @@ public interface DataBoard<E extends Data> {
      *         se friend è già presente in category solleva una FriendAlreadyAddedException
      */
 
+    /*
+     * Aggiunge un amico ad una categoria di dati
+     * con una sessione al posto della password
+     */
+    public void addFriend(String category, OwnerSession session, String friend) throws UnauthorizedAccessException;
+    /*
+     * EFFECTS: come addFriend(category, passw, friend), ma al posto di controllare
+     *          la password controlla session
+     * THROWS: se session non è una sessione valida di this solleva una UnauthorizedAccessException
+     */
+
     /*
      * rimuove un amico da una categoria di dati
      * se vengono rispettati i controlli di identità
      */
-    public void removeFriend(String category, String passw, String friend) throws UnauthorizedAccessException,
-            UserNotFoundException;
+    public default void removeFriend(String category, String passw, String friend)
+            throws UnauthorizedAccessException, UserNotFoundException {
+        try (OwnerSession session = this.openSession(passw)) {
+            this.removeFriend(category, session, friend);
+        }
+    }
     /*
      * REQUIRES: category != null && friend != null
      * MODIFIES: this
@@ -72,11 +147,27 @@ public interface DataBoard<E extends Data> {
      *         se friend non è presente in category solleva una UserNotFoundException
      */
 
+    /*
+     * rimuove un amico da una categoria di dati
+     * con una sessione al posto della password
+     */
+    public void removeFriend(String category, OwnerSession session, String friend)
+            throws UnauthorizedAccessException, UserNotFoundException;
+    /*
+     * EFFECTS: come removeFriend(category, passw, friend), ma al posto di controllare
+     *          la password controlla session
+     * THROWS: se session non è una sessione valida di this solleva una UnauthorizedAccessException
+     */
+
     /*
      * Inserisce un dato in bacheca
      * se vengono rispettati i controlli di identità
      */
-    public boolean put(String passw, E data, String category) throws UnauthorizedAccessException;
+    public default boolean put(String passw, E data, String category) throws UnauthorizedAccessException {
+        try (OwnerSession session = this.openSession(passw)) {
+            return this.put(session, data, category);
+        }
+    }
     /*
      * REQUIRES: data != null && category != null
      * MODIFIES: this
@@ -88,11 +179,26 @@ public interface DataBoard<E extends Data> {
      *         se data è già stato aggiunto in this solleva una DataAlreadyPutException
      */
 
+    /*
+     * Inserisce un dato in bacheca
+     * con una sessione al posto della password
+     */
+    public boolean put(OwnerSession session, E data, String category) throws UnauthorizedAccessException;
+    /*
+     * EFFECTS: come put(passw, data, category), ma al posto di controllare
+     *          la password controlla session
+     * THROWS: se session non è una sessione valida di this solleva una UnauthorizedAccessException
+     */
+
     /*
      * Restituisce una copia del dato in bacheca
      * se vengono rispettati i controlli di identità
      */
-    public E get(String passw, E data) throws UnauthorizedAccessException;
+    public default E get(String passw, E data) throws UnauthorizedAccessException {
+        try (OwnerSession session = this.openSession(passw)) {
+            return this.get(session, data);
+        }
+    }
     /*
      * REQUIRES: data != null
      * RETURNS: restituisce una deep copy di dato
@@ -101,11 +207,26 @@ public interface DataBoard<E extends Data> {
      *         se data non è presente in this solleva una DataNotFoundException
      */
 
+    /*
+     * Restituisce una copia del dato in bacheca
+     * con una sessione al posto della password
+     */
+    public E get(OwnerSession session, E data) throws UnauthorizedAccessException;
+    /*
+     * EFFECTS: come get(passw, data), ma al posto di controllare
+     *          la password controlla session
+     * THROWS: se session non è una sessione valida di this solleva una UnauthorizedAccessException
+     */
+
     /*
      * Rimuove il dato dalla bacheca
      * se vengono rispettati i controlli di identità
      */
-    public E remove(String passw, E data) throws UnauthorizedAccessException;
+    public default E remove(String passw, E data) throws UnauthorizedAccessException {
+        try (OwnerSession session = this.openSession(passw)) {
+            return this.remove(session, data);
+        }
+    }
     /*
      * REQUIRES: data != null
      * MODIFIES: this
@@ -116,11 +237,26 @@ public interface DataBoard<E extends Data> {
      *         se data non è presente in this solleva una DataNotFoundException
      */
 
+    /*
+     * Rimuove il dato dalla bacheca
+     * con una sessione al posto della password
+     */
+    public E remove(OwnerSession session, E data) throws UnauthorizedAccessException;
+    /*
+     * EFFECTS: come remove(passw, data), ma al posto di controllare
+     *          la password controlla session
+     * THROWS: se session non è una sessione valida di this solleva una UnauthorizedAccessException
+     */
+
     /*
      * Crea la lista dei dati in bacheca di una determinata categoria
      * se vengono rispettati i controlli di identità
      */
-    public List<E> getDataCategory(String passw, String category) throws UnauthorizedAccessException;
+    public default List<E> getDataCategory(String passw, String category) throws UnauthorizedAccessException {
+        try (OwnerSession session = this.openSession(passw)) {
+            return this.getDataCategory(session, category);
+        }
+    }
     /*
      * RETURNS: restituisce la lista dei dati della categoria passata come parametro
      * THROWS: se category == null solleva una NullPointerException
@@ -128,6 +264,111 @@ public interface DataBoard<E extends Data> {
      *         se category non è presente solleva una CategoryNotFoundException
      */
 
+    /*
+     * Crea la lista dei dati in bacheca di una determinata categoria
+     * con una sessione al posto della password
+     */
+    public List<E> getDataCategory(OwnerSession session, String category) throws UnauthorizedAccessException;
+    /*
+     * EFFECTS: come getDataCategory(passw, category), ma al posto di controllare
+     *          la password controlla session
+     * THROWS: se session non è una sessione valida di this solleva una UnauthorizedAccessException
+     */
+
+    /*
+     * Crea una pagina dei dati in bacheca di una determinata categoria
+     * se vengono rispettati i controlli di identità
+     */
+    public default Page<E> getDataCategoryPage(String passw, String category, Cursor<E> cursor, int limit)
+            throws UnauthorizedAccessException {
+        try (OwnerSession session = this.openSession(passw)) {
+            return this.getDataCategoryPage(session, category, cursor, limit);
+        }
+    }
+    /*
+     * REQUIRES: category != null && cursor != null && limit > 0
+     * RETURNS: restituisce la pagina con le deep copy dei primi min(limit, n) dati
+     *          della categoria che seguono cursor, ordinati come in Data.compareTo;
+     *          i dati inseriti o rimossi fra una pagina e l'altra
+     *          non spostano i dati già visitati né quelli ancora da visitare
+     * THROWS: se category == null || cursor == null solleva una NullPointerException
+     *         se passwd non è una password valida solleva una UnauthorizedAccessException
+     *         se category non è presente solleva una CategoryNotFoundException
+     *         se limit <= 0 o cursor è una posizione in un'altra categoria
+     *         solleva una IllegalArgumentException
+     */
+
+    /*
+     * Crea una pagina dei dati in bacheca di una determinata categoria
+     * con una sessione al posto della password
+     */
+    public Page<E> getDataCategoryPage(OwnerSession session, String category, Cursor<E> cursor, int limit)
+            throws UnauthorizedAccessException;
+    /*
+     * EFFECTS: come getDataCategoryPage(passw, category, cursor, limit), ma al
+     *          posto di controllare la password controlla session
+     * THROWS: se session non è una sessione valida di this solleva una UnauthorizedAccessException
+     */
+
+    /*
+     * Restituisce una vista in sola lettura del dato in bacheca
+     * se vengono rispettati i controlli di identità
+     */
+    public default ReadOnlyData getView(String passw, E data) throws UnauthorizedAccessException {
+        try (OwnerSession session = this.openSession(passw)) {
+            return this.getView(session, data);
+        }
+    }
+    /*
+     * REQUIRES: data != null
+     * RETURNS: restituisce una vista in sola lettura di dato, senza copiarlo
+     * THROWS: se data == null solleva una NullPointerException
+     *         se passwd non è una password valida solleva una UnauthorizedAccessException
+     *         se data non è presente in this solleva una DataNotFoundException
+     */
+
+    /*
+     * Restituisce una vista in sola lettura del dato in bacheca
+     * con una sessione al posto della password
+     */
+    public ReadOnlyData getView(OwnerSession session, E data) throws UnauthorizedAccessException;
+    /*
+     * EFFECTS: come getView(passw, data), ma al posto di controllare
+     *          la password controlla session
+     * THROWS: se session non è una sessione valida di this solleva una UnauthorizedAccessException
+     */
+
+    /*
+     * Crea la lista delle viste in sola lettura dei dati in bacheca
+     * di una determinata categoria
+     * se vengono rispettati i controlli di identità
+     */
+    public default List<ReadOnlyData> getDataCategoryView(String passw, String category)
+            throws UnauthorizedAccessException {
+        try (OwnerSession session = this.openSession(passw)) {
+            return this.getDataCategoryView(session, category);
+        }
+    }
+    /*
+     * RETURNS: restituisce la lista delle viste in sola lettura dei dati
+     *          della categoria passata come parametro, senza copiarli
+     * THROWS: se category == null solleva una NullPointerException
+     *         se passwd non è una password valida solleva una UnauthorizedAccessException
+     *         se category non è presente solleva una CategoryNotFoundException
+     */
+
+    /*
+     * Crea la lista delle viste in sola lettura dei dati in bacheca
+     * con una sessione al posto della password
+     */
+    public List<ReadOnlyData> getDataCategoryView(OwnerSession session, String category)
+            throws UnauthorizedAccessException;
+    /*
+     * EFFECTS: come getDataCategoryView(passw, category), ma al posto di controllare
+     *          la password controlla session
+     * THROWS: se session non è una sessione valida di this solleva una UnauthorizedAccessException
+     */
+
     /*
      * Aggiunge un like a un dato
      * se vengono rispettati i controlli di identità
@@ -148,13 +389,30 @@ public interface DataBoard<E extends Data> {
      * bacheca ordinati rispetto al numero di like
      * se vengono rispettati i controlli di identità
      */
-    public Iterator<E> getIterator(String passw) throws UnauthorizedAccessException;
+    public default Iterator<E> getIterator(String passw) throws UnauthorizedAccessException {
+        try (OwnerSession session = this.openSession(passw)) {
+            return this.getIterator(session);
+        }
+    }
     /*
      * RETURNS: restituisce un iteratore (senza remove) che genera tutti i dati presenti
-     *          in this ordinati rispetto al numero di like in ordine decrescente
+     *          in this ordinati rispetto al numero di like in ordine decrescente,
+     *          l'iteratore non è valido se this viene modificato durante la visita
      * THROWS: se passwd non è una password valida solleva una UnauthorizedAccessException
      */
 
+    /*
+     * restituisce un iteratore (senza remove) che genera tutti i dati in
+     * bacheca ordinati rispetto al numero di like
+     * con una sessione al posto della password
+     */
+    public Iterator<E> getIterator(OwnerSession session) throws UnauthorizedAccessException;
+    /*
+     * EFFECTS: come getIterator(passw), ma al posto di controllare
+     *          la password controlla session
+     * THROWS: se session non è una sessione valida di this solleva una UnauthorizedAccessException
+     */
+
     /*
      * restituisce un iteratore (senza remove) che genera tutti i dati in
      * bacheca condivisi
@@ -162,10 +420,153 @@ public interface DataBoard<E extends Data> {
     public Iterator<E> getFriendIterator(String friend) throws UserNotFoundException;
     /*
      * RETURNS: restituisce un iteratore (senza remove) che genera tutti i dati presenti
-     *          in this condivisi con friend
+     *          in this condivisi con friend, l'iteratore non è valido se this
+     *          viene modificato durante la visita
      * THROWS: se friend non è stato aggiunto a nessuna categoria solleva una UserNotFoundException
      */
 
+    /*
+     * Crea una pagina dei dati in bacheca condivisi
+     */
+    public Page<E> getFriendPage(String friend, Cursor<E> cursor, int limit) throws UserNotFoundException;
+    /*
+     * REQUIRES: cursor != null && limit > 0
+     * RETURNS: restituisce la pagina con le deep copy dei primi min(limit, n) dati
+     *          di this condivisi con friend che seguono cursor, ordinati per nome
+     *          della categoria e nella stessa categoria come in Data.compareTo;
+     *          i dati inseriti o rimossi fra una pagina e l'altra non spostano
+     *          i dati già visitati né quelli ancora da visitare
+     * THROWS: se cursor == null solleva una NullPointerException
+     *         se friend non è stato aggiunto a nessuna categoria solleva una UserNotFoundException
+     *         se limit <= 0 solleva una IllegalArgumentException
+     */
+
+    /*
+     * Restituisce i k dati in bacheca con più like
+     * se vengono rispettati i controlli di identità
+     */
+    public default List<E> getTopLiked(String passw, int k) throws UnauthorizedAccessException {
+        try (OwnerSession session = this.openSession(passw)) {
+            return this.getTopLiked(session, k);
+        }
+    }
+    /*
+     * RETURNS: restituisce una lista delle deep copy dei min(k, n) dati di this
+     *          con più like, ordinati rispetto al numero di like in ordine decrescente
+     * THROWS: se passwd non è una password valida solleva una UnauthorizedAccessException
+     *         se k < 0 solleva una IllegalArgumentException
+     */
+
+    /*
+     * Restituisce i k dati in bacheca con più like
+     * con una sessione al posto della password
+     */
+    public List<E> getTopLiked(OwnerSession session, int k) throws UnauthorizedAccessException;
+    /*
+     * EFFECTS: come getTopLiked(passw, k), ma al posto di controllare
+     *          la password controlla session
+     * THROWS: se session non è una sessione valida di this solleva una UnauthorizedAccessException
+     */
+
+    /*
+     * Restituisce i k dati in bacheca condivisi
+     * con friend con più like
+     */
+    public List<E> getFriendTopLiked(String friend, int k) throws UserNotFoundException;
+    /*
+     * RETURNS: restituisce una lista delle deep copy dei min(k, n) dati di this
+     *          condivisi con friend con più like, ordinati rispetto al numero
+     *          di like in ordine decrescente
+     * THROWS: se friend non è stato aggiunto a nessuna categoria solleva una UserNotFoundException
+     *         se k < 0 solleva una IllegalArgumentException
+     */
+
+    /*
+     * Inserisce in bacheca più dati, ognuno nella categoria a cui
+     * è associato, con un solo controllo di identità
+     */
+    public default int putAll(String passw, Map<String, ? extends Collection<E>> data)
+            throws UnauthorizedAccessException {
+        try (OwnerSession session = this.openSession(passw)) {
+            return this.putAll(session, data);
+        }
+    }
+    /*
+     * REQUIRES: data != null e ogni categoria e ogni dato di data != null
+     * MODIFIES: this
+     * EFFECTS: ogni dato di data viene inserito in this nella categoria a cui è
+     *          associato, come farebbe put; se viene sollevata un'eccezione
+     *          this non viene modificato
+     * RETURNS: restituisce il numero di dati inseriti
+     * THROWS: se passwd non è una password valida solleva una UnauthorizedAccessException
+     *         se data, una sua categoria o un suo dato è null solleva una NullPointerException
+     *         se una categoria non esiste in this solleva una CategoryNotFoundException
+     *         se un dato è già stato aggiunto in this oppure compare più di una volta
+     *         in data solleva una DataAlreadyPutException
+     */
+
+    /*
+     * Inserisce in bacheca più dati, ognuno nella categoria a cui
+     * è associato, con una sessione al posto della password
+     */
+    public int putAll(OwnerSession session, Map<String, ? extends Collection<E>> data)
+            throws UnauthorizedAccessException;
+    /*
+     * EFFECTS: come putAll(passw, data), ma al posto di controllare
+     *          la password controlla session
+     * THROWS: se session non è una sessione valida di this solleva una UnauthorizedAccessException
+     */
+
+    /*
+     * Aggiunge più amici ad una categoria di dati
+     * con un solo controllo di identità
+     */
+    public default void addFriends(String category, String passw, Collection<String> friends)
+            throws UnauthorizedAccessException {
+        try (OwnerSession session = this.openSession(passw)) {
+            this.addFriends(category, session, friends);
+        }
+    }
+    /*
+     * REQUIRES: category != null && friends != null e ogni friend di friends != null
+     * MODIFIES: this
+     * EFFECTS: ogni friend di friends viene aggiunto alla categoria; se viene
+     *          sollevata un'eccezione this non viene modificato
+     * THROWS: se category == null || friends == null o un friend è null solleva una NullPointerException
+     *         se passwd non è una password valida solleva una UnauthorizedAccessException
+     *         se category non esiste in this solleva una CategoryNotFoundException
+     *         se un friend è già presente in category oppure compare più di una volta
+     *         in friends solleva una FriendAlreadyAddedException
+     */
+
+    /*
+     * Aggiunge più amici ad una categoria di dati
+     * con una sessione al posto della password
+     */
+    public void addFriends(String category, OwnerSession session, Collection<String> friends)
+            throws UnauthorizedAccessException;
+    /*
+     * EFFECTS: come addFriends(category, passw, friends), ma al posto di controllare
+     *          la password controlla session
+     * THROWS: se session non è una sessione valida di this solleva una UnauthorizedAccessException
+     */
+
+    /*
+     * Aggiunge più like ai dati
+     */
+    public void insertLikes(Collection<LikeEvent<E>> likes) throws UnauthorizedAccessException;
+    /*
+     * REQUIRES: likes != null e ogni like di likes != null
+     * MODIFIES: this
+     * EFFECTS: per ogni like di likes, un like di like.getFriend() viene aggiunto
+     *          a like.getData(); se viene sollevata un'eccezione this non viene modificato
+     * THROWS: se likes == null o un like è null solleva una NullPointerException
+     *         se un dato non è presente in this solleva una DataNotFoundException
+     *         se un friend non è autorizzato a leggere il dato solleva una UnauthorizedAccessException
+     *         se un friend ha già aggiunto un like al dato oppure lo stesso like compare
+     *         più di una volta in likes solleva una FriendAlreadyAddedException
+     */
+
     // … altre operazione da definire a scelta
 
     /*
@@ -0,0 +1,31 @@
+package interfaces;
+
+public interface OwnerSession extends AutoCloseable {
+    /*
+     * OVERVIEW: una OwnerSession è una sessione dello user proprietario
+     * di una bacheca: finché è valida può essere usata al posto della
+     * password, senza autenticare di nuovo lo user ad ogni chiamata
+     *
+     * Elemento tipico: <scadenza, chiusa>
+     */
+
+    /*
+     * Controlla se la sessione può ancora essere usata
+     */
+    public boolean isValid();
+    /*
+     * RETURNS: restituisce true se this non è scaduta
+     *          e non è stata chiusa, false altrimenti
+     */
+
+    /*
+     * Chiude la sessione
+     */
+    @Override
+    public void close();
+    /*
+     * MODIFIES: this
+     * EFFECTS: this non è più valida, le chiamate
+     *          successive non hanno effetto
+     */
+}
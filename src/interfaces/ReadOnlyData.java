@@ -0,0 +1,68 @@
+package interfaces;
+
+public interface ReadOnlyData {
+    /*
+     * OVERVIEW: un oggetto di tipo ReadOnlyData permette di leggere id,
+     * corpo, categoria e like di un dato senza poterlo modificare
+     *
+     * Elemento tipico: <id, body, category, {user_1, ..., user_n}>
+     */
+
+    /*
+     * Stampa il dato come stringa
+     */
+    public void display();
+    /*
+     * EFFECTS: viene stampata una rappresentazione di this
+     */
+
+    /*
+     * Restituisce l'id del dato
+     */
+    public Integer getId();
+    /*
+     * RETURNS: restituisce l'id di this
+     */
+
+    /*
+     * Restituisce l'id del dato come int,
+     * senza boxing
+     */
+    public int id();
+    /*
+     * RETURNS: restituisce l'id di this
+     */
+
+    /*
+     * Restituisce il corpo del dato
+     */
+    public String getBody();
+    /*
+     * RETURNS: restituisce il corpo di this
+     */
+
+    /*
+     * Restituisce la categoria a cui appartiene il dato
+     */
+    public String getCategory();
+    /*
+     * RETURNS: restituisce la categoria di this
+     */
+
+    /*
+     * Verifica se friend ha inserito un like al dato
+     */
+    public boolean hasLiked(String friend);
+    /*
+     * RETURNS: ritorna true se friend ha inserito un like al dato,
+     *          false altrimenti
+     */
+
+    /*
+     * Restituisce il numero di like del dato
+     */
+    public int getLikeCount();
+    /*
+     * RETURNS: ritorna il numero di user che hanno inserito un like al dato
+     */
+}
@@ -0,0 +1,423 @@
+package models;
+
+import codec.Utf8;
+import codec.VarInt;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class BodyArena {
+    /*
+     * OVERVIEW: una BodyArena conserva i body dei dati fuori dallo heap, in
+     * pagine di memoria diretta, così non vengono visitati dal garbage
+     * collector; ad ogni body è associato un Handle, che resta valido anche
+     * quando il body viene spostato. I body vengono aggiunti in coda
+     * all'ultima pagina; quando i body rilasciati occupano più di metà di
+     * una pagina, i body ancora presenti vengono spostati in coda e la
+     * pagina viene riusata (compattazione)
+     *
+     * Elemento tipico: {<h_1, body_1>, ..., <h_n, body_n>}
+     *
+     * Formato di un body in una pagina: slot dell'handle (int),
+     * body in UTF-8 preceduto dalla lunghezza (Utf8)
+     */
+
+    // dimensione di una pagina
+    static final int PAGE = 1 << 20;
+
+    // numero massimo di pagine vuote tenute da parte
+    private static final int SPARE_PAGES = 4;
+
+    // le pagine, null se la pagina è stata liberata
+    private final ArrayList<ByteBuffer> pages;
+
+    // per ogni pagina, i byte occupati dai body non rilasciati
+    private int[] live;
+
+    // le pagine vuote, riusate prima di allocarne di nuove
+    private final ArrayDeque<ByteBuffer> spare;
+
+    // la pagina in cui vengono aggiunti i body
+    private int current;
+
+    // per ogni slot, la pagina e la posizione del body,
+    // -1 se lo slot è libero
+    private int[] slotPages;
+
+    private int[] slotOffsets;
+
+    // gli slot liberi
+    private int[] freeSlots;
+
+    private int freeCount;
+
+    // numero di slot usati almeno una volta
+    private int slotCount;
+
+    // byte occupati dai body non rilasciati
+    private long size;
+
+    // numero di pagine compattate
+    private long compactions;
+
+    // le letture prendono il lock in lettura, le modifiche in scrittura
+    private final ReentrantReadWriteLock lock;
+
+    /*
+     * AF: α(c) = { <h, body(h)> | h è un Handle di c non rilasciato } dove body(h) è
+     *            la stringa codificata in c.pages.get(c.slotPages[h.slot]) alla
+     *            posizione c.slotOffsets[h.slot] + Integer.BYTES
+     *
+     * IR: I(c) = c.pages != null && c.live != null && c.spare != null
+     *              && c.slotPages != null && c.slotOffsets != null && c.freeSlots != null
+     *              e 0 <= c.current < c.pages.size() e c.pages.get(c.current) != null
+     *              e per ogni slot s < c.slotCount, c.slotPages[s] == -1 se e solo
+     *                  se s è in c.freeSlots[0..c.freeCount - 1]
+     *              e per ogni pagina p, c.live[p] è la somma dei byte dei body
+     *                  degli slot s con c.slotPages[s] == p
+     *              e c.size è la somma di c.live
+     */
+
+    /*
+     * Un riferimento ad un body di una BodyArena, condiviso da tutte
+     * le copie di un dato; dopo il rilascio contiene il body sullo heap
+     */
+    public static final class Handle implements BodyHandle {
+        private final BodyArena arena;
+
+        // lo slot del body nell'arena
+        private final int slot;
+
+        // il body dopo il rilascio, null finché il body è nell'arena
+        private String released;
+
+        // inizializza this con lo slot slot di arena
+        private Handle(BodyArena arena, int slot) {
+            this.arena = arena;
+            this.slot = slot;
+        }
+
+        @Override
+        public String read() {
+            // il body nell'arena viene decodificato ad ogni lettura
+            return this.arena.read(this);
+        }
+
+        @Override
+        public void release() {
+            // il body viene copiato sullo heap, poi lo
+            // spazio che occupa nell'arena viene liberato
+            this.arena.release(this);
+        }
+
+        /*
+         * Controlla se il body è ancora nell'arena
+         */
+        public boolean isReleased() {
+            this.arena.lock.readLock().lock();
+
+            try {
+                return this.released != null;
+            } finally {
+                this.arena.lock.readLock().unlock();
+            }
+        }
+    }
+
+    /*
+     * inizializza this
+     */
+    public BodyArena() {
+        this.pages = new ArrayList<>();
+        this.live = new int[16];
+        this.spare = new ArrayDeque<>();
+        this.slotPages = new int[1024];
+        this.slotOffsets = new int[1024];
+        this.freeSlots = new int[1024];
+        this.lock = new ReentrantReadWriteLock();
+
+        this.pages.add(ByteBuffer.allocateDirect(PAGE));
+        this.current = 0;
+    }
+    /*
+     * EFFECTS: inizializza this ad arena vuota con una pagina
+     */
+
+    /*
+     * Aggiunge un body
+     */
+    public Handle allocate(String body) {
+        // validazione
+        if (body == null) {
+            throw new NullPointerException();
+        }
+
+        this.lock.writeLock().lock();
+
+        try {
+            int slot = this.newSlot();
+
+            this.append(slot, body);
+
+            return new Handle(this, slot);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+    /*
+     * REQUIRES: body != null
+     * MODIFIES: this
+     * EFFECTS: copia body in this
+     * RETURNS: restituisce l'handle del body
+     * THROWS: se body == null solleva una NullPointerException
+     */
+
+    /*
+     * Restituisce il numero di byte occupati dai body
+     */
+    public long size() {
+        this.lock.readLock().lock();
+
+        try {
+            return this.size;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Restituisce il numero di byte di memoria diretta allocati
+     */
+    public long capacity() {
+        this.lock.readLock().lock();
+
+        try {
+            long capacity = 0;
+
+            for (ByteBuffer page : this.pages) {
+                capacity += page != null ? page.capacity() : 0;
+            }
+
+            for (ByteBuffer page : this.spare) {
+                capacity += page.capacity();
+            }
+
+            return capacity;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Restituisce il numero di pagine compattate
+     */
+    public long compactions() {
+        this.lock.readLock().lock();
+
+        try {
+            return this.compactions;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Compatta tutte le pagine
+     */
+    public void compact() {
+        this.lock.writeLock().lock();
+
+        try {
+            for (int page = 0; page < this.pages.size(); page++) {
+                if (page != this.current && this.pages.get(page) != null
+                        && this.live[page] < this.pages.get(page).position()) {
+                    this.evacuate(page);
+                }
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+    /*
+     * MODIFIES: this
+     * EFFECTS: sposta in coda i body delle pagine con spazio rilasciato,
+     *          così resta libero solo lo spazio in coda all'ultima pagina
+     */
+
+    // restituisce il body di handle
+    private String read(Handle handle) {
+        this.lock.readLock().lock();
+
+        try {
+            if (handle.released != null) {
+                return handle.released;
+            }
+
+            ByteBuffer page = this.pages.get(this.slotPages[handle.slot]).duplicate();
+            page.position(this.slotOffsets[handle.slot] + Integer.BYTES);
+
+            return Utf8.get(page);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    // copia sullo heap il body di handle e libera il suo slot
+    private void release(Handle handle) {
+        this.lock.writeLock().lock();
+
+        try {
+            if (handle.released != null) {
+                return;
+            }
+
+            int slot = handle.slot;
+            int page = this.slotPages[slot];
+            ByteBuffer buffer = this.pages.get(page).duplicate();
+            buffer.position(this.slotOffsets[slot] + Integer.BYTES);
+
+            handle.released = Utf8.get(buffer);
+
+            int bytes = buffer.position() - this.slotOffsets[slot];
+
+            this.live[page] -= bytes;
+            this.size -= bytes;
+            this.slotPages[slot] = -1;
+            this.freeSlots[this.freeCount++] = slot;
+
+            // compatta la pagina quando più di metà è rilasciata,
+            // lo spostamento costa al più mezza pagina
+            if (page != this.current && this.live[page] < PAGE / 2) {
+                this.evacuate(page);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    // sposta in coda i body di page e libera la pagina; richiede il lock in scrittura
+    private void evacuate(int page) {
+        ByteBuffer source = this.pages.get(page);
+        ByteBuffer reader = source.duplicate();
+        int end = source.position();
+        int offset = 0;
+
+        // scorri i body della pagina, quelli il cui slot punta
+        // ancora a questa posizione non sono stati rilasciati
+        while (offset < end) {
+            reader.limit(end).position(offset);
+
+            int slot = reader.getInt();
+            int length = VarInt.getInt(reader);
+            int next = reader.position() + length;
+
+            if (this.slotPages[slot] == page && this.slotOffsets[slot] == offset) {
+                reader.limit(next).position(offset);
+                this.move(slot, reader, next - offset);
+            }
+
+            offset = next;
+        }
+
+        // la pagina viene liberata solo dopo lo spostamento,
+        // così non può diventare la pagina di destinazione
+        this.pages.set(page, null);
+        this.live[page] = 0;
+
+        if (this.spare.size() < SPARE_PAGES && source.capacity() == PAGE) {
+            source.clear();
+            this.spare.push(source);
+        }
+
+        this.compactions++;
+    }
+
+    // copia il body di slot letto da bytes in un'altra
+    // pagina; richiede il lock in scrittura
+    private void move(int slot, ByteBuffer bytes, int length) {
+        int page = this.reserve(length);
+        ByteBuffer target = this.pages.get(page);
+
+        this.slotPages[slot] = page;
+        this.slotOffsets[slot] = target.position();
+        this.live[page] += length;
+        target.put(bytes);
+    }
+
+    // aggiunge body con lo slot slot; richiede il lock in scrittura
+    private void append(int slot, String body) {
+        int length = Integer.BYTES + Utf8.size(body);
+        int page = this.reserve(length);
+        ByteBuffer target = this.pages.get(page);
+
+        this.slotPages[slot] = page;
+        this.slotOffsets[slot] = target.position();
+        this.live[page] += length;
+        this.size += length;
+
+        target.putInt(slot);
+        Utf8.put(target, body);
+    }
+
+    // restituisce l'indice di una pagina con almeno
+    // length byte liberi; richiede il lock in scrittura
+    private int reserve(int length) {
+        if (this.pages.get(this.current).remaining() >= length) {
+            return this.current;
+        }
+
+        ByteBuffer page;
+
+        // un body più grande di una pagina ha una pagina tutta
+        // sua, che non diventa la pagina corrente
+        if (length > PAGE) {
+            page = ByteBuffer.allocateDirect(length);
+        } else if (!this.spare.isEmpty()) {
+            page = this.spare.pop();
+        } else {
+            page = ByteBuffer.allocateDirect(PAGE);
+        }
+
+        // riusa la prima posizione libera della lista delle pagine
+        int index = this.pages.indexOf(null);
+
+        if (index < 0) {
+            index = this.pages.size();
+            this.pages.add(page);
+        } else {
+            this.pages.set(index, page);
+        }
+
+        if (index >= this.live.length) {
+            this.live = Arrays.copyOf(this.live, this.live.length << 1);
+        }
+
+        this.live[index] = 0;
+
+        if (length <= PAGE) {
+            this.current = index;
+        }
+
+        return index;
+    }
+
+    // restituisce uno slot libero; richiede il lock in scrittura
+    private int newSlot() {
+        if (this.freeCount > 0) {
+            return this.freeSlots[--this.freeCount];
+        }
+
+        if (this.slotCount == this.slotPages.length) {
+            int capacity = this.slotPages.length << 1;
+
+            this.slotPages = Arrays.copyOf(this.slotPages, capacity);
+            this.slotOffsets = Arrays.copyOf(this.slotOffsets, capacity);
+            this.freeSlots = Arrays.copyOf(this.freeSlots, capacity);
+        }
+
+        return this.slotCount++;
+    }
+}
@@ -0,0 +1,27 @@
+package models;
+
+public interface BodyHandle {
+    /*
+     * OVERVIEW: un BodyHandle è un riferimento al body di un dato conservato
+     * fuori dal dato stesso, ad esempio in una BodyArena o in un BodyStore;
+     * è condiviso da tutte le copie del dato
+     */
+
+    /*
+     * Restituisce il body
+     */
+    public String read();
+    /*
+     * RETURNS: restituisce il body di this, anche dopo il rilascio
+     */
+
+    /*
+     * Rilascia il body
+     */
+    public void release();
+    /*
+     * MODIFIES: this
+     * EFFECTS: libera le risorse condivise occupate dal body di this,
+     *          che resta leggibile; le chiamate successive non hanno effetto
+     */
+}
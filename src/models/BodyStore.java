@@ -0,0 +1,312 @@
+package models;
+
+import codec.Utf8;
+import indexes.IntMap;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+public class BodyStore {
+    /*
+     * OVERVIEW: un BodyStore conserva una sola copia di ogni body, indicizzata
+     * per contenuto: i dati con lo stesso body, anche in categorie o bacheche
+     * diverse, condividono la stessa copia, che viene contata e liberata
+     * quando l'ultimo dato che la usa viene rilasciato. Le copie possono
+     * essere conservate sullo heap o in una BodyArena
+     *
+     * Elemento tipico: {<body_1, n_1>, ..., <body_m, n_m>} dove n_i > 0 è il
+     *                  numero di riferimenti non rilasciati a body_i
+     */
+
+    // le copie sullo heap se arena è null, altrimenti in arena
+    private final BodyArena arena;
+
+    // associa all'hash del contenuto la lista dei body con quell'hash
+    private final IntMap<Entry> entries;
+
+    // numero di riferimenti non rilasciati
+    private long references;
+
+    // byte in UTF-8 dei body di tutti i riferimenti non rilasciati
+    private long logicalBytes;
+
+    // byte in UTF-8 delle copie conservate
+    private long storedBytes;
+
+    // numero di copie conservate
+    private int bodies;
+
+    private final ReentrantLock lock;
+
+    /*
+     * AF: α(c) = { <e.read(), e.count> | e è un Entry nelle liste di c.entries }
+     *
+     * IR: I(c) = c.entries != null && c.lock != null
+     *              e ogni Entry e nella lista di c.entries.get(h) ha e.hash == h,
+     *                  e.count > 0 e un body diverso dagli altri della lista
+     *              e c.bodies è il numero di Entry, c.references la somma dei
+     *                  loro count, c.storedBytes la somma dei loro bytes e
+     *                  c.logicalBytes la somma dei bytes * count
+     */
+
+    // una copia di un body con il numero dei suoi riferimenti
+    private static final class Entry {
+        private final int hash;
+
+        // il body, null se è nell'arena
+        private final String body;
+
+        // l'handle del body nell'arena, null se è sullo heap
+        private final BodyArena.Handle handle;
+
+        // byte del body in UTF-8
+        private final int bytes;
+
+        private int count;
+
+        // il body successivo con lo stesso hash
+        private Entry next;
+
+        private Entry(int hash, String body, BodyArena.Handle handle, int bytes) {
+            this.hash = hash;
+            this.body = body;
+            this.handle = handle;
+            this.bytes = bytes;
+        }
+
+        private String read() {
+            return this.body != null ? this.body : this.handle.read();
+        }
+    }
+
+    /*
+     * Un riferimento di un dato ad una copia di un body del BodyStore,
+     * condiviso da tutte le copie del dato
+     */
+    public static final class Ref implements BodyHandle {
+        private final BodyStore store;
+
+        private final Entry entry;
+
+        // true se this è stato rilasciato, protetto dal lock di store
+        private boolean released;
+
+        private Ref(BodyStore store, Entry entry) {
+            this.store = store;
+            this.entry = entry;
+        }
+
+        @Override
+        public String read() {
+            // una copia liberata resta leggibile: quella sullo
+            // heap non cambia, quella nell'arena viene copiata
+            // sullo heap quando viene rilasciata
+            return this.entry.read();
+        }
+
+        @Override
+        public void release() {
+            this.store.release(this);
+        }
+    }
+
+    /*
+     * inizializza this
+     */
+    public BodyStore() {
+        this(null);
+    }
+    /*
+     * EFFECTS: inizializza this a store vuoto che conserva i body sullo heap
+     */
+
+    /*
+     * inizializza this
+     */
+    public BodyStore(BodyArena arena) {
+        this.arena = arena;
+        this.entries = new IntMap<>();
+        this.lock = new ReentrantLock();
+    }
+    /*
+     * EFFECTS: inizializza this a store vuoto che conserva i body in arena,
+     *          o sullo heap se arena == null
+     */
+
+    /*
+     * Acquisisce un riferimento ad un body
+     */
+    public Ref acquire(String body) {
+        // validazione
+        if (body == null) {
+            throw new NullPointerException();
+        }
+
+        // l'hash di String dipende solo dal contenuto ed è
+        // calcolato una sola volta per ogni stringa
+        int hash = body.hashCode();
+
+        this.lock.lock();
+
+        try {
+            Entry head = this.entries.get(hash);
+            Entry entry = head;
+
+            // confronta i body con lo stesso hash
+            while (entry != null && !entry.read().equals(body)) {
+                entry = entry.next;
+            }
+
+            if (entry == null) {
+                int bytes = Utf8.length(body);
+
+                if (this.arena != null) {
+                    entry = new Entry(hash, null, this.arena.allocate(body), bytes);
+                } else {
+                    entry = new Entry(hash, body, null, bytes);
+                }
+
+                entry.next = head;
+                this.entries.put(hash, entry);
+                this.bodies++;
+                this.storedBytes += bytes;
+            }
+
+            entry.count++;
+            this.references++;
+            this.logicalBytes += entry.bytes;
+
+            return new Ref(this, entry);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+    /*
+     * REQUIRES: body != null
+     * MODIFIES: this
+     * EFFECTS: se this non contiene body ne conserva una copia,
+     *          poi incrementa i riferimenti alla copia di body
+     * RETURNS: restituisce un nuovo riferimento alla copia di body
+     * THROWS: se body == null solleva una NullPointerException
+     */
+
+    /*
+     * Restituisce il numero di riferimenti non rilasciati
+     */
+    public long references() {
+        this.lock.lock();
+
+        try {
+            return this.references;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /*
+     * Restituisce il numero di body distinti conservati
+     */
+    public int bodies() {
+        this.lock.lock();
+
+        try {
+            return this.bodies;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /*
+     * Restituisce i byte che i body occuperebbero senza deduplicazione
+     */
+    public long logicalBytes() {
+        this.lock.lock();
+
+        try {
+            return this.logicalBytes;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /*
+     * Restituisce i byte dei body conservati
+     */
+    public long storedBytes() {
+        this.lock.lock();
+
+        try {
+            return this.storedBytes;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /*
+     * Restituisce il rapporto di deduplicazione
+     */
+    public double dedupRatio() {
+        this.lock.lock();
+
+        try {
+            return this.storedBytes == 0 ? 1.0 : (double) this.logicalBytes / this.storedBytes;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+    /*
+     * RETURNS: restituisce logicalBytes() / storedBytes(), 1 se this è vuoto;
+     *          ad esempio 3 significa che i body occupano un terzo dello
+     *          spazio che occuperebbero senza deduplicazione
+     */
+
+    // decrementa i riferimenti alla copia di ref
+    // e la libera quando non ne ha più
+    private void release(Ref ref) {
+        this.lock.lock();
+
+        try {
+            if (ref.released) {
+                return;
+            }
+
+            Entry entry = ref.entry;
+
+            ref.released = true;
+            entry.count--;
+            this.references--;
+            this.logicalBytes -= entry.bytes;
+
+            if (entry.count > 0) {
+                return;
+            }
+
+            // togli la copia dalla lista del suo hash
+            Entry head = this.entries.get(entry.hash);
+
+            if (head == entry) {
+                if (entry.next != null) {
+                    this.entries.put(entry.hash, entry.next);
+                } else {
+                    this.entries.remove(entry.hash);
+                }
+            } else {
+                Entry previous = head;
+
+                while (previous.next != entry) {
+                    previous = previous.next;
+                }
+
+                previous.next = entry.next;
+            }
+
+            this.bodies--;
+            this.storedBytes -= entry.bytes;
+
+            if (entry.handle != null) {
+                entry.handle.release();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+}
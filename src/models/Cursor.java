@@ -0,0 +1,122 @@
+package models;
+
+import interfaces.Data;
+
+public final class Cursor<E extends Data> {
+    /*
+     * OVERVIEW: un Cursor è la posizione, opaca per chi lo usa, fra due pagine
+     * di dati della bacheca: ricorda l'ultimo dato restituito e non la sua
+     * posizione in una lista, così resta valido anche se nel frattempo
+     * vengono inseriti o rimossi dei dati. Nelle pagine i dati sono ordinati
+     * per nome della categoria e, nella stessa categoria, come in Data.compareTo
+     *
+     * Elemento tipico: <category, key> oppure l'inizio, prima di ogni dato
+     */
+
+    // il cursore all'inizio, condiviso da tutte le bacheche
+    private static final Cursor<?> START = new Cursor<>(null, null);
+
+    // la categoria dell'ultimo dato restituito, null all'inizio
+    private final String category;
+
+    // l'ultimo dato restituito, usato solo come chiave
+    // di ricerca perché compareTo dipende solo dall'id
+    private final E key;
+
+    /*
+     * AF: α(c) = l'inizio se c.key == null, <c.category, c.key.id()> altrimenti
+     *
+     * IR: I(c) = (c.category == null) == (c.key == null)
+     */
+
+    // inizializza this con la posizione dopo key nella categoria category
+    private Cursor(String category, E key) {
+        this.category = category;
+        this.key = key;
+    }
+
+    /*
+     * Restituisce il cursore all'inizio
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Data> Cursor<E> start() {
+        return (Cursor<E>) START;
+    }
+    /*
+     * RETURNS: restituisce il cursore che precede tutti i dati
+     */
+
+    /*
+     * Restituisce il cursore dopo un dato
+     */
+    public static <E extends Data> Cursor<E> after(E data) {
+        // validazione
+        if (data == null || data.getCategory() == null) {
+            throw new NullPointerException();
+        }
+
+        return new Cursor<>(data.getCategory(), data);
+    }
+    /*
+     * REQUIRES: data != null && data.getCategory() != null
+     * RETURNS: restituisce il cursore che segue data nella sua categoria
+     * THROWS: se data == null || data.getCategory() == null solleva una NullPointerException
+     */
+
+    /*
+     * Controlla se this è all'inizio
+     */
+    public boolean isStart() {
+        return this.key == null;
+    }
+
+    /*
+     * Restituisce la categoria dell'ultimo dato restituito
+     */
+    public String getCategory() {
+        return this.category;
+    }
+    /*
+     * RETURNS: restituisce la categoria dell'ultimo dato restituito, null se this è all'inizio
+     */
+
+    /*
+     * Restituisce la chiave dell'ultimo dato restituito
+     */
+    public E getKey() {
+        return this.key;
+    }
+    /*
+     * RETURNS: restituisce un dato con l'id dell'ultimo dato restituito, da
+     *          confrontare con compareTo, null se this è all'inizio
+     */
+
+    /*
+     * Controlla se this può essere usato per scorrere una categoria
+     */
+    public boolean isValidFor(String category) {
+        return this.key == null || this.category.equals(category);
+    }
+    /*
+     * RETURNS: restituisce true se this è all'inizio oppure
+     *          è una posizione in category, false altrimenti
+     */
+
+    /*
+     * Controlla se un dato segue this
+     */
+    public boolean precedes(E data) {
+        if (this.key == null) {
+            return true;
+        }
+
+        int result = this.category.compareTo(data.getCategory());
+
+        return result < 0 || result == 0 && data.compareTo(this.key) > 0;
+    }
+    /*
+     * REQUIRES: data != null
+     * RETURNS: restituisce true se data viene dopo this
+     *          nell'ordine delle pagine, false altrimenti
+     */
+}
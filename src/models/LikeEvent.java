@@ -0,0 +1,83 @@
+package models;
+
+import interfaces.Data;
+
+public class LikeEvent<E extends Data> {
+    /*
+     * OVERVIEW: un LikeEvent è un like di uno user ad un dato,
+     * da inserire in bacheca insieme ad altri con insertLikes
+     *
+     * Elemento tipico: <friend, data>
+     */
+
+    // il nome dello user che inserisce il like
+    private final String friend;
+
+    // il dato a cui viene inserito il like
+    private final E data;
+
+    /*
+     * AF: α(c) = <c.friend, c.data>
+     *
+     * IR: I(c) = c.friend != null && c.data != null
+     */
+
+    /*
+     * inizializza this
+     */
+    public LikeEvent(String friend, E data) {
+        // validazione
+        if (friend == null || data == null) {
+            throw new NullPointerException();
+        }
+
+        this.friend = friend;
+        this.data = data;
+    }
+    /*
+     * REQUIRES: friend != null && data != null
+     * EFFECTS: inizializza this con il like di friend a data
+     * THROWS: se friend == null || data == null solleva una NullPointerException
+     */
+
+    /*
+     * Ritorna il nome dello user che inserisce il like
+     */
+    public String getFriend() {
+        return this.friend;
+    }
+
+    /*
+     * Ritorna il dato a cui viene inserito il like
+     */
+    public E getData() {
+        return this.data;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        LikeEvent<?> like = (LikeEvent<?>) o;
+
+        return this.friend.equals(like.friend) && this.data.equals(like.data);
+    }
+    /*
+     * RETURNS: restituisce true se o è il like dello stesso user
+     *          allo stesso dato, false altrimenti
+     */
+
+    @Override
+    /*
+     * Sovrascrivi per non violare il general contract di Object.hashCode(),
+     */
+    public int hashCode() {
+        return 31 * this.friend.hashCode() + this.data.hashCode();
+    }
+}
@@ -1,6 +1,7 @@
 package models;
 
 import exceptions.DataNotFoundException;
+import indexes.IntSet;
 import interfaces.Category;
 import interfaces.Data;
 import interfaces.User;
@@ -12,14 +13,16 @@ import java.util.List;
 public class MyCategory<E extends Data> implements Category<E> {
     private final String name;
 
-    private final ArrayList<User> readableByList;
+    // gli id (in UserRegistry) degli user con i permessi di
+    // lettura, un insieme per avere controlli e rimozioni in O(1)
+    private final IntSet readableBySet;
     private final ArrayList<E> dataList;
 
-    // inizializza this, l'array readableByList e
+    // inizializza this, l'insieme readableBySet e
     // assegna il nome della categoria
     public MyCategory(String name) {
         this.name = name;
-        this.readableByList = new ArrayList<>();
+        this.readableBySet = new IntSet();
         this.dataList = new ArrayList<>();
     }
 
@@ -36,7 +39,7 @@ public class MyCategory<E extends Data> implements Category<E> {
         }
 
         // aggiunge user agli user con i permessi di lettura
-        this.readableByList.add(user);
+        this.readableBySet.add(UserRegistry.getInstance().intern(user.getName()));
     }
 
     @Override
@@ -47,20 +50,19 @@ public class MyCategory<E extends Data> implements Category<E> {
         }
 
         // rimuovi user dagli user con i permessi di lettura
-        this.readableByList.removeIf(el -> el.equals(user));
+        this.readableBySet.remove(UserRegistry.getInstance().idOf(user.getName()));
     }
 
     @Override
     public boolean isReadableBy(User user) {
-        // cerca lo user nella lista dagli user con i permessi di lettura
-        for (User item : this.readableByList) {
-            // se lo user è presente allora ha i permessi di lettura
-            if (item.equals(user)) {
-                return true;
-            }
-        }
+        // se lo user è presente nell'insieme
+        // allora ha i permessi di lettura
+        return user != null && this.readableBySet.contains(UserRegistry.getInstance().idOf(user.getName()));
+    }
 
-        return false;
+    @Override
+    public int[] getReaders() {
+        return this.readableBySet.toArray();
     }
 
     @Override
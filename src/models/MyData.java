@@ -1,16 +1,18 @@
 package models;
 
+import indexes.PersistentIntSet;
 import interfaces.Data;
 import interfaces.User;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 public class MyData implements Data {
     /*
      * Id del dato
      */
-    private final Integer id;
+    private final int id;
 
     /*
      * categoria a cui appartiene il dato
@@ -18,36 +20,90 @@ public class MyData implements Data {
     private String category;
 
     /*
-     * Il body del dato
+     * Il body del dato, null se il body è in una BodyArena
      */
     private final String body;
 
     /*
-     * La lista degli user che hanno inserito
-     * un like per questo dato
+     * L'handle del body in una BodyArena o in un BodyStore,
+     * condiviso con le copie di this; null se il body è in this
      */
-    private final ArrayList<User> likedByList;
+    private final BodyHandle handle;
+
+    /*
+     * Gli id (in UserRegistry) degli user che hanno
+     * inserito un like per questo dato; l'insieme è
+     * persistente, quindi può essere condiviso con
+     * le copie di this senza copiarlo; è volatile perché
+     * MyDataBoardStriped consegna i like al dato mentre
+     * altri thread lo leggono
+     */
+    private volatile PersistentIntSet likedBySet;
 
     /*
      * inizializza this
      */
-    public MyData(Integer id, String body) {
+    public MyData(int id, String body) {
+        this(id, body, null, PersistentIntSet.EMPTY);
+    }
+    /*
+     * EFFECTS: inizializza this con id e body passati
+     *          al costruttore, category null e
+     *          likedBySet insieme vuoto
+     */
+
+    /*
+     * inizializza this con il body fuori dallo heap
+     */
+    public MyData(int id, String body, BodyArena arena) {
+        this(id, null, arena.allocate(body), PersistentIntSet.EMPTY);
+    }
+    /*
+     * REQUIRES: body != null && arena != null
+     * MODIFIES: arena
+     * EFFECTS: inizializza this con id passato al costruttore, category null
+     *          e likedBySet insieme vuoto; body viene copiato in arena e
+     *          viene decodificato ad ogni lettura. Il body resta in arena
+     *          finché this o una sua copia non viene rilasciato con release
+     * THROWS: se body == null || arena == null solleva una NullPointerException
+     */
+
+    /*
+     * inizializza this con il body condiviso con gli altri dati
+     */
+    public MyData(int id, String body, BodyStore store) {
+        this(id, null, store.acquire(body), PersistentIntSet.EMPTY);
+    }
+    /*
+     * REQUIRES: body != null && store != null
+     * MODIFIES: store
+     * EFFECTS: inizializza this con id passato al costruttore, category null
+     *          e likedBySet insieme vuoto; this condivide con gli altri dati
+     *          di store con lo stesso body un'unica copia del body, finché
+     *          this o una sua copia non viene rilasciato con release
+     * THROWS: se body == null || store == null solleva una NullPointerException
+     */
+
+    // inizializza this con il body o l'handle ed i like passati
+    private MyData(int id, String body, BodyHandle handle, PersistentIntSet likedBySet) {
         this.id = id;
 
         this.category = null;
         this.body = body;
+        this.handle = handle;
 
-        this.likedByList = new ArrayList<>();
+        this.likedBySet = likedBySet;
     }
-    /*
-     * EFFECTS: inizializza this con id e body passati
-     *          al costruttore, category null e
-     *          likedByList array vuoto
-     */
 
     @Override
     public void display() {
-        System.out.println(this.body);
+        System.out.println(this.getBody());
+    }
+
+    @Override
+    public String getBody() {
+        // il body condiviso viene letto solo quando serve
+        return this.handle != null ? this.handle.read() : this.body;
     }
 
     @Override
@@ -55,19 +111,24 @@ public class MyData implements Data {
         return this.id;
     }
 
+    @Override
+    public int id() {
+        return this.id;
+    }
+
     @Override
     public MyData clone() {
-            // effettua una copia "a mano"
-            MyData cloneData = new MyData(this.getId(), this.body);
+            // effettua una copia "a mano", body e categoria sono
+            // immutabili e l'insieme dei like è persistente, quindi
+            // la copia li condivide con this in tempo O(1): un like
+            // inserito dopo su this o sulla copia non è visibile all'altro;
+            // anche l'handle del body viene condiviso
+            MyData cloneData = new MyData(this.id, this.body, this.handle, this.likedBySet);
 
             if (this.getCategory() != null) {
                 cloneData.setCategory(this.getCategory());
             }
 
-            for (User item : this.getLikes()) {
-                cloneData.insertLike(item.getName());
-            }
-
             return cloneData;
     }
     /*
@@ -76,18 +137,37 @@ public class MyData implements Data {
 
     @Override
     public List<User> getLikes() {
-        // crea una nuova lista che conterrà
-        // le copie degli elementi user
-        ArrayList<User> likesList = new ArrayList<>();
+        // crea una nuova lista che conterrà gli user,
+        // gli user del registro sono immutabili e
+        // possono essere condivisi senza copiarli
+        ArrayList<User> likesList = new ArrayList<>(this.likedBySet.size());
+        UserRegistry registry = UserRegistry.getInstance();
 
-        // esegui una deep copy degli elementi
-        for (User item : this.likedByList) {
-            likesList.add(item.clone());
-        }
+        this.likedBySet.forEach(item -> likesList.add(registry.get(item)));
 
         return likesList;
     }
 
+    @Override
+    public void forEachLike(IntConsumer action) {
+        // validazione
+        if (action == null) {
+            throw new NullPointerException();
+        }
+
+        this.likedBySet.forEach(action);
+    }
+
+    @Override
+    public boolean hasLiked(String friend) {
+        return this.likedBySet.contains(UserRegistry.getInstance().idOf(friend));
+    }
+
+    @Override
+    public int getLikeCount() {
+        return this.likedBySet.size();
+    }
+
     @Override
     public void insertLike(String friend) {
         // validazione
@@ -97,7 +177,17 @@ public class MyData implements Data {
 
         // inserisci friend nella lista degli utenti
         // che hanno inserito un like per questo dato
-        this.likedByList.add(new MyUser(friend));
+        this.insertLike(UserRegistry.getInstance().intern(friend));
+    }
+
+    @Override
+    public void insertLike(int friend) {
+        // validazione
+        if (friend < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.likedBySet = this.likedBySet.add(friend);
     }
 
     @Override
@@ -115,6 +205,15 @@ public class MyData implements Data {
         return this.category;
     }
 
+    @Override
+    public void release() {
+        // le copie condividono l'handle, che
+        // resta leggibile dopo il rilascio
+        if (this.handle != null) {
+            this.handle.release();
+        }
+    }
+
     /*
      * Verifica se il dato è uguale all'oggetto
      * passato come argomento
@@ -130,9 +229,11 @@ public class MyData implements Data {
 
         MyData data = (MyData) o;
 
-        // effettua il controllo su id e body
-        return this.getId().equals(data.getId())
-                && this.body.equals(data.body);
+        // effettua il controllo su id e body, le copie
+        // di un dato condividono l'handle del body
+        return this.id == data.id
+                && (this.handle != null && this.handle == data.handle
+                    || this.getBody().equals(data.getBody()));
     }
     /*
      * RETURNS: restituisce true se o è una copia valida di this,
@@ -149,7 +250,7 @@ public class MyData implements Data {
         // la comparazione in equals()
         // quindi è perfetto per non violare
         // il general contract di Object.hashCode()
-        return this.id.hashCode();
+        return Integer.hashCode(this.id);
     }
     /*
      * RETURNS: restituisce un hashCode di this
@@ -160,7 +261,7 @@ public class MyData implements Data {
      * è più grande di un altro
      */
     public int compareTo(Data data) {
-        return data.getId() - this.getId();
+        return Integer.compare(data.id(), this.id);
     }
     /*
      * RETURNS: ritorna un numero positivo se this è più piccolo di data,
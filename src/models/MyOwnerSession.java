@@ -0,0 +1,61 @@
+package models;
+
+import interfaces.OwnerSession;
+
+public final class MyOwnerSession implements OwnerSession {
+    /*
+     * OVERVIEW: una MyOwnerSession è una sessione aperta da un SessionManager,
+     * la classe è final e può essere istanziata solo nel package models,
+     * quindi una sessione non può essere falsificata: la possiede solo chi
+     * l'ha ricevuta dal SessionManager che l'ha aperta
+     *
+     * Elemento tipico: <manager, scadenza, chiusa>
+     */
+
+    // il SessionManager che ha aperto la sessione
+    private final SessionManager manager;
+
+    // l'istante di scadenza, confrontabile con System.nanoTime()
+    private final long expiresAt;
+
+    private volatile boolean closed;
+
+    /*
+     * AF: α(c) = <c.manager, c.expiresAt, c.closed>
+     *
+     * IR: I(c) = c.manager != null
+     */
+
+    /*
+     * inizializza this
+     */
+    MyOwnerSession(SessionManager manager, long expiresAt) {
+        this.manager = manager;
+        this.expiresAt = expiresAt;
+        this.closed = false;
+    }
+    /*
+     * REQUIRES: manager != null
+     * EFFECTS: inizializza this come sessione aperta da manager
+     *          valida fino all'istante expiresAt
+     */
+
+    @Override
+    public boolean isValid() {
+        // confronta la differenza e non i valori,
+        // System.nanoTime() può andare in overflow
+        return !this.closed && System.nanoTime() - this.expiresAt < 0;
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+    }
+
+    /*
+     * Controlla se la sessione è stata aperta da manager
+     */
+    boolean isIssuedBy(SessionManager manager) {
+        return this.manager == manager;
+    }
+}
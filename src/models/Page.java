@@ -0,0 +1,105 @@
+package models;
+
+import interfaces.Data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+public final class Page<E extends Data> {
+    /*
+     * OVERVIEW: una Page è una pagina di dati della bacheca, con le deep
+     * copy di al più limit dati ed il cursore da cui leggere la pagina
+     * successiva
+     *
+     * Elemento tipico: <[data_1, ..., data_n], next, more>
+     */
+
+    private final List<E> items;
+
+    // il cursore dopo l'ultimo dato della pagina
+    private final Cursor<E> next;
+
+    // true se dopo la pagina ci sono altri dati
+    private final boolean more;
+
+    /*
+     * AF: α(c) = <c.items, c.next, c.more>
+     *
+     * IR: I(c) = c.items != null && c.next != null
+     *              e se c.items non è vuota, c.next è il cursore dopo il suo ultimo dato
+     */
+
+    /*
+     * inizializza this
+     */
+    public Page(List<E> items, Cursor<E> cursor, boolean more) {
+        // validazione
+        if (items == null || cursor == null) {
+            throw new NullPointerException();
+        }
+
+        this.items = Collections.unmodifiableList(items);
+        this.next = items.isEmpty() ? cursor : Cursor.after(items.get(items.size() - 1));
+        this.more = more;
+    }
+    /*
+     * REQUIRES: items != null && cursor != null
+     * EFFECTS: inizializza this alla pagina con i dati di items letti dopo
+     *          cursor, senza copiarli; more indica se ci sono altri dati
+     * THROWS: se items == null || cursor == null solleva una NullPointerException
+     */
+
+    /*
+     * Crea una pagina con i primi dati di un iteratore
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Data> Page<E> of(Cursor<E> cursor, Iterator<? extends E> source, int limit) {
+        ArrayList<E> items = new ArrayList<>(Math.min(limit, 64));
+
+        // copia solo i dati della pagina, l'iteratore
+        // non viene consumato oltre il primo dato escluso
+        while (items.size() < limit && source.hasNext()) {
+            items.add((E)source.next().clone());
+        }
+
+        return new Page<>(items, cursor, source.hasNext());
+    }
+    /*
+     * REQUIRES: cursor != null && source != null && limit > 0 e source
+     *           genera i dati dopo cursor nell'ordine delle pagine
+     * RETURNS: restituisce la pagina con le deep copy dei primi
+     *          min(limit, n) dati generati da source
+     */
+
+    /*
+     * Restituisce i dati della pagina
+     */
+    public List<E> getItems() {
+        return this.items;
+    }
+    /*
+     * RETURNS: restituisce la lista non modificabile dei dati della pagina
+     */
+
+    /*
+     * Restituisce il cursore della pagina successiva
+     */
+    public Cursor<E> getNext() {
+        return this.next;
+    }
+
+    /*
+     * Controlla se ci sono altre pagine
+     */
+    public boolean hasNext() {
+        return this.more;
+    }
+    /*
+     * RETURNS: restituisce true se c'erano altri dati dopo la pagina
+     *          quando è stata letta, false altrimenti; i dati inseriti
+     *          dopo possono comparire anche dopo una pagina con
+     *          hasNext() == false
+     */
+}
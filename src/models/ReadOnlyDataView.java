@@ -0,0 +1,66 @@
+package models;
+
+import interfaces.Data;
+import interfaces.ReadOnlyData;
+
+public class ReadOnlyDataView implements ReadOnlyData {
+    /*
+     * OVERVIEW: un ReadOnlyDataView è una vista in sola lettura di un dato,
+     * le letture sono delegate al dato senza copiarlo e la vista
+     * riflette le modifiche successive del dato
+     */
+
+    // il dato osservato dalla vista
+    private final Data data;
+
+    /*
+     * inizializza this
+     */
+    public ReadOnlyDataView(Data data) {
+        if (data == null) {
+            throw new NullPointerException();
+        }
+
+        this.data = data;
+    }
+    /*
+     * REQUIRES: data != null
+     * EFFECTS: inizializza this come vista di data
+     * THROWS: se data == null solleva una NullPointerException
+     */
+
+    @Override
+    public void display() {
+        this.data.display();
+    }
+
+    @Override
+    public Integer getId() {
+        return this.data.getId();
+    }
+
+    @Override
+    public int id() {
+        return this.data.id();
+    }
+
+    @Override
+    public String getBody() {
+        return this.data.getBody();
+    }
+
+    @Override
+    public String getCategory() {
+        return this.data.getCategory();
+    }
+
+    @Override
+    public boolean hasLiked(String friend) {
+        return this.data.hasLiked(friend);
+    }
+
+    @Override
+    public int getLikeCount() {
+        return this.data.getLikeCount();
+    }
+}
@@ -0,0 +1,121 @@
+package models;
+
+import exceptions.UnauthorizedAccessException;
+import interfaces.OwnerSession;
+import interfaces.User;
+
+import java.util.concurrent.TimeUnit;
+
+public class SessionManager {
+    /*
+     * OVERVIEW: un SessionManager apre e controlla le sessioni dello user
+     * proprietario di una bacheca: la password viene verificata una sola
+     * volta, all'apertura della sessione, e le chiamate successive
+     * controllano solo la sessione; può essere usato da più thread
+     *
+     * Elemento tipico: <owner, durata>
+     */
+
+    // durata di default di una sessione, in nanosecondi
+    public static final long DEFAULT_TTL = TimeUnit.MINUTES.toNanos(30);
+
+    // lo user proprietario della bacheca
+    private final User owner;
+
+    // durata di una sessione, in nanosecondi
+    private final long ttl;
+
+    /*
+     * AF: α(c) = <c.owner, c.ttl>
+     *
+     * IR: I(c) = c.owner != null && c.ttl > 0
+     */
+
+    /*
+     * inizializza this
+     */
+    public SessionManager(User owner) {
+        this(owner, DEFAULT_TTL);
+    }
+    /*
+     * REQUIRES: owner != null
+     * EFFECTS: inizializza this con owner e la durata di default
+     * THROWS: se owner == null solleva una NullPointerException
+     */
+
+    /*
+     * inizializza this
+     */
+    public SessionManager(User owner, long ttl) {
+        // validazione
+        if (owner == null) {
+            throw new NullPointerException();
+        }
+
+        if (ttl <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.owner = owner;
+        this.ttl = ttl;
+    }
+    /*
+     * REQUIRES: owner != null && ttl > 0
+     * EFFECTS: inizializza this con owner e sessioni che durano ttl nanosecondi
+     * THROWS: se owner == null solleva una NullPointerException
+     *         se ttl <= 0 solleva una IllegalArgumentException
+     */
+
+    /*
+     * Apre una sessione se vengono rispettati i controlli di identità
+     */
+    public OwnerSession open(String passw) throws UnauthorizedAccessException {
+        // validazione
+        if (!this.owner.authenticate(passw)) {
+            throw new UnauthorizedAccessException();
+        }
+
+        return new MyOwnerSession(this, System.nanoTime() + this.ttl);
+    }
+    /*
+     * RETURNS: restituisce una nuova sessione aperta da this
+     * THROWS: se passw non è la password di owner solleva una UnauthorizedAccessException
+     */
+
+    /*
+     * Controlla che una sessione possa essere usata al posto della password
+     */
+    public void validate(OwnerSession session) throws UnauthorizedAccessException {
+        // una sessione di un altro SessionManager, o un'altra implementazione
+        // di OwnerSession, non è valida anche se isValid() restituisce true
+        if (!this.isIssued(session) || !session.isValid()) {
+            throw new UnauthorizedAccessException();
+        }
+    }
+    /*
+     * THROWS: se session non è stata aperta da this, è scaduta oppure
+     *         è stata chiusa solleva una UnauthorizedAccessException
+     */
+
+    /*
+     * Chiude una sessione
+     */
+    public void close(OwnerSession session) throws UnauthorizedAccessException {
+        // validazione
+        if (!this.isIssued(session)) {
+            throw new UnauthorizedAccessException();
+        }
+
+        session.close();
+    }
+    /*
+     * MODIFIES: session
+     * EFFECTS: session non è più valida
+     * THROWS: se session non è stata aperta da this solleva una UnauthorizedAccessException
+     */
+
+    // controlla se session è stata aperta da this
+    private boolean isIssued(OwnerSession session) {
+        return session instanceof MyOwnerSession && ((MyOwnerSession) session).isIssuedBy(this);
+    }
+}
@@ -0,0 +1,161 @@
+package models;
+
+import interfaces.User;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class UserRegistry {
+    /*
+     * OVERVIEW: uno UserRegistry è una tabella di user identificati dal nome,
+     * ad ogni nome è associato un unico user condiviso ed un id intero
+     * piccolo e stabile, assegnato in ordine crescente a partire da 0.
+     * Le bacheche, le categorie ed i dati usano tutti il registro condiviso
+     * di getInstance, quindi gli id sono gli stessi in tutte le bacheche del
+     * processo e possono essere confrontati fra loro senza tradurli. Il
+     * registro condiviso vive quanto il processo e non si riduce mai: uno
+     * user resta registrato anche dopo che le bacheche che lo usavano sono
+     * state eliminate, quindi la sua memoria cresce con il numero di nomi
+     * distinti visti dal processo e non con gli user ancora in uso
+     *
+     * Elemento tipico: {<0, user_0>, ..., <n - 1, user_n-1>}
+     */
+
+    // il registro condiviso da bacheche, categorie e dati
+    private static final UserRegistry INSTANCE = new UserRegistry();
+
+    // associa ad ogni nome il suo id
+    private final ConcurrentHashMap<String, Integer> ids;
+
+    // associa ad ogni id il suo user, letto senza lock
+    private volatile MyUser[] users;
+
+    // numero di user registrati
+    private volatile int size;
+
+    /*
+     * AF: α(c) = { <i, c.users[i]> | 0 <= i < c.size }
+     *
+     * IR: I(c) = c.size == c.ids.size() && c.size <= c.users.length
+     *              e per ogni i tale che 0 <= i < c.size,
+     *                  c.ids.get(c.users[i].getName()) == i
+     */
+
+    /*
+     * inizializza this
+     */
+    public UserRegistry() {
+        this.ids = new ConcurrentHashMap<>();
+        this.users = new MyUser[16];
+        this.size = 0;
+    }
+    /*
+     * EFFECTS: inizializza this a registro vuoto
+     */
+
+    /*
+     * Restituisce il registro condiviso
+     */
+    public static UserRegistry getInstance() {
+        return INSTANCE;
+    }
+    /*
+     * RETURNS: restituisce il registro condiviso da tutte le bacheche del
+     *          processo; i suoi id sono validi fino al termine del processo e
+     *          non vanno salvati su disco senza la tabella dei nomi, come
+     *          fanno le snapshot, perché in un altro processo sono diversi
+     */
+
+    /*
+     * Registra uno user se non è già presente
+     */
+    public int intern(String name) {
+        // validazione
+        if (name == null) {
+            throw new NullPointerException();
+        }
+
+        // caso comune, lo user è già registrato
+        Integer id = this.ids.get(name);
+
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (this) {
+            id = this.ids.get(name);
+
+            if (id != null) {
+                return id;
+            }
+
+            int newId = this.size;
+
+            if (newId == this.users.length) {
+                this.users = Arrays.copyOf(this.users, newId << 1);
+            }
+
+            // pubblica prima lo user e poi l'id,
+            // così chi legge l'id trova sempre lo user
+            this.users[newId] = new MyUser(name);
+            this.size = newId + 1;
+            this.ids.put(name, newId);
+
+            return newId;
+        }
+    }
+    /*
+     * REQUIRES: name != null
+     * MODIFIES: this
+     * EFFECTS: se name non è presente in this gli viene assegnato un nuovo id
+     * RETURNS: restituisce l'id di name
+     * THROWS: se name == null solleva una NullPointerException
+     */
+
+    /*
+     * Restituisce l'id di uno user senza registrarlo
+     */
+    public int idOf(String name) {
+        if (name == null) {
+            return -1;
+        }
+
+        Integer id = this.ids.get(name);
+
+        return id != null ? id : -1;
+    }
+    /*
+     * RETURNS: restituisce l'id di name, -1 se name non è presente in this
+     */
+
+    /*
+     * Restituisce lo user condiviso associato ad un id
+     */
+    public User get(int id) {
+        if (id < 0 || id >= this.size) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        return this.users[id];
+    }
+    /*
+     * REQUIRES: 0 <= id < this.size()
+     * RETURNS: restituisce lo user con id id, lo user è immutabile
+     *          e può essere condiviso
+     * THROWS: se id non è presente in this solleva una IndexOutOfBoundsException
+     */
+
+    /*
+     * Restituisce il nome dello user associato ad un id
+     */
+    public String nameOf(int id) {
+        return this.get(id).getName();
+    }
+
+    /*
+     * Restituisce il numero di user registrati
+     */
+    public int size() {
+        return this.size;
+    }
+}
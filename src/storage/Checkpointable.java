@@ -0,0 +1,23 @@
+package storage;
+
+import java.io.IOException;
+
+public interface Checkpointable {
+    /*
+     * OVERVIEW: una bacheca Checkpointable rende persistente il proprio
+     * stato in una snapshot, così il log delle modifiche già contenute
+     * nella snapshot può essere scartato
+     */
+
+    /*
+     * Scrive una snapshot e scarta il log
+     */
+    public void checkpoint() throws IOException;
+    /*
+     * MODIFIES: this
+     * EFFECTS: scrive una snapshot dello stato di this e scarta le
+     *          modifiche del log contenute nella snapshot
+     * THROWS: se la scrittura fallisce solleva una IOException, in
+     *         quel caso la snapshot ed il log precedenti restano validi
+     */
+}
@@ -0,0 +1,119 @@
+package storage;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class Checkpointer implements AutoCloseable {
+    /*
+     * OVERVIEW: un Checkpointer esegue periodicamente il checkpoint di una
+     * bacheca in un thread in background, mentre gli altri thread continuano
+     * a modificarla; un checkpoint fallito non ferma i successivi
+     */
+
+    private final Checkpointable target;
+
+    private final ScheduledExecutorService executor;
+
+    // numero di checkpoint completati
+    private long checkpoints;
+
+    // l'errore dell'ultimo checkpoint fallito
+    private Exception failure;
+
+    /*
+     * AF: α(c) = <c.target, c.checkpoints>
+     *
+     * IR: I(c) = c.target != null && c.executor != null && c.checkpoints >= 0
+     *              e c.checkpoints e c.failure sono letti e modificati solo
+     *                  sincronizzati su c
+     */
+
+    /*
+     * inizializza this
+     */
+    public Checkpointer(Checkpointable target, long period, TimeUnit unit) {
+        // validazione
+        if (target == null || unit == null) {
+            throw new NullPointerException();
+        }
+
+        if (period <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.target = target;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpointer");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        this.executor.scheduleWithFixedDelay(this::run, period, period, unit);
+    }
+    /*
+     * REQUIRES: target != null && unit != null && period > 0
+     * EFFECTS: inizializza this e avvia un checkpoint di target ogni period
+     *          unità di tempo, contate dalla fine del checkpoint precedente
+     * THROWS: se target == null || unit == null solleva una NullPointerException
+     *         se period <= 0 solleva una IllegalArgumentException
+     */
+
+    // esegue un checkpoint e ne registra l'esito
+    private void run() {
+        try {
+            this.target.checkpoint();
+
+            synchronized (this) {
+                this.checkpoints++;
+                this.failure = null;
+            }
+        } catch (IOException | RuntimeException e) {
+            // un'eccezione non gestita fermerebbe
+            // anche i checkpoint successivi
+            synchronized (this) {
+                this.failure = e;
+            }
+        }
+    }
+
+    /*
+     * Restituisce il numero di checkpoint completati
+     */
+    public synchronized long checkpoints() {
+        return this.checkpoints;
+    }
+
+    /*
+     * Restituisce l'errore dell'ultimo checkpoint
+     */
+    public synchronized Exception failure() {
+        return this.failure;
+    }
+    /*
+     * RETURNS: restituisce l'errore dell'ultimo checkpoint se è
+     *          fallito, null altrimenti
+     */
+
+    /*
+     * Ferma i checkpoint
+     */
+    @Override
+    public void close() {
+        this.executor.shutdown();
+
+        try {
+            this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            // il checkpoint in corso termina comunque
+            Thread.currentThread().interrupt();
+        }
+    }
+    /*
+     * MODIFIES: this
+     * EFFECTS: non vengono avviati altri checkpoint, termina quando il
+     *          checkpoint in corso è finito o quando il thread viene interrotto
+     */
+}
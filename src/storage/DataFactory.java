@@ -0,0 +1,21 @@
+package storage;
+
+import interfaces.Data;
+
+public interface DataFactory<E extends Data> {
+    /*
+     * OVERVIEW: una DataFactory crea i dati di una bacheca a partire da id
+     * e body, per ricostruirli dal log o da una snapshot; per MyData basta
+     * passare MyData::new
+     */
+
+    /*
+     * Crea un dato
+     */
+    public E create(int id, String body);
+    /*
+     * REQUIRES: body != null
+     * RETURNS: restituisce un nuovo dato con id id e body body,
+     *          senza categoria e senza like
+     */
+}
@@ -0,0 +1,95 @@
+package storage;
+
+import codec.DataCodec;
+import codec.Utf8;
+import codec.VarInt;
+import interfaces.Data;
+
+import java.nio.ByteBuffer;
+
+public class RecordReader {
+    /*
+     * OVERVIEW: un RecordReader legge in ordine i valori
+     * codificati da un RecordWriter
+     */
+
+    private final ByteBuffer buffer;
+
+    /*
+     * inizializza this
+     */
+    public RecordReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+    /*
+     * REQUIRES: buffer != null
+     * EFFECTS: inizializza this per leggere buffer dalla sua posizione corrente
+     */
+
+    /*
+     * Legge un byte
+     */
+    public int getByte() {
+        return this.buffer.get();
+    }
+
+    /*
+     * Legge un intero
+     */
+    public int getInt() {
+        return this.buffer.getInt();
+    }
+
+    /*
+     * Legge un long
+     */
+    public long getLong() {
+        return this.buffer.getLong();
+    }
+
+    /*
+     * Legge un intero scritto con RecordWriter.putVarInt
+     */
+    public int getVarInt() {
+        return VarInt.getInt(this.buffer);
+    }
+
+    /*
+     * Legge un intero scritto con RecordWriter.putSignedVarInt
+     */
+    public int getSignedVarInt() {
+        return VarInt.getSignedInt(this.buffer);
+    }
+
+    /*
+     * Legge una stringa scritta con RecordWriter.putString
+     */
+    public String getString() {
+        return Utf8.get(this.buffer);
+    }
+    /*
+     * MODIFIES: this
+     * RETURNS: restituisce la stringa successiva
+     * THROWS: se la lunghezza letta non è valida solleva una IllegalStateException
+     */
+
+    /*
+     * Legge un dato scritto con RecordWriter.putData
+     */
+    public <E extends Data> E getData(DataCodec<E> codec) {
+        return codec.decode(this.buffer);
+    }
+    /*
+     * REQUIRES: codec != null ha dizionari uguali a quelli del codec usato per scrivere
+     * MODIFIES: this
+     * RETURNS: restituisce il dato successivo
+     * THROWS: solleva le eccezioni sollevate da codec.decode
+     */
+
+    /*
+     * Controlla se ci sono ancora valori da leggere
+     */
+    public boolean hasRemaining() {
+        return this.buffer.hasRemaining();
+    }
+}
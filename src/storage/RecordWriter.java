@@ -0,0 +1,167 @@
+package storage;
+
+import codec.DataCodec;
+import codec.Utf8;
+import codec.VarInt;
+import interfaces.Data;
+
+import java.nio.ByteBuffer;
+
+public class RecordWriter {
+    /*
+     * OVERVIEW: un RecordWriter è un buffer di byte che cresce secondo
+     * necessità, usato per codificare i record del log e delle snapshot
+     *
+     * Elemento tipico: <b_1, ..., b_n>
+     */
+
+    private ByteBuffer buffer;
+
+    /*
+     * AF: α(c) = <c.buffer.get(0), ..., c.buffer.get(c.buffer.position() - 1)>
+     *
+     * IR: I(c) = c.buffer != null
+     */
+
+    /*
+     * inizializza this
+     */
+    public RecordWriter() {
+        this.buffer = ByteBuffer.allocate(256);
+    }
+    /*
+     * EFFECTS: inizializza this a buffer vuoto
+     */
+
+    /*
+     * Aggiunge un byte
+     */
+    public RecordWriter putByte(int value) {
+        this.reserve(1).put((byte) value);
+
+        return this;
+    }
+
+    /*
+     * Aggiunge un intero
+     */
+    public RecordWriter putInt(int value) {
+        this.reserve(Integer.BYTES).putInt(value);
+
+        return this;
+    }
+
+    /*
+     * Aggiunge un long
+     */
+    public RecordWriter putLong(long value) {
+        this.reserve(Long.BYTES).putLong(value);
+
+        return this;
+    }
+
+    /*
+     * Aggiunge un intero non negativo codificato con VarInt
+     */
+    public RecordWriter putVarInt(int value) {
+        VarInt.putInt(this.reserve(VarInt.MAX_BYTES), value);
+
+        return this;
+    }
+
+    /*
+     * Aggiunge un intero con segno codificato con VarInt
+     */
+    public RecordWriter putSignedVarInt(int value) {
+        VarInt.putSignedInt(this.reserve(VarInt.MAX_BYTES), value);
+
+        return this;
+    }
+
+    /*
+     * Aggiunge i byte rimanenti di un buffer
+     */
+    public RecordWriter put(ByteBuffer bytes) {
+        this.reserve(bytes.remaining()).put(bytes);
+
+        return this;
+    }
+    /*
+     * REQUIRES: bytes != null
+     * MODIFIES: this, bytes
+     * EFFECTS: aggiunge a this i byte rimanenti di bytes, che non ha più byte rimanenti
+     */
+
+    /*
+     * Aggiunge una stringa preceduta dalla lunghezza in byte
+     */
+    public RecordWriter putString(String value) {
+        // un char occupa al più 3 byte in UTF-8
+        Utf8.put(this.reserve(VarInt.MAX_BYTES + value.length() * 3), value);
+
+        return this;
+    }
+    /*
+     * REQUIRES: value != null
+     * MODIFIES: this
+     * EFFECTS: aggiunge a this la codifica di value scritta con Utf8
+     * THROWS: se value == null solleva una NullPointerException
+     */
+
+    /*
+     * Aggiunge un dato codificato con un DataCodec
+     */
+    public RecordWriter putData(DataCodec<?> codec, Data data) {
+        codec.encode(data, this.reserve(codec.maxSize(data)));
+
+        return this;
+    }
+    /*
+     * REQUIRES: codec != null && data != null
+     * MODIFIES: this
+     * EFFECTS: aggiunge a this la codifica di data scritta con codec
+     * THROWS: solleva le eccezioni sollevate da codec.encode
+     */
+
+    /*
+     * Restituisce il numero di byte scritti
+     */
+    public int size() {
+        return this.buffer.position();
+    }
+
+    /*
+     * Restituisce i byte scritti
+     */
+    public ByteBuffer toBuffer() {
+        ByteBuffer bytes = this.buffer.duplicate();
+        bytes.flip();
+
+        return bytes;
+    }
+    /*
+     * RETURNS: restituisce un buffer in sola lettura dei byte di this, che
+     *          non è più valido dopo la successiva modifica di this
+     */
+
+    /*
+     * Svuota il buffer
+     */
+    public void clear() {
+        this.buffer.clear();
+    }
+
+    // garantisce che ci sia spazio per altri bytes byte
+    private ByteBuffer reserve(int bytes) {
+        if (this.buffer.remaining() < bytes) {
+            int capacity = Math.max(this.buffer.capacity() << 1, this.buffer.position() + bytes);
+            ByteBuffer grown = ByteBuffer.allocate(capacity);
+
+            this.buffer.flip();
+            grown.put(this.buffer);
+            this.buffer = grown;
+        }
+
+        return this.buffer;
+    }
+}
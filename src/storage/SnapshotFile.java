@@ -0,0 +1,138 @@
+package storage;
+
+import interfaces.Data;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public final class SnapshotFile {
+    /*
+     * OVERVIEW: SnapshotFile scrive e carica le snapshot delle bacheche;
+     * la snapshot viene scritta in modo sequenziale in un file temporaneo
+     * che sostituisce in modo atomico quello precedente, e viene caricata
+     * mappando il file in memoria in una sola lettura
+     */
+
+    static final int MAGIC = 0x4442534e;
+
+    static final int VERSION = 2;
+
+    private SnapshotFile() {
+    }
+
+    /*
+     * Scrive la snapshot di una bacheca
+     */
+    public static void write(Path file, SnapshotImage<?> image, long lsn) throws IOException {
+        // validazione
+        if (file == null || image == null) {
+            throw new NullPointerException();
+        }
+
+        Path next = file.resolveSibling(file.getFileName() + ".next");
+
+        try (FileChannel channel = FileChannel.open(next, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            SnapshotWriter writer = new SnapshotWriter(channel, lsn);
+
+            image.write(writer);
+            writer.flush();
+            channel.force(true);
+        }
+
+        replace(next, file);
+    }
+    /*
+     * REQUIRES: file != null && image != null e image non è stata chiusa
+     * MODIFIES: file
+     * EFFECTS: scrive in file lo stato catturato in image, corrispondente all'LSN lsn;
+     *          se l'operazione viene interrotta file resta quello di prima,
+     *          quando termina la nuova snapshot è persistente
+     * THROWS: se file == null || image == null solleva una NullPointerException
+     *         se la scrittura fallisce solleva una IOException
+     */
+
+    /*
+     * Carica una snapshot in una bacheca
+     */
+    public static <E extends Data> long load(Path file, Snapshottable<E> dataBoard, DataFactory<E> factory)
+            throws IOException {
+        // validazione
+        if (file == null || dataBoard == null || factory == null) {
+            throw new NullPointerException();
+        }
+
+        MappedByteBuffer buffer;
+
+        // il buffer resta valido anche dopo aver chiuso il canale
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            SnapshotReader<E> reader = new SnapshotReader<>(buffer, factory);
+
+            dataBoard.loadSnapshot(reader);
+
+            if (reader.hasRemaining()) {
+                throw new IOException("Corrupted snapshot.");
+            }
+
+            return reader.lsn();
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Corrupted snapshot.", e);
+        }
+    }
+    /*
+     * REQUIRES: file != null && dataBoard != null && factory != null,
+     *           dataBoard non contiene categorie e file è più piccolo di 2GB
+     * MODIFIES: dataBoard
+     * EFFECTS: aggiunge a dataBoard le categorie ed i dati della snapshot
+     *          in file, creando i dati con factory
+     * RETURNS: restituisce l'LSN del log a cui corrisponde la snapshot
+     * THROWS: se file == null || dataBoard == null || factory == null solleva una NullPointerException
+     *         se la lettura fallisce o file non contiene una snapshot valida solleva una IOException
+     */
+
+    /*
+     * Sostituisce un file con un altro in modo atomico e persistente
+     */
+    static void replace(Path next, Path file) throws IOException {
+        Files.move(next, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        // la rinomina è nella directory, non nel file: senza
+        // l'fsync della directory un crash può riportare il
+        // vecchio file anche se il nuovo è già su disco
+        syncDirectory(file);
+    }
+    /*
+     * REQUIRES: next != null && file != null, next è nella directory di file
+     *           ed il suo contenuto è persistente
+     * MODIFIES: file, next
+     * EFFECTS: sostituisce file con next e rende persistente la sostituzione
+     * THROWS: se la rinomina o l'fsync falliscono solleva una IOException
+     */
+
+    /*
+     * Rende persistenti le voci della directory di un file
+     */
+    static void syncDirectory(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+    /*
+     * REQUIRES: file != null
+     * EFFECTS: attende che le creazioni e le rinomine nella
+     *          directory di file siano persistenti
+     * THROWS: se l'fsync fallisce solleva una IOException
+     */
+}
@@ -0,0 +1,224 @@
+package storage;
+
+import indexes.IntSet;
+import interfaces.Data;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class SnapshotImage<E extends Data> implements AutoCloseable {
+    /*
+     * OVERVIEW: una SnapshotImage è lo stato di una bacheca fissato in un
+     * istante, che può essere scritto in una snapshot mentre la bacheca
+     * continua ad essere modificata. La cattura copia solo i riferimenti
+     * ai dati ed i permessi delle categorie; i dati vengono copiati in modo
+     * copy-on-write: prima di modificare un dato, la bacheca lo passa a
+     * preserve, che ne conserva lo stato al momento della cattura
+     *
+     * Elemento tipico: <{<c_1, readers_1>, ..., <c_m, readers_m>}, {data_1, ..., data_n}>
+     */
+
+    // numero di dati copiati con il lock preso da write
+    private static final int CHUNK = 1024;
+
+    // associa ad ogni categoria una copia dei suoi lettori
+    private LinkedHashMap<String, IntSet> categories;
+
+    // i dati della bacheca al momento della cattura
+    private List<E> data;
+
+    // lo stato al momento della cattura dei dati
+    // modificati dopo la cattura
+    private HashMap<E, E> saved;
+
+    // protegge saved e closed, preso da preserve e da write
+    // un blocco di dati alla volta
+    private final ReentrantLock lock;
+
+    // true se this è stata chiusa
+    private boolean closed;
+
+    /*
+     * AF: α(c) = <c.categories, { c.saved.containsKey(d) ? c.saved.get(d) : d | d in c.data }>
+     *
+     * IR: I(c) = c.lock != null
+     *              e se !c.closed, c.categories != null && c.data != null && c.saved != null
+     *              e i dati di c.data non in c.saved.keySet() non sono
+     *                  stati modificati dopo la cattura
+     */
+
+    /*
+     * inizializza this
+     */
+    public SnapshotImage(LinkedHashMap<String, IntSet> categories, List<E> data) {
+        // validazione
+        if (categories == null || data == null) {
+            throw new NullPointerException();
+        }
+
+        this.categories = categories;
+        this.data = data;
+        this.saved = new HashMap<>();
+        this.lock = new ReentrantLock();
+        this.closed = false;
+    }
+    /*
+     * REQUIRES: categories != null && data != null, categories associa ad ogni
+     *           categoria della bacheca una copia dei suoi lettori e data contiene
+     *           tutti i dati della bacheca; nessuno dei due viene più modificato
+     * EFFECTS: inizializza this con lo stato della bacheca in categories e data
+     * THROWS: se categories == null || data == null solleva una NullPointerException
+     */
+
+    /*
+     * Conserva lo stato di un dato prima che venga modificato
+     */
+    @SuppressWarnings("unchecked")
+    public void preserve(E item) {
+        this.lock.lock();
+
+        try {
+            if (!this.closed) {
+                // solo la prima modifica dopo la cattura conta
+                this.saved.putIfAbsent(item, (E) item.clone());
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+    /*
+     * REQUIRES: item != null è un dato della bacheca che sta per essere modificato
+     * MODIFIES: this
+     * EFFECTS: se this non è chiusa e item non è già stato conservato,
+     *          conserva una copia di item
+     */
+
+    /*
+     * Scrive lo stato catturato in una snapshot
+     */
+    @SuppressWarnings("unchecked")
+    public void write(SnapshotWriter writer) throws IOException {
+        // validazione
+        if (this.isClosed()) {
+            throw new IllegalStateException();
+        }
+
+        // la tabella contiene solo gli user usati dallo stato catturato
+        writer.writeUsers(this.users());
+        writer.writeCount(this.categories.size());
+
+        for (Map.Entry<String, IntSet> entry : this.categories.entrySet()) {
+            writer.writeCategory(entry.getKey(), entry.getValue());
+        }
+
+        writer.writeCount(this.data.size());
+
+        ArrayList<E> chunk = new ArrayList<>(CHUNK);
+
+        for (int from = 0; from < this.data.size(); from += CHUNK) {
+            int to = Math.min(from + CHUNK, this.data.size());
+
+            // copia un blocco di dati con il lock, così un dato non
+            // può essere modificato mentre viene copiato; la copia
+            // costa O(1) e la scrittura avviene senza lock
+            this.lock.lock();
+
+            try {
+                for (E item : this.data.subList(from, to)) {
+                    E copy = this.saved.get(item);
+                    chunk.add(copy != null ? copy : (E) item.clone());
+                }
+            } finally {
+                this.lock.unlock();
+            }
+
+            for (E item : chunk) {
+                writer.writeData(item);
+            }
+
+            chunk.clear();
+        }
+    }
+    /*
+     * REQUIRES: writer != null
+     * MODIFIES: writer
+     * EFFECTS: scrive in writer le categorie ed i dati come erano al momento
+     *          della cattura, anche se la bacheca viene modificata durante la
+     *          scrittura
+     * THROWS: se this è stata chiusa solleva una IllegalStateException
+     *         se la scrittura fallisce solleva una IOException
+     */
+
+    // restituisce gli id in UserRegistry degli user che possono
+    // leggere una categoria o hanno inserito un like ad un dato,
+    // come erano al momento della cattura
+    private IntSet users() {
+        IntSet users = new IntSet();
+
+        for (IntSet readers : this.categories.values()) {
+            readers.forEach(users::add);
+        }
+
+        for (int from = 0; from < this.data.size(); from += CHUNK) {
+            int to = Math.min(from + CHUNK, this.data.size());
+
+            // come in write, un dato non conservato non è
+            // stato modificato finché il lock è preso
+            this.lock.lock();
+
+            try {
+                for (E item : this.data.subList(from, to)) {
+                    E copy = this.saved.get(item);
+
+                    (copy != null ? copy : item).forEachLike(users::add);
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        return users;
+    }
+
+    /*
+     * Controlla se this è stata chiusa
+     */
+    public boolean isClosed() {
+        this.lock.lock();
+
+        try {
+            return this.closed;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /*
+     * Rilascia lo stato catturato
+     */
+    @Override
+    public void close() {
+        this.lock.lock();
+
+        try {
+            // la bacheca può tenere il riferimento a this,
+            // libera subito la memoria dello stato catturato
+            this.closed = true;
+            this.categories = null;
+            this.data = null;
+            this.saved = null;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+    /*
+     * MODIFIES: this
+     * EFFECTS: this non conserva più i dati modificati e non può più
+     *          essere scritta, le chiamate successive non hanno effetto
+     */
+}
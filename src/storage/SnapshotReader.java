@@ -0,0 +1,200 @@
+package storage;
+
+import codec.DataCodec;
+import codec.Dictionary;
+import codec.UserTable;
+import indexes.IntSet;
+import interfaces.Data;
+import models.UserRegistry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class SnapshotReader<E extends Data> {
+    /*
+     * OVERVIEW: uno SnapshotReader legge in ordine una snapshot scritta da
+     * uno SnapshotWriter, di solito mappata in memoria; gli id degli user
+     * della snapshot vengono tradotti negli id correnti di UserRegistry,
+     * che dipendono dagli user già registrati nel processo
+     */
+
+    private final RecordReader reader;
+
+    // l'LSN del log a cui corrisponde la snapshot
+    private final long lsn;
+
+    // associa ad ogni id della snapshot l'id in UserRegistry
+    private final UserTable users;
+
+    // le categorie lette, in ordine di indice
+    private final Dictionary categories;
+
+    private final DataCodec<E> codec;
+
+    /*
+     * AF: α(c) = i valori della snapshot che c.reader non ha ancora letto
+     *
+     * IR: I(c) = c.reader != null && c.users != null && c.categories != null
+     *              && c.codec != null
+     *              e c.codec usa c.categories e c.users
+     */
+
+    /*
+     * inizializza this
+     */
+    SnapshotReader(ByteBuffer buffer, DataFactory<E> factory) throws IOException {
+        this.reader = new RecordReader(buffer);
+        this.categories = new Dictionary();
+
+        if (this.reader.getInt() != SnapshotFile.MAGIC || this.reader.getInt() != SnapshotFile.VERSION) {
+            throw new IOException("Not a snapshot.");
+        }
+
+        this.lsn = this.reader.getLong();
+
+        // registra gli user della snapshot, gli id possono
+        // essere diversi da quelli con cui è stata scritta
+        UserRegistry registry = UserRegistry.getInstance();
+        int size = this.readCount();
+
+        this.users = new UserTable();
+
+        for (int id = 0; id < size; id++) {
+            // un nome ripetuto sposterebbe gli id successivi
+            if (this.users.add(registry.intern(this.readString())) != id) {
+                throw new IOException("Corrupted snapshot.");
+            }
+        }
+
+        this.codec = new DataCodec<>(this.categories, this.users, factory);
+    }
+    /*
+     * REQUIRES: buffer != null && factory != null
+     * MODIFIES: buffer
+     * EFFECTS: inizializza this, legge l'intestazione della snapshot
+     *          e registra in UserRegistry gli user della tabella
+     * THROWS: se buffer non contiene una snapshot solleva una IOException
+     */
+
+    /*
+     * Restituisce l'LSN del log a cui corrisponde la snapshot
+     */
+    public long lsn() {
+        return this.lsn;
+    }
+
+    /*
+     * Legge il numero di elementi di una sezione
+     */
+    public int readCount() throws IOException {
+        int count;
+
+        try {
+            count = this.reader.getVarInt();
+        } catch (IllegalStateException e) {
+            throw new IOException("Corrupted snapshot.", e);
+        }
+
+        if (count < 0) {
+            throw new IOException("Corrupted snapshot.");
+        }
+
+        return count;
+    }
+
+    /*
+     * Legge il nome di una categoria
+     */
+    public String readCategory() throws IOException {
+        String category = this.readString();
+
+        if (this.categories.indexOf(category) >= 0) {
+            throw new IOException("Corrupted snapshot.");
+        }
+
+        this.categories.add(category);
+
+        return category;
+    }
+    /*
+     * REQUIRES: il valore successivo è una categoria
+     * MODIFIES: this
+     * RETURNS: restituisce il nome della categoria, seguito
+     *          nella snapshot dagli user che la possono leggere
+     * THROWS: se la snapshot non è valida solleva una IOException
+     */
+
+    /*
+     * Legge gli user che possono leggere l'ultima categoria letta
+     */
+    public IntSet readReaders() throws IOException {
+        int count = this.readCount();
+        IntSet readers = new IntSet();
+        int id = 0;
+
+        // gli id sono codificati come differenza dal precedente
+        for (int i = 0; i < count; i++) {
+            id += this.readCount();
+            readers.add(this.translate(id));
+        }
+
+        return readers;
+    }
+    /*
+     * REQUIRES: il valore precedente è una categoria letta con readCategory
+     * MODIFIES: this
+     * RETURNS: restituisce l'insieme degli id in UserRegistry degli user
+     * THROWS: se la snapshot non è valida solleva una IOException
+     */
+
+    /*
+     * Legge un dato con i suoi like
+     */
+    public E readData() throws IOException {
+        E data;
+
+        try {
+            data = this.reader.getData(this.codec);
+        } catch (IllegalStateException e) {
+            throw new IOException("Corrupted snapshot.", e);
+        }
+
+        // ogni dato della snapshot appartiene ad una categoria
+        if (data.getCategory() == null) {
+            throw new IOException("Corrupted snapshot.");
+        }
+
+        return data;
+    }
+    /*
+     * REQUIRES: il valore successivo è un dato e tutte le categorie sono già state lette
+     * MODIFIES: this
+     * RETURNS: restituisce un nuovo dato creato con la factory, con la sua categoria ed i like
+     * THROWS: se la snapshot non è valida solleva una IOException
+     */
+
+    /*
+     * Controlla se ci sono ancora valori da leggere
+     */
+    public boolean hasRemaining() {
+        return this.reader.hasRemaining();
+    }
+
+    // legge una stringa scritta con RecordWriter.putString
+    private String readString() throws IOException {
+        try {
+            return this.reader.getString();
+        } catch (IllegalStateException e) {
+            throw new IOException("Corrupted snapshot.", e);
+        }
+    }
+
+    // traduce l'id di uno user della snapshot nell'id in UserRegistry
+    private int translate(int id) throws IOException {
+        if (id < 0 || id >= this.users.size()) {
+            throw new IOException("Corrupted snapshot.");
+        }
+
+        return this.users.get(id);
+    }
+}
@@ -0,0 +1,241 @@
+package storage;
+
+import codec.DataCodec;
+import codec.Dictionary;
+import codec.UserTable;
+import indexes.IntSet;
+import interfaces.Data;
+import models.UserRegistry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+public class SnapshotWriter {
+    /*
+     * OVERVIEW: uno SnapshotWriter scrive in modo sequenziale una snapshot
+     * di una bacheca: l'intestazione, la tabella dei soli user usati dalla
+     * bacheca, poi le categorie ed i dati scritti dalla bacheca. Nella
+     * snapshot gli user hanno id densi, la loro posizione nella tabella,
+     * così la tabella non dipende dagli altri user registrati nel processo
+     *
+     * Formato: magic (int), versione (int), LSN (long), numero di user (VarInt),
+     *          nomi degli user in ordine di id (Utf8), poi le sezioni della
+     *          bacheca; i numeri di elementi sono VarInt, gli user di una
+     *          categoria sono id della tabella ordinati codificati come
+     *          differenza dal precedente ed i dati sono codificati con
+     *          DataCodec, con gli indici delle categorie nell'ordine in cui
+     *          sono state scritte
+     */
+
+    // dimensione oltre la quale il buffer viene scritto nel file
+    private static final int BLOCK = 64 * 1024;
+
+    private final FileChannel channel;
+
+    private final RecordWriter buffer;
+
+    // la tabella degli user, l'indice di ogni user è il suo id nella
+    // snapshot, null finché la tabella non è stata scritta
+    private UserTable users;
+
+    // le categorie scritte
+    private final Dictionary categories;
+
+    // creato insieme alla tabella degli user
+    private DataCodec<Data> codec;
+
+    /*
+     * AF: α(c) = il contenuto del file di c.channel seguito dai byte di c.buffer
+     *
+     * IR: I(c) = c.channel != null && c.buffer != null && c.categories != null
+     *              e c.codec == null se e solo se c.users == null
+     *              e se c.users != null, c.codec usa c.categories e c.users
+     *                  e gli id di c.users sono in ordine crescente di indice
+     *              e c.buffer.size() < BLOCK dopo ogni scrittura
+     */
+
+    /*
+     * inizializza this
+     */
+    SnapshotWriter(FileChannel channel, long lsn) throws IOException {
+        this.channel = channel;
+        this.buffer = new RecordWriter();
+        this.categories = new Dictionary();
+
+        this.buffer.putInt(SnapshotFile.MAGIC).putInt(SnapshotFile.VERSION).putLong(lsn);
+    }
+    /*
+     * REQUIRES: channel != null è aperto in scrittura ed è vuoto
+     * MODIFIES: channel
+     * EFFECTS: inizializza this e scrive l'intestazione della snapshot con l'LSN lsn
+     */
+
+    /*
+     * Scrive la tabella degli user
+     */
+    public void writeUsers(IntSet ids) throws IOException {
+        // validazione
+        if (ids == null) {
+            throw new NullPointerException();
+        }
+
+        if (this.users != null) {
+            throw new IllegalStateException();
+        }
+
+        UserRegistry registry = UserRegistry.getInstance();
+        int[] sorted = ids.toArray();
+
+        // in ordine di id, così la traduzione in id
+        // della snapshot conserva l'ordine
+        Arrays.sort(sorted);
+        this.users = new UserTable();
+        this.codec = new DataCodec<>(this.categories, this.users, null);
+        this.buffer.putVarInt(sorted.length);
+
+        for (int id : sorted) {
+            this.users.add(id);
+            this.buffer.putString(registry.nameOf(id));
+            this.spill();
+        }
+    }
+    /*
+     * REQUIRES: ids != null contiene gli id in UserRegistry di tutti gli user
+     *           che possono leggere una categoria o hanno inserito un like ad
+     *           un dato della snapshot, e la tabella non è già stata scritta
+     * MODIFIES: this
+     * EFFECTS: scrive la tabella degli user di ids, l'id di ognuno nella snapshot
+     *          è la sua posizione in ordine crescente di id in UserRegistry
+     * THROWS: se ids == null solleva una NullPointerException
+     *         se la tabella è già stata scritta solleva una IllegalStateException
+     *         se la scrittura fallisce solleva una IOException
+     */
+
+    /*
+     * Scrive il numero di elementi di una sezione
+     */
+    public void writeCount(int count) throws IOException {
+        // validazione
+        if (count < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.buffer.putVarInt(count);
+        this.spill();
+    }
+    /*
+     * REQUIRES: count >= 0
+     * MODIFIES: this
+     * EFFECTS: scrive count, il numero di categorie o di dati che seguono
+     * THROWS: se count < 0 solleva una IllegalArgumentException
+     *         se la scrittura fallisce solleva una IOException
+     */
+
+    /*
+     * Scrive una categoria con gli user che la possono leggere
+     */
+    public void writeCategory(String category, IntSet readers) throws IOException {
+        // validazione
+        if (category == null || readers == null) {
+            throw new NullPointerException();
+        }
+
+        if (this.categories.indexOf(category) >= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.categories.add(category);
+
+        // gli id ordinati sono codificati come differenza dal precedente
+        int[] ids = readers.toArray();
+        int previous = 0;
+
+        Arrays.sort(ids);
+        this.buffer.putString(category).putVarInt(ids.length);
+
+        for (int id : ids) {
+            int user = this.userOf(id);
+
+            this.buffer.putVarInt(user - previous);
+            previous = user;
+        }
+
+        this.spill();
+    }
+    /*
+     * REQUIRES: category != null && readers != null, category non è già stata
+     *           scritta e readers contiene id di UserRegistry della tabella
+     * MODIFIES: this
+     * EFFECTS: scrive category e gli id nella snapshot degli user in readers
+     * THROWS: se category == null || readers == null solleva una NullPointerException
+     *         se category è già stata scritta solleva una IllegalArgumentException
+     *         se la tabella non è stata scritta o non contiene uno user
+     *             di readers solleva una IllegalStateException
+     *         se la scrittura fallisce solleva una IOException
+     */
+
+    /*
+     * Scrive un dato con i suoi like
+     */
+    public void writeData(Data data) throws IOException {
+        // validazione
+        if (data == null) {
+            throw new NullPointerException();
+        }
+
+        if (data.getCategory() == null) {
+            throw new IllegalArgumentException();
+        }
+
+        if (this.users == null) {
+            throw new IllegalStateException();
+        }
+
+        this.buffer.putData(this.codec, data);
+        this.spill();
+    }
+    /*
+     * REQUIRES: data != null e la categoria di data è già stata scritta
+     * MODIFIES: this
+     * EFFECTS: scrive id, body e categoria di data e gli id degli user
+     *          che hanno inserito un like
+     * THROWS: se data == null solleva una NullPointerException
+     *         se la categoria di data non è stata scritta solleva una IllegalArgumentException
+     *         se la tabella non è stata scritta o non contiene uno user
+     *             che ha inserito un like solleva una IllegalStateException
+     *         se la scrittura fallisce solleva una IOException
+     */
+
+    /*
+     * Scrive nel file i byte rimasti nel buffer
+     */
+    void flush() throws IOException {
+        ByteBuffer bytes = this.buffer.toBuffer();
+
+        while (bytes.hasRemaining()) {
+            this.channel.write(bytes);
+        }
+
+        this.buffer.clear();
+    }
+
+    // scrive il buffer nel file quando supera BLOCK byte
+    private void spill() throws IOException {
+        if (this.buffer.size() >= BLOCK) {
+            this.flush();
+        }
+    }
+
+    // traduce l'id in UserRegistry di uno user della tabella nel suo id nella snapshot
+    private int userOf(int id) {
+        int user = this.users != null ? this.users.indexOf(id) : -1;
+
+        if (user < 0) {
+            throw new IllegalStateException();
+        }
+
+        return user;
+    }
+}
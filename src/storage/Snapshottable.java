@@ -0,0 +1,45 @@
+package storage;
+
+import interfaces.Data;
+
+import java.io.IOException;
+
+public interface Snapshottable<E extends Data> {
+    /*
+     * OVERVIEW: una bacheca Snapshottable può catturare il proprio stato per
+     * scriverlo in una snapshot mentre continua ad essere modificata, e può
+     * ricostruirlo direttamente dalla snapshot, senza passare dai metodi
+     * pubblici della bacheca e dai loro controlli
+     */
+
+    /*
+     * Cattura lo stato di this per scriverlo in una snapshot
+     */
+    public SnapshotImage<E> captureSnapshot();
+    /*
+     * REQUIRES: this non viene modificata durante la chiamata e non
+     *           ci sono altre immagini di this non ancora chiuse
+     * MODIFIES: this
+     * EFFECTS: cattura le categorie di this, con i permessi di lettura, ed i
+     *          dati, con i like; dopo la chiamata this può essere modificata,
+     *          finché l'immagine non viene chiusa this le passa i dati prima
+     *          di modificarli
+     * RETURNS: restituisce l'immagine dello stato di this, da chiudere
+     *          quando non serve più
+     * THROWS: se c'è un'altra immagine di this non ancora chiusa
+     *         solleva una IllegalStateException
+     */
+
+    /*
+     * Ricostruisce this da una snapshot
+     */
+    public void loadSnapshot(SnapshotReader<E> reader) throws IOException;
+    /*
+     * REQUIRES: reader != null e this non contiene categorie
+     * MODIFIES: this, reader
+     * EFFECTS: aggiunge a this le categorie ed i dati letti da reader,
+     *          nell'ordine in cui li ha scritti l'immagine
+     * THROWS: se this contiene già delle categorie solleva una IllegalStateException
+     *         se la snapshot non è valida solleva una IOException
+     */
+}
@@ -0,0 +1,452 @@
+package storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+public class WriteAheadLog implements AutoCloseable {
+    /*
+     * OVERVIEW: un WriteAheadLog è una sequenza di record scritti in coda ad un
+     * file; ogni record ha una posizione (LSN) che cresce con i record scritti.
+     * I record aggiunti da più thread vengono resi persistenti insieme con un
+     * solo fsync (group commit): mentre un thread esegue l'fsync gli altri
+     * accodano i propri record, che verranno scritti dal fsync successivo
+     *
+     * Elemento tipico: <base, <r_1, ..., r_n>> dove base è l'LSN
+     *                  che precede il primo record
+     *
+     * Dopo l'apertura il log va riletto con replay prima di aggiungere
+     * record, così viene scartata la coda scritta solo in parte
+     *
+     * Formato del file: magic (int), base (long), poi per ogni record
+     *                   lunghezza (int), CRC32 del contenuto (int), contenuto
+     */
+
+    private static final int MAGIC = 0x4442574c;
+
+    private static final int HEADER = Integer.BYTES + Long.BYTES;
+
+    private static final int FRAME = Integer.BYTES + Integer.BYTES;
+
+    private final Path file;
+
+    private FileChannel channel;
+
+    // l'LSN che precede il primo record del file
+    private long base;
+
+    // la dimensione del file, modificata solo dal thread che esegue l'fsync
+    private long end;
+
+    // protegge i campi seguenti
+    private final ReentrantLock lock;
+
+    // segnalata al termine di ogni fsync
+    private final Condition synced;
+
+    // i record aggiunti e non ancora scritti nel file
+    private RecordWriter pending;
+
+    // il buffer scritto dal fsync in corso, riusato da quello successivo
+    private RecordWriter spare;
+
+    // l'LSN dopo l'ultimo record aggiunto
+    private long appended;
+
+    // l'LSN dopo l'ultimo record persistente
+    private long durable;
+
+    // true se un thread sta eseguendo l'fsync
+    private boolean syncing;
+
+    // numero di fsync eseguiti
+    private long syncs;
+
+    // l'errore dell'ultima scrittura fallita, dopo un
+    // errore nessun record può più diventare persistente
+    private IOException failure;
+
+    /*
+     * AF: α(c) = <c.base, i record del file seguiti da quelli di c.pending>
+     *
+     * IR: I(c) = c.channel != null && c.lock != null && c.pending != null && c.spare != null
+     *              e c.end == c.channel.size() quando nessun fsync è in corso
+     *              e c.base + c.end - HEADER <= c.appended
+     *              e c.durable <= c.appended
+     *              e i record con LSN <= c.durable sono scritti nel file e
+     *                  resi persistenti con force
+     */
+
+    /*
+     * inizializza this
+     */
+    public WriteAheadLog(Path file) throws IOException {
+        this(file, 0);
+    }
+    /*
+     * REQUIRES: file != null
+     * EFFECTS: apre il log contenuto in file, creandolo vuoto se non esiste
+     * THROWS: se file non contiene un log solleva una IOException
+     */
+
+    /*
+     * inizializza this
+     */
+    public WriteAheadLog(Path file, long base) throws IOException {
+        this.file = file;
+        this.lock = new ReentrantLock();
+        this.synced = this.lock.newCondition();
+        this.pending = new RecordWriter();
+        this.spare = new RecordWriter();
+
+        if (!Files.exists(file)) {
+            create(file, base);
+
+            // i record resi persistenti nel nuovo log non
+            // devono sparire insieme alla sua voce nella directory
+            SnapshotFile.syncDirectory(file);
+        }
+
+        this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.base = this.readHeader();
+        this.end = this.channel.size();
+        this.appended = this.base + this.end - HEADER;
+        this.durable = this.appended;
+    }
+    /*
+     * REQUIRES: file != null && base >= 0
+     * EFFECTS: apre il log contenuto in file, creandolo vuoto con base
+     *          base se non esiste; se esiste base viene ignorato
+     * THROWS: se file non contiene un log solleva una IOException
+     */
+
+    /*
+     * Rilegge i record del log
+     */
+    public void replay(long from, Consumer<ByteBuffer> consumer) throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(FRAME);
+        long position = HEADER;
+        long size = this.channel.size();
+        CRC32 crc = new CRC32();
+
+        while (position + FRAME <= size) {
+            frame.clear();
+            readFully(this.channel, frame, position);
+            frame.flip();
+
+            int length = frame.getInt();
+            int checksum = frame.getInt();
+
+            // un record scritto solo in parte, l'ultima
+            // scrittura è stata interrotta da un crash
+            if (length < 0 || position + FRAME + length > size) {
+                break;
+            }
+
+            ByteBuffer record = ByteBuffer.allocate(length);
+            readFully(this.channel, record, position + FRAME);
+            record.flip();
+
+            crc.reset();
+            crc.update(record.duplicate());
+
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+
+            position += FRAME + length;
+
+            // il record è già contenuto nella snapshot
+            if (this.base + position - HEADER <= from) {
+                continue;
+            }
+
+            consumer.accept(record);
+        }
+
+        // scarta la coda non valida, così i nuovi
+        // record vengono scritti dopo l'ultimo valido
+        if (position < size) {
+            this.channel.truncate(position);
+            this.channel.force(true);
+        }
+
+        this.end = position;
+        this.appended = this.base + position - HEADER;
+        this.durable = this.appended;
+    }
+    /*
+     * REQUIRES: consumer != null e nessun record è stato aggiunto a this
+     * MODIFIES: this
+     * EFFECTS: passa a consumer, in ordine, il contenuto dei record con LSN > from;
+     *          scarta i record che seguono il primo record incompleto o corrotto
+     * THROWS: se la lettura del file fallisce solleva una IOException
+     */
+
+    /*
+     * Aggiunge un record al log
+     */
+    public long append(ByteBuffer record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.duplicate());
+
+        this.lock.lock();
+
+        try {
+            int length = record.remaining();
+
+            this.pending.putInt(length).putInt((int) crc.getValue()).put(record);
+            this.appended += FRAME + length;
+
+            return this.appended;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+    /*
+     * REQUIRES: record != null
+     * MODIFIES: this, record
+     * EFFECTS: aggiunge i byte rimanenti di record in coda a this,
+     *          il record non è persistente finché non viene chiamato sync
+     * RETURNS: restituisce l'LSN del record
+     */
+
+    /*
+     * Attende che un record sia persistente
+     */
+    public void sync(long lsn) {
+        this.lock.lock();
+
+        try {
+            while (this.durable < lsn) {
+                if (this.failure != null) {
+                    throw new UncheckedIOException(this.failure);
+                }
+
+                // un altro thread sta già eseguendo l'fsync, il record
+                // verrà reso persistente da questo o dal successivo
+                if (this.syncing) {
+                    this.synced.awaitUninterruptibly();
+
+                    continue;
+                }
+
+                this.flush();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+    /*
+     * MODIFIES: this
+     * EFFECTS: termina quando tutti i record con LSN <= lsn sono persistenti
+     * THROWS: se la scrittura del log fallisce solleva una UncheckedIOException
+     */
+
+    // scrive e rende persistenti tutti i record aggiunti, l'fsync
+    // viene eseguito senza lock così gli altri thread possono
+    // continuare ad aggiungere record; richiede lock
+    private void flush() {
+        RecordWriter batch = this.pending;
+        long target = this.appended;
+
+        this.pending = this.spare;
+        this.syncing = true;
+        this.lock.unlock();
+
+        IOException error = null;
+
+        try {
+            ByteBuffer bytes = batch.toBuffer();
+
+            while (bytes.hasRemaining()) {
+                this.end += this.channel.write(bytes, this.end);
+            }
+
+            this.channel.force(false);
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            this.lock.lock();
+        }
+
+        batch.clear();
+        this.spare = batch;
+        this.syncing = false;
+        this.syncs++;
+
+        if (error != null) {
+            this.failure = error;
+        } else {
+            this.durable = target;
+        }
+
+        this.synced.signalAll();
+    }
+
+    /*
+     * Verifica che il log possa ancora rendere persistenti dei record
+     */
+    public void checkUsable() {
+        this.lock.lock();
+
+        try {
+            if (this.failure != null) {
+                throw new UncheckedIOException(this.failure);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+    /*
+     * EFFECTS: termina normalmente se nessuna scrittura di this è fallita
+     * THROWS: se una scrittura del log è fallita solleva una
+     *         UncheckedIOException con l'errore della scrittura
+     */
+
+    /*
+     * Restituisce l'LSN dopo l'ultimo record aggiunto
+     */
+    public long position() {
+        this.lock.lock();
+
+        try {
+            return this.appended;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /*
+     * Restituisce il numero di fsync eseguiti
+     */
+    public long syncs() {
+        this.lock.lock();
+
+        try {
+            return this.syncs;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /*
+     * Scarta i record fino ad un LSN
+     */
+    public void truncate(long lsn) throws IOException {
+        this.lock.lock();
+
+        try {
+            // validazione
+            if (lsn < this.base || lsn > this.durable) {
+                throw new IllegalStateException();
+            }
+
+            // attendi che l'fsync in corso abbia finito di scrivere nel
+            // file, il successivo non può iniziare finché c'è il lock
+            while (this.syncing) {
+                this.synced.awaitUninterruptibly();
+            }
+
+            // crea il nuovo log a parte con i record successivi
+            // a lsn e sostituiscilo in modo atomico a quello corrente
+            Path next = this.file.resolveSibling(this.file.getFileName() + ".next");
+            long from = HEADER + lsn - this.base;
+
+            create(next, lsn);
+
+            try (FileChannel channel = FileChannel.open(next, StandardOpenOption.WRITE)) {
+                long length = this.end - from;
+                long copied = 0;
+
+                while (copied < length) {
+                    copied += this.channel.transferTo(from + copied, length - copied,
+                            channel.position(HEADER + copied));
+                }
+
+                channel.force(true);
+            }
+
+            SnapshotFile.replace(next, this.file);
+
+            this.channel.close();
+            this.channel = FileChannel.open(this.file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.end = HEADER + this.end - from;
+            this.base = lsn;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+    /*
+     * REQUIRES: lsn è la posizione di un record di this e tutti i
+     *           record con LSN <= lsn sono persistenti
+     * MODIFIES: this
+     * EFFECTS: scarta i record con LSN <= lsn, la base di this diventa
+     *          lsn; se l'operazione viene interrotta il log resta quello
+     *          di prima, quando termina il nuovo log è persistente. I record
+     *          aggiunti dopo lsn restano nel log ed i loro LSN non cambiano
+     * THROWS: se lsn precede la base di this o ci sono record non persistenti
+     *         fino a lsn solleva una IllegalStateException
+     *         se la scrittura del file fallisce solleva una IOException
+     */
+
+    @Override
+    public void close() throws IOException {
+        this.sync(this.position());
+        this.channel.close();
+    }
+
+    // legge l'header del file e restituisce la base
+    private long readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+
+        if (this.channel.size() < HEADER) {
+            throw new IOException("Not a write-ahead log: " + this.file);
+        }
+
+        readFully(this.channel, header, 0);
+        header.flip();
+
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a write-ahead log: " + this.file);
+        }
+
+        return header.getLong();
+    }
+
+    // crea un log vuoto con base base
+    private static void create(Path file, long base) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER).putInt(MAGIC).putLong(base);
+            header.flip();
+
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+
+            channel.force(true);
+        }
+    }
+
+    // legge da channel a partire da position finché buffer non è pieno
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+
+            if (read < 0) {
+                throw new IOException("Unexpected end of file.");
+            }
+
+            position += read;
+        }
+    }
+}
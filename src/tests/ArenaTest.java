@@ -0,0 +1,142 @@
+package tests;
+
+import exceptions.*;
+import interfaces.Data;
+import interfaces.DataBoard;
+import models.BodyArena;
+import models.MyData;
+
+public class ArenaTest<E extends DataBoard<Data>> extends AbstractTest<E> {
+    private final String categoryName;
+
+    private final String body;
+
+    private final BodyArena arena;
+
+    // Assegna dataBoard e password,
+    // inizializza categoryName, body e l'arena
+    public ArenaTest(E dataBoard, String password) {
+        super(dataBoard, password);
+
+        this.categoryName = "test_category";
+        this.body = "Lorem ipsum \u00e8 \uD83D\uDE00";
+        this.arena = new BodyArena();
+    }
+
+    // questo metodo è chiamato dopo ogni test
+    // ed elimina la categoria e i dati creati
+    // (resetta lo stato dell'esecuzione)
+    private void afterAll() {
+        String methodName = AbstractTest.getCurrentMethodName();
+
+        if (this.dataBoard.hasCategory(this.categoryName)) {
+            try {
+                this.dataBoard.removeCategory(this.categoryName, this.password);
+            } catch (UnauthorizedAccessException e) {
+                throw new TestException(methodName, "Can't remove category \"" + this.categoryName + "\".");
+            }
+        }
+    }
+
+    public void we_can_read_the_body_of_a_data_stored_off_heap()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        // inserisci un dato con il body nell'arena e
+        // cercalo con un dato con il body sullo heap
+        try {
+            this.dataBoard.createCategory(this.categoryName, this.password);
+            this.dataBoard.put(this.password, new MyData(1, this.body, this.arena), this.categoryName);
+
+            Data stored = this.dataBoard.get(this.password, new MyData(1, this.body));
+
+            if (!this.body.equals(stored.getBody())) {
+                throw new TestException(testName, "The body read from the arena is different.");
+            }
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_read_a_removed_data_after_its_body_is_released()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+        long size = this.arena.size();
+
+        try {
+            this.dataBoard.createCategory(this.categoryName, this.password);
+            this.dataBoard.put(this.password, new MyData(2, this.body, this.arena), this.categoryName);
+
+            // una copia ottenuta prima della rimozione
+            // condivide il body con il dato della bacheca
+            Data copy = this.dataBoard.get(this.password, new MyData(2, this.body));
+            Data removed = this.dataBoard.remove(this.password, copy);
+
+            if (this.arena.size() != size) {
+                throw new TestException(testName, "The body of the removed data was not released.");
+            }
+
+            if (!this.body.equals(copy.getBody()) || !this.body.equals(removed.getBody())) {
+                throw new TestException(testName, "The body of the removed data is lost.");
+            }
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_compact_the_arena_after_removing_data()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+        int size = 4000;
+        String padding = "x".repeat(1000);
+        long compactions = this.arena.compactions();
+
+        // riempi alcune pagine dell'arena,
+        // poi rimuovi tre dati su quattro
+        try {
+            this.dataBoard.createCategory(this.categoryName, this.password);
+
+            for (int i = 0; i < size; i++) {
+                this.dataBoard.put(this.password, new MyData(100 + i, i + padding, this.arena), this.categoryName);
+            }
+
+            for (int i = 0; i < size; i++) {
+                if (i % 4 != 0) {
+                    this.dataBoard.remove(this.password, new MyData(100 + i, i + padding));
+                }
+            }
+
+            if (this.arena.compactions() == compactions) {
+                throw new TestException(testName, "The arena was not compacted.");
+            }
+
+            // i body spostati dalla compattazione sono ancora leggibili
+            for (int i = 0; i < size; i += 4) {
+                Data item = this.dataBoard.get(this.password, new MyData(100 + i, i + padding));
+
+                if (!item.getBody().equals(i + padding)) {
+                    throw new TestException(testName, "A body moved by the compaction is different.");
+                }
+            }
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        this.afterAll();
+
+        // la categoria rimossa ha rilasciato tutti i body
+        if (this.arena.size() != 0) {
+            throw new TestException(testName, "The bodies of the removed category were not released.");
+        }
+
+        AbstractTest.printSuccess(testName);
+    }
+}
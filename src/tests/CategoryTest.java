@@ -77,7 +77,7 @@ public class CategoryTest<E extends DataBoard<Data>> extends AbstractTest<E> {
 
         // prova a creare la categoria con una psw errata
         try {
-            this.dataBoard.createCategory(this.categoryName, null);
+            this.dataBoard.createCategory(this.categoryName, (String) null);
         } catch (UnauthorizedAccessException e) {
             AbstractTest.printSuccess(testName);
 
@@ -166,7 +166,7 @@ public class CategoryTest<E extends DataBoard<Data>> extends AbstractTest<E> {
 
         // prova a rimuovere una categoria con una psw errata
         try {
-            this.dataBoard.removeCategory(this.categoryName, null);
+            this.dataBoard.removeCategory(this.categoryName, (String) null);
         } catch (UnauthorizedAccessException e) {
             AbstractTest.printSuccess(testName);
 
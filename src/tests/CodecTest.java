@@ -0,0 +1,198 @@
+package tests;
+
+import codec.DataCodec;
+import codec.Dictionary;
+import codec.UserTable;
+import codec.Utf8;
+import codec.VarInt;
+import exceptions.*;
+import interfaces.Data;
+import interfaces.DataBoard;
+import interfaces.User;
+import models.MyData;
+import models.UserRegistry;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+
+public class CodecTest<E extends DataBoard<Data>> extends AbstractTest<E> {
+    private final String categoryName;
+
+    private final String friendName;
+
+    private final String otherFriendName;
+
+    private final Data data;
+
+    // Assegna dataBoard e password,
+    // inizializza categoryName, i friend e data
+    public CodecTest(E dataBoard, String password) {
+        super(dataBoard, password);
+
+        this.categoryName = "test_category";
+        this.friendName = "friend";
+        this.otherFriendName = "other_friend";
+        this.data = new MyData(-42, "Lorem ipsum \u00e8 \uD83D\uDE00");
+    }
+
+    // questo metodo è chiamato dopo ogni test
+    // ed elimina la categoria e i dati creati
+    // (resetta lo stato dell'esecuzione)
+    private void afterAll() {
+        String methodName = AbstractTest.getCurrentMethodName();
+
+        if (this.dataBoard.hasCategory(this.categoryName)) {
+            try {
+                this.dataBoard.removeCategory(this.categoryName, this.password);
+            } catch (UnauthorizedAccessException e) {
+                throw new TestException(methodName, "Can't remove category \"" + this.categoryName + "\".");
+            }
+        }
+    }
+
+    // crea un codec con la categoria ed i friend dei test
+    private DataCodec<Data> codec() {
+        Dictionary categories = new Dictionary();
+        UserTable users = new UserTable();
+        UserRegistry registry = UserRegistry.getInstance();
+
+        categories.add(this.categoryName);
+        users.add(registry.intern(this.otherFriendName));
+        users.add(registry.intern(this.friendName));
+
+        return new DataCodec<>(categories, users, MyData::new);
+    }
+
+    // restituisce i nomi degli user che hanno inserito un like a data
+    private static HashSet<String> likes(Data data) {
+        HashSet<String> names = new HashSet<>();
+
+        for (User user : data.getLikes()) {
+            names.add(user.getName());
+        }
+
+        return names;
+    }
+
+    public void we_can_encode_and_decode_the_data_of_a_board()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+        Data stored;
+
+        // inserisci un dato con due like e leggilo dalla bacheca
+        try {
+            this.dataBoard.createCategory(this.categoryName, this.password);
+            this.dataBoard.addFriend(this.categoryName, this.password, this.friendName);
+            this.dataBoard.addFriend(this.categoryName, this.password, this.otherFriendName);
+            this.dataBoard.put(this.password, this.data, this.categoryName);
+            this.dataBoard.insertLike(this.friendName, this.data);
+            this.dataBoard.insertLike(this.otherFriendName, this.data);
+
+            stored = this.dataBoard.get(this.password, this.data);
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        DataCodec<Data> codec = this.codec();
+        ByteBuffer buffer = ByteBuffer.allocate(codec.maxSize(stored));
+
+        codec.encode(stored, buffer);
+        buffer.flip();
+
+        Data decoded = codec.decode(buffer);
+
+        if (buffer.hasRemaining()) {
+            throw new TestException(testName, "The data was not entirely decoded.");
+        }
+
+        if (!decoded.equals(stored) || !decoded.getBody().equals(stored.getBody())
+                || !this.categoryName.equals(decoded.getCategory())) {
+            throw new TestException(testName, "The decoded data is different.");
+        }
+
+        if (!likes(decoded).equals(likes(stored)) || decoded.getLikeCount() != 2) {
+            throw new TestException(testName, "The decoded likes are different.");
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_encode_integers_and_strings_of_any_size()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+        int[] values = {0, 1, 63, 64, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1, -64, -65, Integer.MIN_VALUE};
+        String[] strings = {"", "Lorem ipsum", "è", "€", "😀", "a\uD800b"};
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+        for (int value : values) {
+            VarInt.putInt(buffer, value);
+            VarInt.putSignedInt(buffer, value);
+        }
+
+        for (String value : strings) {
+            Utf8.put(buffer, value);
+        }
+
+        buffer.flip();
+
+        for (int value : values) {
+            int start = buffer.position();
+
+            if (VarInt.getInt(buffer) != value || buffer.position() - start != VarInt.size(value)) {
+                throw new TestException(testName, "The varint " + value + " was not decoded.");
+            }
+
+            start = buffer.position();
+
+            if (VarInt.getSignedInt(buffer) != value || buffer.position() - start != VarInt.signedSize(value)) {
+                throw new TestException(testName, "The signed varint " + value + " was not decoded.");
+            }
+        }
+
+        for (String value : strings) {
+            int start = buffer.position();
+            String decoded = Utf8.get(buffer);
+
+            // un surrogato isolato viene codificato come '?'
+            String expected = new String(value.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+
+            if (!decoded.equals(expected) || buffer.position() - start != Utf8.size(value)) {
+                throw new TestException(testName, "The string \"" + value + "\" was not decoded.");
+            }
+        }
+
+        AbstractTest.printSuccess(testName);
+    }
+
+    public void we_can_not_decode_a_truncated_data()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+        DataCodec<Data> codec = this.codec();
+        Data item = this.data.clone();
+
+        item.setCategory(this.categoryName);
+        item.insertLike(this.friendName);
+
+        ByteBuffer buffer = ByteBuffer.allocate(codec.maxSize(item));
+
+        codec.encode(item, buffer);
+        buffer.flip();
+
+        // togli l'ultimo byte della codifica
+        buffer.limit(buffer.limit() - 1);
+
+        try {
+            codec.decode(buffer);
+        } catch (BufferUnderflowException | IllegalStateException e) {
+            AbstractTest.printSuccess(testName);
+
+            return;
+        }
+
+        throw new TestException(testName, "A truncated data was decoded.");
+    }
+}
@@ -0,0 +1,311 @@
+package tests;
+
+import exceptions.*;
+import interfaces.Data;
+import interfaces.DataBoard;
+import models.MyData;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConcurrencyTest<E extends DataBoard<Data>> extends AbstractTest<E> {
+    private final String categoryName;
+
+    private final Data data;
+
+    // numero di thread che usano la bacheca contemporaneamente
+    private final int threads;
+
+    // Assegna dataBoard e password,
+    // inizializza categoryName, data e threads
+    public ConcurrencyTest(E dataBoard, String password) {
+        super(dataBoard, password);
+
+        this.categoryName = "concurrency_category";
+        this.data = new MyData(1, "Lorem ipsum");
+        this.threads = 8;
+    }
+
+    // questo metodo è chiamato dopo ogni test
+    // ed elimina la categoria e i dati creati
+    // (resetta lo stato dell'esecuzione)
+    private void afterAll() {
+        String methodName = AbstractTest.getCurrentMethodName();
+
+        if (this.dataBoard.hasCategory(this.categoryName)) {
+            try {
+                this.dataBoard.removeCategory(this.categoryName, this.password);
+            } catch (UnauthorizedAccessException e) {
+                throw new TestException(methodName, "Can't remove category \"" + this.categoryName + "\".");
+            }
+        }
+    }
+
+    // esegue task su this.threads thread e attende che terminino,
+    // restituisce la prima eccezione inattesa sollevata, null se nessuna
+    private Throwable runAll(Runnable task) {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        ArrayList<Thread> workers = new ArrayList<>();
+
+        for (int i = 0; i < this.threads; i++) {
+            Thread worker = new Thread(task);
+
+            worker.setUncaughtExceptionHandler((thread, e) -> failure.compareAndSet(null, e));
+            workers.add(worker);
+            worker.start();
+        }
+
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                return e;
+            }
+        }
+
+        return failure.get();
+    }
+
+    public void we_can_insert_likes_to_the_same_data_from_many_threads()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+        ArrayList<String> friends = new ArrayList<>();
+
+        for (int i = 0; i < 64; i++) {
+            friends.add("concurrency_friend_" + i);
+        }
+
+        try {
+            this.dataBoard.createCategory(this.categoryName, this.password);
+            this.dataBoard.addFriends(this.categoryName, this.password, friends);
+            this.dataBoard.put(this.password, this.data, this.categoryName);
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        AtomicInteger inserted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        // ogni thread prova ad inserire il like di ogni friend,
+        // solo uno per friend deve essere accettato
+        Throwable failure = this.runAll(() -> {
+            for (String friend : friends) {
+                try {
+                    this.dataBoard.insertLike(friend, this.data);
+                    inserted.incrementAndGet();
+                } catch (FriendAlreadyAddedException e) {
+                    rejected.incrementAndGet();
+                } catch (UnauthorizedAccessException e) {
+                    throw new TestException(testName);
+                }
+            }
+        });
+
+        if (failure != null) {
+            throw new TestException(testName, "A thread failed: " + failure);
+        }
+
+        if (inserted.get() != friends.size() || rejected.get() != friends.size() * (this.threads - 1)) {
+            throw new TestException(testName, "A friend inserted a like twice or a like was lost.");
+        }
+
+        try {
+            Data item = this.dataBoard.get(this.password, this.data);
+
+            if (item.getLikeCount() != friends.size() || this.dataBoard.getLikes(this.data).size() != friends.size()) {
+                throw new TestException(testName, "The like count is wrong.");
+            }
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_read_our_own_like_while_other_likes_are_delivered()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+        int likes = 200;
+        ArrayList<String> friends = new ArrayList<>();
+
+        for (int i = 0; i < this.threads * likes; i++) {
+            friends.add("concurrency_friend_" + i);
+        }
+
+        try {
+            this.dataBoard.createCategory(this.categoryName, this.password);
+            this.dataBoard.addFriends(this.categoryName, this.password, friends);
+            this.dataBoard.put(this.password, this.data, this.categoryName);
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        AtomicInteger workers = new AtomicInteger();
+        AtomicInteger missing = new AtomicInteger();
+
+        // ogni thread inserisce i propri like e subito dopo legge il
+        // dato, mentre gli altri thread consegnano i loro like
+        Throwable failure = this.runAll(() -> {
+            int worker = workers.getAndIncrement();
+
+            try {
+                for (int i = 0; i < likes; i++) {
+                    String friend = friends.get(worker * likes + i);
+
+                    this.dataBoard.insertLike(friend, this.data);
+
+                    if (!this.dataBoard.get(this.password, this.data).hasLiked(friend)) {
+                        missing.incrementAndGet();
+                    }
+                }
+            } catch (UnauthorizedAccessException e) {
+                throw new TestException(testName);
+            }
+        });
+
+        if (failure != null) {
+            throw new TestException(testName, "A thread failed: " + failure);
+        }
+
+        if (missing.get() != 0) {
+            throw new TestException(testName, "A read did not see a like inserted before it.");
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_read_data_while_other_data_is_put_and_removed()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        try {
+            this.dataBoard.createCategory(this.categoryName, this.password);
+            this.dataBoard.put(this.password, this.data, this.categoryName);
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        AtomicInteger writers = new AtomicInteger();
+        AtomicInteger wrong = new AtomicInteger();
+
+        // un thread inserisce e rimuove altri dati della stessa
+        // categoria, gli altri leggono sempre lo stesso dato
+        Throwable failure = this.runAll(() -> {
+            try {
+                if (writers.getAndIncrement() == 0) {
+                    for (int id = 1000; id < 3000; id++) {
+                        Data other = new MyData(id, "Dolor sit amet");
+
+                        this.dataBoard.put(this.password, other, this.categoryName);
+                        this.dataBoard.remove(this.password, other);
+                    }
+
+                    return;
+                }
+
+                for (int round = 0; round < 2000; round++) {
+                    if (!this.dataBoard.hasData(this.data)
+                            || !this.data.equals(this.dataBoard.get(this.password, this.data))
+                            || !this.data.getBody().equals(this.dataBoard.getView(this.password, this.data).getBody())) {
+                        wrong.incrementAndGet();
+                    }
+                }
+            } catch (UnauthorizedAccessException e) {
+                throw new TestException(testName);
+            }
+        });
+
+        if (failure != null) {
+            throw new TestException(testName, "A thread failed: " + failure);
+        }
+
+        if (wrong.get() != 0) {
+            throw new TestException(testName, "A read saw the board while it was modified.");
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_iterate_the_board_while_likes_are_inserted()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+        int size = 50;
+        ArrayList<String> friends = new ArrayList<>();
+
+        for (int i = 0; i < 40; i++) {
+            friends.add("concurrency_friend_" + i);
+        }
+
+        try {
+            this.dataBoard.createCategory(this.categoryName, this.password);
+            this.dataBoard.addFriends(this.categoryName, this.password, friends);
+
+            for (int id = 1; id <= size; id++) {
+                this.dataBoard.put(this.password, new MyData(id, "Lorem ipsum " + id), this.categoryName);
+            }
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        AtomicInteger writers = new AtomicInteger();
+        AtomicInteger incomplete = new AtomicInteger();
+
+        // un thread inserisce like che spostano i dati in testa
+        // all'indice dei like, gli altri scorrono la bacheca
+        Throwable failure = this.runAll(() -> {
+            if (writers.getAndIncrement() == 0) {
+                for (String friend : friends) {
+                    for (int id = size; id >= 1; id--) {
+                        try {
+                            this.dataBoard.insertLike(friend, new MyData(id, "Lorem ipsum " + id));
+                        } catch (UnauthorizedAccessException e) {
+                            throw new TestException(testName);
+                        }
+                    }
+                }
+
+                return;
+            }
+
+            for (int round = 0; round < 200; round++) {
+                int count = 0;
+
+                try {
+                    for (Iterator<Data> iterator = this.dataBoard.getIterator(this.password); iterator.hasNext(); ) {
+                        iterator.next();
+                        count++;
+                    }
+                } catch (UnauthorizedAccessException e) {
+                    throw new TestException(testName);
+                }
+
+                // ogni visita vede tutti i dati, nessuno perso fra due versioni
+                if (count != size) {
+                    incomplete.incrementAndGet();
+                }
+            }
+        });
+
+        if (failure != null) {
+            throw new TestException(testName, "A thread failed: " + failure);
+        }
+
+        if (incomplete.get() != 0) {
+            throw new TestException(testName, "An iterator missed some data while likes were inserted.");
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+}
@@ -3,10 +3,14 @@ package tests;
 import exceptions.*;
 import interfaces.Data;
 import interfaces.DataBoard;
+import interfaces.ReadOnlyData;
 import interfaces.User;
+import models.LikeEvent;
 import models.MyData;
 import models.MyUser;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class DataTest<E extends DataBoard<Data>> extends AbstractTest<E> {
@@ -343,6 +347,49 @@ public class DataTest<E extends DataBoard<Data>> extends AbstractTest<E> {
         this.afterAll();
     }
 
+    public void we_can_not_modify_a_data_through_its_copy()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        this.beforeLike();
+
+        // la categoria e il dato devono essere presenti
+        if (!this.dataBoard.hasCategory(this.categoryName) || !this.dataBoard.hasData(this.data)) {
+            throw new TestException(testName);
+        }
+
+        // prendi due copie del dato e inserisci un like su una di esse
+        Data copy;
+        Data otherCopy;
+        try {
+            copy = this.dataBoard.get(this.password, this.data);
+            otherCopy = this.dataBoard.get(this.password, this.data);
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        copy.insertLike(this.friend.getName());
+
+        // verifica che il like non sia visibile né in bacheca
+        // né nell'altra copia, e che friend possa ancora
+        // inserire il suo like sul dato in bacheca
+        if (this.dataBoard.getLikes(this.data).isEmpty() && otherCopy.getLikeCount() == 0) {
+            try {
+                this.dataBoard.insertLike(this.friend.getName(), this.data);
+            } catch (UnauthorizedAccessException | FriendAlreadyAddedException e) {
+                throw new TestException(testName, "The like inserted into a copy changed the data.");
+            }
+
+            AbstractTest.printSuccess(testName);
+
+            this.afterAll();
+
+            return;
+        }
+
+        throw new TestException(testName, "The like inserted into a copy changed the data.");
+    }
+
     public void we_can_not_get_a_data_with_a_wrong_password()
     {
         String testName = AbstractTest.getCurrentMethodName();
@@ -672,6 +719,75 @@ public class DataTest<E extends DataBoard<Data>> extends AbstractTest<E> {
         throw new TestException(testName, "The data list of a category that doesn't exist was got.");
     }
 
+    public void we_can_get_a_read_only_view_of_a_data()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        this.beforeLike();
+
+        // la categoria e il dato devono essere presenti
+        if (!this.dataBoard.hasCategory(this.categoryName) || !this.dataBoard.hasData(this.data)) {
+            throw new TestException(testName);
+        }
+
+        // prendi la vista del dato e inserisci un like
+        ReadOnlyData view;
+        try {
+            view = this.dataBoard.getView(this.password, this.data);
+
+            this.dataBoard.insertLike(this.friend.getName(), this.data);
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        // verifica che la vista mostri il dato atteso
+        // e il like inserito dopo averla presa
+        if (view.id() == this.data.id()
+                && view.getBody().equals(this.data.getBody())
+                && view.getCategory().equals(this.categoryName)
+                && view.getLikeCount() == 1
+                && view.hasLiked(this.friend.getName())) {
+            AbstractTest.printSuccess(testName);
+
+            this.afterAll();
+
+            return;
+        }
+
+        throw new TestException(testName, "Can't get a read only view of a data.");
+    }
+
+    public void we_can_get_the_read_only_views_of_a_category()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        this.beforeGetOrRemove();
+
+        // la categoria e il dato devono essere presenti
+        if (!this.dataBoard.hasCategory(this.categoryName) || !this.dataBoard.hasData(this.data)) {
+            throw new TestException(testName);
+        }
+
+        // prendi la lista delle viste
+        List<ReadOnlyData> viewList;
+        try {
+            viewList = this.dataBoard.getDataCategoryView(this.password, this.categoryName);
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        // verifica che la lista contenga solo la vista del dato
+        if (viewList.size() == 1 && viewList.get(0).id() == this.data.id()) {
+            AbstractTest.printSuccess(testName);
+
+            this.afterAll();
+
+            return;
+        }
+
+        throw new TestException(testName, "Can't get the read only views of a category.");
+    }
+
     public void we_can_insert_a_like_with_a_valid_user()
     {
         String testName = AbstractTest.getCurrentMethodName();
@@ -765,6 +881,151 @@ public class DataTest<E extends DataBoard<Data>> extends AbstractTest<E> {
         throw new TestException(testName, "The given user inserted a like twice.");
     }
 
+    public void we_can_not_insert_a_like_twice_into_a_data_put_with_likes()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        this.beforeAll();
+
+        // un dato a cui friend ha già inserito un like prima del put
+        Data liked = new MyData(2, "Dolor sit amet");
+        liked.insertLike(this.friend.getName());
+
+        try {
+            this.dataBoard.addFriend(this.categoryName, this.password, this.friend.getName());
+            this.dataBoard.put(this.password, liked, this.categoryName);
+            this.dataBoard.insertLike(this.friend.getName(), liked);
+        } catch (FriendAlreadyAddedException e) {
+            AbstractTest.printSuccess(testName);
+
+            this.afterAll();
+
+            return;
+        } catch (DataNotFoundException | UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        throw new TestException(testName, "The given user inserted a like twice.");
+    }
+
+    public void we_can_put_a_batch_of_data_with_a_valid_password()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        this.beforeAll();
+
+        Data other = new MyData(2, "Dolor sit amet");
+
+        // inserisci due dati con una sola operazione
+        try {
+            int res = this.dataBoard.putAll(this.password,
+                    Collections.singletonMap(this.categoryName, Arrays.asList(this.data, other)));
+
+            if (res != 2) {
+                throw new TestException(testName, "PutAll method failed.");
+            }
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        // entrambi i dati devono essere presenti
+        if (!this.dataBoard.hasData(this.data) || !this.dataBoard.hasData(other)) {
+            throw new TestException(testName, "A data of the batch was not put.");
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_not_put_a_batch_with_a_data_already_put()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        this.beforeGetOrRemove();
+
+        Data other = new MyData(2, "Dolor sit amet");
+
+        // prova ad inserire un lotto che contiene un dato già presente
+        try {
+            this.dataBoard.putAll(this.password,
+                    Collections.singletonMap(this.categoryName, Arrays.asList(other, this.data)));
+        } catch (DataAlreadyPutException e) {
+            // nessun dato del lotto deve essere stato inserito
+            if (this.dataBoard.hasData(other)) {
+                throw new TestException(testName, "A batch was partially put.");
+            }
+
+            AbstractTest.printSuccess(testName);
+
+            this.afterAll();
+
+            return;
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        throw new TestException(testName, "A data was put twice through a batch.");
+    }
+
+    public void we_can_insert_a_batch_of_likes()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        this.beforeLike();
+
+        User other = new MyUser("pepper");
+
+        // inserisci i like di due friend con una sola operazione
+        try {
+            this.dataBoard.addFriends(this.categoryName, this.password, Collections.singletonList(other.getName()));
+            this.dataBoard.insertLikes(Arrays.asList(
+                    new LikeEvent<>(this.friend.getName(), this.data),
+                    new LikeEvent<>(other.getName(), this.data)));
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        // verifica che entrambi i like siano presenti
+        List<User> list = this.dataBoard.getLikes(this.data);
+
+        if (list.size() != 2 || !list.contains(this.friend) || !list.contains(other)) {
+            throw new TestException(testName, "Can't insert a batch of likes.");
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_not_insert_a_batch_of_likes_with_a_wrong_user()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        this.beforeLike();
+
+        // prova ad inserire un lotto che contiene il like
+        // di uno user che non ha i permessi
+        try {
+            this.dataBoard.insertLikes(Arrays.asList(
+                    new LikeEvent<>(this.friend.getName(), this.data),
+                    new LikeEvent<>("tony", this.data)));
+        } catch (UnauthorizedAccessException e) {
+            // nessun like del lotto deve essere stato inserito
+            if (!this.dataBoard.getLikes(this.data).isEmpty()) {
+                throw new TestException(testName, "A batch of likes was partially inserted.");
+            }
+
+            AbstractTest.printSuccess(testName);
+
+            this.afterAll();
+
+            return;
+        }
+
+        throw new TestException(testName, "The given user has not access to data but can insert a like.");
+    }
+
     public void we_can_not_insert_a_like_into_a_null_data()
     {
         String testName = AbstractTest.getCurrentMethodName();
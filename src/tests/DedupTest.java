@@ -0,0 +1,138 @@
+package tests;
+
+import exceptions.*;
+import interfaces.Data;
+import interfaces.DataBoard;
+import models.BodyArena;
+import models.BodyStore;
+import models.MyData;
+
+public class DedupTest<E extends DataBoard<Data>> extends AbstractTest<E> {
+    private final String categoryName;
+
+    private final String otherCategoryName;
+
+    private final String body;
+
+    // Assegna dataBoard e password,
+    // inizializza le categorie e body
+    public DedupTest(E dataBoard, String password) {
+        super(dataBoard, password);
+
+        this.categoryName = "test_category";
+        this.otherCategoryName = "other_test_category";
+        this.body = "Lorem ipsum";
+    }
+
+    // questo metodo è chiamato dopo ogni test
+    // ed elimina le categorie e i dati creati
+    // (resetta lo stato dell'esecuzione)
+    private void afterAll() {
+        String methodName = AbstractTest.getCurrentMethodName();
+
+        for (String category : new String[] {this.categoryName, this.otherCategoryName}) {
+            if (this.dataBoard.hasCategory(category)) {
+                try {
+                    this.dataBoard.removeCategory(category, this.password);
+                } catch (UnauthorizedAccessException e) {
+                    throw new TestException(methodName, "Can't remove category \"" + category + "\".");
+                }
+            }
+        }
+    }
+
+    // inserisce tre repost di body, due in categoryName ed uno in otherCategoryName
+    private void putReposts(BodyStore store) throws UnauthorizedAccessException {
+        this.dataBoard.createCategory(this.categoryName, this.password);
+        this.dataBoard.createCategory(this.otherCategoryName, this.password);
+        this.dataBoard.put(this.password, new MyData(1, this.body, store), this.categoryName);
+        this.dataBoard.put(this.password, new MyData(2, this.body, store), this.categoryName);
+        this.dataBoard.put(this.password, new MyData(3, this.body, store), this.otherCategoryName);
+    }
+
+    public void we_can_share_the_body_of_reposts()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+        BodyStore store = new BodyStore();
+
+        try {
+            this.putReposts(store);
+            this.dataBoard.put(this.password, new MyData(4, "Dolor sit amet", store), this.categoryName);
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        // tre repost ed un dato diverso
+        if (store.bodies() != 2 || store.references() != 4) {
+            throw new TestException(testName, "The reposts do not share their body.");
+        }
+
+        long logical = 3L * this.body.length() + "Dolor sit amet".length();
+        long stored = this.body.length() + "Dolor sit amet".length();
+
+        if (store.logicalBytes() != logical || store.storedBytes() != stored
+                || store.dedupRatio() != (double) logical / stored) {
+            throw new TestException(testName, "The dedup ratio is wrong.");
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_release_a_shared_body_when_its_data_is_removed()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+        BodyStore store = new BodyStore();
+
+        try {
+            this.putReposts(store);
+
+            // rimuovi un repost, il body resta condiviso dagli altri
+            Data removed = this.dataBoard.remove(this.password, new MyData(1, this.body));
+
+            if (store.references() != 2 || store.bodies() != 1 || !this.body.equals(removed.getBody())) {
+                throw new TestException(testName, "The removed data was not released.");
+            }
+
+            // rimuovi le categorie, il body non ha più riferimenti
+            this.afterAll();
+
+            if (store.references() != 0 || store.bodies() != 0) {
+                throw new TestException(testName, "The removed categories were not released.");
+            }
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        AbstractTest.printSuccess(testName);
+    }
+
+    public void we_can_share_bodies_stored_off_heap()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+        BodyArena arena = new BodyArena();
+        BodyStore store = new BodyStore(arena);
+
+        try {
+            this.putReposts(store);
+
+            Data item = this.dataBoard.get(this.password, new MyData(3, this.body));
+
+            if (!this.body.equals(item.getBody()) || store.bodies() != 1) {
+                throw new TestException(testName, "The shared body is different.");
+            }
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        this.afterAll();
+
+        // l'ultimo riferimento rilasciato libera il body nell'arena
+        if (arena.size() != 0) {
+            throw new TestException(testName, "The shared body was not freed.");
+        }
+
+        AbstractTest.printSuccess(testName);
+    }
+}
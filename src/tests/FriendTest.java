@@ -5,6 +5,9 @@ import interfaces.Data;
 import interfaces.DataBoard;
 import interfaces.User;
 import models.MyUser;
+import models.UserRegistry;
+
+import java.util.Arrays;
 
 public class FriendTest<E extends DataBoard<Data>> extends AbstractTest<E> {
     private final String categoryName;
@@ -242,6 +245,70 @@ public class FriendTest<E extends DataBoard<Data>> extends AbstractTest<E> {
         throw new TestException(testName, "A same friend was added twice to a category.");
     }
 
+    public void we_can_add_a_batch_of_friends_to_a_category_with_a_valid_password()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        this.beforeAll();
+
+        User other = new MyUser("rhodey");
+
+        // aggiungi due friend ai permessi di lettura con una sola operazione
+        try {
+            this.dataBoard.addFriends(this.categoryName, this.password,
+                    Arrays.asList(this.friend.getName(), other.getName()));
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        // verifica se la categoria è leggibile da entrambi
+        if (!this.dataBoard.isReadableBy(this.categoryName, this.friend) ||
+                !this.dataBoard.isReadableBy(this.categoryName, other)) {
+            throw new TestException(testName, "The category \"" + this.categoryName + "\" is not readable after addFriends.");
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_not_add_a_batch_of_friends_with_a_friend_already_added()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        this.beforeRemove();
+
+        // un nome che nessuna bacheca ha mai registrato
+        User other = new MyUser("rhodey_of_a_rejected_batch");
+
+        // prova ad aggiungere un lotto che contiene
+        // un friend già presente nella categoria
+        try {
+            this.dataBoard.addFriends(this.categoryName, this.password,
+                    Arrays.asList(other.getName(), this.friend.getName()));
+        } catch (FriendAlreadyAddedException e) {
+            // nessun friend del lotto deve essere stato aggiunto
+            if (this.dataBoard.isReadableBy(this.categoryName, other)) {
+                throw new TestException(testName, "A batch of friends was partially added.");
+            }
+
+            // né registrato, perché il lotto è stato rifiutato
+            if (UserRegistry.getInstance().idOf(other.getName()) >= 0) {
+                throw new TestException(testName, "A friend of a rejected batch was registered.");
+            }
+
+            AbstractTest.printSuccess(testName);
+
+            this.afterAll();
+
+            return;
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        throw new TestException(testName, "A same friend was added twice to a category.");
+    }
+
     public void we_can_remove_a_friend_from_a_category_with_a_valid_password()
     {
         String testName = AbstractTest.getCurrentMethodName();
@@ -8,6 +8,7 @@ import models.MyData;
 import models.MyUser;
 
 import java.util.Iterator;
+import java.util.List;
 
 public class IteratorTest<E extends DataBoard<Data>> extends AbstractTest<E> {
     private final User friend;
@@ -493,4 +494,115 @@ public class IteratorTest<E extends DataBoard<Data>> extends AbstractTest<E> {
 
         throw new TestException(testName, "We cant get an empty friend.");
     }
+
+    public void we_can_get_the_top_liked_data()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        this.before();
+
+        // crea altri 2 dati nella categoria di default
+        MyData data2 = new MyData(2, "dolor sit amet");
+        MyData data3 = new MyData(3, "consectetur adipisci elit");
+
+        try {
+            this.dataBoard.put(this.password, data2, "test");
+            this.dataBoard.put(this.password, data3, "test");
+            this.dataBoard.addFriend("test", this.password, "luca");
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        // inserisci i like ai dati in modo da avere
+        // in ordine decrescente: data3, data2, data1
+        try {
+            this.dataBoard.insertLike(this.friend.getName(), data3);
+            this.dataBoard.insertLike("luca", data3);
+            this.dataBoard.insertLike(this.friend.getName(), data2);
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        // prendi i 2 dati con più like
+        List<Data> topList;
+        try {
+            topList = this.dataBoard.getTopLiked(this.password, 2);
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        // verifica che siano i dati attesi nell'ordine atteso
+        if (topList.size() == 2
+                && topList.get(0).equals(data3)
+                && topList.get(1).equals(data2)) {
+            AbstractTest.printSuccess(testName);
+
+            this.after();
+
+            return;
+        }
+
+        throw new TestException(testName, "We can't get the top liked data.");
+    }
+
+    public void we_can_not_get_the_top_liked_data_with_a_wrong_password()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        // prova a prendere i dati con più like con psw errata
+        try {
+            this.dataBoard.getTopLiked("0000", 10);
+        } catch (UnauthorizedAccessException e) {
+            AbstractTest.printSuccess(testName);
+
+            return;
+        }
+
+        throw new TestException(testName, "The password it's invalid but we get the top liked data.");
+    }
+
+    public void we_can_get_the_friend_top_liked_data()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        this.before();
+
+        // crea una categoria non leggibile da friend
+        // con un dato con più like di quello di default
+        MyData data2 = new MyData(2, "dolor sit amet");
+
+        try {
+            this.dataBoard.createCategory("hidden", this.password);
+            this.dataBoard.addFriend("hidden", this.password, "luca");
+            this.dataBoard.put(this.password, data2, "hidden");
+            this.dataBoard.insertLike("luca", data2);
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        // prendi i dati con più like condivisi con friend
+        List<Data> topList;
+        try {
+            topList = this.dataBoard.getFriendTopLiked(this.friend.getName(), 10);
+        } catch (UserNotFoundException e) {
+            throw new TestException(testName);
+        }
+
+        // verifica che contenga solo il dato della categoria di default
+        if (topList.size() == 1 && topList.get(0).equals(new MyData(1, "Lorem ipsum"))) {
+            AbstractTest.printSuccess(testName);
+
+            try {
+                this.dataBoard.removeCategory("hidden", this.password);
+            } catch (UnauthorizedAccessException e) {
+                throw new TestException(testName);
+            }
+
+            this.after();
+
+            return;
+        }
+
+        throw new TestException(testName, "We can't get the friend top liked data.");
+    }
 }
@@ -0,0 +1,255 @@
+package tests;
+
+import exceptions.*;
+import interfaces.Data;
+import interfaces.DataBoard;
+import models.Cursor;
+import models.MyData;
+import models.Page;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class PageTest<E extends DataBoard<Data>> extends AbstractTest<E> {
+    private final String categoryName;
+
+    private final String otherCategoryName;
+
+    private final String hiddenCategoryName;
+
+    private final String friend;
+
+    // Assegna dataBoard e password,
+    // inizializza le categorie e friend
+    public PageTest(E dataBoard, String password) {
+        super(dataBoard, password);
+
+        this.categoryName = "page_b";
+        this.otherCategoryName = "page_a";
+        this.hiddenCategoryName = "page_c";
+        this.friend = "pepper";
+    }
+
+    // questo metodo è chiamato prima di ogni test, crea le
+    // categorie, condivide con friend le prime due ed inserisce
+    // in categoryName i dati con id da 101 a 107
+    private void before() {
+        String methodName = AbstractTest.getCurrentMethodName();
+
+        try {
+            for (String category : new String[] {this.categoryName, this.otherCategoryName, this.hiddenCategoryName}) {
+                this.dataBoard.createCategory(category, this.password);
+            }
+
+            this.dataBoard.addFriend(this.categoryName, this.password, this.friend);
+            this.dataBoard.addFriend(this.otherCategoryName, this.password, this.friend);
+
+            for (int id = 101; id <= 107; id++) {
+                this.dataBoard.put(this.password, new MyData(id, "Lorem ipsum " + id), this.categoryName);
+            }
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(methodName);
+        }
+    }
+
+    // questo metodo è chiamato dopo ogni test
+    // ed elimina le categorie e i dati creati
+    // (resetta lo stato dell'esecuzione)
+    private void afterAll() {
+        String methodName = AbstractTest.getCurrentMethodName();
+
+        for (String category : new String[] {this.categoryName, this.otherCategoryName, this.hiddenCategoryName}) {
+            if (this.dataBoard.hasCategory(category)) {
+                try {
+                    this.dataBoard.removeCategory(category, this.password);
+                } catch (UnauthorizedAccessException e) {
+                    throw new TestException(methodName, "Can't remove category \"" + category + "\".");
+                }
+            }
+        }
+    }
+
+    // restituisce gli id dei dati di page
+    private static List<Integer> ids(Page<Data> page) {
+        ArrayList<Integer> ids = new ArrayList<>();
+
+        for (Data item : page.getItems()) {
+            ids.add(item.id());
+        }
+
+        return ids;
+    }
+
+    public void we_can_get_the_data_of_a_category_page_by_page()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        this.before();
+
+        try {
+            ArrayList<Data> pagedList = new ArrayList<>();
+            Cursor<Data> cursor = Cursor.start();
+            int pages = 0;
+            Page<Data> page;
+
+            // scorri la categoria tre dati alla volta
+            do {
+                page = this.dataBoard.getDataCategoryPage(this.password, this.categoryName, cursor, 3);
+                pagedList.addAll(page.getItems());
+                cursor = page.getNext();
+                pages++;
+            } while (page.hasNext());
+
+            // le pagine contengono gli stessi dati di getDataCategory, ordinati per id
+            List<Data> dataList = this.dataBoard.getDataCategory(this.password, this.categoryName);
+            Collections.sort(dataList);
+
+            if (pages != 3 || !pagedList.equals(dataList)) {
+                throw new TestException(testName, "The pages are different from the data of the category.");
+            }
+
+            // la pagina dopo l'ultima è vuota
+            page = this.dataBoard.getDataCategoryPage(this.password, this.categoryName, cursor, 3);
+
+            if (!page.getItems().isEmpty() || page.hasNext()) {
+                throw new TestException(testName, "The page after the last one is not empty.");
+            }
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_keep_a_cursor_while_data_is_put_and_removed()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        this.before();
+
+        try {
+            Page<Data> page = this.dataBoard.getDataCategoryPage(this.password, this.categoryName, Cursor.start(), 3);
+
+            if (!ids(page).equals(List.of(107, 106, 105))) {
+                throw new TestException(testName, "The first page is wrong.");
+            }
+
+            // rimuovi l'ultimo dato della pagina ed il primo della
+            // successiva, inserisci un dato prima ed uno dopo il cursore
+            this.dataBoard.remove(this.password, new MyData(105, "Lorem ipsum 105"));
+            this.dataBoard.remove(this.password, new MyData(104, "Lorem ipsum 104"));
+            this.dataBoard.put(this.password, new MyData(108, "Lorem ipsum 108"), this.categoryName);
+            this.dataBoard.put(this.password, new MyData(100, "Lorem ipsum 100"), this.categoryName);
+
+            // il cursore non salta né ripete i dati rimasti
+            page = this.dataBoard.getDataCategoryPage(this.password, this.categoryName, page.getNext(), 3);
+
+            if (!ids(page).equals(List.of(103, 102, 101)) || !page.hasNext()) {
+                throw new TestException(testName, "The cursor skipped or repeated some data.");
+            }
+
+            page = this.dataBoard.getDataCategoryPage(this.password, this.categoryName, page.getNext(), 3);
+
+            if (!ids(page).equals(List.of(100)) || page.hasNext()) {
+                throw new TestException(testName, "The data put after the cursor is missing.");
+            }
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_get_the_shared_data_page_by_page()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        this.before();
+
+        try {
+            this.dataBoard.put(this.password, new MyData(201, "Dolor sit amet"), this.otherCategoryName);
+            this.dataBoard.put(this.password, new MyData(202, "Dolor sit amet"), this.otherCategoryName);
+            this.dataBoard.put(this.password, new MyData(301, "Consectetur"), this.hiddenCategoryName);
+
+            ArrayList<Integer> pagedIds = new ArrayList<>();
+            Cursor<Data> cursor = Cursor.start();
+            Page<Data> page;
+
+            // scorri i dati condivisi con friend due alla volta
+            do {
+                page = this.dataBoard.getFriendPage(this.friend, cursor, 2);
+                pagedIds.addAll(ids(page));
+                cursor = page.getNext();
+            } while (page.hasNext());
+
+            // prima la categoria con il nome minore, senza quella non condivisa
+            if (!pagedIds.equals(List.of(202, 201, 107, 106, 105, 104, 103, 102, 101))) {
+                throw new TestException(testName, "The shared pages are wrong.");
+            }
+        } catch (UnauthorizedAccessException | UserNotFoundException e) {
+            throw new TestException(testName);
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_not_get_a_page_with_a_wrong_limit_or_cursor()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        this.before();
+
+        try {
+            try {
+                this.dataBoard.getDataCategoryPage(this.password, this.categoryName, Cursor.start(), 0);
+
+                throw new TestException(testName, "A page with no data was got.");
+            } catch (IllegalArgumentException e) {
+                // ok
+            }
+
+            // un cursore dopo un dato senza categoria non è valido
+            try {
+                Cursor.after(new MyData(101, "Lorem ipsum 101"));
+
+                throw new TestException(testName, "A cursor after a data with no category was created.");
+            } catch (NullPointerException e) {
+                // ok
+            }
+
+            // un cursore di un'altra categoria non è valido
+            this.dataBoard.put(this.password, new MyData(201, "Dolor sit amet"), this.otherCategoryName);
+
+            Page<Data> page = this.dataBoard.getFriendPage(this.friend, Cursor.start(), 1);
+
+            try {
+                this.dataBoard.getDataCategoryPage(this.password, this.categoryName, page.getNext(), 1);
+
+                throw new TestException(testName, "A cursor of another category was used.");
+            } catch (IllegalArgumentException e) {
+                // ok
+            }
+
+            try {
+                this.dataBoard.getDataCategoryPage("0000", this.categoryName, Cursor.start(), 1);
+
+                throw new TestException(testName, "The given password it's not valid but the page was got.");
+            } catch (UnauthorizedAccessException e) {
+                // ok
+            }
+        } catch (UnauthorizedAccessException | UserNotFoundException e) {
+            throw new TestException(testName);
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+}
@@ -0,0 +1,376 @@
+package tests;
+
+import exceptions.*;
+import interfaces.Data;
+import interfaces.DataBoard;
+import interfaces.User;
+import models.MyData;
+import models.MyUser;
+import models.UserRegistry;
+import storage.Checkpointable;
+import storage.Checkpointer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+public class RecoveryTest<E extends DataBoard<Data>> extends AbstractTest<E> {
+    // riapre la bacheca dai file in cui è salvata
+    private final Callable<E> opener;
+
+    // il log della bacheca
+    private final Path log;
+
+    private final String categoryName;
+
+    private final String friendName;
+
+    private final Data data;
+
+    private final Data otherData;
+
+    // Assegna la bacheca aperta con opener e password,
+    // inizializza categoryName, friendName e i dati
+    public RecoveryTest(Callable<E> opener, Path log, String password) throws Exception {
+        super(opener.call(), password);
+
+        this.opener = opener;
+        this.log = log;
+        this.categoryName = "test_category";
+        this.friendName = "friend";
+        this.data = new MyData(1, "Lorem ipsum");
+        this.otherData = new MyData(2, "Dolor sit amet");
+    }
+
+    // questo metodo è chiamato dopo ogni test
+    // ed elimina la categoria e i dati creati
+    // (resetta lo stato dell'esecuzione)
+    private void afterAll() {
+        String methodName = AbstractTest.getCurrentMethodName();
+
+        if (this.dataBoard.hasCategory(this.categoryName)) {
+            try {
+                this.dataBoard.removeCategory(this.categoryName, this.password);
+            } catch (UnauthorizedAccessException e) {
+                throw new TestException(methodName, "Can't remove category \"" + this.categoryName + "\".");
+            }
+        }
+    }
+
+    // chiude la bacheca e la riapre dai suoi file
+    private void reopen(String testName) {
+        try {
+            this.close();
+            this.dataBoard = this.opener.call();
+        } catch (Exception e) {
+            throw new TestException(testName, "Can't reopen the board: " + e.getMessage());
+        }
+    }
+
+    // chiude la bacheca al termine dei test
+    public void close() throws Exception {
+        if (this.dataBoard instanceof AutoCloseable) {
+            ((AutoCloseable) this.dataBoard).close();
+        }
+    }
+
+    // controlla se friend ha inserito un like a data
+    private boolean hasLike(Data data, String friend) {
+        for (User user : this.dataBoard.getLikes(data)) {
+            if (user.getName().equals(friend)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public void we_can_recover_a_board_from_its_log()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        // modifica la bacheca
+        try {
+            this.dataBoard.createCategory(this.categoryName, this.password);
+            this.dataBoard.addFriend(this.categoryName, this.password, this.friendName);
+            this.dataBoard.put(this.password, this.data, this.categoryName);
+            this.dataBoard.put(this.password, this.otherData, this.categoryName);
+            this.dataBoard.insertLike(this.friendName, this.data);
+            this.dataBoard.remove(this.password, this.otherData);
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        this.reopen(testName);
+
+        // le modifiche sono state rilette dal log
+        if (!this.dataBoard.hasCategory(this.categoryName)) {
+            throw new TestException(testName, "The category was lost.");
+        }
+
+        if (!this.dataBoard.hasData(this.data) || this.dataBoard.hasData(this.otherData)) {
+            throw new TestException(testName, "The data was not recovered.");
+        }
+
+        if (!this.hasLike(this.data, this.friendName)) {
+            throw new TestException(testName, "The like was lost.");
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_recover_a_board_from_a_snapshot_and_its_log()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        if (!(this.dataBoard instanceof Checkpointable)) {
+            throw new TestException(testName);
+        }
+
+        // modifica la bacheca prima e dopo la snapshot
+        try {
+            this.dataBoard.createCategory(this.categoryName, this.password);
+            this.dataBoard.addFriend(this.categoryName, this.password, this.friendName);
+            this.dataBoard.put(this.password, this.data, this.categoryName);
+            this.dataBoard.insertLike(this.friendName, this.data);
+
+            ((Checkpointable) this.dataBoard).checkpoint();
+
+            this.dataBoard.put(this.password, this.otherData, this.categoryName);
+            this.dataBoard.insertLike(this.friendName, this.otherData);
+        } catch (UnauthorizedAccessException | IOException e) {
+            throw new TestException(testName);
+        }
+
+        this.reopen(testName);
+
+        // i dati vengono dalla snapshot e dal log
+        if (!this.dataBoard.hasData(this.data) || !this.dataBoard.hasData(this.otherData)) {
+            throw new TestException(testName, "The data was not recovered.");
+        }
+
+        if (!this.hasLike(this.data, this.friendName) || !this.hasLike(this.otherData, this.friendName)) {
+            throw new TestException(testName, "The likes were lost.");
+        }
+
+        if (!this.dataBoard.isReadableBy(this.categoryName, new MyUser(this.friendName))) {
+            throw new TestException(testName, "The friend was lost.");
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_recover_a_board_with_a_torn_log()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        try {
+            this.dataBoard.createCategory(this.categoryName, this.password);
+            this.dataBoard.put(this.password, this.data, this.categoryName);
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        // chiudi la bacheca e simula un record scritto solo in parte
+        try {
+            this.close();
+
+            try (FileChannel channel = FileChannel.open(this.log, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 64, 1, 2, 3}));
+            }
+        } catch (Exception e) {
+            throw new TestException(testName, "Can't write the log: " + e.getMessage());
+        }
+
+        this.reopen(testName);
+
+        // la coda non valida è stata scartata e la bacheca
+        // continua a scrivere dopo l'ultimo record valido
+        try {
+            if (!this.dataBoard.hasData(this.data)) {
+                throw new TestException(testName, "The data was not recovered.");
+            }
+
+            this.dataBoard.put(this.password, this.otherData, this.categoryName);
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        this.reopen(testName);
+
+        if (!this.dataBoard.hasData(this.otherData)) {
+            throw new TestException(testName, "The data put after the torn record was lost.");
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_checkpoint_a_board_while_it_is_modified()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        if (!(this.dataBoard instanceof Checkpointable)) {
+            throw new TestException(testName);
+        }
+
+        int size = 500;
+
+        // modifica la bacheca mentre i checkpoint
+        // vengono eseguiti in background
+        Checkpointer checkpointer = new Checkpointer((Checkpointable) this.dataBoard, 1, TimeUnit.MILLISECONDS);
+
+        try {
+            this.dataBoard.createCategory(this.categoryName, this.password);
+            this.dataBoard.addFriend(this.categoryName, this.password, this.friendName);
+
+            for (int i = 0; i < size; i++) {
+                Data item = new MyData(100 + i, "Lorem ipsum " + i);
+
+                this.dataBoard.put(this.password, item, this.categoryName);
+                this.dataBoard.insertLike(this.friendName, item);
+            }
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        } finally {
+            checkpointer.close();
+        }
+
+        if (checkpointer.checkpoints() == 0 || checkpointer.failure() != null) {
+            throw new TestException(testName, "The checkpoints were not completed.");
+        }
+
+        this.reopen(testName);
+
+        // ogni dato è nella snapshot o nel log, con il suo like
+        for (int i = 0; i < size; i++) {
+            Data item = new MyData(100 + i, "Lorem ipsum " + i);
+
+            if (!this.dataBoard.hasData(item) || !this.hasLike(item, this.friendName)) {
+                throw new TestException(testName, "The data put during a checkpoint was lost.");
+            }
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_write_a_snapshot_with_only_the_users_of_the_board()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        if (!(this.dataBoard instanceof Checkpointable)) {
+            throw new TestException(testName);
+        }
+
+        // uno user registrato nel processo ma non usato da questa bacheca
+        String stranger = "stranger_of_another_board";
+        UserRegistry.getInstance().intern(stranger);
+
+        try {
+            this.dataBoard.createCategory(this.categoryName, this.password);
+            this.dataBoard.addFriend(this.categoryName, this.password, this.friendName);
+            this.dataBoard.put(this.password, this.data, this.categoryName);
+            this.dataBoard.insertLike(this.friendName, this.data);
+
+            ((Checkpointable) this.dataBoard).checkpoint();
+        } catch (UnauthorizedAccessException | IOException e) {
+            throw new TestException(testName);
+        }
+
+        // la tabella degli user contiene solo quelli della bacheca
+        try {
+            String snapshot = new String(Files.readAllBytes(this.log.resolveSibling("board.snapshot")),
+                    StandardCharsets.ISO_8859_1);
+
+            if (snapshot.contains(stranger) || !snapshot.contains(this.friendName)) {
+                throw new TestException(testName, "The snapshot has the wrong users.");
+            }
+        } catch (IOException e) {
+            throw new TestException(testName, "Can't read the snapshot: " + e.getMessage());
+        }
+
+        this.reopen(testName);
+
+        if (!this.hasLike(this.data, this.friendName)
+                || !this.dataBoard.isReadableBy(this.categoryName, new MyUser(this.friendName))) {
+            throw new TestException(testName, "The users of the snapshot were not recovered.");
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_not_modify_a_board_after_a_log_failure()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        try {
+            this.dataBoard.createCategory(this.categoryName, this.password);
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        // chiudi la bacheca, così la prossima scrittura del log fallisce
+        try {
+            this.close();
+        } catch (Exception e) {
+            throw new TestException(testName, "Can't close the board: " + e.getMessage());
+        }
+
+        try {
+            try {
+                this.dataBoard.put(this.password, this.data, this.categoryName);
+
+                throw new TestException(testName, "The data was put but the log was closed.");
+            } catch (UncheckedIOException e) {
+                // ok
+            }
+
+            // dopo l'errore le modifiche non vengono più applicate
+            try {
+                this.dataBoard.put(this.password, this.otherData, this.categoryName);
+
+                throw new TestException(testName, "The data was put after a log failure.");
+            } catch (UncheckedIOException e) {
+                // ok
+            }
+
+            if (this.dataBoard.hasData(this.otherData)) {
+                throw new TestException(testName, "The data refused after a log failure is visible.");
+            }
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        // il log è già chiuso, riapri la bacheca senza chiuderlo
+        try {
+            this.dataBoard = this.opener.call();
+        } catch (Exception e) {
+            throw new TestException(testName, "Can't reopen the board: " + e.getMessage());
+        }
+
+        if (!this.dataBoard.hasCategory(this.categoryName) || this.dataBoard.hasData(this.data)) {
+            throw new TestException(testName, "The board was not recovered from its log.");
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+}
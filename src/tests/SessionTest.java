@@ -0,0 +1,153 @@
+package tests;
+
+import exceptions.*;
+import interfaces.Data;
+import interfaces.DataBoard;
+import interfaces.OwnerSession;
+import models.MyData;
+
+public class SessionTest<E extends DataBoard<Data>> extends AbstractTest<E> {
+    private final String categoryName;
+
+    private final Data data;
+
+    // Assegna dataBoard e password,
+    // inizializza categoryName e data
+    public SessionTest(E dataBoard, String password) {
+        super(dataBoard, password);
+
+        this.categoryName = "test_category";
+        this.data = new MyData(1, "Lorem ipsum");
+    }
+
+    // questo metodo è chiamato dopo ogni test
+    // ed elimina la categoria e i dati creati
+    // (resetta lo stato dell'esecuzione)
+    private void afterAll() {
+        String methodName = AbstractTest.getCurrentMethodName();
+
+        if (this.dataBoard.hasCategory(this.categoryName)) {
+            try {
+                this.dataBoard.removeCategory(this.categoryName, this.password);
+            } catch (UnauthorizedAccessException e) {
+                throw new TestException(methodName, "Can't remove category \"" + this.categoryName + "\".");
+            }
+        }
+    }
+
+    public void we_can_open_a_session_with_a_valid_password()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        // apri una sessione
+        try {
+            OwnerSession session = this.dataBoard.openSession(this.password);
+
+            if (!session.isValid()) {
+                throw new TestException(testName, "The session is not valid after open.");
+            }
+
+            this.dataBoard.closeSession(session);
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        AbstractTest.printSuccess(testName);
+    }
+
+    public void we_can_not_open_a_session_with_a_wrong_password()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        // prova ad aprire una sessione con una psw errata
+        try {
+            this.dataBoard.openSession("0000");
+        } catch (UnauthorizedAccessException e) {
+            AbstractTest.printSuccess(testName);
+
+            return;
+        }
+
+        throw new TestException(testName, "The given password it's not valid but a session was opened.");
+    }
+
+    public void we_can_use_a_session_instead_of_the_password()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        // crea una categoria, inserisci un dato e
+        // leggilo usando solo la sessione
+        try (OwnerSession session = this.dataBoard.openSession(this.password)) {
+            this.dataBoard.createCategory(this.categoryName, session);
+            this.dataBoard.put(session, this.data, this.categoryName);
+
+            if (!this.dataBoard.get(session, this.data).equals(this.data)) {
+                throw new TestException(testName, "Can't get a data with a session.");
+            }
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        AbstractTest.printSuccess(testName);
+
+        this.afterAll();
+    }
+
+    public void we_can_not_use_a_closed_session()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        // apri e chiudi una sessione
+        OwnerSession session;
+
+        try {
+            session = this.dataBoard.openSession(this.password);
+            this.dataBoard.closeSession(session);
+        } catch (UnauthorizedAccessException e) {
+            throw new TestException(testName);
+        }
+
+        // prova a creare una categoria con la sessione chiusa
+        try {
+            this.dataBoard.createCategory(this.categoryName, session);
+        } catch (UnauthorizedAccessException e) {
+            AbstractTest.printSuccess(testName);
+
+            this.afterAll();
+
+            return;
+        }
+
+        throw new TestException(testName, "The session was closed but a category was created.");
+    }
+
+    public void we_can_not_use_a_forged_session()
+    {
+        String testName = AbstractTest.getCurrentMethodName();
+
+        // una sessione che non è stata aperta dalla bacheca
+        OwnerSession session = new OwnerSession() {
+            @Override
+            public boolean isValid() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        // prova a creare una categoria con la sessione falsificata
+        try {
+            this.dataBoard.createCategory(this.categoryName, session);
+        } catch (UnauthorizedAccessException e) {
+            AbstractTest.printSuccess(testName);
+
+            this.afterAll();
+
+            return;
+        }
+
+        throw new TestException(testName, "The session was forged but a category was created.");
+    }
+}